@@ -20,6 +20,7 @@ package org.semanticweb.rulewerk.client.picocli;
  * #L%
  */
 
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
@@ -79,9 +80,8 @@ public class RulewerkClientMaterialize implements Runnable {
 	@ArgGroup(exclusive = false)
 	private final SaveQueryResults saveQueryResults = new SaveQueryResults();
 
-	// TODO
-	// @ArgGroup(exclusive = false)
-	// private SaveModel saveModel = new SaveModel();
+	@ArgGroup(exclusive = false)
+	private final SaveModel saveModel = new SaveModel();
 
 	@Override
 	public void run() {
@@ -102,7 +102,9 @@ public class RulewerkClientMaterialize implements Runnable {
 		try (Reasoner reasoner = new VLogReasoner(this.kb)) {
 
 			this.materialize(reasoner);
-			// TODO if (saveModel.saveModel) { this.saveModel(); }
+			if (this.saveModel.isSaveModel()) {
+				this.saveModel(reasoner);
+			}
 
 			this.answerQueries(reasoner);
 		}
@@ -119,13 +121,12 @@ public class RulewerkClientMaterialize implements Runnable {
 		if (this.saveQueryResults.isSaveResults() && !this.saveQueryResults.isDirectoryValid()) {
 			this.printErrorMessageAndExit(SaveQueryResults.wrongDirectoryErrorMessage);
 		}
-		// TODO
-		// if (!saveModel.isConfigurationValid()) {
-		// printMessageAndExit(SaveModel.configurationErrorMessage);
-		// }
-		// if (saveModel.isSaveResults() && !saveModel.isDirectoryValid()) {
-		// printMessageAndExit(SaveModel.wrongDirectoryErrorMessage);
-		// }
+		if (!this.saveModel.isConfigurationValid()) {
+			this.printErrorMessageAndExit(SaveModel.configurationErrorMessage);
+		}
+		if (this.saveModel.isSaveModel() && !this.saveModel.isDirectoryValid()) {
+			this.printErrorMessageAndExit(SaveModel.wrongDirectoryErrorMessage);
+		}
 	}
 
 	private void configureRules() {
@@ -175,7 +176,16 @@ public class RulewerkClientMaterialize implements Runnable {
 
 	}
 
-	// TODO private void saveModel() {...}
+	private void saveModel(final Reasoner reasoner) {
+		System.out.println("Saving the model ...");
+		this.saveModel.mkdir();
+		try {
+			reasoner.exportDBToDir(new File(this.saveModel.getOutputModelDirectory()));
+		} catch (final IOException e) {
+			System.err.println("Can't save model to \"" + this.saveModel.getOutputModelDirectory() + "\".");
+			System.err.println(e.getMessage());
+		}
+	}
 
 	private void answerQueries(final Reasoner reasoner) {
 		if (!this.queries.isEmpty()) {
@@ -216,7 +226,7 @@ public class RulewerkClientMaterialize implements Runnable {
 		/* Print what to do with the result */
 		this.printQueryResults.printConfiguration();
 		this.saveQueryResults.printConfiguration();
-		// TODO saveModel.printConfiguration();
+		this.saveModel.printConfiguration();
 	}
 
 	private void doSaveQueryResults(final Reasoner reasoner, final PositiveLiteral query) {
@@ -22,22 +22,14 @@ import java.io.File;
  * #L%
  */
 
+import java.io.BufferedInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Iterator;
-import java.util.List;
 
-import org.openrdf.model.Model;
-import org.openrdf.model.impl.LinkedHashModel;
 import org.openrdf.rio.RDFFormat;
 import org.openrdf.rio.RDFHandlerException;
 import org.openrdf.rio.RDFParseException;
-import org.openrdf.rio.RDFParser;
-import org.openrdf.rio.Rio;
-import org.openrdf.rio.helpers.StatementCollector;
 import org.semanticweb.owlapi.apibinding.OWLManager;
 import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLOntologyCreationException;
@@ -49,6 +41,7 @@ import org.semanticweb.rulewerk.parser.DefaultParserConfiguration;
 import org.semanticweb.rulewerk.parser.ParserConfiguration;
 import org.semanticweb.rulewerk.parser.ParsingException;
 import org.semanticweb.rulewerk.parser.RuleParser;
+import org.semanticweb.rulewerk.rdf.RdfFormatDetector;
 import org.semanticweb.rulewerk.rdf.RdfModelConverter;
 
 /**
@@ -96,9 +89,9 @@ public class LoadCommandInterpreter implements CommandInterpreter {
 
 		Interpreter.validateArgumentCount(command, pos);
 
-		final int countRulesBefore = interpreter.getKnowledgeBase().getRules().size();
-		final int countFactsBefore = interpreter.getKnowledgeBase().getFacts().size();
-		final int countDataSourceDeclarationsBefore = interpreter.getKnowledgeBase().getDataSourceDeclarations().size();
+		final int countRulesBefore = interpreter.getKnowledgeBase().getRuleCount();
+		final int countFactsBefore = interpreter.getKnowledgeBase().getFactCount();
+		final int countDataSourceDeclarationsBefore = interpreter.getKnowledgeBase().getDataSourceDeclarationCount();
 
 		if (TASK_RLS.equals(task)) {
 			this.loadKb(interpreter, fileName);
@@ -111,9 +104,9 @@ public class LoadCommandInterpreter implements CommandInterpreter {
 					"Unknown task " + task + ". Should be one of " + TASK_RLS + ", " + TASK_OWL + ", " + TASK_RDF);
 		}
 
-		interpreter.printNormal("Loaded " + (interpreter.getKnowledgeBase().getFacts().size() - countFactsBefore)
-				+ " new fact(s), " + (interpreter.getKnowledgeBase().getRules().size() - countRulesBefore)
-				+ " new rule(s), and " + (interpreter.getKnowledgeBase().getDataSourceDeclarations().size()
+		interpreter.printNormal("Loaded " + (interpreter.getKnowledgeBase().getFactCount() - countFactsBefore)
+				+ " new fact(s), " + (interpreter.getKnowledgeBase().getRuleCount() - countRulesBefore)
+				+ " new rule(s), and " + (interpreter.getKnowledgeBase().getDataSourceDeclarationCount()
 						- countDataSourceDeclarationsBefore)
 				+ " new datasource declaration(s).\n");
 
@@ -164,47 +157,23 @@ public class LoadCommandInterpreter implements CommandInterpreter {
 
 	private void loadRdf(final Interpreter interpreter, final String fileName, final String triplePredicateName)
 			throws CommandExecutionException {
-		try {
-			final String baseIri = new File(fileName).toURI().toString();
-
-			final Iterator<RDFFormat> formatsToTry = Arrays
-					.asList(RDFFormat.NTRIPLES, RDFFormat.TURTLE, RDFFormat.RDFXML).iterator();
-			Model model = null;
-			final List<String> parseErrors = new ArrayList<>();
-			while (model == null && formatsToTry.hasNext()) {
-				final RDFFormat rdfFormat = formatsToTry.next();
-				try {
-					final InputStream inputStream = interpreter.getFileInputStream(fileName);
-					model = this.parseRdfFromStream(inputStream, rdfFormat, baseIri);
-					interpreter.printNormal("Found RDF document in format " + rdfFormat.getName() + " ...\n");
-				} catch (RDFParseException | RDFHandlerException e) {
-					parseErrors.add("Failed to parse as " + rdfFormat.getName() + ": " + e.getMessage());
-				}
-			}
-			if (model == null) {
-				String message = "Failed to parse RDF input:";
-				for (final String error : parseErrors) {
-					message += "\n " + error;
-				}
-				throw new CommandExecutionException(message);
-			}
+		final String baseIri = new File(fileName).toURI().toString();
+		try (final InputStream inputStream = new BufferedInputStream(interpreter.getFileInputStream(fileName))) {
+			final RDFFormat rdfFormat = RdfFormatDetector.detectFormat(fileName, inputStream);
+			interpreter.printNormal("Found RDF document in format " + rdfFormat.getName() + " ...\n");
 
 			final RdfModelConverter rdfModelConverter = new RdfModelConverter(true, triplePredicateName);
-			rdfModelConverter.addAll(interpreter.getKnowledgeBase(), model);
+			try {
+				rdfModelConverter.addAll(interpreter.getKnowledgeBase(), inputStream, rdfFormat, baseIri);
+			} catch (RDFParseException | RDFHandlerException e) {
+				throw new CommandExecutionException(
+						"Failed to parse RDF input as " + rdfFormat.getName() + ": " + e.getMessage(), e);
+			}
 		} catch (final IOException e) {
 			throw new CommandExecutionException("Could not read input: " + e.getMessage(), e);
 		}
 	}
 
-	private Model parseRdfFromStream(final InputStream inputStream, final RDFFormat rdfFormat, final String baseIri)
-			throws RDFParseException, RDFHandlerException, IOException {
-		final Model model = new LinkedHashModel();
-		final RDFParser rdfParser = Rio.createParser(rdfFormat);
-		rdfParser.setRDFHandler(new StatementCollector(model));
-		rdfParser.parse(inputStream, baseIri);
-		return model;
-	}
-
 	@Override
 	public void printHelp(final String commandName, final Interpreter interpreter) {
 		interpreter.printNormal("Usage: @" + commandName + " [TASK] \"file\" [RDF predicate] .\n" //
@@ -20,6 +20,8 @@ package org.semanticweb.rulewerk.commands;
  * #L%
  */
 
+import java.util.ArrayList;
+
 import org.semanticweb.rulewerk.core.model.api.Argument;
 import org.semanticweb.rulewerk.core.model.api.Command;
 import org.semanticweb.rulewerk.core.model.api.Fact;
@@ -48,10 +50,8 @@ public class RetractCommandInterpreter implements CommandInterpreter {
 			} else { // implies argument.fromTerm().isPresent() 
 				String predicateDeclaration = Interpreter.extractStringArgument(command, 0, "predicateName[arity]");
 				Predicate predicate = AddSourceCommandInterpreter.extractPredicate(predicateDeclaration);
-				for (Fact fact : interpreter.getKnowledgeBase().getFacts()) {
-					if (predicate.equals(fact.getPredicate())) {
-						factCount += interpreter.getKnowledgeBase().removeStatement(fact);
-					}
+				for (Fact fact : new ArrayList<>(interpreter.getKnowledgeBase().getFacts(predicate))) {
+					factCount += interpreter.getKnowledgeBase().removeStatement(fact);
 				}
 			}
 		}
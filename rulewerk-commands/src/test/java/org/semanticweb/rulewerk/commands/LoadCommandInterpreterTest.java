@@ -32,6 +32,7 @@ import java.util.Arrays;
 
 import org.junit.Test;
 import org.mockito.Mockito;
+import org.openrdf.rio.RDFFormat;
 import org.semanticweb.rulewerk.core.exceptions.PrefixDeclarationException;
 import org.semanticweb.rulewerk.core.model.api.Command;
 import org.semanticweb.rulewerk.core.model.api.Fact;
@@ -268,6 +269,25 @@ public class LoadCommandInterpreterTest {
 		assertTrue(interpreter.getKnowledgeBase().getDataSourceDeclarations().isEmpty());
 	}
 
+	@Test
+	public void correctUseWithRdfTask_unknownExtension_succeeds()
+			throws ParsingException, CommandExecutionException, IOException, PrefixDeclarationException {
+		StringWriter writer = new StringWriter();
+		Interpreter interpreter = InterpreterTest.getMockInterpreter(writer);
+
+		Predicate predicate = Expressions.makePredicate("TRIPLE", 3);
+		Term terma = Expressions.makeAbstractConstant("http://example.org/a");
+		Term termb = Expressions.makeAbstractConstant("http://example.org/b");
+		Term termc = Expressions.makeAbstractConstant("http://example.org/c");
+		Fact fact = Expressions.makeFact(predicate, terma, termb, termc);
+
+		Command command = interpreter.parseCommand("@load RDF 'src/test/data/loadtest-rdfxml.data' .");
+		interpreter.runCommand(command);
+
+		assertEquals(Arrays.asList(fact), interpreter.getKnowledgeBase().getFacts());
+		assertTrue(writer.toString().contains(RDFFormat.RDFXML.getName()));
+	}
+
 	@Test(expected = CommandExecutionException.class)
 	public void correctUseWithRdfTask_malformedRdf_fails()
 			throws ParsingException, CommandExecutionException, IOException {
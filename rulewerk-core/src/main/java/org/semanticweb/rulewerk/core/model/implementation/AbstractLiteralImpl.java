@@ -43,13 +43,20 @@ public abstract class AbstractLiteralImpl implements Literal {
 
 	private final Predicate predicate;
 	private final List<Term> terms;
+	/**
+	 * Cached hash code, or 0 if not computed yet.
+	 */
+	private int hash;
 
 	/**
 	 * Creates a {@link Literal} of the form "{@code predicate}({@code terms})".
 	 *
 	 * @param predicate non-blank predicate name
 	 * @param terms     non-empty list of non-null terms. List size must be the same
-	 *                  as the <b>predicate</b> arity.
+	 *                  as the <b>predicate</b> arity. The list is not copied and
+	 *                  must not be modified afterwards, since the hash code of
+	 *                  the literal is cached; {@link Expressions} copies lists
+	 *                  where needed.
 	 */
 	public AbstractLiteralImpl(final Predicate predicate, final List<Term> terms) {
 		Validate.notNull(predicate, "Literal predicates cannot be null.");
@@ -61,16 +68,20 @@ public abstract class AbstractLiteralImpl implements Literal {
 				terms.size(), predicate.getArity());
 
 		this.predicate = predicate;
-		this.terms = terms;
+		this.terms = Collections.unmodifiableList(terms);
 	}
 
 	@Override
 	public int hashCode() {
-		final int prime = 31;
-		int result = 1;
-		result = prime * result + (this.isNegated() ? 1231 : 1237);
-		result = prime * result + this.getPredicate().hashCode();
-		result = prime * result + this.getArguments().hashCode();
+		int result = this.hash;
+		if (result == 0) {
+			final int prime = 31;
+			result = 1;
+			result = prime * result + (this.isNegated() ? 1231 : 1237);
+			result = prime * result + this.predicate.hashCode();
+			result = prime * result + this.terms.hashCode();
+			this.hash = result;
+		}
 		return result;
 	}
 
@@ -85,6 +96,9 @@ public abstract class AbstractLiteralImpl implements Literal {
 		if (!(obj instanceof Literal)) {
 			return false;
 		}
+		if (obj instanceof AbstractLiteralImpl && this.hashCode() != obj.hashCode()) {
+			return false;
+		}
 		final Literal other = (Literal) obj;
 
 		return this.isNegated() == other.isNegated() && this.getPredicate().equals(other.getPredicate())
@@ -103,7 +117,7 @@ public abstract class AbstractLiteralImpl implements Literal {
 
 	@Override
 	public List<Term> getArguments() {
-		return Collections.unmodifiableList(this.terms);
+		return this.terms;
 	}
 
 	@Override
@@ -22,10 +22,19 @@ package org.semanticweb.rulewerk.core.model.implementation;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.Validate;
 
 import org.semanticweb.rulewerk.core.exceptions.PrefixDeclarationException;
 import org.semanticweb.rulewerk.core.exceptions.RulewerkRuntimeException;
@@ -43,20 +52,194 @@ public abstract class AbstractPrefixDeclarationRegistry implements PrefixDeclara
 	 */
 	static public final String REGEXP_LOCNAME = "^[a-zA-Z]([/a-zA-Z0-9_-])*$";
 
+	static final Pattern LOCNAME_PATTERN = Pattern.compile(REGEXP_LOCNAME);
+
+	/**
+	 * Default for the maximal number of abbreviations of IRIs that are cached by
+	 * {@link #unresolveAbsoluteIri(String, boolean)}.
+	 */
+	public static final int DEFAULT_ABBREVIATION_CACHE_CAPACITY = 1 << 14;
+
 	/**
 	 * Map associating each prefixName with the full prefixIri.
 	 */
-	protected Map<String, String> prefixes = new HashMap<>();
+	protected Map<String, String> prefixes = new PrefixMap();
 
 	/**
 	 * Iri holding the base namespace.
 	 */
 	protected String baseIri = null;
 
+	private int abbreviationCacheCapacity = DEFAULT_ABBREVIATION_CACHE_CAPACITY;
+
+	/**
+	 * Data for abbreviating IRIs, for the current prefixes and base IRI.
+	 * Abbreviations are computed lazily, possibly by concurrent readers, so the
+	 * data is replaced as a whole when it is outdated.
+	 */
+	private volatile Abbreviations abbreviations;
+
+	/**
+	 * Map of prefixes that counts its modifications, so that data computed from
+	 * the prefixes can be updated when needed. The views of the map are
+	 * unmodifiable.
+	 */
+	private static final class PrefixMap extends HashMap<String, String> {
+		private static final long serialVersionUID = 1L;
+
+		int version;
+
+		@Override
+		public String put(final String key, final String value) {
+			this.version++;
+			return super.put(key, value);
+		}
+
+		@Override
+		public void putAll(final Map<? extends String, ? extends String> map) {
+			this.version++;
+			super.putAll(map);
+		}
+
+		@Override
+		public String remove(final Object key) {
+			this.version++;
+			return super.remove(key);
+		}
+
+		@Override
+		public void clear() {
+			this.version++;
+			super.clear();
+		}
+
+		@Override
+		public String putIfAbsent(final String key, final String value) {
+			this.version++;
+			return super.putIfAbsent(key, value);
+		}
+
+		@Override
+		public boolean remove(final Object key, final Object value) {
+			this.version++;
+			return super.remove(key, value);
+		}
+
+		@Override
+		public boolean replace(final String key, final String oldValue, final String newValue) {
+			this.version++;
+			return super.replace(key, oldValue, newValue);
+		}
+
+		@Override
+		public String replace(final String key, final String value) {
+			this.version++;
+			return super.replace(key, value);
+		}
+
+		@Override
+		public void replaceAll(final BiFunction<? super String, ? super String, ? extends String> function) {
+			this.version++;
+			super.replaceAll(function);
+		}
+
+		@Override
+		public String computeIfAbsent(final String key, final Function<? super String, ? extends String> function) {
+			this.version++;
+			return super.computeIfAbsent(key, function);
+		}
+
+		@Override
+		public String computeIfPresent(final String key,
+				final BiFunction<? super String, ? super String, ? extends String> function) {
+			this.version++;
+			return super.computeIfPresent(key, function);
+		}
+
+		@Override
+		public String compute(final String key,
+				final BiFunction<? super String, ? super String, ? extends String> function) {
+			this.version++;
+			return super.compute(key, function);
+		}
+
+		@Override
+		public String merge(final String key, final String value,
+				final BiFunction<? super String, ? super String, ? extends String> function) {
+			this.version++;
+			return super.merge(key, value, function);
+		}
+
+		@Override
+		public Set<String> keySet() {
+			return Collections.unmodifiableSet(super.keySet());
+		}
+
+		@Override
+		public Collection<String> values() {
+			return Collections.unmodifiableCollection(super.values());
+		}
+
+		@Override
+		public Set<Entry<String, String>> entrySet() {
+			return Collections.unmodifiableSet(super.entrySet());
+		}
+	}
+
+	/**
+	 * Prefix trie and cached abbreviations for a version of the prefixes and a
+	 * base IRI.
+	 */
+	private static final class Abbreviations {
+		final Map<String, String> prefixes;
+		final int version;
+		final String baseIri;
+		final PrefixTrie prefixTrie;
+		final int cacheCapacity;
+		final Map<String, String> bracketedIris;
+		final Map<String, String> plainIris;
+
+		Abbreviations(final Map<String, String> prefixes, final int version, final String baseIri,
+				final int cacheCapacity) {
+			this.prefixes = prefixes;
+			this.version = version;
+			this.baseIri = baseIri;
+			this.prefixTrie = new PrefixTrie(prefixes);
+			this.cacheCapacity = cacheCapacity;
+			this.bracketedIris = cacheCapacity > 0 ? new ConcurrentHashMap<>() : null;
+			this.plainIris = cacheCapacity > 0 ? new ConcurrentHashMap<>() : null;
+		}
+
+		boolean isValid(final Map<String, String> prefixes, final int version, final String baseIri) {
+			return this.prefixes == prefixes && this.version == version && this.baseIri.equals(baseIri);
+		}
+
+		void cache(final Map<String, String> cache, final String iri, final String abbreviation) {
+			if (cache.size() >= this.cacheCapacity) {
+				cache.clear();
+			}
+			cache.put(iri, abbreviation);
+		}
+	}
+
 	@Override
 	public void clear() {
 		baseIri = null;
-		prefixes = new HashMap<>();
+		prefixes = new PrefixMap();
+	}
+
+	/**
+	 * Set the maximal number of abbreviations of IRIs that are cached by
+	 * {@link #unresolveAbsoluteIri(String, boolean)}. The cache is cleared
+	 * whenever prefixes or the base IRI change.
+	 *
+	 * @param capacity the number of abbreviations to cache, or 0 to disable
+	 *                 caching
+	 */
+	public void setAbbreviationCacheCapacity(final int capacity) {
+		Validate.isTrue(capacity >= 0, "The cache capacity must not be negative.");
+		this.abbreviationCacheCapacity = capacity;
+		this.abbreviations = null;
 	}
 
 	@Override
@@ -111,11 +294,24 @@ public abstract class AbstractPrefixDeclarationRegistry implements PrefixDeclara
 
 	@Override
 	public String unresolveAbsoluteIri(String iri, boolean addIriBrackets) {
+		final String declaredBaseIri = this.baseIri;
+		final String baseIri = getBaseIri();
+		final Abbreviations abbreviations = getAbbreviations(baseIri);
+		final Map<String, String> cache = addIriBrackets ? abbreviations.bracketedIris : abbreviations.plainIris;
+		if (cache != null) {
+			final String cachedIri = cache.get(iri);
+			if (cachedIri != null) {
+				return cachedIri;
+			}
+		}
+
 		String shortestIri;
+		boolean relative = false;
 		if (addIriBrackets) {
-			if (!iri.contains(":") && iri.matches(REGEXP_LOCNAME)) {
+			if (!iri.contains(":") && LOCNAME_PATTERN.matcher(iri).matches()) {
 				shortestIri = iri;
-				if (baseIri != null && !PrefixDeclarationRegistry.EMPTY_BASE.equals(baseIri)) {
+				relative = true;
+				if (declaredBaseIri != null && !PrefixDeclarationRegistry.EMPTY_BASE.equals(declaredBaseIri)) {
 					throw new RulewerkRuntimeException("Relative IRIs cannot be serialized when a base is declared.");
 				}
 			} else {
@@ -125,29 +321,42 @@ public abstract class AbstractPrefixDeclarationRegistry implements PrefixDeclara
 			shortestIri = iri;
 		}
 
-		String baseIri = getBaseIri();
-
 		if (!PrefixDeclarationRegistry.EMPTY_BASE.equals(baseIri) && iri.length() > baseIri.length()
 				&& iri.startsWith(baseIri)) {
 			String shorterIri = iri.substring(baseIri.length());
 			// Only allow very simple names of this form, to avoid confusion, e.g., with
 			// numbers or boolean literals:
-			if (shorterIri.matches(REGEXP_LOCNAME) && !"true".equals(shorterIri) || !"false".equals(shorterIri)) {
+			if (LOCNAME_PATTERN.matcher(shorterIri).matches() && !"true".equals(shorterIri)
+					|| !"false".equals(shorterIri)) {
 				shortestIri = shorterIri;
 			}
 		}
 
-		for (Map.Entry<String, String> entry : prefixes.entrySet()) {
-			int localNameLength = iri.length() - entry.getValue().length();
-			if (localNameLength > 0 && shortestIri.length() > localNameLength + entry.getKey().length()
-					&& iri.startsWith(entry.getValue())) {
-				shortestIri = entry.getKey() + iri.substring(entry.getValue().length());
-			}
+		final String prefixedIri = abbreviations.prefixTrie.abbreviate(iri, shortestIri.length());
+		if (prefixedIri != null) {
+			shortestIri = prefixedIri;
 		}
 
+		// whether relative IRIs can be serialized depends on the declared base
+		if (cache != null && !relative) {
+			abbreviations.cache(cache, iri, shortestIri);
+		}
 		return shortestIri;
 	}
 
+	private Abbreviations getAbbreviations(final String baseIri) {
+		final Map<String, String> prefixes = this.prefixes;
+		// prefixes that were replaced by a map without version are never cached
+		final int version = prefixes instanceof PrefixMap ? ((PrefixMap) prefixes).version : -1;
+		Abbreviations abbreviations = this.abbreviations;
+		if (abbreviations == null || version < 0 || !abbreviations.isValid(prefixes, version, baseIri)) {
+			abbreviations = new Abbreviations(prefixes, version, baseIri,
+					version < 0 ? 0 : this.abbreviationCacheCapacity);
+			this.abbreviations = abbreviations;
+		}
+		return abbreviations;
+	}
+
 	@Override
 	public Iterator<Entry<String, String>> iterator() {
 		return this.prefixes.entrySet().iterator();
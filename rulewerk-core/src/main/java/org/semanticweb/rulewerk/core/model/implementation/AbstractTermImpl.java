@@ -31,10 +31,14 @@ import org.semanticweb.rulewerk.core.model.api.Term;
 public abstract class AbstractTermImpl implements Term {
 
 	private final String name;
+	/**
+	 * Cached hash code, or 0 if not computed yet.
+	 */
+	private int hash;
 
 	public AbstractTermImpl(final String name) {
 		Validate.notBlank(name, "Terms cannot be named by blank strings");
-		this.name = new String(name);
+		this.name = name;
 	}
 
 	@Override
@@ -44,9 +48,13 @@ public abstract class AbstractTermImpl implements Term {
 
 	@Override
 	public int hashCode() {
-		final int prime = 31;
-		int result = this.name.hashCode();
-		result = prime * result + this.getType().hashCode();
+		int result = this.hash;
+		if (result == 0) {
+			final int prime = 31;
+			result = this.name.hashCode();
+			result = prime * result + this.getType().hashCode();
+			this.hash = result;
+		}
 		return result;
 	}
 
@@ -61,6 +69,9 @@ public abstract class AbstractTermImpl implements Term {
 		if (!(obj instanceof Term)) {
 			return false;
 		}
+		if (obj instanceof AbstractTermImpl && this.hashCode() != obj.hashCode()) {
+			return false;
+		}
 		final Term other = (Term) obj;
 
 		return (this.getType() == other.getType()) && this.name.equals(other.getName());
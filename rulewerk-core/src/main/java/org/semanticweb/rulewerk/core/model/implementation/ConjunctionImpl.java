@@ -37,22 +37,28 @@ import org.semanticweb.rulewerk.core.model.api.Term;
  */
 public class ConjunctionImpl<T extends Literal> implements Conjunction<T> {
 
-	final List<? extends T> literals;
+	final List<T> literals;
+	/**
+	 * Cached hash code, or 0 if not computed yet.
+	 */
+	private int hash;
 
 	/**
 	 * Constructor.
 	 * 
 	 * @param literals a non-null list of literals, that cannot contain null
-	 *                 elements.
+	 *                 elements. The list is not copied and must not be modified
+	 *                 afterwards, since the hash code of the conjunction is
+	 *                 cached; {@link Expressions} copies lists where needed.
 	 */
 	public ConjunctionImpl(List<? extends T> literals) {
 		Validate.noNullElements(literals);
-		this.literals = literals;
+		this.literals = Collections.unmodifiableList(literals);
 	}
 
 	@Override
 	public List<T> getLiterals() {
-		return Collections.unmodifiableList(this.literals);
+		return this.literals;
 	}
 
 	@Override
@@ -62,7 +68,12 @@ public class ConjunctionImpl<T extends Literal> implements Conjunction<T> {
 
 	@Override
 	public int hashCode() {
-		return this.literals.hashCode();
+		int result = this.hash;
+		if (result == 0) {
+			result = this.literals.hashCode();
+			this.hash = result;
+		}
+		return result;
 	}
 
 	@Override
@@ -76,6 +87,9 @@ public class ConjunctionImpl<T extends Literal> implements Conjunction<T> {
 		if (!(obj instanceof Conjunction<?>)) {
 			return false;
 		}
+		if (obj instanceof ConjunctionImpl<?> && this.hashCode() != obj.hashCode()) {
+			return false;
+		}
 		final Conjunction<?> other = (Conjunction<?>) obj;
 		return this.literals.equals(other.getLiterals());
 	}
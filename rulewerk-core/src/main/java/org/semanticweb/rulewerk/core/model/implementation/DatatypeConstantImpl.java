@@ -35,12 +35,14 @@ public class DatatypeConstantImpl implements DatatypeConstant {
 
 	final String datatype;
 	final String lexicalValue;
+	final int hash;
 
 	public DatatypeConstantImpl(String lexicalValue, String datatype) {
 		Validate.notNull(lexicalValue);
 		Validate.notBlank(datatype, "Datatype IRIs cannot be blank strings.");
 		this.lexicalValue = lexicalValue;
 		this.datatype = datatype;
+		this.hash = 31 * datatype.hashCode() + lexicalValue.hashCode();
 	}
 
 	@Override
@@ -79,10 +81,7 @@ public class DatatypeConstantImpl implements DatatypeConstant {
 
 	@Override
 	public int hashCode() {
-		final int prime = 31;
-		int result = datatype.hashCode();
-		result = prime * result + lexicalValue.hashCode();
-		return result;
+		return this.hash;
 	}
 
 	@Override
@@ -94,6 +93,8 @@ public class DatatypeConstantImpl implements DatatypeConstant {
 		if (getClass() != obj.getClass())
 			return false;
 		DatatypeConstantImpl other = (DatatypeConstantImpl) obj;
+		if (this.hash != other.hash)
+			return false;
 
 		return this.lexicalValue.equals(other.getLexicalValue()) && this.datatype.equals(other.getDatatype());
 	}
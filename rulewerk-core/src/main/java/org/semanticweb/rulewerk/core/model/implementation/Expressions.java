@@ -42,6 +42,10 @@ import org.semanticweb.rulewerk.core.model.api.UniversalVariable;
  * This utilities class provides static methods for creating terms and formulas
  * in Rulewerk.
  *
+ * Lists of terms and literals passed to these methods are copied, so that they
+ * can be modified afterwards. Arrays passed as variable arguments are not
+ * copied, and must not be modified after the call.
+ *
  * @author Markus Krötzsch
  *
  */
@@ -131,7 +135,7 @@ public final class Expressions {
 	public static Fact makeFact(final String predicateName, final List<Term> terms) {
 		final Predicate predicate = makePredicate(predicateName, terms.size());
 
-		return new FactImpl(predicate, terms);
+		return new FactImpl(predicate, new ArrayList<>(terms));
 	}
 
 	/**
@@ -158,7 +162,7 @@ public final class Expressions {
 	 * @return a {@link Fact} corresponding to the input.
 	 */
 	public static Fact makeFact(final Predicate predicate, final List<Term> terms) {
-		return new FactImpl(predicate, terms);
+		return new FactImpl(predicate, new ArrayList<>(terms));
 	}
 
 	/**
@@ -185,7 +189,7 @@ public final class Expressions {
 	public static PositiveLiteral makePositiveLiteral(final String predicateName, final List<Term> terms) {
 		final Predicate predicate = makePredicate(predicateName, terms.size());
 
-		return new PositiveLiteralImpl(predicate, terms);
+		return new PositiveLiteralImpl(predicate, new ArrayList<>(terms));
 	}
 
 	/**
@@ -212,7 +216,7 @@ public final class Expressions {
 	 * @return a {@link PositiveLiteral} corresponding to the input.
 	 */
 	public static PositiveLiteral makePositiveLiteral(final Predicate predicate, final List<Term> terms) {
-		return new PositiveLiteralImpl(predicate, terms);
+		return new PositiveLiteralImpl(predicate, new ArrayList<>(terms));
 	}
 
 	/**
@@ -239,7 +243,7 @@ public final class Expressions {
 	public static NegativeLiteral makeNegativeLiteral(final String predicateName, final List<Term> terms) {
 		final Predicate predicate = makePredicate(predicateName, terms.size());
 
-		return new NegativeLiteralImpl(predicate, terms);
+		return new NegativeLiteralImpl(predicate, new ArrayList<>(terms));
 	}
 
 	/**
@@ -266,7 +270,7 @@ public final class Expressions {
 	 * @return a {@link NegativeLiteral} corresponding to the input.
 	 */
 	public static NegativeLiteral makeNegativeLiteral(final Predicate predicate, final List<Term> terms) {
-		return new NegativeLiteralImpl(predicate, terms);
+		return new NegativeLiteralImpl(predicate, new ArrayList<>(terms));
 	}
 
 	/**
@@ -288,7 +292,7 @@ public final class Expressions {
 	 * @return a {@link Conjunction} corresponding to the input
 	 */
 	public static <T extends Literal> Conjunction<T> makeConjunction(final List<T> literals) {
-		return new ConjunctionImpl<>(literals);
+		return new ConjunctionImpl<>(new ArrayList<>(literals));
 	}
 
 	/**
@@ -309,7 +313,7 @@ public final class Expressions {
 	 * @return a {@link Conjunction} corresponding to the input
 	 */
 	public static <T extends PositiveLiteral> Conjunction<T> makePositiveConjunction(final List<T> literals) {
-		return new ConjunctionImpl<>(literals);
+		return new ConjunctionImpl<>(new ArrayList<>(literals));
 	}
 
 	/**
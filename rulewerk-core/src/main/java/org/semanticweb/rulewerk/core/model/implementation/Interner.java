@@ -0,0 +1,143 @@
+package org.semanticweb.rulewerk.core.model.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Thread-safe pool of canonical objects, similar to {@link String#intern()}.
+ * For all equal objects that are interned while one of them is still in use,
+ * the same object is returned. The pool only holds weak references, so that
+ * objects that are no longer used elsewhere can be garbage collected.
+ *
+ * @param <T> type of the interned objects
+ */
+final class Interner<T> {
+
+	/**
+	 * Weak reference that is equal to other entries and keys for equal objects.
+	 * The hash code of the object is computed only once.
+	 */
+	private static final class Entry<T> extends WeakReference<T> {
+		final int hash;
+
+		Entry(final T object, final ReferenceQueue<T> queue) {
+			super(object, queue);
+			this.hash = object.hashCode();
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hash;
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (obj == this) {
+				return true;
+			}
+			if (!(obj instanceof Entry)) {
+				return false;
+			}
+			final Object object = this.get();
+			return object != null && ((Entry<?>) obj).hash == this.hash && object.equals(((Entry<?>) obj).get());
+		}
+	}
+
+	/**
+	 * Strong reference to an object, only used for looking up entries without
+	 * creating a {@link WeakReference}.
+	 */
+	private static final class Key {
+		final Object object;
+		final int hash;
+
+		Key(final Object object) {
+			this.object = object;
+			this.hash = object.hashCode();
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hash;
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			return obj instanceof Entry && ((Entry<?>) obj).hash == this.hash
+					&& this.object.equals(((Entry<?>) obj).get());
+		}
+	}
+
+	private final ConcurrentHashMap<Object, Entry<T>> entries = new ConcurrentHashMap<>();
+	private final ReferenceQueue<T> queue = new ReferenceQueue<>();
+
+	/**
+	 * Returns the canonical object that is equal to the given object. If there is
+	 * none, the given object becomes the canonical one.
+	 *
+	 * @param object the object to intern, not null
+	 * @return an object that is equal to the given one
+	 */
+	T intern(final T object) {
+		this.removeCollectedEntries();
+
+		final Entry<T> existing = this.entries.get(new Key(object));
+		if (existing != null) {
+			final T canonical = existing.get();
+			if (canonical != null) {
+				return canonical;
+			}
+		}
+
+		final Entry<T> entry = new Entry<>(object, this.queue);
+		while (true) {
+			final Entry<T> previous = this.entries.putIfAbsent(entry, entry);
+			if (previous == null) {
+				return object;
+			}
+			final T canonical = previous.get();
+			if (canonical != null) {
+				return canonical;
+			}
+			// the previous object has been collected; replace its entry
+			this.entries.remove(previous, previous);
+		}
+	}
+
+	/**
+	 * @return the number of objects in the pool, including objects that have been
+	 *         collected but not yet been removed
+	 */
+	int size() {
+		return this.entries.size();
+	}
+
+	private void removeCollectedEntries() {
+		Object reference;
+		while ((reference = this.queue.poll()) != null) {
+			this.entries.remove(reference, reference);
+		}
+	}
+
+}
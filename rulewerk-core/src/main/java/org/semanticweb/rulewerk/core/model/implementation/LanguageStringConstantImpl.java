@@ -34,12 +34,14 @@ public class LanguageStringConstantImpl implements LanguageStringConstant {
 
 	final String string;
 	final String lang;
+	final int hash;
 
 	public LanguageStringConstantImpl(String string, String languageTag) {
 		Validate.notNull(string);
 		Validate.notBlank(languageTag, "Language tags cannot be blank strings.");
 		this.string = string;
 		this.lang = languageTag;
+		this.hash = 31 * languageTag.hashCode() + string.hashCode();
 	}
 
 	@Override
@@ -64,10 +66,7 @@ public class LanguageStringConstantImpl implements LanguageStringConstant {
 
 	@Override
 	public int hashCode() {
-		final int prime = 31;
-		int result = lang.hashCode();
-		result = prime * result + string.hashCode();
-		return result;
+		return this.hash;
 	}
 
 	@Override
@@ -79,6 +78,8 @@ public class LanguageStringConstantImpl implements LanguageStringConstant {
 		if (getClass() != obj.getClass())
 			return false;
 		LanguageStringConstantImpl other = (LanguageStringConstantImpl) obj;
+		if (this.hash != other.hash)
+			return false;
 		return this.string.equals(other.getString()) && this.lang.equals(other.getLanguageTag());
 	}
 
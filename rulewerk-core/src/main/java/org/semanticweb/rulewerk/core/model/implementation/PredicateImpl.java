@@ -36,6 +36,8 @@ public class PredicateImpl implements Predicate {
 
 	final private int arity;
 
+	final private int hash;
+
 	/**
 	 * Constructor for {@link Predicate}s of arity 1 or higher.
 	 *
@@ -48,6 +50,7 @@ public class PredicateImpl implements Predicate {
 
 		this.name = name;
 		this.arity = arity;
+		this.hash = 31 * arity + name.hashCode();
 	}
 
 	@Override
@@ -62,10 +65,7 @@ public class PredicateImpl implements Predicate {
 
 	@Override
 	public int hashCode() {
-		final int prime = 31;
-		int result = this.arity;
-		result = prime * result + this.name.hashCode();
-		return result;
+		return this.hash;
 	}
 
 	@Override
@@ -79,6 +79,9 @@ public class PredicateImpl implements Predicate {
 		if (!(obj instanceof Predicate)) {
 			return false;
 		}
+		if (obj instanceof PredicateImpl && this.hash != ((PredicateImpl) obj).hash) {
+			return false;
+		}
 		final Predicate other = (Predicate) obj;
 
 		return this.arity == other.getArity() && this.name.equals(other.getName());
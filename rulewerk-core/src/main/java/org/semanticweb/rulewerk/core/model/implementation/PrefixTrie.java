@@ -0,0 +1,115 @@
+package org.semanticweb.rulewerk.core.model.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Trie of prefix IRIs, used to find the shortest abbreviation of an IRI with
+ * declared prefixes by looking at each character of the IRI only once, instead
+ * of comparing the IRI to each prefix.
+ */
+final class PrefixTrie {
+
+	private static final class Node {
+		char[] labels = new char[0];
+		Node[] children = new Node[0];
+		/**
+		 * Shortest name of a prefix with the IRI ending at this node, or null.
+		 */
+		String prefixName;
+
+		Node getChild(final char label) {
+			for (int i = 0; i < this.labels.length; i++) {
+				if (this.labels[i] == label) {
+					return this.children[i];
+				}
+			}
+			return null;
+		}
+
+		Node addChild(final char label) {
+			Node child = this.getChild(label);
+			if (child == null) {
+				child = new Node();
+				this.labels = Arrays.copyOf(this.labels, this.labels.length + 1);
+				this.children = Arrays.copyOf(this.children, this.children.length + 1);
+				this.labels[this.labels.length - 1] = label;
+				this.children[this.children.length - 1] = child;
+			}
+			return child;
+		}
+	}
+
+	private final Node root = new Node();
+
+	/**
+	 * Construct a trie of the given prefix declarations.
+	 *
+	 * @param prefixes map associating prefix names with prefix IRIs
+	 */
+	PrefixTrie(final Map<String, String> prefixes) {
+		for (final Map.Entry<String, String> prefix : prefixes.entrySet()) {
+			Node node = this.root;
+			final String prefixIri = prefix.getValue();
+			for (int i = 0; i < prefixIri.length(); i++) {
+				node = node.addChild(prefixIri.charAt(i));
+			}
+			final String prefixName = prefix.getKey();
+			if (node.prefixName == null || prefixName.length() < node.prefixName.length()
+					|| prefixName.length() == node.prefixName.length() && prefixName.compareTo(node.prefixName) < 0) {
+				node.prefixName = prefixName;
+			}
+		}
+	}
+
+	/**
+	 * Find the shortest prefixed name for the given IRI, with a non-empty local
+	 * name.
+	 *
+	 * @param iri       the IRI to abbreviate
+	 * @param maxLength the length that the prefixed name must be shorter than
+	 * @return the prefixed name, or null if there is no prefixed name shorter
+	 *         than {@code maxLength}
+	 */
+	String abbreviate(final String iri, final int maxLength) {
+		String bestPrefixName = null;
+		int bestPrefixIriLength = 0;
+		int bestLength = maxLength;
+
+		Node node = this.root;
+		int prefixIriLength = 0;
+		while (node != null && prefixIriLength < iri.length()) {
+			if (node.prefixName != null) {
+				final int length = node.prefixName.length() + iri.length() - prefixIriLength;
+				if (length < bestLength) {
+					bestPrefixName = node.prefixName;
+					bestPrefixIriLength = prefixIriLength;
+					bestLength = length;
+				}
+			}
+			node = node.getChild(iri.charAt(prefixIriLength++));
+		}
+
+		return bestPrefixName == null ? null : bestPrefixName + iri.substring(bestPrefixIriLength);
+	}
+}
@@ -45,6 +45,10 @@ public class RuleImpl implements Rule {
 
 	final Conjunction<Literal> body;
 	final Conjunction<PositiveLiteral> head;
+	/**
+	 * Cached hash code, or 0 if not computed yet.
+	 */
+	private int hash;
 
 	/**
 	 * Creates a Rule with a non-empty body and an non-empty head. All variables in
@@ -81,9 +85,13 @@ public class RuleImpl implements Rule {
 
 	@Override
 	public int hashCode() {
-		final int prime = 31;
-		int result = this.body.hashCode();
-		result = prime * result + this.head.hashCode();
+		int result = this.hash;
+		if (result == 0) {
+			final int prime = 31;
+			result = this.body.hashCode();
+			result = prime * result + this.head.hashCode();
+			this.hash = result;
+		}
 		return result;
 	}
 
@@ -98,6 +106,9 @@ public class RuleImpl implements Rule {
 		if (!(obj instanceof Rule)) {
 			return false;
 		}
+		if (obj instanceof RuleImpl && this.hashCode() != obj.hashCode()) {
+			return false;
+		}
 		final Rule other = (Rule) obj;
 
 		return this.head.equals(other.getHead()) && this.body.equals(other.getBody());
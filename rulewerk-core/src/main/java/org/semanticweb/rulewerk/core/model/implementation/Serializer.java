@@ -72,7 +72,7 @@ public class Serializer {
 	public static final Function<String, String> identityIriSerializer = new Function<String, String>() {
 		@Override
 		public String apply(final String iri) {
-			if (iri.contains(":") || !iri.matches(AbstractPrefixDeclarationRegistry.REGEXP_LOCNAME)) {
+			if (iri.contains(":") || !AbstractPrefixDeclarationRegistry.LOCNAME_PATTERN.matcher(iri).matches()) {
 				return "<" + iri + ">";
 			} else {
 				return iri;
@@ -20,9 +20,6 @@ package org.semanticweb.rulewerk.core.model.implementation;
  * #L%
  */
 
-import java.util.LinkedHashMap;
-import java.util.Map;
-
 import org.semanticweb.rulewerk.core.model.api.AbstractConstant;
 import org.semanticweb.rulewerk.core.model.api.DatatypeConstant;
 import org.semanticweb.rulewerk.core.model.api.ExistentialVariable;
@@ -31,53 +28,37 @@ import org.semanticweb.rulewerk.core.model.api.Predicate;
 import org.semanticweb.rulewerk.core.model.api.UniversalVariable;
 
 /**
- * Class for creating various kinds of terms. Instances of this class maintain
- * an internal cache that allows them to re-use the generated objects, which is
- * useful to safe memory since the same term is often needed in multiple places.
+ * Class for creating various kinds of terms. All instances of this class share
+ * a process-wide, thread-safe pool of the generated objects, so that equal terms
+ * and predicates are represented by the same object as long as it is in use.
+ * This saves memory since the same term is often needed in multiple places, and
+ * makes equality checks between such objects cheap. Objects that are no longer
+ * used elsewhere are not kept in the pool.
  * 
  * @author Markus Kroetzsch
  *
  */
 public class TermFactory {
 
-	/**
-	 * Use of Java's LinkedHashMap for implementing a simple LRU cache that is used
-	 * here for mapping VLog ids to terms.
-	 * 
-	 * @author Markus Kroetzsch
-	 *
-	 * @param <K>
-	 * @param <V>
-	 */
-	static class SimpleLruMap<K, V> extends LinkedHashMap<K, V> {
-		private static final long serialVersionUID = 7151535464938775359L;
-		private int maxCapacity;
-
-		public SimpleLruMap(int initialCapacity, int maxCapacity) {
-			super(initialCapacity, 0.75f, true);
-			this.maxCapacity = maxCapacity;
-		}
-
-		@Override
-		protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
-			return size() >= this.maxCapacity;
-		}
-	}
-
-	final private SimpleLruMap<String, AbstractConstant> abstractConstants;
-	final private SimpleLruMap<String, ExistentialVariable> existentialVariables;
-	final private SimpleLruMap<String, UniversalVariable> universalVariables;
-	final private SimpleLruMap<String, Predicate> predicates;
+	private static final Interner<AbstractConstant> abstractConstants = new Interner<>();
+	private static final Interner<DatatypeConstant> datatypeConstants = new Interner<>();
+	private static final Interner<LanguageStringConstant> languageStringConstants = new Interner<>();
+	private static final Interner<ExistentialVariable> existentialVariables = new Interner<>();
+	private static final Interner<UniversalVariable> universalVariables = new Interner<>();
+	private static final Interner<Predicate> predicates = new Interner<>();
 
 	public TermFactory() {
-		this(65536);
 	}
 
+	/**
+	 * Creates a new term factory.
+	 *
+	 * @param cacheSize ignored, since all term factories share one pool of terms
+	 *                  that is not limited in size
+	 * @deprecated Use {@link #TermFactory()} instead.
+	 */
+	@Deprecated
 	public TermFactory(int cacheSize) {
-		abstractConstants = new SimpleLruMap<>(256, cacheSize);
-		existentialVariables = new SimpleLruMap<>(64, 1024);
-		universalVariables = new SimpleLruMap<>(64, 1024);
-		predicates = new SimpleLruMap<>(256, 4096);
 	}
 
 	/**
@@ -87,13 +68,7 @@ public class TermFactory {
 	 * @return a {@link UniversalVariable} corresponding to the input.
 	 */
 	public UniversalVariable makeUniversalVariable(String name) {
-		if (universalVariables.containsKey(name)) {
-			return universalVariables.get(name);
-		} else {
-			UniversalVariable result = new UniversalVariableImpl(name);
-			universalVariables.put(name, result);
-			return result;
-		}
+		return universalVariables.intern(new UniversalVariableImpl(name));
 	}
 
 	/**
@@ -103,13 +78,7 @@ public class TermFactory {
 	 * @return a {@link ExistentialVariable} corresponding to the input.
 	 */
 	public ExistentialVariable makeExistentialVariable(String name) {
-		if (existentialVariables.containsKey(name)) {
-			return existentialVariables.get(name);
-		} else {
-			ExistentialVariable result = new ExistentialVariableImpl(name);
-			existentialVariables.put(name, result);
-			return result;
-		}
+		return existentialVariables.intern(new ExistentialVariableImpl(name));
 	}
 
 	/**
@@ -119,13 +88,7 @@ public class TermFactory {
 	 * @return an {@link AbstractConstant} corresponding to the input.
 	 */
 	public AbstractConstant makeAbstractConstant(String name) {
-		if (abstractConstants.containsKey(name)) {
-			return abstractConstants.get(name);
-		} else {
-			AbstractConstant result = new AbstractConstantImpl(name);
-			abstractConstants.put(name, result);
-			return result;
-		}
+		return abstractConstants.intern(new AbstractConstantImpl(name));
 	}
 
 	/**
@@ -136,7 +99,7 @@ public class TermFactory {
 	 * @return a {@link DatatypeConstant} corresponding to the input.
 	 */
 	public DatatypeConstant makeDatatypeConstant(String lexicalValue, String datatypeIri) {
-		return new DatatypeConstantImpl(lexicalValue, datatypeIri);
+		return datatypeConstants.intern(new DatatypeConstantImpl(lexicalValue, datatypeIri));
 	}
 
 	/**
@@ -148,7 +111,7 @@ public class TermFactory {
 	 * @return a {@link LanguageStringConstant} corresponding to the input.
 	 */
 	public LanguageStringConstant makeLanguageStringConstant(String string, String languageTag) {
-		return new LanguageStringConstantImpl(string, languageTag);
+		return languageStringConstants.intern(new LanguageStringConstantImpl(string, languageTag));
 	}
 
 	/**
@@ -159,14 +122,7 @@ public class TermFactory {
 	 * @return a {@link Predicate} corresponding to the input.
 	 */
 	public Predicate makePredicate(String name, int arity) {
-		String key = name + "#" + String.valueOf(arity);
-		if (predicates.containsKey(key)) {
-			return predicates.get(key);
-		} else {
-			Predicate result = new PredicateImpl(name, arity);
-			predicates.put(key, result);
-			return result;
-		}
+		return predicates.intern(new PredicateImpl(name, arity));
 	}
 
 }
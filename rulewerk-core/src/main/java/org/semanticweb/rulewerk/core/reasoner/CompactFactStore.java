@@ -0,0 +1,578 @@
+package org.semanticweb.rulewerk.core.reasoner;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+
+/**
+ * Storage for the facts of a {@link KnowledgeBase} in
+ * {@link FactStorage#COMPACT} mode. Terms are encoded as integers by a
+ * dictionary that is shared by all predicates, and the facts of each predicate
+ * are stored in one integer array per argument position. Duplicates are
+ * detected with an open-addressing hash index over the rows. {@link Fact}
+ * objects are only created when facts are read.
+ *
+ * Removed facts are marked as deleted and their rows are reclaimed once they
+ * make up half of the rows of a predicate. A term is removed from the
+ * dictionary as soon as no stored fact uses it anymore, and its integer is
+ * then reused for the next new term.
+ */
+final class CompactFactStore {
+
+	private static final int INITIAL_CAPACITY = 8;
+	/**
+	 * Index entry of a slot that has never been used.
+	 */
+	private static final int EMPTY = -1;
+	/**
+	 * Index entry of a slot whose row has been removed.
+	 */
+	private static final int REMOVED = -2;
+
+	private final TermDictionary dictionary = new TermDictionary();
+	private final Map<Predicate, FactTable> tables = new LinkedHashMap<>();
+	private int size = 0;
+
+	/**
+	 * Adds a fact, unless it is already stored.
+	 *
+	 * @param fact the fact to add
+	 * @return true if the fact was not stored yet
+	 */
+	boolean add(final Fact fact) {
+		final Predicate predicate = fact.getPredicate();
+		FactTable table = this.tables.get(predicate);
+		if (table == null) {
+			table = new FactTable(predicate);
+			this.tables.put(predicate, table);
+		} else {
+			final int[] row = this.encode(fact);
+			if (row != null && table.find(row) >= 0) {
+				return false;
+			}
+		}
+		final List<Term> arguments = fact.getArguments();
+		final int[] row = new int[arguments.size()];
+		for (int i = 0; i < row.length; i++) {
+			row[i] = this.dictionary.acquire(arguments.get(i));
+		}
+		table.add(row);
+		this.size++;
+		return true;
+	}
+
+	/**
+	 * Removes a fact, if it is stored.
+	 *
+	 * @param fact the fact to remove
+	 * @return true if the fact was stored
+	 */
+	boolean remove(final Fact fact) {
+		final FactTable table = this.tables.get(fact.getPredicate());
+		final int[] row = this.encode(fact);
+		if (table == null || row == null || !table.remove(row)) {
+			return false;
+		}
+		for (final int id : row) {
+			this.dictionary.release(id);
+		}
+		this.size--;
+		if (table.size() == 0) {
+			this.tables.remove(fact.getPredicate());
+		}
+		return true;
+	}
+
+	/**
+	 * @param fact a fact
+	 * @return true if the fact is stored
+	 */
+	boolean contains(final Fact fact) {
+		final FactTable table = this.tables.get(fact.getPredicate());
+		final int[] row = this.encode(fact);
+		return table != null && row != null && table.find(row) >= 0;
+	}
+
+	/**
+	 * @return the number of stored facts
+	 */
+	int size() {
+		return this.size;
+	}
+
+	/**
+	 * @return the number of distinct terms used by the stored facts
+	 */
+	int getTermCount() {
+		return this.dictionary.size;
+	}
+
+	/**
+	 * @return the predicates for which facts are stored, in the order in which
+	 *         their first fact was added
+	 */
+	Set<Predicate> getPredicates() {
+		return this.tables.keySet();
+	}
+
+	/**
+	 * Returns a read-only view of the facts of a predicate. The view must not be
+	 * used after the store has been modified.
+	 *
+	 * @param predicate the predicate of the facts
+	 * @return set of facts with the given predicate
+	 */
+	Set<Fact> getFacts(final Predicate predicate) {
+		final FactTable table = this.tables.get(predicate);
+		if (table == null) {
+			return Collections.emptySet();
+		}
+		return new AbstractSet<Fact>() {
+			@Override
+			public Iterator<Fact> iterator() {
+				return table.iterator();
+			}
+
+			@Override
+			public int size() {
+				return table.size();
+			}
+
+			@Override
+			public boolean contains(final Object object) {
+				return object instanceof Fact && ((Fact) object).getPredicate().equals(predicate)
+						&& CompactFactStore.this.contains((Fact) object);
+			}
+		};
+	}
+
+	/**
+	 * @return iterator over all facts, grouped by predicate
+	 */
+	Iterator<Fact> iterator() {
+		final Iterator<FactTable> tableIterator = new ArrayList<>(this.tables.values()).iterator();
+		return new Iterator<Fact>() {
+			Iterator<Fact> current = Collections.emptyIterator();
+
+			@Override
+			public boolean hasNext() {
+				while (!this.current.hasNext() && tableIterator.hasNext()) {
+					this.current = tableIterator.next().iterator();
+				}
+				return this.current.hasNext();
+			}
+
+			@Override
+			public Fact next() {
+				if (!this.hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return this.current.next();
+			}
+		};
+	}
+
+	/**
+	 * Encodes the arguments of a fact without extending the dictionary.
+	 *
+	 * @return the encoded arguments, or null if some term is unknown, so that the
+	 *         fact cannot be stored
+	 */
+	private int[] encode(final Fact fact) {
+		final List<Term> arguments = fact.getArguments();
+		final int[] row = new int[arguments.size()];
+		for (int i = 0; i < row.length; i++) {
+			final int id = this.dictionary.getId(arguments.get(i));
+			if (id < 0) {
+				return null;
+			}
+			row[i] = id;
+		}
+		return row;
+	}
+
+	private static int[] newIndex(final int length) {
+		final int[] index = new int[length];
+		Arrays.fill(index, EMPTY);
+		return index;
+	}
+
+	/**
+	 * Dictionary that encodes terms as integers, with an open-addressing hash
+	 * index from terms to their integers. It counts how often each integer is used
+	 * by stored facts, and releases the integer once it is no longer used.
+	 */
+	private static final class TermDictionary {
+
+		/**
+		 * The terms by their integers, with null for integers that are not in use.
+		 */
+		Term[] terms = new Term[INITIAL_CAPACITY];
+		int[] useCounts = new int[INITIAL_CAPACITY];
+		/**
+		 * Number of integers that have been used so far, including released ones.
+		 */
+		int idCount = 0;
+		/**
+		 * Released integers, which are used again before new ones.
+		 */
+		int[] freeIds = new int[INITIAL_CAPACITY];
+		int freeIdCount = 0;
+		/**
+		 * Open-addressing hash index of integers, with linear probing.
+		 */
+		int[] index = newIndex(2 * INITIAL_CAPACITY);
+		/**
+		 * Number of slots of {@link #index} that are not {@link #EMPTY}.
+		 */
+		int usedSlots = 0;
+		/**
+		 * Number of terms in the dictionary.
+		 */
+		int size = 0;
+
+		/**
+		 * @return the integer of the given term, or -1 if it is not in the
+		 *         dictionary
+		 */
+		int getId(final Term term) {
+			int slot = this.slotOf(term);
+			while (this.index[slot] != EMPTY) {
+				final int id = this.index[slot];
+				if (id != REMOVED && this.terms[id].equals(term)) {
+					return id;
+				}
+				slot = (slot + 1) & (this.index.length - 1);
+			}
+			return -1;
+		}
+
+		/**
+		 * Returns the integer of the given term for one more use, adding the term to
+		 * the dictionary if needed.
+		 */
+		int acquire(final Term term) {
+			int slot = this.slotOf(term);
+			int firstRemovedSlot = -1;
+			while (this.index[slot] != EMPTY) {
+				final int id = this.index[slot];
+				if (id == REMOVED) {
+					if (firstRemovedSlot < 0) {
+						firstRemovedSlot = slot;
+					}
+				} else if (this.terms[id].equals(term)) {
+					this.useCounts[id]++;
+					return id;
+				}
+				slot = (slot + 1) & (this.index.length - 1);
+			}
+
+			final int id = this.newId();
+			this.terms[id] = term;
+			this.useCounts[id] = 1;
+			if (firstRemovedSlot >= 0) {
+				this.index[firstRemovedSlot] = id;
+			} else {
+				this.index[slot] = id;
+				this.usedSlots++;
+			}
+			this.size++;
+
+			if (2 * this.usedSlots > this.index.length) {
+				this.rebuildIndex();
+			}
+			return id;
+		}
+
+		/**
+		 * Ends one use of the given integer, and removes its term from the dictionary
+		 * if this was the last use.
+		 */
+		void release(final int id) {
+			if (--this.useCounts[id] > 0) {
+				return;
+			}
+			int slot = this.slotOf(this.terms[id]);
+			while (this.index[slot] != id) {
+				slot = (slot + 1) & (this.index.length - 1);
+			}
+			this.index[slot] = REMOVED;
+			this.terms[id] = null;
+			if (this.freeIdCount == this.freeIds.length) {
+				this.freeIds = Arrays.copyOf(this.freeIds, 2 * this.freeIds.length);
+			}
+			this.freeIds[this.freeIdCount++] = id;
+			this.size--;
+		}
+
+		private int newId() {
+			if (this.freeIdCount > 0) {
+				return this.freeIds[--this.freeIdCount];
+			}
+			if (this.idCount == this.terms.length) {
+				this.terms = Arrays.copyOf(this.terms, 2 * this.terms.length);
+				this.useCounts = Arrays.copyOf(this.useCounts, 2 * this.useCounts.length);
+			}
+			return this.idCount++;
+		}
+
+		private void rebuildIndex() {
+			int length = 2 * INITIAL_CAPACITY;
+			while (length < 4 * this.size) {
+				length *= 2;
+			}
+			this.index = newIndex(length);
+			this.usedSlots = 0;
+			for (int id = 0; id < this.idCount; id++) {
+				if (this.terms[id] == null) {
+					continue;
+				}
+				int slot = this.slotOf(this.terms[id]);
+				while (this.index[slot] != EMPTY) {
+					slot = (slot + 1) & (this.index.length - 1);
+				}
+				this.index[slot] = id;
+				this.usedSlots++;
+			}
+		}
+
+		private int slotOf(final Term term) {
+			final int hash = term.hashCode();
+			return (hash ^ (hash >>> 16)) & (this.index.length - 1);
+		}
+	}
+
+	/**
+	 * The facts of one predicate, stored column-wise with a hash index for
+	 * finding rows.
+	 */
+	private final class FactTable {
+
+		final Predicate predicate;
+		final int[][] columns;
+		/**
+		 * Number of rows in use, including deleted rows.
+		 */
+		int rowCount = 0;
+		final BitSet deletedRows = new BitSet();
+		int deletedCount = 0;
+		/**
+		 * Open-addressing hash index of row numbers, with linear probing.
+		 */
+		int[] index;
+		/**
+		 * Number of slots of {@link #index} that are not {@link #EMPTY}.
+		 */
+		int usedSlots = 0;
+
+		FactTable(final Predicate predicate) {
+			this.predicate = predicate;
+			this.columns = new int[predicate.getArity()][INITIAL_CAPACITY];
+			this.index = newIndex(2 * INITIAL_CAPACITY);
+		}
+
+		int size() {
+			return this.rowCount - this.deletedCount;
+		}
+
+		boolean add(final int[] row) {
+			int slot = this.slotOf(row);
+			int firstRemovedSlot = -1;
+			while (this.index[slot] != EMPTY) {
+				if (this.index[slot] == REMOVED) {
+					if (firstRemovedSlot < 0) {
+						firstRemovedSlot = slot;
+					}
+				} else if (this.rowEquals(this.index[slot], row)) {
+					return false;
+				}
+				slot = (slot + 1) & (this.index.length - 1);
+			}
+
+			if (this.rowCount == this.capacity()) {
+				this.grow();
+			}
+			for (int i = 0; i < row.length; i++) {
+				this.columns[i][this.rowCount] = row[i];
+			}
+			if (firstRemovedSlot >= 0) {
+				this.index[firstRemovedSlot] = this.rowCount;
+			} else {
+				this.index[slot] = this.rowCount;
+				this.usedSlots++;
+			}
+			this.rowCount++;
+
+			if (2 * this.usedSlots > this.index.length) {
+				this.rebuildIndex();
+			}
+			return true;
+		}
+
+		boolean remove(final int[] row) {
+			int slot = this.slotOf(row);
+			while (this.index[slot] != EMPTY) {
+				final int rowNumber = this.index[slot];
+				if (rowNumber != REMOVED && this.rowEquals(rowNumber, row)) {
+					this.index[slot] = REMOVED;
+					this.deletedRows.set(rowNumber);
+					this.deletedCount++;
+					if (this.deletedCount > INITIAL_CAPACITY && 2 * this.deletedCount > this.rowCount) {
+						this.compact();
+					}
+					return true;
+				}
+				slot = (slot + 1) & (this.index.length - 1);
+			}
+			return false;
+		}
+
+		/**
+		 * @return the row number of the given row, or -1 if it is not stored
+		 */
+		int find(final int[] row) {
+			int slot = this.slotOf(row);
+			while (this.index[slot] != EMPTY) {
+				final int rowNumber = this.index[slot];
+				if (rowNumber != REMOVED && this.rowEquals(rowNumber, row)) {
+					return rowNumber;
+				}
+				slot = (slot + 1) & (this.index.length - 1);
+			}
+			return -1;
+		}
+
+		Fact getFact(final int rowNumber) {
+			final Term[] arguments = new Term[this.columns.length];
+			for (int i = 0; i < arguments.length; i++) {
+				arguments[i] = CompactFactStore.this.dictionary.terms[this.columns[i][rowNumber]];
+			}
+			return Expressions.makeFact(this.predicate, arguments);
+		}
+
+		Iterator<Fact> iterator() {
+			return new Iterator<Fact>() {
+				int nextRow = FactTable.this.deletedRows.nextClearBit(0);
+
+				@Override
+				public boolean hasNext() {
+					return this.nextRow < FactTable.this.rowCount;
+				}
+
+				@Override
+				public Fact next() {
+					if (!this.hasNext()) {
+						throw new NoSuchElementException();
+					}
+					final Fact fact = FactTable.this.getFact(this.nextRow);
+					this.nextRow = FactTable.this.deletedRows.nextClearBit(this.nextRow + 1);
+					return fact;
+				}
+			};
+		}
+
+		private int capacity() {
+			return this.columns.length == 0 ? Integer.MAX_VALUE : this.columns[0].length;
+		}
+
+		private void grow() {
+			for (int i = 0; i < this.columns.length; i++) {
+				this.columns[i] = Arrays.copyOf(this.columns[i], 2 * this.columns[i].length);
+			}
+		}
+
+		/**
+		 * Drops all deleted rows, preserving the order of the remaining rows.
+		 */
+		private void compact() {
+			int target = 0;
+			for (int source = 0; source < this.rowCount; source++) {
+				if (!this.deletedRows.get(source)) {
+					for (final int[] column : this.columns) {
+						column[target] = column[source];
+					}
+					target++;
+				}
+			}
+			this.rowCount = target;
+			this.deletedRows.clear();
+			this.deletedCount = 0;
+			for (int i = 0; i < this.columns.length; i++) {
+				this.columns[i] = Arrays.copyOf(this.columns[i], Math.max(INITIAL_CAPACITY, this.rowCount));
+			}
+			this.rebuildIndex();
+		}
+
+		private void rebuildIndex() {
+			int length = 2 * INITIAL_CAPACITY;
+			while (length < 4 * this.size()) {
+				length *= 2;
+			}
+			this.index = newIndex(length);
+			this.usedSlots = 0;
+			final int[] row = new int[this.columns.length];
+			for (int rowNumber = 0; rowNumber < this.rowCount; rowNumber++) {
+				if (this.deletedRows.get(rowNumber)) {
+					continue;
+				}
+				for (int i = 0; i < row.length; i++) {
+					row[i] = this.columns[i][rowNumber];
+				}
+				int slot = this.slotOf(row);
+				while (this.index[slot] != EMPTY) {
+					slot = (slot + 1) & (this.index.length - 1);
+				}
+				this.index[slot] = rowNumber;
+				this.usedSlots++;
+			}
+		}
+
+		private boolean rowEquals(final int rowNumber, final int[] row) {
+			for (int i = 0; i < row.length; i++) {
+				if (this.columns[i][rowNumber] != row[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private int slotOf(final int[] row) {
+			final int hash = Arrays.hashCode(row);
+			return (hash ^ (hash >>> 16)) & (this.index.length - 1);
+		}
+	}
+
+}
@@ -0,0 +1,499 @@
+package org.semanticweb.rulewerk.core.reasoner;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.semanticweb.rulewerk.core.exceptions.PrefixDeclarationException;
+import org.semanticweb.rulewerk.core.exceptions.RulewerkException;
+import org.semanticweb.rulewerk.core.model.api.DataSourceDeclaration;
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.PrefixDeclarationRegistry;
+import org.semanticweb.rulewerk.core.model.api.Rule;
+import org.semanticweb.rulewerk.core.model.api.Statement;
+import org.semanticweb.rulewerk.core.model.implementation.MergingPrefixDeclarationRegistry;
+
+/**
+ * A {@link KnowledgeBase} that can be shared between threads. Any number of
+ * threads can read at the same time, but modifications are serialised by a
+ * single lock, since all statements share one insertion-ordered storage. Adding
+ * statements from several threads is therefore not faster than adding them
+ * from one. Producers should prefer {@link #addStatements(Collection)} with
+ * many statements over adding statements one by one, since every call acquires
+ * the lock.
+ *
+ * Listeners are notified once per call after the lock has been released, so
+ * that other threads can continue to modify the knowledge base in the meantime.
+ * Notifications are delivered one at a time, in the order of the changes, and
+ * each modifying method returns only after its notifications have been
+ * delivered. Listeners only receive notifications for changes made after they
+ * have been registered.
+ *
+ * All collections and iterators returned by this class are read-only and do not
+ * change when the knowledge base is modified later. The only exception is
+ * {@link #getPrefixDeclarationRegistry()}, which must not be modified directly.
+ * Where the underlying {@link KnowledgeBase} only offers views, a copy is made
+ * on the first call and returned by all further calls until the copied
+ * statements are modified.
+ *
+ * Reasoners are not thread-safe, and update their state whenever their
+ * knowledge base changes. To reason while other threads continue to modify the
+ * knowledge base, a reasoner should therefore be created for a
+ * {@link #snapshot()}.
+ */
+public class ConcurrentKnowledgeBase extends KnowledgeBase {
+
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private final Set<KnowledgeBaseListener> listeners = new CopyOnWriteArraySet<>();
+	/**
+	 * Notifications that have not been delivered yet, in the order of the changes
+	 * they report. Notifications are queued while holding the write lock, and
+	 * delivered while holding the {@link #notificationLock}.
+	 */
+	private final Queue<Runnable> notifications = new ConcurrentLinkedQueue<>();
+	private final Lock notificationLock = new ReentrantLock();
+
+	/**
+	 * Read-only copy of all statements, or null if the knowledge base has been
+	 * modified since it was last copied.
+	 */
+	private volatile List<Statement> statementsCopy;
+	/**
+	 * Read-only copies of the facts of those predicates whose facts have not been
+	 * modified since they were last copied.
+	 */
+	private final Map<Predicate, Set<Fact>> factCopies = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates an empty knowledge base that stores facts as objects.
+	 */
+	public ConcurrentKnowledgeBase() {
+		super();
+	}
+
+	/**
+	 * Creates an empty knowledge base that stores facts in the given way.
+	 *
+	 * @param factStorage how facts are stored
+	 */
+	public ConcurrentKnowledgeBase(final FactStorage factStorage) {
+		super(factStorage);
+	}
+
+	/**
+	 * Returns a copy of the current contents of this knowledge base, including
+	 * its prefix declarations. The copy is not thread-safe and is not affected by
+	 * later modifications of this knowledge base. Listeners are not copied. The
+	 * lock is only held to obtain the copy of the statements that is also returned
+	 * by {@link #getStatements()}, so that other threads can modify this knowledge
+	 * base while the new one is filled.
+	 *
+	 * @return a new {@link KnowledgeBase} with the same statements
+	 */
+	public KnowledgeBase snapshot() {
+		final List<Statement> statements;
+		final PrefixDeclarationRegistry prefixDeclarationRegistry;
+		final Lock readLock = this.lock.readLock();
+		readLock.lock();
+		try {
+			statements = this.getStatementsCopy();
+			prefixDeclarationRegistry = new MergingPrefixDeclarationRegistry(super.getPrefixDeclarationRegistry());
+		} finally {
+			readLock.unlock();
+		}
+		final KnowledgeBase snapshot = new KnowledgeBase(this.getFactStorage());
+		for (final Statement statement : statements) {
+			snapshot.doAddStatement(statement);
+		}
+		snapshot.mergePrefixDeclarations(prefixDeclarationRegistry);
+		return snapshot;
+	}
+
+	@Override
+	public void addListener(final KnowledgeBaseListener listener) {
+		this.write(() -> this.listeners.add(listener));
+	}
+
+	@Override
+	public void deleteListener(final KnowledgeBaseListener listener) {
+		this.write(() -> this.listeners.remove(listener));
+	}
+
+	@Override
+	public void addStatement(final Statement statement) {
+		this.write(() -> {
+			if (this.doAddStatement(statement)) {
+				this.queueNotification(listener -> listener.onStatementAdded(statement));
+			}
+		});
+		this.deliverNotifications();
+	}
+
+	@Override
+	public void addStatements(final Collection<? extends Statement> statements) {
+		this.write(() -> {
+			final List<Statement> addedStatements = new ArrayList<>();
+			for (final Statement statement : statements) {
+				if (this.doAddStatement(statement)) {
+					addedStatements.add(statement);
+				}
+			}
+			if (!addedStatements.isEmpty()) {
+				this.queueNotification(listener -> listener.onStatementsAdded(addedStatements));
+			}
+		});
+		this.deliverNotifications();
+	}
+
+	@Override
+	public void addStatements(final Statement... statements) {
+		this.addStatements(Arrays.asList(statements));
+	}
+
+	@Override
+	public int removeStatement(final Statement statement) {
+		final int removed = this.write(() -> {
+			if (this.doRemoveStatement(statement)) {
+				this.queueNotification(listener -> listener.onStatementRemoved(statement));
+				return 1;
+			}
+			return 0;
+		});
+		this.deliverNotifications();
+		return removed;
+	}
+
+	@Override
+	public int removeStatements(final Collection<? extends Statement> statements) {
+		final int removed = this.write(() -> {
+			final List<Statement> removedStatements = new ArrayList<>();
+			for (final Statement statement : statements) {
+				if (this.doRemoveStatement(statement)) {
+					removedStatements.add(statement);
+				}
+			}
+			if (!removedStatements.isEmpty()) {
+				this.queueNotification(listener -> listener.onStatementsRemoved(removedStatements));
+			}
+			return removedStatements.size();
+		});
+		this.deliverNotifications();
+		return removed;
+	}
+
+	@Override
+	public int removeStatements(final Statement... statements) {
+		return this.removeStatements(Arrays.asList(statements));
+	}
+
+	@Override
+	public List<Rule> getRules() {
+		return this.read(super::getRules);
+	}
+
+	@Override
+	public int getRuleCount() {
+		return this.read(super::getRuleCount);
+	}
+
+	@Override
+	public List<Fact> getFacts() {
+		return this.read(super::getFacts);
+	}
+
+	@Override
+	public int getFactCount() {
+		return this.read(super::getFactCount);
+	}
+
+	/**
+	 * Get all facts for the given predicate that have been added to the knowledge
+	 * base. The set is a read-only copy.
+	 *
+	 * @param predicate the predicate of the facts
+	 * @return set of {@link Fact}s with the given predicate
+	 */
+	@Override
+	public Set<Fact> getFacts(final Predicate predicate) {
+		final Set<Fact> facts = this.factCopies.get(predicate);
+		if (facts != null) {
+			return facts;
+		}
+		return this.read(() -> this.getFactsCopy(predicate));
+	}
+
+	@Override
+	public List<DataSourceDeclaration> getDataSourceDeclarations() {
+		return this.read(super::getDataSourceDeclarations);
+	}
+
+	@Override
+	public int getDataSourceDeclarationCount() {
+		return this.read(super::getDataSourceDeclarationCount);
+	}
+
+	/**
+	 * Returns all {@link Statement}s of this knowledge base, in the same order as
+	 * {@link KnowledgeBase#getStatements()}. The collection is a read-only copy.
+	 *
+	 * @return a collection of statements
+	 */
+	@Override
+	public Collection<Statement> getStatements() {
+		final List<Statement> statements = this.statementsCopy;
+		if (statements != null) {
+			return statements;
+		}
+		return this.read(this::getStatementsCopy);
+	}
+
+	@Override
+	public Iterator<Statement> iterator() {
+		return this.getStatements().iterator();
+	}
+
+	/**
+	 * Import rules from a file. Other threads cannot access the knowledge base
+	 * while the file is parsed.
+	 *
+	 * @see KnowledgeBase#importRulesFile(File, AdditionalInputParser)
+	 */
+	@Override
+	public void importRulesFile(final File file, final AdditionalInputParser parseFunction)
+			throws RulewerkException, IOException, IllegalArgumentException {
+		final Lock writeLock = this.lock.writeLock();
+		writeLock.lock();
+		try {
+			super.importRulesFile(file, parseFunction);
+		} finally {
+			writeLock.unlock();
+		}
+		this.deliverNotifications();
+	}
+
+	@Override
+	boolean doAddStatement(final Statement statement) {
+		return this.write(() -> this.discardCopies(statement, super.doAddStatement(statement)));
+	}
+
+	@Override
+	boolean doRemoveStatement(final Statement statement) {
+		return this.write(() -> this.discardCopies(statement, super.doRemoveStatement(statement)));
+	}
+
+	@Override
+	Map<Predicate, Set<Fact>> getFactsByPredicate() {
+		return this.read(() -> {
+			final Map<Predicate, Set<Fact>> factsByPredicate = new LinkedHashMap<>();
+			for (final Predicate predicate : super.getFactsByPredicate().keySet()) {
+				factsByPredicate.put(predicate, this.getFactsCopy(predicate));
+			}
+			return Collections.unmodifiableMap(factsByPredicate);
+		});
+	}
+
+	@Override
+	public void mergePrefixDeclarations(final PrefixDeclarationRegistry prefixDeclarationRegistry) {
+		this.write(() -> super.mergePrefixDeclarations(prefixDeclarationRegistry));
+	}
+
+	@Override
+	public String getBaseIri() {
+		return this.read(super::getBaseIri);
+	}
+
+	@Override
+	public Iterator<Entry<String, String>> getPrefixes() {
+		return this.read(() -> {
+			final List<Entry<String, String>> prefixes = new ArrayList<>();
+			super.getPrefixes().forEachRemaining(prefixes::add);
+			return prefixes.iterator();
+		});
+	}
+
+	@Override
+	public String getPrefixIri(final String prefixName) throws PrefixDeclarationException {
+		final Lock readLock = this.lock.readLock();
+		readLock.lock();
+		try {
+			return super.getPrefixIri(prefixName);
+		} finally {
+			readLock.unlock();
+		}
+	}
+
+	@Override
+	public String resolvePrefixedName(final String prefixedName) throws PrefixDeclarationException {
+		final Lock readLock = this.lock.readLock();
+		readLock.lock();
+		try {
+			return super.resolvePrefixedName(prefixedName);
+		} finally {
+			readLock.unlock();
+		}
+	}
+
+	@Override
+	public String unresolveAbsoluteIri(final String iri) {
+		return this.read(() -> super.unresolveAbsoluteIri(iri));
+	}
+
+	@Override
+	public void writeKnowledgeBase(final Writer writer) throws IOException {
+		final Lock readLock = this.lock.readLock();
+		readLock.lock();
+		try {
+			super.writeKnowledgeBase(writer);
+		} finally {
+			readLock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the copy of all statements, making it if there is none. Must be
+	 * called while holding the lock.
+	 */
+	private List<Statement> getStatementsCopy() {
+		List<Statement> statements = this.statementsCopy;
+		if (statements == null) {
+			statements = Collections.unmodifiableList(new ArrayList<>(super.getStatements()));
+			this.statementsCopy = statements;
+		}
+		return statements;
+	}
+
+	/**
+	 * Returns the copy of the facts of a predicate, making it if there is none.
+	 * Predicates without facts are not remembered. Must be called while holding
+	 * the lock.
+	 */
+	private Set<Fact> getFactsCopy(final Predicate predicate) {
+		Set<Fact> facts = this.factCopies.get(predicate);
+		if (facts == null) {
+			final Set<Fact> currentFacts = super.getFacts(predicate);
+			if (currentFacts.isEmpty()) {
+				return Collections.emptySet();
+			}
+			facts = Collections.unmodifiableSet(new HashSet<>(currentFacts));
+			this.factCopies.put(predicate, facts);
+		}
+		return facts;
+	}
+
+	/**
+	 * Discards the copies that contain the given statement if it has been added
+	 * or removed. Must be called while holding the write lock.
+	 *
+	 * @return whether the statement has been added or removed
+	 */
+	private boolean discardCopies(final Statement statement, final boolean modified) {
+		if (modified) {
+			this.statementsCopy = null;
+			if (statement instanceof Fact) {
+				this.factCopies.remove(((Fact) statement).getPredicate());
+			}
+		}
+		return modified;
+	}
+
+	/**
+	 * Queues a notification of the current listeners. Must be called while
+	 * holding the write lock, so that notifications are queued in the order of
+	 * the changes.
+	 */
+	private void queueNotification(final Consumer<KnowledgeBaseListener> notification) {
+		if (!this.listeners.isEmpty()) {
+			final List<KnowledgeBaseListener> currentListeners = new ArrayList<>(this.listeners);
+			this.notifications.add(() -> currentListeners.forEach(notification));
+		}
+	}
+
+	/**
+	 * Delivers all queued notifications, unless the current thread holds the
+	 * write lock, in which case they are delivered once it has released it.
+	 */
+	private void deliverNotifications() {
+		if (this.lock.isWriteLockedByCurrentThread()) {
+			return;
+		}
+		this.notificationLock.lock();
+		try {
+			Runnable notification;
+			while ((notification = this.notifications.poll()) != null) {
+				notification.run();
+			}
+		} finally {
+			this.notificationLock.unlock();
+		}
+	}
+
+	private <T> T read(final Supplier<T> supplier) {
+		final Lock readLock = this.lock.readLock();
+		readLock.lock();
+		try {
+			return supplier.get();
+		} finally {
+			readLock.unlock();
+		}
+	}
+
+	private <T> T write(final Supplier<T> supplier) {
+		final Lock writeLock = this.lock.writeLock();
+		writeLock.lock();
+		try {
+			return supplier.get();
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	private void write(final Runnable runnable) {
+		this.write(() -> {
+			runnable.run();
+			return null;
+		});
+	}
+
+}
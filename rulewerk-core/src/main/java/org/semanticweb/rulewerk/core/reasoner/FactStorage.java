@@ -0,0 +1,43 @@
+package org.semanticweb.rulewerk.core.reasoner;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * Ways in which a {@link KnowledgeBase} can store its facts.
+ */
+public enum FactStorage {
+	/**
+	 * Facts are stored as the {@link org.semanticweb.rulewerk.core.model.api.Fact}
+	 * objects that were added, in the order of insertion.
+	 */
+	OBJECTS,
+	/**
+	 * Facts are stored per predicate in columns of integer-encoded terms, and
+	 * {@link org.semanticweb.rulewerk.core.model.api.Fact} objects are only
+	 * created when facts are accessed. This needs much less memory for large sets
+	 * of facts. Facts are returned grouped by predicate rather than in the order
+	 * of insertion. Since the created facts are not kept,
+	 * {@link KnowledgeBase#getFacts()} creates all facts anew on every call, and
+	 * iterating over the knowledge base or over the facts of single predicates
+	 * should be preferred.
+	 */
+	COMPACT
+}
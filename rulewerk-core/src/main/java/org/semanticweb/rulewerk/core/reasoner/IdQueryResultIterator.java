@@ -0,0 +1,74 @@
+package org.semanticweb.rulewerk.core.reasoner;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Iterator;
+
+import org.semanticweb.rulewerk.core.model.api.QueryResult;
+import org.semanticweb.rulewerk.core.model.api.Term;
+
+/**
+ * Iterator for query answers that are represented by the internal numeric ids
+ * that the reasoner uses for terms, rather than by {@link QueryResult}s. Each
+ * answer is an array of ids, one for each argument of the query, that can be
+ * resolved to {@link Term}s by {@link Reasoner#getTermForId(long)}. This avoids
+ * creating {@link Term} objects for answers that are only processed by
+ * comparing their terms, e.g., in joins or aggregations.
+ */
+public interface IdQueryResultIterator extends Iterator<long[]>, AutoCloseable {
+
+	/**
+	 * Returns the number of ids in each answer, which is the arity of the query.
+	 *
+	 * @return number of ids per answer
+	 */
+	int getArity();
+
+	/**
+	 * Copies the ids of the next answers into the given buffer, one answer after
+	 * the other. At most {@code buffer.length / getArity()} answers are copied.
+	 *
+	 * @param buffer array to copy the ids of the answers to
+	 * @return the number of answers that have been copied, which is {@code 0} only
+	 *         if there are no further answers
+	 */
+	default int nextBatch(final long[] buffer) {
+		final int arity = this.getArity();
+		final int maxAnswers = buffer.length / arity;
+		int answers = 0;
+		while (answers < maxAnswers && this.hasNext()) {
+			System.arraycopy(this.next(), 0, buffer, answers * arity, arity);
+			answers++;
+		}
+		return answers;
+	}
+
+	/**
+	 * Returns the correctness of the query result. See
+	 * {@link QueryResultIterator#getCorrectness()}.
+	 *
+	 * @return query result correctness
+	 */
+	Correctness getCorrectness();
+
+	@Override
+	void close();
+}
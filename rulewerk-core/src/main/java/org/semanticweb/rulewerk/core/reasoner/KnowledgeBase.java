@@ -28,16 +28,23 @@ import java.io.InputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.nio.charset.StandardCharsets;
+import java.util.AbstractCollection;
+import java.util.AbstractList;
+import java.util.AbstractSet;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.ConcurrentModificationException;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.LinkedHashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
 import java.util.Set;
 
 import org.apache.commons.lang3.Validate;
@@ -45,7 +52,6 @@ import org.semanticweb.rulewerk.core.exceptions.PrefixDeclarationException;
 import org.semanticweb.rulewerk.core.exceptions.RulewerkException;
 import org.semanticweb.rulewerk.core.model.api.DataSourceDeclaration;
 import org.semanticweb.rulewerk.core.model.api.Fact;
-import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
 import org.semanticweb.rulewerk.core.model.api.Predicate;
 import org.semanticweb.rulewerk.core.model.api.PrefixDeclarationRegistry;
 import org.semanticweb.rulewerk.core.model.api.Rule;
@@ -83,19 +89,17 @@ public class KnowledgeBase implements Iterable<Statement> {
 	private class AddStatementVisitor implements StatementVisitor<Boolean> {
 		@Override
 		public Boolean visit(final Fact statement) {
-			KnowledgeBase.this.addFact(statement);
-			return true;
+			return KnowledgeBase.this.addFact(statement);
 		}
 
 		@Override
 		public Boolean visit(final Rule statement) {
-			return true;
+			return KnowledgeBase.this.rules.add(statement);
 		}
 
 		@Override
 		public Boolean visit(final DataSourceDeclaration statement) {
-			KnowledgeBase.this.dataSourceDeclarations.add(statement);
-			return true;
+			return KnowledgeBase.this.dataSourceDeclarations.add(statement);
 		}
 	}
 
@@ -112,69 +116,267 @@ public class KnowledgeBase implements Iterable<Statement> {
 
 		@Override
 		public Boolean visit(final Fact statement) {
-			KnowledgeBase.this.removeFact(statement);
-			return true;
+			return KnowledgeBase.this.removeFact(statement);
 		}
 
 		@Override
 		public Boolean visit(final Rule statement) {
-			return true;
+			return KnowledgeBase.this.rules.remove(statement);
 		}
 
 		@Override
 		public Boolean visit(final DataSourceDeclaration statement) {
-			KnowledgeBase.this.dataSourceDeclarations.remove(statement);
-			return true;
+			return KnowledgeBase.this.dataSourceDeclarations.remove(statement);
 		}
 	}
 
 	private final RemoveStatementVisitor removeStatementVisitor = new RemoveStatementVisitor();
 
-	private class ExtractStatementsVisitor<T> implements StatementVisitor<Void> {
+	/**
+	 * Insertion-ordered index of the statements of one type, which are stored in
+	 * {@link KnowledgeBase#statements} together with their position in the index.
+	 * The indexed statements are kept in an array that is only appended to, so
+	 * that the read-only lists returned by {@link #asList()} stay valid without
+	 * copying the index. A removed statement stays in the array, but its position
+	 * is stamped with the number of removals so far, so that each list skips
+	 * exactly the statements that had been removed when it was created. Once more
+	 * than half of the positions are removed, the remaining statements are moved
+	 * to a new array, which keeps removals and reads in amortised constant time.
+	 *
+	 * @param <T> type of the indexed statements
+	 */
+	private class StatementIndex<T extends Statement> {
+
+		Object[] elements = new Object[0];
+		/**
+		 * Removal stamps of the positions in {@link #elements}, where 0 marks a
+		 * statement that has not been removed, or null if nothing has been removed
+		 * from the current array.
+		 */
+		int[] removals;
+		int removalCount;
+		int length;
+		int size;
+		volatile List<T> list;
+
+		boolean add(final T statement) {
+			if (KnowledgeBase.this.statements.putIfAbsent(statement, this.length) != null) {
+				return false;
+			}
+			if (this.elements.length == this.length) {
+				final int capacity = Math.max(16, 2 * this.length);
+				this.elements = Arrays.copyOf(this.elements, capacity);
+				if (this.removals != null) {
+					this.removals = Arrays.copyOf(this.removals, capacity);
+				}
+			}
+			this.elements[this.length++] = statement;
+			this.size++;
+			this.list = null;
+			return true;
+		}
 
-		final ArrayList<T> extracted = new ArrayList<>();
-		final Class<T> ownType;
+		boolean remove(final T statement) {
+			final Integer position = KnowledgeBase.this.statements.remove(statement);
+			if (position == null) {
+				return false;
+			}
+			if (this.removals == null) {
+				this.removals = new int[this.elements.length];
+			}
+			this.removals[position] = ++this.removalCount;
+			this.size--;
+			this.list = null;
+			if (this.length - this.size > this.size) {
+				this.compact();
+			}
+			return true;
+		}
 
-		ExtractStatementsVisitor(final Class<T> type) {
-			this.ownType = type;
+		/**
+		 * Moves the statements that have not been removed to new arrays, leaving the
+		 * old ones to the lists that still use them.
+		 */
+		private void compact() {
+			final Object[] elements = new Object[Math.max(16, 2 * this.size)];
+			int length = 0;
+			for (int i = 0; i < this.length; i++) {
+				if (this.removals[i] == 0) {
+					KnowledgeBase.this.statements.put((Statement) this.elements[i], length);
+					elements[length++] = this.elements[i];
+				}
+			}
+			this.elements = elements;
+			this.removals = null;
+			this.removalCount = 0;
+			this.length = length;
 		}
 
-		ArrayList<T> getExtractedStatements() {
-			return this.extracted;
+		int size() {
+			return this.size;
 		}
 
-		@SuppressWarnings("unchecked")
-		@Override
-		public Void visit(final Fact statement) {
-			if (this.ownType.equals(Fact.class)) {
-				this.extracted.add((T) statement);
+		List<T> asList() {
+			List<T> list = this.list;
+			if (list == null) {
+				list = new StatementList<>(this.elements, this.removals, this.removalCount, this.length, this.size);
+				this.list = list;
 			}
-			return null;
+			return list;
+		}
+	}
+
+	/**
+	 * Read-only list of the statements in the first positions of an array that had
+	 * not been removed when the list was created.
+	 *
+	 * @param <T> type of the statements
+	 */
+	private static class StatementList<T extends Statement> extends AbstractList<T> implements RandomAccess {
+
+		final Object[] elements;
+		final int[] removals;
+		final int removalCount;
+		final int length;
+		final int size;
+		/**
+		 * The statements of the list without gaps, or null if they have not been
+		 * collected yet.
+		 */
+		volatile Object[] dense;
+
+		StatementList(final Object[] elements, final int[] removals, final int removalCount, final int length,
+				final int size) {
+			this.elements = elements;
+			this.removals = removals;
+			this.removalCount = removalCount;
+			this.length = length;
+			this.size = size;
+			this.dense = length == size ? elements : null;
+		}
+
+		boolean isPresent(final int position) {
+			if (this.removals == null) {
+				return true;
+			}
+			final int removal = this.removals[position];
+			return removal == 0 || removal > this.removalCount;
+		}
+
+		int nextPosition(int position) {
+			while (position < this.length && !this.isPresent(position)) {
+				position++;
+			}
+			return position;
 		}
 
 		@SuppressWarnings("unchecked")
 		@Override
-		public Void visit(final Rule statement) {
-			if (this.ownType.equals(Rule.class)) {
-				this.extracted.add((T) statement);
+		public T get(final int index) {
+			if (index < 0 || index >= this.size) {
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
 			}
-			return null;
+			Object[] dense = this.dense;
+			if (dense == null) {
+				dense = new Object[this.size];
+				int i = 0;
+				for (int position = this.nextPosition(0); position < this.length; position = this
+						.nextPosition(position + 1)) {
+					dense[i++] = this.elements[position];
+				}
+				this.dense = dense;
+			}
+			return (T) dense[index];
 		}
 
-		@SuppressWarnings("unchecked")
 		@Override
-		public Void visit(final DataSourceDeclaration statement) {
-			if (this.ownType.equals(DataSourceDeclaration.class)) {
-				this.extracted.add((T) statement);
+		public Iterator<T> iterator() {
+			return new Iterator<T>() {
+				int position = StatementList.this.nextPosition(0);
+
+				@Override
+				public boolean hasNext() {
+					return this.position < StatementList.this.length;
+				}
+
+				@SuppressWarnings("unchecked")
+				@Override
+				public T next() {
+					if (!this.hasNext()) {
+						throw new NoSuchElementException();
+					}
+					final T statement = (T) StatementList.this.elements[this.position];
+					this.position = StatementList.this.nextPosition(this.position + 1);
+					return statement;
+				}
+			};
+		}
+
+		@Override
+		public int size() {
+			return this.size;
+		}
+	}
+
+	/**
+	 * Read-only view of the facts of one predicate, which throws a
+	 * {@link ConcurrentModificationException} when it is used after facts have been
+	 * added to or removed from the knowledge base.
+	 */
+	private class FactView extends AbstractSet<Fact> {
+
+		final Set<Fact> facts;
+		final int factModificationCount = KnowledgeBase.this.factModificationCount;
+
+		FactView(final Set<Fact> facts) {
+			this.facts = facts;
+		}
+
+		void checkForModification() {
+			if (this.factModificationCount != KnowledgeBase.this.factModificationCount) {
+				throw new ConcurrentModificationException("The facts of the knowledge base have been modified.");
 			}
-			return null;
+		}
+
+		@Override
+		public Iterator<Fact> iterator() {
+			this.checkForModification();
+			final Iterator<Fact> facts = this.facts.iterator();
+			return new Iterator<Fact>() {
+				@Override
+				public boolean hasNext() {
+					FactView.this.checkForModification();
+					return facts.hasNext();
+				}
+
+				@Override
+				public Fact next() {
+					FactView.this.checkForModification();
+					return facts.next();
+				}
+			};
+		}
+
+		@Override
+		public int size() {
+			this.checkForModification();
+			return this.facts.size();
+		}
+
+		@Override
+		public boolean contains(final Object object) {
+			this.checkForModification();
+			return this.facts.contains(object);
 		}
 	}
 
 	/**
-	 * The primary storage for the contents of the knowledge base.
+	 * The primary storage for the contents of the knowledge base, which maps each
+	 * statement to its position in the index of its type. In
+	 * {@link FactStorage#COMPACT} mode, facts are stored in
+	 * {@link #compactFacts} instead.
 	 */
-	private final LinkedHashSet<Statement> statements = new LinkedHashSet<>();
+	private final LinkedHashMap<Statement, Integer> statements = new LinkedHashMap<>();
 
 	/**
 	 * Known prefixes that can be used to pretty-print the contents of the knowledge
@@ -186,13 +388,59 @@ public class KnowledgeBase implements Iterable<Statement> {
 	/**
 	 * Index structure that organises all facts by their predicate.
 	 */
-	private final Map<Predicate, Set<PositiveLiteral>> factsByPredicate = new HashMap<>();
+	private final Map<Predicate, Set<Fact>> factsByPredicate = new HashMap<>();
+
+	/**
+	 * Index structure that holds all facts of this knowledge base.
+	 */
+	private final StatementIndex<Fact> facts = new StatementIndex<>();
+
+	/**
+	 * Number of times that facts have been added to or removed from this
+	 * knowledge base, used to detect outdated views of {@link #getFacts(Predicate)}.
+	 */
+	private int factModificationCount;
+
+	/**
+	 * Index structure that holds all rules of this knowledge base.
+	 */
+	private final StatementIndex<Rule> rules = new StatementIndex<>();
 
 	/**
 	 * Index structure that holds all data source declarations of this knowledge
 	 * base.
 	 */
-	private final Set<DataSourceDeclaration> dataSourceDeclarations = new HashSet<>();
+	private final StatementIndex<DataSourceDeclaration> dataSourceDeclarations = new StatementIndex<>();
+
+	/**
+	 * Storage for all facts in {@link FactStorage#COMPACT} mode, or null if facts
+	 * are stored as objects.
+	 */
+	private final CompactFactStore compactFacts;
+
+	/**
+	 * Creates an empty knowledge base that stores facts as objects.
+	 */
+	public KnowledgeBase() {
+		this(FactStorage.OBJECTS);
+	}
+
+	/**
+	 * Creates an empty knowledge base that stores facts in the given way.
+	 *
+	 * @param factStorage how facts are stored
+	 */
+	public KnowledgeBase(final FactStorage factStorage) {
+		Validate.notNull(factStorage, "Fact storage cannot be null!");
+		this.compactFacts = factStorage == FactStorage.COMPACT ? new CompactFactStore() : null;
+	}
+
+	/**
+	 * @return how facts are stored in this knowledge base
+	 */
+	public FactStorage getFactStorage() {
+		return this.compactFacts == null ? FactStorage.OBJECTS : FactStorage.COMPACT;
+	}
 
 	/**
 	 * Registers a listener for changes on the knowledge base
@@ -231,11 +479,7 @@ public class KnowledgeBase implements Iterable<Statement> {
 	 */
 	boolean doAddStatement(final Statement statement) {
 		Validate.notNull(statement, "Statement cannot be Null!");
-		if (!this.statements.contains(statement) && statement.accept(this.addStatementVisitor)) {
-			this.statements.add(statement);
-			return true;
-		}
-		return false;
+		return statement.accept(this.addStatementVisitor);
 	}
 
 	/**
@@ -296,12 +540,7 @@ public class KnowledgeBase implements Iterable<Statement> {
 	 */
 	boolean doRemoveStatement(final Statement statement) {
 		Validate.notNull(statement, "Statement cannot be Null!");
-
-		if (this.statements.contains(statement) && statement.accept(this.removeStatementVisitor)) {
-			this.statements.remove(statement);
-			return true;
-		}
-		return false;
+		return statement.accept(this.removeStatementVisitor);
 	}
 
 	/**
@@ -377,17 +616,63 @@ public class KnowledgeBase implements Iterable<Statement> {
 	 * @return list of {@link Rule}s
 	 */
 	public List<Rule> getRules() {
-		return this.getStatementsByType(Rule.class);
+		return this.rules.asList();
+	}
+
+	/**
+	 * Get the number of rules that have been added to the knowledge base.
+	 *
+	 * @return number of {@link Rule}s
+	 */
+	public int getRuleCount() {
+		return this.rules.size();
 	}
 
 	/**
 	 * Get the list of all facts that have been added to the knowledge base. The
-	 * list is read-only and cannot be modified to add or delete facts.
+	 * list is read-only and cannot be modified to add or delete facts. In
+	 * {@link FactStorage#COMPACT} mode, all facts are created anew for each call,
+	 * so that iterating over {@link #getFacts(Predicate)} or the knowledge base
+	 * itself should be preferred.
 	 *
 	 * @return list of {@link Fact}s
 	 */
 	public List<Fact> getFacts() {
-		return this.getStatementsByType(Fact.class);
+		if (this.compactFacts != null) {
+			final List<Fact> facts = new ArrayList<>(this.compactFacts.size());
+			this.compactFacts.iterator().forEachRemaining(facts::add);
+			return Collections.unmodifiableList(facts);
+		}
+		return this.facts.asList();
+	}
+
+	/**
+	 * Get the number of facts that have been added to the knowledge base.
+	 *
+	 * @return number of {@link Fact}s
+	 */
+	public int getFactCount() {
+		if (this.compactFacts != null) {
+			return this.compactFacts.size();
+		}
+		return this.facts.size();
+	}
+
+	/**
+	 * Get all facts for the given predicate that have been added to the knowledge
+	 * base. The set is a read-only view that is not copied. It throws a
+	 * {@link ConcurrentModificationException} when it is used after facts have
+	 * been added to or removed from the knowledge base, so it must be copied
+	 * first if the facts are modified while it is needed.
+	 *
+	 * @param predicate the predicate of the facts
+	 * @return set of {@link Fact}s with the given predicate
+	 */
+	public Set<Fact> getFacts(final Predicate predicate) {
+		if (this.compactFacts != null) {
+			return new FactView(this.compactFacts.getFacts(predicate));
+		}
+		return new FactView(this.factsByPredicate.getOrDefault(predicate, Collections.emptySet()));
 	}
 
 	/**
@@ -398,42 +683,65 @@ public class KnowledgeBase implements Iterable<Statement> {
 	 * @return list of {@link DataSourceDeclaration}s
 	 */
 	public List<DataSourceDeclaration> getDataSourceDeclarations() {
-		return this.getStatementsByType(DataSourceDeclaration.class);
+		return this.dataSourceDeclarations.asList();
 	}
 
-	<T> List<T> getStatementsByType(final Class<T> type) {
-		final ExtractStatementsVisitor<T> visitor = new ExtractStatementsVisitor<>(type);
-		for (final Statement statement : this.statements) {
-			statement.accept(visitor);
-		}
-		return Collections.unmodifiableList(visitor.getExtractedStatements());
+	/**
+	 * Get the number of data source declarations that have been added to the
+	 * knowledge base.
+	 *
+	 * @return number of {@link DataSourceDeclaration}s
+	 */
+	public int getDataSourceDeclarationCount() {
+		return this.dataSourceDeclarations.size();
 	}
 
 	/**
-	 * Add a single fact to the internal data structures. It is assumed that it has
-	 * already been checked that this fact is not present yet.
+	 * Add a single fact to the internal data structures, unless it is already
+	 * present.
 	 *
 	 * @param fact the fact to add
+	 * @return true, if the fact was added
 	 */
-	void addFact(final Fact fact) {
-		final Predicate predicate = fact.getPredicate();
-		this.factsByPredicate.putIfAbsent(predicate, new HashSet<>());
-		this.factsByPredicate.get(predicate).add(fact);
+	boolean addFact(final Fact fact) {
+		if (this.compactFacts != null) {
+			if (!this.compactFacts.add(fact)) {
+				return false;
+			}
+		} else {
+			if (!this.facts.add(fact)) {
+				return false;
+			}
+			this.factsByPredicate.computeIfAbsent(fact.getPredicate(), predicate -> new HashSet<>()).add(fact);
+		}
+		this.factModificationCount++;
+		return true;
 	}
 
 	/**
-	 * Removes a single fact from the internal data structure. It is assumed that it
-	 * has already been checked that this fact is already present.
+	 * Removes a single fact from the internal data structure, if it is present.
 	 *
 	 * @param fact the fact to remove
+	 * @return true, if the fact was removed
 	 */
-	void removeFact(final Fact fact) {
-		final Predicate predicate = fact.getPredicate();
-		final Set<PositiveLiteral> facts = this.factsByPredicate.get(predicate);
-		facts.remove(fact);
-		if (facts.isEmpty()) {
-			this.factsByPredicate.remove(predicate);
+	boolean removeFact(final Fact fact) {
+		if (this.compactFacts != null) {
+			if (!this.compactFacts.remove(fact)) {
+				return false;
+			}
+		} else {
+			if (!this.facts.remove(fact)) {
+				return false;
+			}
+			final Predicate predicate = fact.getPredicate();
+			final Set<Fact> facts = this.factsByPredicate.get(predicate);
+			facts.remove(fact);
+			if (facts.isEmpty()) {
+				this.factsByPredicate.remove(predicate);
+			}
 		}
+		this.factModificationCount++;
+		return true;
 	}
 
 	/**
@@ -441,23 +749,64 @@ public class KnowledgeBase implements Iterable<Statement> {
 	 *
 	 * The result can be iterated over and will return statements in the original
 	 * order. The collection is read-only and cannot be modified to add or delete
-	 * statements.
+	 * statements. In {@link FactStorage#COMPACT} mode, all facts are returned
+	 * after all other statements, grouped by predicate.
 	 *
 	 * @return a collection of statements
 	 */
 	public Collection<Statement> getStatements() {
-		return Collections.unmodifiableCollection(this.statements);
+		if (this.compactFacts != null) {
+			return new AbstractCollection<Statement>() {
+				@Override
+				public Iterator<Statement> iterator() {
+					final Iterator<Statement> otherStatements = Collections
+							.unmodifiableCollection(KnowledgeBase.this.statements.keySet()).iterator();
+					final Iterator<Fact> facts = KnowledgeBase.this.compactFacts.iterator();
+					return new Iterator<Statement>() {
+						@Override
+						public boolean hasNext() {
+							return otherStatements.hasNext() || facts.hasNext();
+						}
+
+						@Override
+						public Statement next() {
+							return otherStatements.hasNext() ? otherStatements.next() : facts.next();
+						}
+					};
+				}
+
+				@Override
+				public int size() {
+					return KnowledgeBase.this.statements.size() + KnowledgeBase.this.compactFacts.size();
+				}
+			};
+		}
+		return Collections.unmodifiableCollection(this.statements.keySet());
 	}
 
 	@Override
 	public Iterator<Statement> iterator() {
-		return Collections.unmodifiableCollection(this.statements).iterator();
+		return this.getStatements().iterator();
 	}
 
-	Map<Predicate, Set<PositiveLiteral>> getFactsByPredicate() {
+	Map<Predicate, Set<Fact>> getFactsByPredicate() {
+		if (this.compactFacts != null) {
+			final Map<Predicate, Set<Fact>> factsByPredicate = new LinkedHashMap<>();
+			for (final Predicate predicate : this.compactFacts.getPredicates()) {
+				factsByPredicate.put(predicate, this.compactFacts.getFacts(predicate));
+			}
+			return factsByPredicate;
+		}
 		return this.factsByPredicate;
 	}
 
+	private Iterable<Fact> getAllFacts() {
+		if (this.compactFacts != null) {
+			return this.compactFacts::iterator;
+		}
+		return this.facts.asList();
+	}
+
 	/**
 	 * Interface for a method that parses the contents of a stream into a
 	 * KnowledgeBase.
@@ -592,7 +941,7 @@ public class KnowledgeBase implements Iterable<Statement> {
 
 		boolean makeSeperator = serializer.writePrefixDeclarationRegistry(prefixDeclarationRegistry);
 
-		for (DataSourceDeclaration dataSourceDeclaration : this.getDataSourceDeclarations()) {
+		for (DataSourceDeclaration dataSourceDeclaration : this.dataSourceDeclarations.asList()) {
 			if (makeSeperator) {
 				writer.write('\n');
 				makeSeperator = false;
@@ -600,9 +949,9 @@ public class KnowledgeBase implements Iterable<Statement> {
 			serializer.writeDataSourceDeclaration(dataSourceDeclaration);
 			writer.write('\n');
 		}
-		makeSeperator |= !this.getDataSourceDeclarations().isEmpty();
+		makeSeperator |= this.dataSourceDeclarations.size() > 0;
 
-		for (Fact fact : this.getFacts()) {
+		for (Fact fact : this.getAllFacts()) {
 			if (makeSeperator) {
 				writer.write('\n');
 				makeSeperator = false;
@@ -610,9 +959,9 @@ public class KnowledgeBase implements Iterable<Statement> {
 			serializer.writeFact(fact);
 			writer.write('\n');
 		}
-		makeSeperator |= !this.getFacts().isEmpty();
+		makeSeperator |= this.getFactCount() > 0;
 
-		for (Rule rule : this.getRules()) {
+		for (Rule rule : this.rules.asList()) {
 			if (makeSeperator) {
 				writer.write('\n');
 				makeSeperator = false;
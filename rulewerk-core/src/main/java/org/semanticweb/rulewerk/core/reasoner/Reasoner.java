@@ -20,18 +20,24 @@ package org.semanticweb.rulewerk.core.reasoner;
  * #L%
  */
 
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.function.BiConsumer;
 import java.util.stream.Stream;
 
 import org.semanticweb.rulewerk.core.exceptions.RulewerkRuntimeException;
+import org.semanticweb.rulewerk.core.model.api.Conjunction;
 import org.semanticweb.rulewerk.core.model.api.Constant;
+import org.semanticweb.rulewerk.core.model.api.DataSource;
 import org.semanticweb.rulewerk.core.model.api.DataSourceDeclaration;
 import org.semanticweb.rulewerk.core.model.api.ExistentialVariable;
 import org.semanticweb.rulewerk.core.model.api.Fact;
@@ -46,6 +52,7 @@ import org.semanticweb.rulewerk.core.model.api.TermType;
 import org.semanticweb.rulewerk.core.model.api.Variable;
 import org.semanticweb.rulewerk.core.model.implementation.Expressions;
 import org.semanticweb.rulewerk.core.model.implementation.Serializer;
+import org.semanticweb.rulewerk.core.reasoner.implementation.ListQueryResultIterator;
 
 /**
  * Interface that exposes the (existential) rule reasoning capabilities of a
@@ -147,7 +154,10 @@ public interface Reasoner extends AutoCloseable, KnowledgeBaseListener {
 	}
 
 	/**
-	 * Return a stream of all inferences.
+	 * Return a stream of all inferences. The default implementation collects all
+	 * inferences before returning. Implementations may instead return a lazy
+	 * stream that holds resources of the reasoner, which should then be closed
+	 * after use, e.g., in a try-with-resources statement.
 	 *
 	 * @return a {@link Stream} of {@link Fact} objects corresponding to all
 	 *         inferences.
@@ -431,6 +441,88 @@ public interface Reasoner extends AutoCloseable, KnowledgeBaseListener {
 	 */
 	QueryResultIterator answerQuery(PositiveLiteral query, boolean includeNulls);
 
+	/**
+	 * Evaluates an atomic query ({@code query}) like
+	 * {@link #answerQuery(PositiveLiteral, boolean)}, but returns each answer as
+	 * an array of the numeric ids that the reasoner uses internally for terms,
+	 * without creating {@link Term} objects. The ids can be compared directly, and
+	 * resolved to terms using {@link #getTermForId(long)}. Ids are only valid until
+	 * the knowledge base is reloaded or the reasoner is reset.
+	 *
+	 * @param query        a {@link PositiveLiteral} representing the query to be
+	 *                     answered.
+	 * @param includeNulls if {@code true}, answers containing terms of type
+	 *                     {@link NamedNull} will be included.
+	 * @return IdQueryResultIterator that iterates over distinct answers to the
+	 *         query. It also contains the {@link Correctness} of the query answers.
+	 * @throws UnsupportedOperationException if the reasoner does not use numeric
+	 *                                       term ids
+	 */
+	default IdQueryResultIterator answerQueryIds(final PositiveLiteral query, final boolean includeNulls) {
+		throw new UnsupportedOperationException("This reasoner does not support answering queries with term ids.");
+	}
+
+	/**
+	 * Resolves a numeric term id, as returned by
+	 * {@link #answerQueryIds(PositiveLiteral, boolean)}, to the corresponding
+	 * {@link Term}.
+	 *
+	 * @param id a term id
+	 * @return the {@link Constant} or {@link NamedNull} with the given id
+	 * @throws UnsupportedOperationException if the reasoner does not use numeric
+	 *                                       term ids
+	 */
+	default Term getTermForId(final long id) {
+		throw new UnsupportedOperationException("This reasoner does not support term ids.");
+	}
+
+	/**
+	 * Returns the numeric id that the reasoner uses internally for the given
+	 * constant, as used in answers of
+	 * {@link #answerQueryIds(PositiveLiteral, boolean)}. Named nulls cannot be
+	 * looked up, since the reasoner may use ids for them that do not correspond
+	 * to their names.
+	 *
+	 * @param term a {@link Constant}
+	 * @return the id of the constant, or {@code -1} if the constant does not occur
+	 *         in the loaded knowledge base and its inferences
+	 * @throws IllegalArgumentException      if the term is not a constant
+	 * @throws UnsupportedOperationException if the reasoner does not use numeric
+	 *                                       term ids
+	 */
+	default long getIdForTerm(final Term term) {
+		throw new UnsupportedOperationException("This reasoner does not support term ids.");
+	}
+
+	/**
+	 * Evaluates a conjunctive query over the facts loaded into the reasoner and
+	 * the facts materialised by the reasoner, without modifying the
+	 * {@link KnowledgeBase}. An answer is a list of terms for the given
+	 * {@code answerVariables}, such that all literals of the conjunction become
+	 * (implicit or explicit) facts when the variables of the conjunction are
+	 * replaced by suitable terms. The same variable identifies the same term
+	 * across all literals. Each answer is returned only once. <br>
+	 * Implementations may choose the order in which the literals are joined, for
+	 * example based on {@link #countQueryAnswers(PositiveLiteral, boolean)}. The
+	 * {@link Correctness} of the answers is as for
+	 * {@link #answerQuery(PositiveLiteral, boolean)}.
+	 *
+	 * @param query           the conjunction of {@link PositiveLiteral}s to be
+	 *                        answered
+	 * @param answerVariables the variables of {@code query} whose terms are
+	 *                        returned, in this order
+	 * @param includeNulls    if {@code true}, answers containing terms of type
+	 *                        {@link NamedNull} will be included. Other variables of
+	 *                        the query may be matched by such terms in any case.
+	 * @return QueryResultIterator that iterates over distinct answers to the query.
+	 * @throws UnsupportedOperationException if the reasoner does not support
+	 *                                       conjunctive queries
+	 */
+	default QueryResultIterator answerConjunctiveQuery(final Conjunction<PositiveLiteral> query,
+			final List<Variable> answerVariables, final boolean includeNulls) {
+		throw new UnsupportedOperationException("This reasoner does not support conjunctive queries.");
+	}
+
 	/**
 	 * * Evaluates an atomic ({@code query}), and counts the number of query answer
 	 * implicit facts loaded into the reasoner and the number of query answer
@@ -503,6 +595,55 @@ public interface Reasoner extends AutoCloseable, KnowledgeBaseListener {
 	 */
 	QueryAnswerCount countQueryAnswers(PositiveLiteral query, boolean includeNulls);
 
+	/**
+	 * Evaluates many atomic queries in one call, as if by calling
+	 * {@link #answerQuery(PositiveLiteral, boolean)} for each of them, and collects
+	 * all answers in memory. Implementations may use this to share work between
+	 * the queries, such as looking up predicates and constants. The returned
+	 * iterators do not hold resources of the reasoner and need not be closed.
+	 *
+	 * @param queries      the {@link PositiveLiteral}s representing the queries to
+	 *                     be answered.
+	 * @param includeNulls if {@code true}, answers containing terms of type
+	 *                     {@link NamedNull} will be included.
+	 * @return a map from each of the given queries to an iterator over its
+	 *         distinct answers, in the order of the given queries
+	 */
+	default Map<PositiveLiteral, QueryResultIterator> answerQueries(final Collection<PositiveLiteral> queries,
+			final boolean includeNulls) {
+		final Map<PositiveLiteral, QueryResultIterator> results = new LinkedHashMap<>();
+		for (final PositiveLiteral query : queries) {
+			if (!results.containsKey(query)) {
+				results.put(query, ListQueryResultIterator.collect(this.answerQuery(query, includeNulls)));
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Counts the answers of many atomic queries in one call, as if by calling
+	 * {@link #countQueryAnswers(PositiveLiteral, boolean)} for each of them.
+	 * Implementations may use this to share work between the queries, such as
+	 * looking up predicates and constants.
+	 *
+	 * @param queries      the {@link PositiveLiteral}s representing the queries to
+	 *                     be answered.
+	 * @param includeNulls if {@code true}, facts with {@link TermType#NAMED_NULL}
+	 *                     terms will be counted.
+	 * @return a map from each of the given queries to its {@link QueryAnswerCount},
+	 *         in the order of the given queries
+	 */
+	default Map<PositiveLiteral, QueryAnswerCount> countQueryAnswersBatch(final Collection<PositiveLiteral> queries,
+			final boolean includeNulls) {
+		final Map<PositiveLiteral, QueryAnswerCount> results = new LinkedHashMap<>();
+		for (final PositiveLiteral query : queries) {
+			if (!results.containsKey(query)) {
+				results.put(query, this.countQueryAnswers(query, includeNulls));
+			}
+		}
+		return results;
+	}
+
 	// TODO add examples to query javadoc
 	/**
 	 * Evaluates an atomic query ({@code query}) on the implicit facts loaded into
@@ -569,7 +710,24 @@ public interface Reasoner extends AutoCloseable, KnowledgeBaseListener {
 	 */
 	void resetReasoner();
 
-	// TODO Map<Predicate,DataSource> exportDBToDir(File location);
+	/**
+	 * Writes all (explicit and implicit) facts inferred during reasoning to files
+	 * in the given directory, so that they can be loaded again without reasoning.
+	 * Implementations may choose any file format that can be loaded by the
+	 * returned {@link DataSource}s.
+	 *
+	 * @param location the directory to write to; it is created if it does not
+	 *                 exist
+	 * @return a map from each predicate with facts to a {@link DataSource} of the
+	 *         written facts of this predicate
+	 * @throws IOException                   if an I/O error occurs while writing
+	 *                                       the files
+	 * @throws UnsupportedOperationException if the reasoner cannot export its
+	 *                                       model
+	 */
+	default Map<Predicate, DataSource> exportDBToDir(final File location) throws IOException {
+		throw new UnsupportedOperationException("This reasoner does not support exporting its model.");
+	}
 
 	@Override
 	void close();
@@ -0,0 +1,105 @@
+package org.semanticweb.rulewerk.core.reasoner;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.Rule;
+
+/**
+ * Result of optimising a set of rules with a {@link RuleSetOptimizer}: the
+ * optimised rules together with a record of what has been removed or
+ * rewritten.
+ */
+public class RuleSetOptimizationReport {
+
+	private final int inputRuleCount;
+	private final List<Rule> rules;
+	private final List<Rule> subsumedRules;
+	private final List<Rule> unreachableRules;
+	private final Set<Predicate> inlinedPredicates;
+
+	RuleSetOptimizationReport(final int inputRuleCount, final List<Rule> rules, final List<Rule> subsumedRules,
+			final List<Rule> unreachableRules, final Set<Predicate> inlinedPredicates) {
+		this.inputRuleCount = inputRuleCount;
+		this.rules = Collections.unmodifiableList(rules);
+		this.subsumedRules = Collections.unmodifiableList(subsumedRules);
+		this.unreachableRules = Collections.unmodifiableList(unreachableRules);
+		this.inlinedPredicates = Collections.unmodifiableSet(inlinedPredicates);
+	}
+
+	/**
+	 * @return the number of distinct rules given to the optimiser
+	 */
+	public int getInputRuleCount() {
+		return this.inputRuleCount;
+	}
+
+	/**
+	 * @return the optimised rules, in the order of the input rules they were
+	 *         derived from
+	 */
+	public List<Rule> getRules() {
+		return this.rules;
+	}
+
+	/**
+	 * @return the rules that were removed because another rule of the set
+	 *         subsumes them
+	 */
+	public List<Rule> getSubsumedRules() {
+		return this.subsumedRules;
+	}
+
+	/**
+	 * @return the rules that were removed because they cannot contribute to
+	 *         any of the output predicates
+	 */
+	public List<Rule> getUnreachableRules() {
+		return this.unreachableRules;
+	}
+
+	/**
+	 * @return the predicates that no longer occur in the optimised rules because
+	 *         they have been inlined into the single rule using them
+	 */
+	public Set<Predicate> getInlinedPredicates() {
+		return this.inlinedPredicates;
+	}
+
+	/**
+	 * @return {@code true} if the optimised rules differ from the input rules
+	 */
+	public boolean hasChanges() {
+		return !this.subsumedRules.isEmpty() || !this.unreachableRules.isEmpty() || !this.inlinedPredicates.isEmpty();
+	}
+
+	@Override
+	public String toString() {
+		return "Optimised " + this.inputRuleCount + " rules to " + this.rules.size() + ": removed "
+				+ this.subsumedRules.size() + " subsumed and " + this.unreachableRules.size()
+				+ " unreachable rules, inlined " + this.inlinedPredicates.size() + " predicates.";
+	}
+
+}
@@ -0,0 +1,402 @@
+package org.semanticweb.rulewerk.core.reasoner;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang3.Validate;
+import org.semanticweb.rulewerk.core.model.api.Literal;
+import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.Rule;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.api.TermType;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+
+/**
+ * Simplifies a set of rules before it is handed to a reasoner. The optimiser
+ * performs the following steps:
+ * <ul>
+ * <li>rules that are subsumed by another rule of the set are removed. Only
+ * rules without negation and without existential variables are considered,
+ * where a rule {@code g} subsumes a rule {@code s} if some substitution maps
+ * the body of {@code g} into the body of {@code s}, and the head of {@code s}
+ * into the head of {@code g};</li>
+ * <li>if output predicates are given, rules that cannot contribute to any of
+ * them are removed;</li>
+ * <li>if output predicates are given, a predicate {@code p} that is not an
+ * output predicate and is used in exactly one rule, whose body is a single
+ * literal {@code p(X1, ..., Xn)}, is inlined into the rules defining it.</li>
+ * </ul>
+ * Removing unreachable rules and inlining preserve the facts inferred for the
+ * output predicates only. Inlining moreover assumes that the inlined predicate
+ * has no facts other than those derived by rules, which is the case for rule
+ * sets where explicit facts of derived predicates are imported through a
+ * separate predicate.
+ */
+public class RuleSetOptimizer {
+
+	private final Set<Predicate> outputPredicates;
+
+	/**
+	 * Creates an optimiser that considers all predicates as output predicates,
+	 * and therefore only removes subsumed rules.
+	 */
+	public RuleSetOptimizer() {
+		this.outputPredicates = null;
+	}
+
+	/**
+	 * Creates an optimiser that only preserves the inferences for the given
+	 * predicates.
+	 *
+	 * @param outputPredicates predicates whose facts will be queried after
+	 *                         reasoning
+	 */
+	public RuleSetOptimizer(final Collection<Predicate> outputPredicates) {
+		Validate.notNull(outputPredicates, "Output predicates cannot be null.");
+		Validate.noNullElements(outputPredicates, "Output predicates cannot contain null elements.");
+		this.outputPredicates = Collections.unmodifiableSet(new LinkedHashSet<>(outputPredicates));
+	}
+
+	/**
+	 * @return the predicates whose inferences are preserved, or {@code null} if
+	 *         all predicates are preserved
+	 */
+	public Set<Predicate> getOutputPredicates() {
+		return this.outputPredicates;
+	}
+
+	/**
+	 * Optimises the given rules.
+	 *
+	 * @param rules rules to optimise
+	 * @return the optimised rules together with a report of the changes
+	 */
+	public RuleSetOptimizationReport optimize(final Collection<Rule> rules) {
+		Validate.notNull(rules, "Rules cannot be null.");
+		List<Rule> current = new ArrayList<>(new LinkedHashSet<>(rules));
+		final int inputRuleCount = current.size();
+
+		final List<Rule> unreachableRules = new ArrayList<>();
+		final List<Rule> subsumedRules = new ArrayList<>();
+		final Set<Predicate> inlinedPredicates = new LinkedHashSet<>();
+
+		if (this.outputPredicates != null) {
+			current = this.removeUnreachableRules(current, unreachableRules);
+		}
+		current = removeSubsumedRules(current, subsumedRules);
+		if (this.outputPredicates != null) {
+			current = this.inlinePredicates(current, inlinedPredicates);
+			if (!inlinedPredicates.isEmpty()) {
+				current = removeSubsumedRules(current, subsumedRules);
+			}
+		}
+
+		return new RuleSetOptimizationReport(inputRuleCount, current, subsumedRules, unreachableRules,
+				inlinedPredicates);
+	}
+
+	List<Rule> removeUnreachableRules(final List<Rule> rules, final List<Rule> unreachableRules) {
+		final Map<Predicate, List<Rule>> rulesByHeadPredicate = new HashMap<>();
+		for (final Rule rule : rules) {
+			for (final PositiveLiteral literal : rule.getHead().getLiterals()) {
+				rulesByHeadPredicate.computeIfAbsent(literal.getPredicate(), predicate -> new ArrayList<>()).add(rule);
+			}
+		}
+
+		final Set<Predicate> relevantPredicates = new HashSet<>(this.outputPredicates);
+		final Deque<Predicate> todo = new ArrayDeque<>(this.outputPredicates);
+		final Set<Rule> relevantRules = new HashSet<>();
+		while (!todo.isEmpty()) {
+			for (final Rule rule : rulesByHeadPredicate.getOrDefault(todo.pop(), Collections.emptyList())) {
+				if (relevantRules.add(rule)) {
+					for (final Literal literal : rule.getBody().getLiterals()) {
+						if (relevantPredicates.add(literal.getPredicate())) {
+							todo.push(literal.getPredicate());
+						}
+					}
+				}
+			}
+		}
+
+		final List<Rule> result = new ArrayList<>(relevantRules.size());
+		for (final Rule rule : rules) {
+			if (relevantRules.contains(rule)) {
+				result.add(rule);
+			} else {
+				unreachableRules.add(rule);
+			}
+		}
+		return result;
+	}
+
+	static List<Rule> removeSubsumedRules(final List<Rule> rules, final List<Rule> subsumedRules) {
+		final Map<Predicate, List<Rule>> candidatesByHeadPredicate = new HashMap<>();
+		final Map<Rule, Set<Predicate>> bodyPredicates = new HashMap<>();
+		for (final Rule rule : rules) {
+			if (isPositiveDatalog(rule)) {
+				final Set<Predicate> predicates = new HashSet<>();
+				rule.getBody().getLiterals().forEach(literal -> predicates.add(literal.getPredicate()));
+				bodyPredicates.put(rule, predicates);
+				for (final PositiveLiteral literal : rule.getHead().getLiterals()) {
+					candidatesByHeadPredicate.computeIfAbsent(literal.getPredicate(), predicate -> new ArrayList<>())
+							.add(rule);
+				}
+			}
+		}
+
+		final Set<Rule> removedRules = new HashSet<>();
+		final List<Rule> result = new ArrayList<>(rules.size());
+		for (final Rule rule : rules) {
+			final Set<Predicate> predicates = bodyPredicates.get(rule);
+			if (predicates != null) {
+				final Predicate headPredicate = rule.getHead().getLiterals().get(0).getPredicate();
+				for (final Rule candidate : candidatesByHeadPredicate.get(headPredicate)) {
+					if (!candidate.equals(rule) && !removedRules.contains(candidate)
+							&& predicates.containsAll(bodyPredicates.get(candidate)) && subsumes(candidate, rule)) {
+						removedRules.add(rule);
+						break;
+					}
+				}
+			}
+			if (removedRules.contains(rule)) {
+				subsumedRules.add(rule);
+			} else {
+				result.add(rule);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Checks if the first rule subsumes the second one, i.e. if there is a
+	 * substitution that maps the body of the first rule into the body of the
+	 * second rule, and the head of the second rule into the head of the first
+	 * rule. Both rules must be free of negation and existential variables.
+	 *
+	 * @param general  the possibly subsuming rule
+	 * @param specific the possibly subsumed rule
+	 * @return {@code true} if {@code general} subsumes {@code specific}
+	 */
+	static boolean subsumes(final Rule general, final Rule specific) {
+		return matchBody(general, 0, specific, Collections.emptyMap());
+	}
+
+	private static boolean matchBody(final Rule general, final int index, final Rule specific,
+			final Map<Term, Term> substitution) {
+		final List<Literal> generalBody = general.getBody().getLiterals();
+		if (index == generalBody.size()) {
+			return containsHead(general, specific, substitution);
+		}
+		final Literal literal = generalBody.get(index);
+		for (final Literal target : specific.getBody().getLiterals()) {
+			if (target.getPredicate().equals(literal.getPredicate())) {
+				final Map<Term, Term> extended = match(literal.getArguments(), target.getArguments(), substitution);
+				if (extended != null && matchBody(general, index + 1, specific, extended)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private static boolean containsHead(final Rule general, final Rule specific, final Map<Term, Term> substitution) {
+		final Set<Literal> generalHead = new HashSet<>();
+		for (final PositiveLiteral literal : general.getHead().getLiterals()) {
+			generalHead.add(substitute(literal, substitution));
+		}
+		return generalHead.containsAll(specific.getHead().getLiterals());
+	}
+
+	private static Map<Term, Term> match(final List<Term> pattern, final List<Term> target,
+			final Map<Term, Term> substitution) {
+		final Map<Term, Term> extended = new HashMap<>(substitution);
+		for (int i = 0; i < pattern.size(); i++) {
+			final Term term = pattern.get(i);
+			if (term.isVariable()) {
+				final Term image = extended.putIfAbsent(term, target.get(i));
+				if (image != null && !image.equals(target.get(i))) {
+					return null;
+				}
+			} else if (!term.equals(target.get(i))) {
+				return null;
+			}
+		}
+		return extended;
+	}
+
+	List<Rule> inlinePredicates(final List<Rule> rules, final Set<Predicate> inlinedPredicates) {
+		List<Rule> current = rules;
+		boolean changed = true;
+		while (changed) {
+			final Map<Predicate, List<Rule>> definingRules = new LinkedHashMap<>();
+			final Map<Predicate, List<Rule>> usingRules = new HashMap<>();
+			final Set<Predicate> negatedPredicates = new HashSet<>();
+			for (final Rule rule : current) {
+				for (final PositiveLiteral literal : rule.getHead().getLiterals()) {
+					final List<Rule> defining = definingRules.computeIfAbsent(literal.getPredicate(),
+							predicate -> new ArrayList<>());
+					if (defining.isEmpty() || defining.get(defining.size() - 1) != rule) {
+						defining.add(rule);
+					}
+				}
+				for (final Literal literal : rule.getBody().getLiterals()) {
+					if (literal.isNegated()) {
+						negatedPredicates.add(literal.getPredicate());
+					} else {
+						usingRules.computeIfAbsent(literal.getPredicate(), predicate -> new ArrayList<>()).add(rule);
+					}
+				}
+			}
+
+			// Inline all independent candidates at once; rules touched by one
+			// inlining step are left alone until the next round.
+			final Set<Rule> touchedRules = new HashSet<>();
+			final Map<Rule, Rule> replacements = new HashMap<>();
+			for (final Map.Entry<Predicate, List<Rule>> entry : definingRules.entrySet()) {
+				final Predicate predicate = entry.getKey();
+				final List<Rule> using = usingRules.get(predicate);
+				if (this.outputPredicates.contains(predicate) || negatedPredicates.contains(predicate)
+						|| using == null || using.size() != 1) {
+					continue;
+				}
+				final Rule user = using.get(0);
+				final List<Rule> defining = entry.getValue();
+				if (!isRenamingRule(user, predicate) || !canInline(defining, predicate)
+						|| touchedRules.contains(user) || defining.stream().anyMatch(touchedRules::contains)) {
+					continue;
+				}
+				touchedRules.add(user);
+				touchedRules.addAll(defining);
+				replacements.put(user, null);
+				for (final Rule rule : defining) {
+					replacements.put(rule, inline(rule, predicate, user));
+				}
+				inlinedPredicates.add(predicate);
+			}
+
+			changed = !replacements.isEmpty();
+			if (changed) {
+				final List<Rule> result = new ArrayList<>(current.size());
+				for (final Rule rule : current) {
+					final Rule replacement = replacements.getOrDefault(rule, rule);
+					if (replacement != null) {
+						result.add(replacement);
+					}
+				}
+				current = result;
+			}
+		}
+		return current;
+	}
+
+	/**
+	 * Checks if the given rule has the form {@code H :- p(X1, ..., Xn)} for
+	 * distinct universal variables {@code Xi}, where {@code H} has no existential
+	 * variables and does not use {@code p}.
+	 */
+	private static boolean isRenamingRule(final Rule rule, final Predicate predicate) {
+		final List<Literal> body = rule.getBody().getLiterals();
+		if (body.size() != 1 || rule.getExistentialVariables().findAny().isPresent()) {
+			return false;
+		}
+		final List<Term> arguments = body.get(0).getArguments();
+		if (new HashSet<>(arguments).size() != arguments.size()) {
+			return false;
+		}
+		for (final Term term : arguments) {
+			if (term.getType() != TermType.UNIVERSAL_VARIABLE) {
+				return false;
+			}
+		}
+		return rule.getHead().getLiterals().stream().noneMatch(literal -> literal.getPredicate().equals(predicate));
+	}
+
+	/**
+	 * Checks that none of the given rules uses the predicate in its body, or
+	 * existential variables in its head literals for the predicate.
+	 */
+	private static boolean canInline(final List<Rule> definingRules, final Predicate predicate) {
+		for (final Rule rule : definingRules) {
+			for (final Literal literal : rule.getBody().getLiterals()) {
+				if (literal.getPredicate().equals(predicate)) {
+					return false;
+				}
+			}
+			for (final PositiveLiteral literal : rule.getHead().getLiterals()) {
+				if (literal.getPredicate().equals(predicate) && literal.getExistentialVariables().findAny().isPresent()) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Replaces each head literal {@code p(t1, ..., tn)} of the given rule by the
+	 * head of the renaming rule {@code user}, with {@code Xi} replaced by
+	 * {@code ti}.
+	 */
+	private static Rule inline(final Rule rule, final Predicate predicate, final Rule user) {
+		final List<Term> variables = user.getBody().getLiterals().get(0).getArguments();
+		final Set<PositiveLiteral> head = new LinkedHashSet<>();
+		for (final PositiveLiteral literal : rule.getHead().getLiterals()) {
+			if (literal.getPredicate().equals(predicate)) {
+				final Map<Term, Term> substitution = new HashMap<>();
+				for (int i = 0; i < variables.size(); i++) {
+					substitution.put(variables.get(i), literal.getArguments().get(i));
+				}
+				for (final PositiveLiteral userLiteral : user.getHead().getLiterals()) {
+					head.add(substitute(userLiteral, substitution));
+				}
+			} else {
+				head.add(literal);
+			}
+		}
+		return Expressions.makeRule(Expressions.makePositiveConjunction(new ArrayList<>(head)), rule.getBody());
+	}
+
+	private static PositiveLiteral substitute(final PositiveLiteral literal, final Map<Term, Term> substitution) {
+		final List<Term> arguments = new ArrayList<>(literal.getArguments().size());
+		for (final Term term : literal.getArguments()) {
+			arguments.add(substitution.getOrDefault(term, term));
+		}
+		return Expressions.makePositiveLiteral(literal.getPredicate(), arguments);
+	}
+
+	private static boolean isPositiveDatalog(final Rule rule) {
+		return !rule.getExistentialVariables().findAny().isPresent()
+				&& rule.getBody().getLiterals().stream().noneMatch(Literal::isNegated);
+	}
+
+}
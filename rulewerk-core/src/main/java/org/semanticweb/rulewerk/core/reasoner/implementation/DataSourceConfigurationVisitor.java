@@ -66,4 +66,16 @@ public interface DataSourceConfigurationVisitor {
 	 * @param dataSource the data source to configure
 	 */
 	public void visit(InMemoryDataSource dataSource);
+
+	/**
+	 * Configure the reasoner for a {@link TupleCursorDataSource}. Reasoners that
+	 * support such data sources must override this method.
+	 *
+	 * @param dataSource the data source to configure
+	 * @throws UnsupportedOperationException if the reasoner does not support
+	 *                                       {@link TupleCursorDataSource}s
+	 */
+	public default void visit(final TupleCursorDataSource dataSource) {
+		throw new UnsupportedOperationException("This reasoner does not support TupleCursorDataSource.");
+	}
 }
@@ -0,0 +1,66 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.NoSuchElementException;
+
+import org.semanticweb.rulewerk.core.reasoner.Correctness;
+import org.semanticweb.rulewerk.core.reasoner.IdQueryResultIterator;
+
+/**
+ * Iterator that represents an empty query result with numeric ids.
+ */
+public class EmptyIdQueryResultIterator implements IdQueryResultIterator {
+
+	final int arity;
+	final Correctness correctness;
+
+	public EmptyIdQueryResultIterator(final int arity, final Correctness correctness) {
+		this.arity = arity;
+		this.correctness = correctness;
+	}
+
+	@Override
+	public void close() {
+		// nothing to do
+	}
+
+	@Override
+	public boolean hasNext() {
+		return false;
+	}
+
+	@Override
+	public long[] next() {
+		throw new NoSuchElementException();
+	}
+
+	@Override
+	public int getArity() {
+		return this.arity;
+	}
+
+	@Override
+	public Correctness getCorrectness() {
+		return this.correctness;
+	}
+
+}
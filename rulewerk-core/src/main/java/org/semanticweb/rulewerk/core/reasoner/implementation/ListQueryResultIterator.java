@@ -0,0 +1,92 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import org.semanticweb.rulewerk.core.model.api.QueryResult;
+import org.semanticweb.rulewerk.core.reasoner.Correctness;
+import org.semanticweb.rulewerk.core.reasoner.QueryResultIterator;
+
+/**
+ * Iterator over query results that have already been collected in memory. It
+ * does not hold any resources of the reasoner, so closing it is optional.
+ */
+public class ListQueryResultIterator implements QueryResultIterator {
+
+	final List<QueryResult> queryResults;
+	final Iterator<QueryResult> iterator;
+	final Correctness correctness;
+
+	public ListQueryResultIterator(final List<QueryResult> queryResults, final Correctness correctness) {
+		this.queryResults = Collections.unmodifiableList(queryResults);
+		this.iterator = this.queryResults.iterator();
+		this.correctness = correctness;
+	}
+
+	/**
+	 * Collects all remaining results of the given iterator, and closes it.
+	 *
+	 * @param queryResultIterator the iterator to collect results from
+	 * @return an iterator over the collected results, with the same correctness
+	 */
+	public static ListQueryResultIterator collect(final QueryResultIterator queryResultIterator) {
+		try (final QueryResultIterator answers = queryResultIterator) {
+			final List<QueryResult> queryResults = new ArrayList<>();
+			answers.forEachRemaining(queryResults::add);
+			return new ListQueryResultIterator(queryResults, answers.getCorrectness());
+		}
+	}
+
+	/**
+	 * Returns all results of this iterator, including those that have already
+	 * been iterated over.
+	 *
+	 * @return read-only list of query results
+	 */
+	public List<QueryResult> getQueryResults() {
+		return this.queryResults;
+	}
+
+	@Override
+	public void close() {
+		// nothing to do
+	}
+
+	@Override
+	public boolean hasNext() {
+		return this.iterator.hasNext();
+	}
+
+	@Override
+	public QueryResult next() {
+		return this.iterator.next();
+	}
+
+	@Override
+	public Correctness getCorrectness() {
+		return this.correctness;
+	}
+
+}
@@ -0,0 +1,224 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Optional;
+
+import org.apache.commons.lang3.Validate;
+import org.semanticweb.rulewerk.core.model.api.DataSource;
+import org.semanticweb.rulewerk.core.model.api.Fact;
+
+/**
+ * A {@link DataSource} for facts that are supplied by Java code through a
+ * cursor over tuples of constant names, e.g., read from an embedded database or
+ * a replay file. In contrast to {@link InMemoryDataSource}, the tuples are not
+ * stored in the data source: the reasoner opens a new cursor whenever it loads
+ * the knowledge base, and pulls tuples from it in batches of bounded size.
+ */
+public class TupleCursorDataSource implements ReasonerDataSource {
+
+	/**
+	 * The default number of tuples that are pulled from a cursor at once.
+	 */
+	public static final int DEFAULT_BATCH_SIZE = 1024;
+
+	/**
+	 * A cursor over tuples of constant names. Constant names are given as for
+	 * {@link InMemoryDataSource#addTuple(String...)}.
+	 */
+	@FunctionalInterface
+	public interface TupleCursor extends Closeable {
+
+		/**
+		 * Reads the next tuples into the given batch, starting at the first
+		 * position.
+		 *
+		 * @param batch array to be filled with tuples
+		 * @return the number of tuples that have been read, which is 0 only if the
+		 *         cursor is exhausted
+		 * @throws IOException if the tuples cannot be read
+		 */
+		int fetch(String[][] batch) throws IOException;
+
+		@Override
+		default void close() throws IOException {
+		}
+	}
+
+	/**
+	 * Opens cursors over the tuples of a {@link TupleCursorDataSource}. Every
+	 * cursor must return the same tuples, since the reasoner opens a new cursor
+	 * each time it loads the knowledge base.
+	 */
+	@FunctionalInterface
+	public interface TupleCursorProvider {
+
+		/**
+		 * Opens a new cursor that starts at the first tuple.
+		 *
+		 * @return the cursor
+		 * @throws IOException if the cursor cannot be opened
+		 */
+		TupleCursor open() throws IOException;
+	}
+
+	/**
+	 * Receives the batches of tuples that are pulled from a cursor.
+	 */
+	@FunctionalInterface
+	public interface BatchConsumer {
+
+		/**
+		 * Processes a batch of tuples. The batch array is reused for the next
+		 * batch, so it must not be retained.
+		 *
+		 * @param batch array holding the tuples at its first {@code size}
+		 *              positions
+		 * @param size  the number of tuples in the batch
+		 * @throws IOException if processing the tuples fails
+		 */
+		void accept(String[][] batch, int size) throws IOException;
+	}
+
+	private final int arity;
+	private final int batchSize;
+	private final TupleCursorProvider cursorProvider;
+
+	/**
+	 * Create a new data source for tuples of the specified arity, which are pulled
+	 * in batches of {@link #DEFAULT_BATCH_SIZE} tuples.
+	 *
+	 * @param arity          the number of parameters in a fact from this source
+	 * @param cursorProvider opens cursors over the tuples of this source
+	 */
+	public TupleCursorDataSource(final int arity, final TupleCursorProvider cursorProvider) {
+		this(arity, DEFAULT_BATCH_SIZE, cursorProvider);
+	}
+
+	/**
+	 * Create a new data source for tuples of the specified arity.
+	 *
+	 * @param arity          the number of parameters in a fact from this source
+	 * @param batchSize      the maximal number of tuples that are pulled from a
+	 *                       cursor at once
+	 * @param cursorProvider opens cursors over the tuples of this source
+	 */
+	public TupleCursorDataSource(final int arity, final int batchSize, final TupleCursorProvider cursorProvider) {
+		Validate.isTrue(arity > 0, "Arity must be positive, but was %d.", arity);
+		Validate.isTrue(batchSize > 0, "Batch size must be positive, but was %d.", batchSize);
+		Validate.notNull(cursorProvider, "Cursor provider cannot be null.");
+		this.arity = arity;
+		this.batchSize = batchSize;
+		this.cursorProvider = cursorProvider;
+	}
+
+	/**
+	 * Create a new data source for the tuples of the given iterable, which is
+	 * iterated anew each time the reasoner loads the knowledge base.
+	 *
+	 * @param arity  the number of parameters in a fact from this source
+	 * @param tuples the tuples of constant names
+	 * @return the data source
+	 */
+	public static TupleCursorDataSource fromIterable(final int arity, final Iterable<String[]> tuples) {
+		Validate.notNull(tuples, "Tuples cannot be null.");
+		return new TupleCursorDataSource(arity, () -> {
+			final Iterator<String[]> iterator = tuples.iterator();
+			return batch -> {
+				int size = 0;
+				while (size < batch.length && iterator.hasNext()) {
+					batch[size++] = iterator.next();
+				}
+				return size;
+			};
+		});
+	}
+
+	public int getArity() {
+		return this.arity;
+	}
+
+	public int getBatchSize() {
+		return this.batchSize;
+	}
+
+	public TupleCursorProvider getCursorProvider() {
+		return this.cursorProvider;
+	}
+
+	/**
+	 * Opens a new cursor over the tuples of this source and passes them to the
+	 * given consumer, one batch at a time, until the cursor is exhausted. The
+	 * cursor is closed afterwards.
+	 *
+	 * @param consumer receives the batches of tuples
+	 * @return the number of tuples that have been pulled
+	 * @throws IOException              if reading or processing the tuples fails
+	 * @throws IllegalArgumentException if a tuple does not have the arity of this
+	 *                                  data source
+	 */
+	public long forEachBatch(final BatchConsumer consumer) throws IOException {
+		final String[][] batch = new String[this.batchSize][];
+		long count = 0;
+		try (final TupleCursor cursor = this.cursorProvider.open()) {
+			int size;
+			while ((size = cursor.fetch(batch)) > 0) {
+				for (int i = 0; i < size; i++) {
+					this.validateArity(batch[i]);
+				}
+				consumer.accept(batch, size);
+				count += size;
+			}
+		}
+		return count;
+	}
+
+	void validateArity(final String[] constantNames) {
+		if (constantNames == null || constantNames.length != this.arity) {
+			throw new IllegalArgumentException("This data source holds tuples of arity " + this.arity
+					+ ". Reading a tuple of size " + (constantNames == null ? 0 : constantNames.length)
+					+ " is not possible.");
+		}
+	}
+
+	@Override
+	public Optional<Integer> getRequiredArity() {
+		return Optional.of(this.arity);
+	}
+
+	@Override
+	public void accept(final DataSourceConfigurationVisitor visitor) throws IOException {
+		visitor.visit(this);
+	}
+
+	@Override
+	public Fact getDeclarationFact() {
+		throw new UnsupportedOperationException("TupleCursorDataSource cannot be serialized.");
+	}
+
+	@Override
+	public String toString() {
+		return "[TupleCursorDataSource [arity=" + this.arity + ", batchSize=" + this.batchSize + "]]";
+	}
+}
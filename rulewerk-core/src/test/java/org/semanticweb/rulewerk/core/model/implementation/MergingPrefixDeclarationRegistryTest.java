@@ -23,6 +23,8 @@ package org.semanticweb.rulewerk.core.model.implementation;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
 
+import java.util.Iterator;
+import java.util.Map.Entry;
 import java.util.stream.StreamSupport;
 
 import org.junit.Before;
@@ -235,4 +237,55 @@ public class MergingPrefixDeclarationRegistryTest {
 		prefixDeclarations.clear();
 		assertEquals(RELATIVE, prefixDeclarations.unresolveAbsoluteIri(RELATIVE, true));
 	}
+
+	@Test
+	public void unresolveAbsoluteIri_shorterPrefixedNameWins() {
+		prefixDeclarations.setPrefixIri("e:", BASE);
+		prefixDeclarations.setPrefixIri("longname:", MORE_SPECIFIC);
+		assertEquals("longname:x", prefixDeclarations.unresolveAbsoluteIri(MORE_SPECIFIC + "x", false));
+		prefixDeclarations.setPrefixIri("evenlongername:", EVEN_MORE_SPECIFIC);
+		assertEquals("evenlongername:x", prefixDeclarations.unresolveAbsoluteIri(EVEN_MORE_SPECIFIC + "x", false));
+	}
+
+	@Test
+	public void unresolveAbsoluteIri_manyPrefixes_succeeds() {
+		for (int i = 0; i < 200; i++) {
+			prefixDeclarations.setPrefixIri("p" + i + ":", BASE + i + "/");
+		}
+		assertEquals("p42:test", prefixDeclarations.unresolveAbsoluteIri(BASE + "42/test", false));
+		assertEquals("<" + UNRELATED + "42/test>", prefixDeclarations.unresolveAbsoluteIri(UNRELATED + "42/test", true));
+	}
+
+	@Test
+	public void unresolveAbsoluteIri_prefixDeclaredAfterAbbreviation_updated() {
+		assertEquals(MORE_SPECIFIC + RELATIVE, prefixDeclarations.unresolveAbsoluteIri(MORE_SPECIFIC + RELATIVE, false));
+		prefixDeclarations.setPrefixIri("eg:", MORE_SPECIFIC);
+		assertEquals("eg:" + RELATIVE, prefixDeclarations.unresolveAbsoluteIri(MORE_SPECIFIC + RELATIVE, false));
+		prefixDeclarations.unsetPrefix("eg:");
+		assertEquals(MORE_SPECIFIC + RELATIVE, prefixDeclarations.unresolveAbsoluteIri(MORE_SPECIFIC + RELATIVE, false));
+	}
+
+	@Test
+	public void unresolveAbsoluteIri_baseDeclaredAfterAbbreviation_updated() {
+		assertEquals("<" + MORE_SPECIFIC + RELATIVE + ">",
+				prefixDeclarations.unresolveAbsoluteIri(MORE_SPECIFIC + RELATIVE, true));
+		prefixDeclarations.setBaseIri(MORE_SPECIFIC);
+		assertEquals("rw_gen0:" + RELATIVE, prefixDeclarations.unresolveAbsoluteIri(MORE_SPECIFIC + RELATIVE, true));
+	}
+
+	@Test
+	public void unresolveAbsoluteIri_cacheDisabled_succeeds() {
+		prefixDeclarations.setAbbreviationCacheCapacity(0);
+		prefixDeclarations.setPrefixIri("eg:", BASE);
+		assertEquals("eg:example/", prefixDeclarations.unresolveAbsoluteIri(MORE_SPECIFIC, false));
+		assertEquals("eg:example/", prefixDeclarations.unresolveAbsoluteIri(MORE_SPECIFIC, false));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void iterator_remove_throws() {
+		prefixDeclarations.setPrefixIri("eg:", BASE);
+		final Iterator<Entry<String, String>> iterator = prefixDeclarations.iterator();
+		iterator.next();
+		iterator.remove();
+	}
 }
@@ -23,13 +23,16 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 import org.junit.Test;
 import org.semanticweb.rulewerk.core.model.api.Constant;
 import org.semanticweb.rulewerk.core.model.api.Literal;
 import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
 import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.Term;
 import org.semanticweb.rulewerk.core.model.api.Variable;
 import org.semanticweb.rulewerk.core.model.implementation.Expressions;
 import org.semanticweb.rulewerk.core.model.implementation.NegativeLiteralImpl;
@@ -93,6 +96,27 @@ public class PositiveLiteralImplTest {
 		assertNotEquals(atom5, new NegativeLiteralImpl(atom5.getPredicate(), atom5.getArguments()));
 	}
 
+	@Test
+	public void termsCopied() {
+		final Constant c = Expressions.makeAbstractConstant("c");
+		final Constant d = Expressions.makeAbstractConstant("d");
+		final List<Term> terms = new ArrayList<>(Arrays.asList(c, d));
+		final PositiveLiteral atom = Expressions.makePositiveLiteral("p", terms);
+		final int hashCode = atom.hashCode();
+
+		terms.set(0, d);
+
+		assertEquals(Arrays.asList(c, d), atom.getArguments());
+		assertEquals(hashCode, atom.hashCode());
+		assertEquals(atom, Expressions.makePositiveLiteral("p", c, d));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void argumentsUnmodifiable() {
+		final Constant c = Expressions.makeAbstractConstant("c");
+		Expressions.makePositiveLiteral("p", c).getArguments().set(0, c);
+	}
+
 	@Test(expected = NullPointerException.class)
 	public void termsNotNull() {
 		final Predicate predicate1 = Expressions.makePredicate("p", 1);
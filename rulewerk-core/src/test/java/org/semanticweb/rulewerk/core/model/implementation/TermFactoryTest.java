@@ -22,6 +22,12 @@ package org.semanticweb.rulewerk.core.model.implementation;
 
 import static org.junit.Assert.*;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import org.junit.Test;
 import org.semanticweb.rulewerk.core.model.api.Predicate;
 import org.semanticweb.rulewerk.core.model.api.Term;
@@ -87,34 +93,50 @@ public class TermFactoryTest {
 	}
 
 	@Test
-	public void datatypeConstant_succeeds() {
+	public void datatypeConstant_reused() {
 		TermFactory termFactory = new TermFactory();
 		Term term1 = termFactory.makeDatatypeConstant("abc", "http://test");
 		Term term2 = new DatatypeConstantImpl("abc", "http://test");
+		Term term3 = termFactory.makeDatatypeConstant("abc", "http://test");
+		Term term4 = termFactory.makeDatatypeConstant("abc", "http://test2");
 
 		assertEquals(term1, term2);
+		assertTrue(term1 == term3);
+		assertNotEquals(term1, term4);
 	}
 
 	@Test
-	public void languageConstant_succeeds() {
+	public void languageConstant_reused() {
 		TermFactory termFactory = new TermFactory();
 		Term term1 = termFactory.makeLanguageStringConstant("abc", "de");
 		Term term2 = new LanguageStringConstantImpl("abc", "de");
+		Term term3 = termFactory.makeLanguageStringConstant("abc", "de");
 
 		assertEquals(term1, term2);
+		assertTrue(term1 == term3);
+	}
+
+	@Test
+	public void abstractConstant_sharedAcrossFactories() {
+		Term term1 = new TermFactory().makeAbstractConstant("http://example.org/shared");
+		Term term2 = new TermFactory().makeAbstractConstant("http://example.org/shared");
+
+		assertTrue(term1 == term2);
 	}
 
 	@Test
-	public void lruCache_works() {
-		TermFactory.SimpleLruMap<String, String> map = new TermFactory.SimpleLruMap<>(1, 3);
-		map.put("a", "test");
-		map.put("b", "test");
-		map.put("c", "test");
-		map.put("c", "test2");
-
-		assertTrue(map.containsKey("b"));
-		assertTrue(map.containsKey("c"));
-		assertFalse(map.containsKey("a"));
+	public void predicate_concurrentCreation_reused() throws Exception {
+		TermFactory termFactory = new TermFactory();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		List<Future<Predicate>> futures = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			futures.add(executor.submit(() -> termFactory.makePredicate("http://example.org/concurrent", 3)));
+		}
+		Predicate first = futures.get(0).get();
+		for (Future<Predicate> future : futures) {
+			assertTrue(first == future.get());
+		}
+		executor.shutdown();
 	}
 
 }
@@ -0,0 +1,160 @@
+package org.semanticweb.rulewerk.core.reasoner;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+
+public class CompactFactStoreTest {
+
+	private final Predicate p = Expressions.makePredicate("p", 2);
+	private final Predicate q = Expressions.makePredicate("q", 1);
+
+	private Fact p(final int i, final int j) {
+		return Expressions.makeFact(this.p, Expressions.makeAbstractConstant("c" + i),
+				Expressions.makeAbstractConstant("c" + j));
+	}
+
+	private Fact q(final int i) {
+		return Expressions.makeFact(this.q, Expressions.makeAbstractConstant("c" + i));
+	}
+
+	@Test
+	public void add_duplicate_notAdded() {
+		final CompactFactStore store = new CompactFactStore();
+
+		assertTrue(store.add(this.p(1, 2)));
+		assertFalse(store.add(this.p(1, 2)));
+		assertTrue(store.add(this.p(2, 1)));
+		assertEquals(2, store.size());
+	}
+
+	@Test
+	public void iterator_groupedByPredicateInInsertionOrder() {
+		final CompactFactStore store = new CompactFactStore();
+		store.add(this.p(1, 2));
+		store.add(this.q(1));
+		store.add(this.p(2, 3));
+
+		final List<Fact> facts = new ArrayList<>();
+		store.iterator().forEachRemaining(facts::add);
+		assertEquals(Arrays.asList(this.p(1, 2), this.p(2, 3), this.q(1)), facts);
+	}
+
+	@Test
+	public void contains_unknownTerm_false() {
+		final CompactFactStore store = new CompactFactStore();
+		store.add(this.p(1, 2));
+
+		assertTrue(store.contains(this.p(1, 2)));
+		assertFalse(store.contains(this.p(1, 3)));
+		assertFalse(store.contains(this.p(2, 1)));
+		assertFalse(store.contains(this.q(1)));
+	}
+
+	@Test
+	public void remove_lastFactOfPredicate_removesPredicate() {
+		final CompactFactStore store = new CompactFactStore();
+		store.add(this.p(1, 2));
+		store.add(this.q(1));
+
+		assertTrue(store.remove(this.q(1)));
+		assertFalse(store.remove(this.q(1)));
+		assertEquals(Collections.singleton(this.p), store.getPredicates());
+		assertTrue(store.getFacts(this.q).isEmpty());
+	}
+
+	@Test
+	public void remove_lastUseOfTerm_removesTermFromDictionary() {
+		final CompactFactStore store = new CompactFactStore();
+		store.add(this.p(1, 2));
+		store.add(this.q(1));
+		assertFalse(store.add(this.q(1)));
+		assertEquals(2, store.getTermCount());
+
+		store.remove(this.p(1, 2));
+		assertEquals(1, store.getTermCount());
+		assertFalse(store.contains(this.p(1, 2)));
+
+		store.add(this.p(3, 1));
+		store.add(this.q(4));
+		assertEquals(3, store.getTermCount());
+		final List<Fact> facts = new ArrayList<>();
+		store.iterator().forEachRemaining(facts::add);
+		assertEquals(Arrays.asList(this.q(1), this.q(4), this.p(3, 1)), facts);
+		store.remove(this.q(1));
+		store.remove(this.p(3, 1));
+		assertEquals(1, store.getTermCount());
+		assertTrue(store.contains(this.q(4)));
+	}
+
+	@Test
+	public void addAndRemove_manyFacts_consistent() {
+		final CompactFactStore store = new CompactFactStore();
+		for (int i = 0; i < 1000; i++) {
+			assertTrue(store.add(this.p(i, i % 7)));
+		}
+		for (int i = 0; i < 1000; i += 3) {
+			assertTrue(store.remove(this.p(i, i % 7)));
+		}
+		for (int i = 0; i < 1000; i += 6) {
+			assertTrue(store.add(this.p(i, i % 7)));
+		}
+
+		final List<Fact> expected = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			if (i % 3 != 0) {
+				expected.add(this.p(i, i % 7));
+			}
+		}
+		for (int i = 0; i < 1000; i += 6) {
+			expected.add(this.p(i, i % 7));
+		}
+
+		assertEquals(expected, new ArrayList<>(store.getFacts(this.p)));
+		assertEquals(expected.size(), store.size());
+		for (int i = 0; i < 1000; i++) {
+			assertEquals(i % 3 != 0 || i % 6 == 0, store.contains(this.p(i, i % 7)));
+		}
+	}
+
+	@Test
+	public void getFacts_contains_usesIndex() {
+		final CompactFactStore store = new CompactFactStore();
+		store.add(this.p(1, 2));
+		store.add(this.q(1));
+
+		assertTrue(store.getFacts(this.p).contains(this.p(1, 2)));
+		assertFalse(store.getFacts(this.p).contains(this.q(1)));
+	}
+
+}
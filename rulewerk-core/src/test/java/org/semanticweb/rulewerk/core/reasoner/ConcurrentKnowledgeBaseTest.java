@@ -0,0 +1,230 @@
+package org.semanticweb.rulewerk.core.reasoner;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.Statement;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+
+public class ConcurrentKnowledgeBaseTest {
+
+	private static final int PRODUCERS = 8;
+	private static final int BATCHES = 50;
+	private static final int BATCH_SIZE = 20;
+
+	private final Fact fact1 = Expressions.makeFact("P", Expressions.makeAbstractConstant("c"));
+	private final Fact fact2 = Expressions.makeFact("P", Expressions.makeAbstractConstant("d"));
+
+	private static List<Fact> makeBatch(final int producer, final int batch) {
+		final List<Fact> facts = new ArrayList<>(BATCH_SIZE);
+		for (int i = 0; i < BATCH_SIZE; i++) {
+			facts.add(Expressions.makeFact("P", Expressions.makeAbstractConstant("c" + producer + "_" + batch + "_" + i),
+					Expressions.makeAbstractConstant("d" + (i % 3))));
+		}
+		return facts;
+	}
+
+	@Test
+	public void addStatements_parallelProducers_allAddedAndNotified() throws Exception {
+		final ConcurrentKnowledgeBase kb = new ConcurrentKnowledgeBase();
+		final AtomicInteger notified = new AtomicInteger();
+		kb.addListener(new KnowledgeBaseListener() {
+			@Override
+			public void onStatementsAdded(final List<Statement> statementsAdded) {
+				notified.addAndGet(statementsAdded.size());
+			}
+
+			@Override
+			public void onStatementAdded(final Statement statementAdded) {
+				notified.incrementAndGet();
+			}
+
+			@Override
+			public void onStatementsRemoved(final List<Statement> statementsRemoved) {
+			}
+
+			@Override
+			public void onStatementRemoved(final Statement statementRemoved) {
+			}
+		});
+
+		final ExecutorService executor = Executors.newFixedThreadPool(PRODUCERS + 1);
+		final List<Future<?>> futures = new ArrayList<>();
+		for (int p = 0; p < PRODUCERS; p++) {
+			final int producer = p;
+			futures.add(executor.submit(() -> {
+				for (int batch = 0; batch < BATCHES; batch++) {
+					kb.addStatements(makeBatch(producer, batch));
+				}
+			}));
+		}
+		// a reader that iterates while producers are adding
+		futures.add(executor.submit(() -> {
+			for (int i = 0; i < 100; i++) {
+				int count = 0;
+				for (@SuppressWarnings("unused")
+				final Statement statement : kb) {
+					count++;
+				}
+				assertTrue(count <= PRODUCERS * BATCHES * BATCH_SIZE);
+			}
+		}));
+		for (final Future<?> future : futures) {
+			future.get();
+		}
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+		assertEquals(PRODUCERS * BATCHES * BATCH_SIZE, kb.getFactCount());
+		assertEquals(PRODUCERS * BATCHES * BATCH_SIZE, kb.getFacts().size());
+		assertEquals(PRODUCERS * BATCHES * BATCH_SIZE, notified.get());
+	}
+
+	@Test
+	public void addStatement_listenerBusy_otherThreadsCanModify() throws Exception {
+		final ConcurrentKnowledgeBase kb = new ConcurrentKnowledgeBase();
+		final CountDownLatch notifying = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final List<Statement> notified = new CopyOnWriteArrayList<>();
+		kb.addListener(new KnowledgeBaseListener() {
+			@Override
+			public void onStatementsAdded(final List<Statement> statementsAdded) {
+			}
+
+			@Override
+			public void onStatementAdded(final Statement statementAdded) {
+				notified.add(statementAdded);
+				notifying.countDown();
+				try {
+					release.await();
+				} catch (final InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+
+			@Override
+			public void onStatementsRemoved(final List<Statement> statementsRemoved) {
+			}
+
+			@Override
+			public void onStatementRemoved(final Statement statementRemoved) {
+			}
+		});
+
+		final ExecutorService executor = Executors.newFixedThreadPool(2);
+		final Future<?> first = executor.submit(() -> kb.addStatement(this.fact1));
+		assertTrue(notifying.await(10, TimeUnit.SECONDS));
+		final Future<?> second = executor.submit(() -> kb.addStatement(this.fact2));
+
+		final long deadline = System.currentTimeMillis() + 10000;
+		while (kb.getFactCount() < 2 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertEquals(2, kb.getFactCount());
+		assertEquals(Arrays.asList(this.fact1), notified);
+
+		release.countDown();
+		first.get();
+		second.get();
+		executor.shutdown();
+		assertEquals(Arrays.asList(this.fact1, this.fact2), notified);
+	}
+
+	@Test
+	public void snapshot_laterModifications_notReflected() {
+		final ConcurrentKnowledgeBase kb = new ConcurrentKnowledgeBase();
+		kb.addStatements(this.fact1);
+
+		final KnowledgeBase snapshot = kb.snapshot();
+		kb.addStatement(this.fact2);
+
+		assertEquals(Arrays.asList(this.fact1), snapshot.getFacts());
+		assertEquals(Arrays.asList(this.fact1, this.fact2), kb.getFacts());
+	}
+
+	@Test
+	public void snapshot_compactFactStorage_keepsStorage() {
+		final ConcurrentKnowledgeBase kb = new ConcurrentKnowledgeBase(FactStorage.COMPACT);
+		kb.addStatements(this.fact1, this.fact2);
+
+		final KnowledgeBase snapshot = kb.snapshot();
+		assertEquals(FactStorage.COMPACT, snapshot.getFactStorage());
+		assertEquals(Arrays.asList(this.fact1, this.fact2), snapshot.getFacts());
+	}
+
+	@Test
+	public void getFactsForPredicate_laterModifications_notReflected() {
+		final ConcurrentKnowledgeBase kb = new ConcurrentKnowledgeBase();
+		kb.addStatements(this.fact1);
+
+		final List<Fact> facts = new ArrayList<>(kb.getFacts(this.fact1.getPredicate()));
+		kb.addStatement(this.fact2);
+		assertEquals(Arrays.asList(this.fact1), facts);
+	}
+
+	@Test
+	public void getStatements_unmodified_copiedOnce() {
+		final ConcurrentKnowledgeBase kb = new ConcurrentKnowledgeBase();
+		kb.addStatements(this.fact1);
+
+		final Collection<Statement> statements = kb.getStatements();
+		assertSame(statements, kb.getStatements());
+		assertSame(kb.getFacts(this.fact1.getPredicate()), kb.getFacts(this.fact1.getPredicate()));
+
+		kb.addStatement(this.fact2);
+		assertEquals(Arrays.asList(this.fact1), new ArrayList<>(statements));
+		assertEquals(Arrays.asList(this.fact1, this.fact2), new ArrayList<>(kb.getStatements()));
+		assertEquals(2, kb.getFacts(this.fact1.getPredicate()).size());
+	}
+
+	@Test
+	public void getFactsByPredicate_laterModifications_notReflected() {
+		final ConcurrentKnowledgeBase kb = new ConcurrentKnowledgeBase();
+		kb.addStatements(this.fact1);
+
+		final Map<Predicate, Set<Fact>> factsByPredicate = kb.getFactsByPredicate();
+		kb.addStatement(this.fact2);
+		assertEquals(Collections.singletonMap(this.fact1.getPredicate(), Collections.singleton(this.fact1)),
+				factsByPredicate);
+	}
+
+}
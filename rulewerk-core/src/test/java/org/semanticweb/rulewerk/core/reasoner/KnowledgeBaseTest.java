@@ -24,8 +24,14 @@ import static org.junit.Assert.*;
 
 import java.io.IOException;
 import java.io.StringWriter;
+import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.Set;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -34,7 +40,9 @@ import org.semanticweb.rulewerk.core.exceptions.PrefixDeclarationException;
 import org.semanticweb.rulewerk.core.exceptions.RulewerkRuntimeException;
 import org.semanticweb.rulewerk.core.model.api.Fact;
 import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
 import org.semanticweb.rulewerk.core.model.api.Rule;
+import org.semanticweb.rulewerk.core.model.api.Statement;
 import org.semanticweb.rulewerk.core.model.implementation.DataSourceDeclarationImpl;
 import org.semanticweb.rulewerk.core.model.implementation.Expressions;
 import org.semanticweb.rulewerk.core.model.implementation.MergingPrefixDeclarationRegistry;
@@ -51,6 +59,7 @@ public class KnowledgeBaseTest {
 	private final PositiveLiteral literal2 = Expressions.makePositiveLiteral("Q",
 			Expressions.makeUniversalVariable("X"));
 	private final Rule rule = Expressions.makeRule(literal1, literal2);
+	private URL sparqlEndpoint;
 
 	@Before
 	public void initKB() {
@@ -58,6 +67,11 @@ public class KnowledgeBaseTest {
 		this.kb.addStatements(this.fact1, this.fact2, this.fact3);
 	}
 
+	@Before
+	public void initSparqlEndpoint() throws MalformedURLException {
+		this.sparqlEndpoint = new URL("https://example.org/sparql");
+	}
+
 	@Test
 	public void testDoRemoveStatementExistent() {
 		final boolean removed = this.kb.doRemoveStatement(this.fact1);
@@ -105,6 +119,172 @@ public class KnowledgeBaseTest {
 		assertEquals(Sets.newSet(this.fact3), this.kb.getFactsByPredicate().get(this.fact3.getPredicate()));
 	}
 
+	@Test
+	public void getFacts_unchangedKnowledgeBase_returnsSameList() {
+		assertSame(this.kb.getFacts(), this.kb.getFacts());
+	}
+
+	@Test
+	public void getFacts_afterRemoval_previousListUnchanged() {
+		final List<Fact> facts = this.kb.getFacts();
+		this.kb.removeStatement(this.fact1);
+
+		assertEquals(Arrays.asList(this.fact1, this.fact2, this.fact3), facts);
+		assertEquals(Arrays.asList(this.fact2, this.fact3), this.kb.getFacts());
+	}
+
+	@Test
+	public void getFacts_afterAdditions_previousListUnchanged() {
+		final Fact fact4 = Expressions.makeFact("P", Expressions.makeAbstractConstant("a"));
+		final Fact fact5 = Expressions.makeFact("Q", Expressions.makeAbstractConstant("a"));
+		final List<Fact> facts = this.kb.getFacts();
+		this.kb.addStatement(fact4);
+		final List<Fact> factsAfterAddition = this.kb.getFacts();
+		this.kb.removeStatement(this.fact2);
+		this.kb.addStatement(fact5);
+
+		assertEquals(Arrays.asList(this.fact1, this.fact2, this.fact3), facts);
+		assertEquals(Arrays.asList(this.fact1, this.fact2, this.fact3, fact4), factsAfterAddition);
+		assertEquals(Arrays.asList(this.fact1, this.fact3, fact4, fact5), this.kb.getFacts());
+		assertEquals(4, this.kb.getFactCount());
+	}
+
+	@Test
+	public void getCounts_mixedStatements_countsByType() {
+		this.kb.addStatement(this.rule);
+		this.kb.addStatement(new DataSourceDeclarationImpl(Expressions.makePredicate("S", 1),
+				new SparqlQueryResultDataSource(this.sparqlEndpoint, "?X", "?X ?p []")));
+
+		assertEquals(3, this.kb.getFactCount());
+		assertEquals(1, this.kb.getRuleCount());
+		assertEquals(1, this.kb.getDataSourceDeclarationCount());
+		assertEquals(Arrays.asList(this.rule), this.kb.getRules());
+
+		this.kb.removeStatement(this.rule);
+		assertEquals(0, this.kb.getRuleCount());
+		assertEquals(Collections.emptyList(), this.kb.getRules());
+	}
+
+	@Test
+	public void getFactsForPredicate_succeeds() {
+		final Fact fact4 = Expressions.makeFact("P", Expressions.makeAbstractConstant("a"));
+		this.kb.addStatement(fact4);
+
+		assertEquals(Sets.newSet(this.fact1, this.fact2, fact4), this.kb.getFacts(this.fact1.getPredicate()));
+		assertEquals(Sets.newSet(this.fact3), this.kb.getFacts(this.fact3.getPredicate()));
+		assertTrue(this.kb.getFacts(Expressions.makePredicate("R", 1)).isEmpty());
+	}
+
+	@Test(expected = ConcurrentModificationException.class)
+	public void getFactsForPredicate_usedAfterModification_throws() {
+		final Set<Fact> facts = this.kb.getFacts(this.fact1.getPredicate());
+		this.kb.removeStatement(this.fact3);
+		facts.size();
+	}
+
+	@Test(expected = ConcurrentModificationException.class)
+	public void getFactsForPredicate_emptyUsedAfterModification_throws() {
+		final Predicate predicate = Expressions.makePredicate("R", 1);
+		final Set<Fact> facts = this.kb.getFacts(predicate);
+		this.kb.addStatement(Expressions.makeFact(predicate, Expressions.makeAbstractConstant("a")));
+		facts.isEmpty();
+	}
+
+	@Test
+	public void getFacts_alternatingRemovals_earlierListsUnchanged() {
+		final List<Fact> facts = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			facts.add(Expressions.makeFact("R", Expressions.makeAbstractConstant("c" + i)));
+		}
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatements(facts);
+
+		final List<List<Fact>> lists = new ArrayList<>();
+		for (int i = 0; i < 100; i += 2) {
+			lists.add(kb.getFacts());
+			kb.removeStatement(facts.get(i));
+		}
+		kb.addStatement(facts.get(0));
+
+		for (int i = 0; i < lists.size(); i++) {
+			final List<Fact> expected = new ArrayList<>(facts.subList(2 * i, 100));
+			for (int j = 1; j < 2 * i; j += 2) {
+				expected.add(j / 2, facts.get(j));
+			}
+			assertEquals(expected, lists.get(i));
+			assertEquals(expected, new ArrayList<>(lists.get(i)));
+		}
+		final List<Fact> remaining = new ArrayList<>();
+		for (int j = 1; j < 100; j += 2) {
+			remaining.add(facts.get(j));
+		}
+		remaining.add(facts.get(0));
+		assertEquals(remaining, kb.getFacts());
+		assertEquals(remaining, new ArrayList<>(kb.getStatements()));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void getFactsForPredicate_modify_throws() {
+		this.kb.getFacts(this.fact1.getPredicate()).clear();
+	}
+
+	@Test
+	public void compactFactStorage_sameContentsAsObjectStorage() {
+		final KnowledgeBase compactKb = new KnowledgeBase(FactStorage.COMPACT);
+		compactKb.addStatements(this.fact1, this.rule, this.fact3, this.fact2, this.fact1);
+
+		assertEquals(FactStorage.COMPACT, compactKb.getFactStorage());
+		assertEquals(3, compactKb.getFactCount());
+		assertEquals(Arrays.asList(this.fact1, this.fact2, this.fact3), compactKb.getFacts());
+		assertEquals(Arrays.asList(this.rule), compactKb.getRules());
+		assertEquals(Arrays.asList(this.rule, this.fact1, this.fact2, this.fact3),
+				new ArrayList<>(compactKb.getStatements()));
+		assertEquals(this.kb.getFactsByPredicate(), compactKb.getFactsByPredicate());
+
+		assertEquals(1, compactKb.removeStatement(this.fact1));
+		assertEquals(0, compactKb.removeStatement(this.fact1));
+		assertEquals(Arrays.asList(this.fact2, this.fact3), compactKb.getFacts());
+	}
+
+	@Test
+	public void compactFactStorage_notifiesListenersOnlyOnChange() {
+		final KnowledgeBase compactKb = new KnowledgeBase(FactStorage.COMPACT);
+		final List<Statement> added = new ArrayList<>();
+		compactKb.addListener(new KnowledgeBaseListener() {
+			@Override
+			public void onStatementsAdded(final List<Statement> statementsAdded) {
+				added.addAll(statementsAdded);
+			}
+
+			@Override
+			public void onStatementAdded(final Statement statementAdded) {
+				added.add(statementAdded);
+			}
+
+			@Override
+			public void onStatementsRemoved(final List<Statement> statementsRemoved) {
+			}
+
+			@Override
+			public void onStatementRemoved(final Statement statementRemoved) {
+			}
+		});
+
+		compactKb.addStatement(this.fact1);
+		compactKb.addStatements(this.fact1, this.fact2);
+		assertEquals(Arrays.asList(this.fact1, this.fact2), added);
+	}
+
+	@Test
+	public void writeKnowledgeBase_compactFactStorage_succeeds() throws IOException {
+		final KnowledgeBase compactKb = new KnowledgeBase(FactStorage.COMPACT);
+		compactKb.addStatements(this.fact1, this.fact2, this.fact3, this.rule);
+
+		final StringWriter writer = new StringWriter();
+		compactKb.writeKnowledgeBase(writer);
+		assertEquals("P(c) .\nP(d) .\nQ(c) .\n\nP(?X) :- Q(?X) .\n", writer.toString());
+	}
+
 	@Test
 	public void getBase_default_hasEmptyBase() {
 		assertEquals("", this.kb.getBaseIri());
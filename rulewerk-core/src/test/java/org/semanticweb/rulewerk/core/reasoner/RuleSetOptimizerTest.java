@@ -0,0 +1,202 @@
+package org.semanticweb.rulewerk.core.reasoner;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+import org.semanticweb.rulewerk.core.model.api.Literal;
+import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.Rule;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+
+public class RuleSetOptimizerTest {
+
+	private final Term x = Expressions.makeUniversalVariable("X");
+	private final Term y = Expressions.makeUniversalVariable("Y");
+	private final Term z = Expressions.makeUniversalVariable("Z");
+	private final Term w = Expressions.makeExistentialVariable("W");
+	private final Term c = Expressions.makeAbstractConstant("c");
+
+	private final Predicate p = Expressions.makePredicate("p", 1);
+	private final Predicate q = Expressions.makePredicate("q", 1);
+	private final Predicate r = Expressions.makePredicate("r", 2);
+	private final Predicate s = Expressions.makePredicate("s", 2);
+	private final Predicate t = Expressions.makePredicate("t", 1);
+	private final Predicate u = Expressions.makePredicate("u", 1);
+
+	private static PositiveLiteral atom(final Predicate predicate, final Term... terms) {
+		return Expressions.makePositiveLiteral(predicate, terms);
+	}
+
+	private static Rule rule(final PositiveLiteral head, final Literal... body) {
+		return Expressions.makeRule(head, body);
+	}
+
+	@Test
+	public void optimize_withoutChanges_returnsRules() {
+		final Rule rule1 = rule(atom(this.q, this.x), atom(this.p, this.x));
+		final Rule rule2 = rule(atom(this.t, this.x), atom(this.q, this.x), atom(this.p, this.x));
+		final List<Rule> rules = Arrays.asList(rule1, rule2, rule1);
+
+		final RuleSetOptimizationReport report = new RuleSetOptimizer().optimize(rules);
+
+		assertEquals(Arrays.asList(rule1, rule2), report.getRules());
+		assertEquals(2, report.getInputRuleCount());
+		assertFalse(report.hasChanges());
+	}
+
+	@Test
+	public void optimize_ruleWithMoreSpecificBody_isSubsumed() {
+		final Rule general = rule(atom(this.q, this.x), atom(this.r, this.x, this.y));
+		final Rule specific = rule(atom(this.q, this.x), atom(this.r, this.x, this.x), atom(this.p, this.x));
+		final Rule constant = rule(atom(this.q, this.c), atom(this.r, this.c, this.z));
+
+		final RuleSetOptimizationReport report = new RuleSetOptimizer()
+				.optimize(Arrays.asList(specific, general, constant));
+
+		assertEquals(Arrays.asList(general), report.getRules());
+		assertEquals(Arrays.asList(specific, constant), report.getSubsumedRules());
+	}
+
+	@Test
+	public void optimize_ruleWithLargerHead_subsumesRuleWithSmallerHead() {
+		final Rule general = Expressions.makeRule(
+				Expressions.makePositiveConjunction(atom(this.q, this.x), atom(this.t, this.x)),
+				Expressions.makeConjunction(atom(this.p, this.x)));
+		final Rule specific = rule(atom(this.t, this.y), atom(this.p, this.y));
+
+		final RuleSetOptimizationReport report = new RuleSetOptimizer().optimize(Arrays.asList(general, specific));
+
+		assertEquals(Arrays.asList(general), report.getRules());
+		assertEquals(Arrays.asList(specific), report.getSubsumedRules());
+	}
+
+	@Test
+	public void optimize_equivalentRules_keepsOne() {
+		final Rule rule1 = rule(atom(this.q, this.x), atom(this.p, this.x));
+		final Rule rule2 = rule(atom(this.q, this.y), atom(this.p, this.y));
+
+		final RuleSetOptimizationReport report = new RuleSetOptimizer().optimize(Arrays.asList(rule1, rule2));
+
+		assertEquals(1, report.getRules().size());
+		assertEquals(1, report.getSubsumedRules().size());
+	}
+
+	@Test
+	public void optimize_rulesWithNegationOrExistentials_areNotSubsumed() {
+		final Rule general = rule(atom(this.q, this.x), atom(this.p, this.x));
+		final Rule negated = rule(atom(this.q, this.x), atom(this.p, this.x),
+				Expressions.makeNegativeLiteral(this.t, this.x));
+		final Rule existential = rule(atom(this.s, this.x, this.w), atom(this.p, this.x));
+		final Rule existentialCopy = rule(atom(this.s, this.y, this.w), atom(this.p, this.y));
+
+		final List<Rule> rules = Arrays.asList(general, negated, existential, existentialCopy);
+		final RuleSetOptimizationReport report = new RuleSetOptimizer().optimize(rules);
+
+		assertEquals(rules, report.getRules());
+	}
+
+	@Test
+	public void optimize_withOutputPredicates_removesUnreachableRules() {
+		final Rule reachable = rule(atom(this.q, this.x), atom(this.r, this.x, this.y));
+		final Rule reachableViaNegation = rule(atom(this.t, this.x), atom(this.p, this.x));
+		final Rule unreachable = rule(atom(this.u, this.x), atom(this.q, this.x));
+		final Rule output = rule(atom(this.s, this.x, this.y), atom(this.r, this.x, this.y),
+				Expressions.makeNegativeLiteral(this.t, this.x));
+
+		final RuleSetOptimizationReport report = new RuleSetOptimizer(Arrays.asList(this.s, this.q))
+				.optimize(Arrays.asList(reachable, reachableViaNegation, unreachable, output));
+
+		assertEquals(Arrays.asList(reachable, reachableViaNegation, output), report.getRules());
+		assertEquals(Arrays.asList(unreachable), report.getUnreachableRules());
+	}
+
+	@Test
+	public void optimize_withOutputPredicates_inlinesSingleUsePredicate() {
+		final Rule defining1 = rule(atom(this.p, this.x), atom(this.r, this.x, this.y));
+		final Rule defining2 = rule(atom(this.p, this.c), atom(this.t, this.c));
+		final Rule user = Expressions.makeRule(
+				Expressions.makePositiveConjunction(atom(this.s, this.z, this.z), atom(this.q, this.z)),
+				Expressions.makeConjunction(atom(this.p, this.z)));
+
+		final RuleSetOptimizationReport report = new RuleSetOptimizer(Arrays.asList(this.s, this.q))
+				.optimize(Arrays.asList(defining1, user, defining2));
+
+		final Rule inlined1 = Expressions.makeRule(
+				Expressions.makePositiveConjunction(atom(this.s, this.x, this.x), atom(this.q, this.x)),
+				Expressions.makeConjunction(atom(this.r, this.x, this.y)));
+		final Rule inlined2 = Expressions.makeRule(
+				Expressions.makePositiveConjunction(atom(this.s, this.c, this.c), atom(this.q, this.c)),
+				Expressions.makeConjunction(atom(this.t, this.c)));
+		assertEquals(Arrays.asList(inlined1, inlined2), report.getRules());
+		assertEquals(Collections.singleton(this.p), report.getInlinedPredicates());
+	}
+
+	@Test
+	public void optimize_withOutputPredicates_inlinesChains() {
+		final Rule rule1 = rule(atom(this.p, this.x), atom(this.r, this.x, this.y));
+		final Rule rule2 = rule(atom(this.q, this.x), atom(this.p, this.x));
+		final Rule rule3 = rule(atom(this.t, this.x), atom(this.q, this.x));
+
+		final RuleSetOptimizationReport report = new RuleSetOptimizer(Arrays.asList(this.t))
+				.optimize(Arrays.asList(rule1, rule2, rule3));
+
+		assertEquals(Arrays.asList(rule(atom(this.t, this.x), atom(this.r, this.x, this.y))), report.getRules());
+		assertEquals(2, report.getInlinedPredicates().size());
+	}
+
+	@Test
+	public void optimize_withOutputPredicates_doesNotInlineUnsafePredicates() {
+		final Rule existential = rule(atom(this.s, this.x, this.w), atom(this.p, this.x));
+		final Rule existentialUser = rule(atom(this.r, this.x, this.y), atom(this.s, this.x, this.y));
+		final Rule recursive = rule(atom(this.q, this.x), atom(this.q, this.x), atom(this.p, this.x));
+		final Rule recursiveUser = rule(atom(this.t, this.x), atom(this.q, this.x));
+		final Rule repeatedVariable = rule(atom(this.t, this.x), atom(this.r, this.x, this.x));
+		final Rule negated = rule(atom(this.t, this.x), atom(this.p, this.x),
+				Expressions.makeNegativeLiteral(this.q, this.x));
+
+		final List<Rule> rules = Arrays.asList(existential, existentialUser, recursive, recursiveUser,
+				repeatedVariable, negated);
+		final RuleSetOptimizationReport report = new RuleSetOptimizer(Arrays.asList(this.t)).optimize(rules);
+
+		assertEquals(rules, report.getRules());
+		assertTrue(report.getInlinedPredicates().isEmpty());
+	}
+
+	@Test
+	public void optimize_outputPredicate_isNotInlined() {
+		final Rule rule1 = rule(atom(this.q, this.x), atom(this.p, this.x));
+		final Rule rule2 = rule(atom(this.t, this.x), atom(this.q, this.x));
+
+		final RuleSetOptimizationReport report = new RuleSetOptimizer(Arrays.asList(this.q, this.t))
+				.optimize(Arrays.asList(rule1, rule2));
+
+		assertEquals(Arrays.asList(rule1, rule2), report.getRules());
+	}
+
+}
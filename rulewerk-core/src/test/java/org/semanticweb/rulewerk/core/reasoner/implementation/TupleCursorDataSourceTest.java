@@ -0,0 +1,171 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.semanticweb.rulewerk.core.reasoner.implementation.TupleCursorDataSource.TupleCursor;
+
+public class TupleCursorDataSourceTest {
+
+	private final List<String[]> tuples = Arrays.asList(new String[] { "a", "b" }, new String[] { "b", "c" },
+			new String[] { "c", "d" });
+
+	@Test(expected = IllegalArgumentException.class)
+	public void constructor_zeroBatchSize_fails() {
+		new TupleCursorDataSource(2, 0, () -> batch -> 0);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void constructor_nullCursorProvider_fails() {
+		new TupleCursorDataSource(2, null);
+	}
+
+	@Test
+	public void getRequiredArity_returnsArity() {
+		assertEquals(Optional.of(2), TupleCursorDataSource.fromIterable(2, this.tuples).getRequiredArity());
+	}
+
+	@Test
+	public void forEachBatch_fromIterable_batchesOfDefaultSize() throws IOException {
+		final List<Integer> batchSizes = new ArrayList<>();
+		final long count = TupleCursorDataSource.fromIterable(2, this.tuples)
+				.forEachBatch((batch, size) -> batchSizes.add(size));
+
+		assertEquals(3, count);
+		assertEquals(Arrays.asList(3), batchSizes);
+	}
+
+	@Test
+	public void forEachBatch_smallBatchSize_batchesBounded() throws IOException {
+		final TupleCursorDataSource dataSource = new TupleCursorDataSource(2, 2,
+				TupleCursorDataSource.fromIterable(2, this.tuples).getCursorProvider());
+		final List<Integer> batchSizes = new ArrayList<>();
+		final List<String[]> pulled = new ArrayList<>();
+
+		final long count = dataSource.forEachBatch((batch, size) -> {
+			assertEquals(2, batch.length);
+			batchSizes.add(size);
+			pulled.addAll(Arrays.asList(batch).subList(0, size));
+		});
+
+		assertEquals(3, count);
+		assertEquals(Arrays.asList(2, 1), batchSizes);
+		assertArrayEquals(this.tuples.toArray(), pulled.toArray());
+	}
+
+	@Test
+	public void forEachBatch_calledTwice_tuplesPulledAgain() throws IOException {
+		final TupleCursorDataSource dataSource = TupleCursorDataSource.fromIterable(2, this.tuples);
+
+		assertEquals(3, dataSource.forEachBatch((batch, size) -> {
+		}));
+		assertEquals(3, dataSource.forEachBatch((batch, size) -> {
+		}));
+	}
+
+	@Test
+	public void forEachBatch_consumerFails_cursorClosed() {
+		final AtomicBoolean closed = new AtomicBoolean();
+		final TupleCursor cursor = new TupleCursor() {
+			@Override
+			public int fetch(final String[][] batch) {
+				batch[0] = new String[] { "a" };
+				return 1;
+			}
+
+			@Override
+			public void close() {
+				closed.set(true);
+			}
+		};
+		final TupleCursorDataSource dataSource = new TupleCursorDataSource(1, () -> cursor);
+
+		try {
+			dataSource.forEachBatch((batch, size) -> {
+				throw new IOException("failed");
+			});
+			fail("Exception of consumer should be propagated.");
+		} catch (final IOException e) {
+			assertEquals("failed", e.getMessage());
+		}
+		assertTrue(closed.get());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void forEachBatch_tupleOfWrongArity_fails() throws IOException {
+		TupleCursorDataSource.fromIterable(3, this.tuples).forEachBatch((batch, size) -> {
+		});
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void getDeclarationFact_fails() {
+		TupleCursorDataSource.fromIterable(2, this.tuples).getDeclarationFact();
+	}
+
+	@Test
+	public void visit_succeeds() throws IOException {
+		final DataSourceConfigurationVisitor visitor = Mockito.mock(DataSourceConfigurationVisitor.class);
+		final TupleCursorDataSource dataSource = TupleCursorDataSource.fromIterable(2, this.tuples);
+
+		dataSource.accept(visitor);
+
+		Mockito.verify(visitor).visit(dataSource);
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void visit_visitorWithoutSupport_fails() throws IOException {
+		final DataSourceConfigurationVisitor visitor = new DataSourceConfigurationVisitor() {
+			@Override
+			public void visit(final CsvFileDataSource dataSource) {
+			}
+
+			@Override
+			public void visit(final RdfFileDataSource dataSource) {
+			}
+
+			@Override
+			public void visit(final TridentDataSource dataSource) {
+			}
+
+			@Override
+			public void visit(final SparqlQueryResultDataSource dataSource) {
+			}
+
+			@Override
+			public void visit(final InMemoryDataSource dataSource) {
+			}
+		};
+		TupleCursorDataSource.fromIterable(2, this.tuples).accept(visitor);
+	}
+}
@@ -0,0 +1,127 @@
+package org.semanticweb.rulewerk.examples.benchmarks;
+
+/*-
+ * #%L
+ * Rulewerk Examples
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.reasoner.FactStorage;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+
+/**
+ * JMH benchmark for adding many facts to a {@link KnowledgeBase} at once. Facts
+ * are either created anew for each run, as when loading them from a file, or
+ * reused, as when the same facts are added to several knowledge bases.
+ *
+ * Run with {@code mvn package} followed by
+ * {@code java -cp target/classes:<dependencies> org.semanticweb.rulewerk.examples.benchmarks.AddStatementsBenchmark},
+ * or from an IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AddStatementsBenchmark {
+
+	@Param({ "100000" })
+	int factCount;
+
+	@Param({ "OBJECTS", "COMPACT" })
+	FactStorage factStorage;
+
+	private final Predicate predicate = Expressions.makePredicate("http://example.org/p", 3);
+	private Term[] subjects;
+	private Term[] objects;
+	private List<Fact> facts;
+
+	@Setup
+	public void setUp() {
+		this.subjects = new Term[this.factCount];
+		this.objects = new Term[1000];
+		for (int i = 0; i < this.subjects.length; i++) {
+			this.subjects[i] = Expressions.makeAbstractConstant("http://example.org/s" + i);
+		}
+		for (int i = 0; i < this.objects.length; i++) {
+			this.objects[i] = Expressions.makeDatatypeConstant(Integer.toString(i),
+					"http://www.w3.org/2001/XMLSchema#integer");
+		}
+		this.facts = this.makeFacts();
+	}
+
+	private List<Fact> makeFacts() {
+		final List<Fact> result = new ArrayList<>(this.factCount);
+		for (int i = 0; i < this.factCount; i++) {
+			result.add(Expressions.makeFact(this.predicate, this.subjects[i], this.objects[i % this.objects.length],
+					this.subjects[(i * 7) % this.factCount]));
+		}
+		return result;
+	}
+
+	@Benchmark
+	public KnowledgeBase addNewFacts() {
+		final KnowledgeBase kb = new KnowledgeBase(this.factStorage);
+		kb.addStatements(this.makeFacts());
+		return kb;
+	}
+
+	@Benchmark
+	public KnowledgeBase addExistingFacts() {
+		final KnowledgeBase kb = new KnowledgeBase(this.factStorage);
+		kb.addStatements(this.facts);
+		return kb;
+	}
+
+	@Benchmark
+	public KnowledgeBase addExistingFactsTwice() {
+		final KnowledgeBase kb = new KnowledgeBase(this.factStorage);
+		kb.addStatements(this.facts);
+		kb.addStatements(this.facts);
+		return kb;
+	}
+
+	public static void main(final String[] args) throws RunnerException {
+		final Options options = new OptionsBuilder().include(AddStatementsBenchmark.class.getSimpleName()).build();
+		new Runner(options).run();
+	}
+
+}
@@ -0,0 +1,121 @@
+package org.semanticweb.rulewerk.examples.benchmarks;
+
+/*-
+ * #%L
+ * Rulewerk Examples
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLNamedIndividual;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.rulewerk.owlapi.OwlToRulesConverter;
+
+/**
+ * JMH benchmark for converting a large generated OWL ontology to rules with
+ * different numbers of threads. The ontology mixes class inclusions with
+ * existential restrictions and conjunctions, which lead to auxiliary rules, with
+ * class and property assertions, similar to large EL ontologies.
+ *
+ * Run with {@code mvn package} followed by
+ * {@code java -cp target/classes:<dependencies> org.semanticweb.rulewerk.examples.benchmarks.OwlToRulesConversionBenchmark},
+ * or from an IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OwlToRulesConversionBenchmark {
+
+	@Param({ "50000" })
+	int classCount;
+
+	@Param({ "1", "2", "4", "8" })
+	int threads;
+
+	private OWLOntology ontology;
+
+	@Setup
+	public void setUp() throws OWLOntologyCreationException {
+		final OWLDataFactory df = OWLManager.getOWLDataFactory();
+		final OWLObjectProperty[] properties = new OWLObjectProperty[20];
+		for (int i = 0; i < properties.length; i++) {
+			properties[i] = df.getOWLObjectProperty(IRI.create("http://example.org/p" + i));
+		}
+		final OWLClass[] classes = new OWLClass[this.classCount];
+		final OWLNamedIndividual[] individuals = new OWLNamedIndividual[this.classCount];
+		for (int i = 0; i < this.classCount; i++) {
+			classes[i] = df.getOWLClass(IRI.create("http://example.org/C" + i));
+			individuals[i] = df.getOWLNamedIndividual(IRI.create("http://example.org/a" + i));
+		}
+
+		final List<OWLAxiom> axioms = new ArrayList<>();
+		for (int i = 0; i < this.classCount; i++) {
+			final OWLObjectProperty p = properties[i % properties.length];
+			final OWLClass c1 = classes[(i + 1) % this.classCount];
+			final OWLClass c2 = classes[(i * 7 + 3) % this.classCount];
+			axioms.add(df.getOWLSubClassOfAxiom(classes[i],
+					df.getOWLObjectSomeValuesFrom(p, df.getOWLObjectIntersectionOf(c1, c2))));
+			axioms.add(df.getOWLSubClassOfAxiom(
+					df.getOWLObjectIntersectionOf(classes[i], df.getOWLObjectSomeValuesFrom(p, c2)), c1));
+			axioms.add(df.getOWLClassAssertionAxiom(classes[i], individuals[i]));
+			axioms.add(df.getOWLObjectPropertyAssertionAxiom(p, individuals[i], individuals[(i + 1) % this.classCount]));
+		}
+		this.ontology = OWLManager.createOWLOntologyManager().createOntology(axioms);
+	}
+
+	@Benchmark
+	public OwlToRulesConverter convert() {
+		final OwlToRulesConverter converter = new OwlToRulesConverter(false, this.threads);
+		converter.addOntology(this.ontology);
+		return converter;
+	}
+
+	public static void main(final String[] args) throws RunnerException {
+		final Options options = new OptionsBuilder().include(OwlToRulesConversionBenchmark.class.getSimpleName())
+				.build();
+		new Runner(options).run();
+	}
+
+}
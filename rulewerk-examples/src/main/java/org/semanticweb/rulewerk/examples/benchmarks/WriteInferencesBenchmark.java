@@ -0,0 +1,148 @@
+package org.semanticweb.rulewerk.examples.benchmarks;
+
+/*-
+ * #%L
+ * Rulewerk Examples
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.UniversalVariable;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.reasoner.Correctness;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.reasoner.vlog.VLogReasoner;
+
+/**
+ * JMH benchmark for exporting the inferences of a materialised model with many
+ * predicates, comparing the sequential export with the ordered export to a
+ * single writer and the export to one writer per predicate, for different
+ * numbers of threads. Inferences are written to writers that discard them, so
+ * that the benchmark measures querying and serialising rather than the file
+ * system. A speedup requires at least as many cores as threads.
+ *
+ * Run with {@code mvn package} followed by
+ * {@code java -cp target/classes:<dependencies> org.semanticweb.rulewerk.examples.benchmarks.WriteInferencesBenchmark},
+ * or from an IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WriteInferencesBenchmark {
+
+	@Param({ "50" })
+	int predicateCount;
+
+	@Param({ "20000" })
+	int factsPerPredicate;
+
+	@Param({ "1", "2", "4", "8" })
+	int threads;
+
+	private VLogReasoner reasoner;
+
+	/**
+	 * Writer that discards everything written to it.
+	 */
+	private static final class DiscardingWriter extends Writer {
+		@Override
+		public void write(final char[] buffer, final int offset, final int length) {
+		}
+
+		@Override
+		public void write(final String string) {
+		}
+
+		@Override
+		public void flush() {
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+
+	@Setup
+	public void setUp() throws IOException {
+		final KnowledgeBase knowledgeBase = new KnowledgeBase();
+		final UniversalVariable x = Expressions.makeUniversalVariable("X");
+		final UniversalVariable y = Expressions.makeUniversalVariable("Y");
+		for (int i = 0; i < this.predicateCount; i++) {
+			final Predicate edge = Expressions.makePredicate("http://example.org/edge" + i, 2);
+			final Predicate inverse = Expressions.makePredicate("http://example.org/inverse" + i, 2);
+			for (int j = 0; j < this.factsPerPredicate; j++) {
+				knowledgeBase.addStatement(Expressions.makeFact(edge,
+						Expressions.makeAbstractConstant("http://example.org/a" + j),
+						Expressions.makeDatatypeConstant("value " + (i * this.factsPerPredicate + j),
+								"http://www.w3.org/2001/XMLSchema#string")));
+			}
+			knowledgeBase.addStatement(Expressions.makeRule(Expressions.makePositiveLiteral(inverse, y, x),
+					Expressions.makePositiveLiteral(edge, x, y)));
+		}
+		this.reasoner = new VLogReasoner(knowledgeBase);
+		this.reasoner.reason();
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.reasoner.close();
+	}
+
+	@Benchmark
+	public Correctness sequential() throws IOException {
+		return this.reasoner.writeInferences(new DiscardingWriter());
+	}
+
+	@Benchmark
+	public Correctness ordered() throws IOException {
+		return this.reasoner.writeInferences(new DiscardingWriter(), this.threads);
+	}
+
+	@Benchmark
+	public Correctness perPredicate() throws IOException {
+		return this.reasoner.writeInferences(predicate -> new DiscardingWriter(), this.threads);
+	}
+
+	public static void main(final String[] args) throws RunnerException {
+		final Options options = new OptionsBuilder().include(WriteInferencesBenchmark.class.getSimpleName()).build();
+		new Runner(options).run();
+	}
+
+}
@@ -34,6 +34,7 @@ import org.semanticweb.rulewerk.core.model.api.Predicate;
 import org.semanticweb.rulewerk.core.model.api.Rule;
 import org.semanticweb.rulewerk.core.model.api.Term;
 import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.model.implementation.TermFactory;
 
 import fr.lirmm.graphik.graal.api.core.AtomSet;
 import fr.lirmm.graphik.graal.api.core.ConjunctiveQuery;
@@ -53,6 +54,8 @@ import fr.lirmm.graphik.util.stream.IteratorException;
  */
 public final class GraalToRulewerkModelConverter {
 
+	private static final TermFactory termFactory = new TermFactory();
+
 	private GraalToRulewerkModelConverter() {
 	}
 
@@ -153,7 +156,7 @@ public final class GraalToRulewerkModelConverter {
 	 * @return A {@link Predicate Rulewerk Predicate}
 	 */
 	private static Predicate convertPredicate(final fr.lirmm.graphik.graal.api.core.Predicate predicate) {
-		return Expressions.makePredicate(predicate.getIdentifier().toString(), predicate.getArity());
+		return termFactory.makePredicate(predicate.getIdentifier().toString(), predicate.getArity());
 	}
 
 	/**
@@ -261,12 +264,12 @@ public final class GraalToRulewerkModelConverter {
 			final Set<fr.lirmm.graphik.graal.api.core.Variable> existentialVariables) {
 		final String id = term.getIdentifier().toString();
 		if (term.isConstant()) {
-			return Expressions.makeAbstractConstant(id);
+			return termFactory.makeAbstractConstant(id);
 		} else if (term.isVariable()) {
 			if (existentialVariables.contains(term)) {
-				return Expressions.makeExistentialVariable(id);
+				return termFactory.makeExistentialVariable(id);
 			} else {
-				return Expressions.makeUniversalVariable(id);
+				return termFactory.makeUniversalVariable(id);
 			}
 		} else {
 			throw new GraalConvertException(MessageFormat.format(
@@ -34,12 +34,27 @@ import org.semanticweb.rulewerk.core.reasoner.implementation.Skolemization;
  */
 public class ConverterTermFactory {
 
-	private Skolemization skolemization = new Skolemization();
+	private Skolemization skolemization;
 
 	final Variable frontierVariable = new UniversalVariableImpl("X");
 
 	private int freshVariableCounter = 0;
 
+	public ConverterTermFactory() {
+		this(new Skolemization());
+	}
+
+	/**
+	 * Creates a factory that represents blank nodes using the given
+	 * {@link Skolemization}. Factories that share a skolemization represent blank
+	 * nodes with the same local ID in the same way.
+	 *
+	 * @param skolemization the renaming function for blank node IDs
+	 */
+	ConverterTermFactory(final Skolemization skolemization) {
+		this.skolemization = skolemization;
+	}
+
 	/**
 	 * Changes the renaming function for blank node IDs. Blank nodes with the same
 	 * local ID will be represented differently before and after this function is
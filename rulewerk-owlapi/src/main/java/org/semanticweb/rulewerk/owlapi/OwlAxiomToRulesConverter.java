@@ -84,6 +84,7 @@ import org.semanticweb.rulewerk.core.model.implementation.FactImpl;
 import org.semanticweb.rulewerk.core.model.implementation.PositiveLiteralImpl;
 import org.semanticweb.rulewerk.core.model.implementation.RuleImpl;
 import org.semanticweb.rulewerk.core.model.implementation.UniversalVariableImpl;
+import org.semanticweb.rulewerk.core.reasoner.implementation.Skolemization;
 
 /**
  * Class for converting OWL axioms to rules.
@@ -95,11 +96,26 @@ public class OwlAxiomToRulesConverter implements OWLAxiomVisitor {
 
 	static OWLDataFactory owlDataFactory = OWLManager.getOWLDataFactory();
 
-	final ConverterTermFactory termFactory = new ConverterTermFactory();
+	final ConverterTermFactory termFactory;
 
 	final Set<Rule> rules = new HashSet<>();
 	final Set<Fact> facts = new HashSet<>();
 
+	public OwlAxiomToRulesConverter() {
+		this.termFactory = new ConverterTermFactory();
+	}
+
+	/**
+	 * Creates a converter that represents blank nodes using the given
+	 * {@link Skolemization}, so that several converters can translate parts of
+	 * the same ontology consistently.
+	 *
+	 * @param skolemization the renaming function for blank node IDs
+	 */
+	OwlAxiomToRulesConverter(final Skolemization skolemization) {
+		this.termFactory = new ConverterTermFactory(skolemization);
+	}
+
 	/**
 	 * Processes the output of an {@link AbstractClassToRuleConverter} and
 	 * transforms it into a statement that is added. Tautologies are not added but
@@ -128,7 +144,7 @@ public class OwlAxiomToRulesConverter implements OWLAxiomVisitor {
 		if (converter.body.isTrueOrEmpty()) {
 			return new ConjunctionImpl<>(Arrays.asList(OwlToRulesConversionHelper.getTop(converter.mainTerm)));
 		} else {
-			return new ConjunctionImpl<>(converter.body.getConjuncts());
+			return new ConjunctionImpl<>(new ArrayList<>(converter.body.getConjuncts()));
 		}
 	}
 
@@ -136,7 +152,7 @@ public class OwlAxiomToRulesConverter implements OWLAxiomVisitor {
 		if (converter.head.isFalseOrEmpty()) {
 			return new ConjunctionImpl<>(Arrays.asList(OwlToRulesConversionHelper.getBottom(converter.mainTerm)));
 		} else {
-			return new ConjunctionImpl<>(converter.head.getConjuncts());
+			return new ConjunctionImpl<>(new ArrayList<>(converter.head.getConjuncts()));
 		}
 	}
 
@@ -177,7 +193,8 @@ public class OwlAxiomToRulesConverter implements OWLAxiomVisitor {
 			head.forEach(literal -> newHead.add(this.makeTermReplacedLiteral(literal, auxTerm, newVariable)));
 			this.rules.add(new RuleImpl(new ConjunctionImpl<>(newHead), new ConjunctionImpl<>(newBody)));
 		} else {
-			this.rules.add(new RuleImpl(new ConjunctionImpl<>(head), new ConjunctionImpl<>(body)));
+			this.rules.add(new RuleImpl(new ConjunctionImpl<>(new ArrayList<>(head)),
+					new ConjunctionImpl<>(new ArrayList<>(body))));
 		}
 
 	}
@@ -39,10 +39,9 @@ import org.semanticweb.rulewerk.core.model.api.Fact;
 import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
 import org.semanticweb.rulewerk.core.model.api.Predicate;
 import org.semanticweb.rulewerk.core.model.api.Term;
-import org.semanticweb.rulewerk.core.model.implementation.AbstractConstantImpl;
 import org.semanticweb.rulewerk.core.model.implementation.FactImpl;
 import org.semanticweb.rulewerk.core.model.implementation.PositiveLiteralImpl;
-import org.semanticweb.rulewerk.core.model.implementation.PredicateImpl;
+import org.semanticweb.rulewerk.core.model.implementation.TermFactory;
 import org.semanticweb.rulewerk.owlapi.AbstractClassToRuleConverter.SimpleConjunction;
 
 /**
@@ -54,6 +53,8 @@ import org.semanticweb.rulewerk.owlapi.AbstractClassToRuleConverter.SimpleConjun
  */
 public class OwlToRulesConversionHelper {
 
+	private static final TermFactory termFactory = new TermFactory();
+
 	/**
 	 * Returns a {@link Term} to represent an {@link OWLIndividual} in rules.
 	 *
@@ -63,7 +64,7 @@ public class OwlToRulesConversionHelper {
 	public static Term getIndividualTerm(final OWLIndividual owlIndividual,
 			final ConverterTermFactory converterTermFactory) {
 		if (owlIndividual instanceof OWLNamedIndividual) {
-			return new AbstractConstantImpl(((OWLNamedIndividual) owlIndividual).getIRI().toString());
+			return termFactory.makeAbstractConstant(((OWLNamedIndividual) owlIndividual).getIRI().toString());
 		} else if (owlIndividual instanceof OWLAnonymousIndividual) {
 			return converterTermFactory.getSkolemization()
 					.getRenamedNamedNull(((OWLAnonymousIndividual) owlIndividual).getID().toString());
@@ -80,7 +81,7 @@ public class OwlToRulesConversionHelper {
 	 * @return a suitable unary predicate
 	 */
 	public static Predicate getClassPredicate(final OWLClass owlClass) {
-		return new PredicateImpl(owlClass.getIRI().toString(), 1);
+		return termFactory.makePredicate(owlClass.getIRI().toString(), 1);
 	}
 
 	/**
@@ -91,7 +92,7 @@ public class OwlToRulesConversionHelper {
 	 * @return a suitable binary predicate
 	 */
 	public static Predicate getObjectPropertyPredicate(final OWLObjectProperty owlObjectProperty) {
-		return new PredicateImpl(owlObjectProperty.getIRI().toString(), 2);
+		return termFactory.makePredicate(owlObjectProperty.getIRI().toString(), 2);
 	}
 
 	/**
@@ -103,7 +104,7 @@ public class OwlToRulesConversionHelper {
 	 * @return a suitable unary predicate.
 	 */
 	public static Predicate getConjunctionAuxiliaryClassPredicate(final Collection<OWLClassExpression> conjuncts) {
-		return new PredicateImpl(getAuxiliaryClasNameConjuncts(conjuncts), 1);
+		return termFactory.makePredicate(getAuxiliaryClasNameConjuncts(conjuncts), 1);
 	}
 
 	static String getAuxiliaryClasNameConjuncts(final Collection<OWLClassExpression> conjuncts) {
@@ -186,12 +187,12 @@ public class OwlToRulesConversionHelper {
 	}
 
 	public static PositiveLiteral getBottom(final Term term) {
-		final Predicate predicate = new PredicateImpl("http://www.w3.org/2002/07/owl#Nothing", 1);
+		final Predicate predicate = termFactory.makePredicate("http://www.w3.org/2002/07/owl#Nothing", 1);
 		return new PositiveLiteralImpl(predicate, Arrays.asList(term));
 	}
 
 	public static PositiveLiteral getTop(final Term term) {
-		final Predicate predicate = new PredicateImpl("http://www.w3.org/2002/07/owl#Thing", 1);
+		final Predicate predicate = termFactory.makePredicate("http://www.w3.org/2002/07/owl#Thing", 1);
 		return new PositiveLiteralImpl(predicate, Arrays.asList(term));
 	}
 
@@ -1,6 +1,7 @@
 package org.semanticweb.rulewerk.owlapi;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
 /*-
@@ -24,16 +25,26 @@ import java.util.List;
  */
 
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 
+import org.apache.commons.lang3.Validate;
 import org.semanticweb.owlapi.model.OWLAxiom;
 import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.rulewerk.core.exceptions.RulewerkRuntimeException;
 import org.semanticweb.rulewerk.core.model.api.Fact;
 import org.semanticweb.rulewerk.core.model.api.Rule;
+import org.semanticweb.rulewerk.core.reasoner.implementation.Skolemization;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Class for converting OWL ontologies to rules.
+ * Class for converting OWL ontologies to rules. Axioms can be converted by
+ * several threads in parallel, which yields the same rules and facts as a
+ * sequential conversion.
  *
  * @author Markus Kroetzsch
  *
@@ -42,12 +53,72 @@ public class OwlToRulesConverter {
 
 	private static Logger LOGGER = LoggerFactory.getLogger(OwlToRulesConverter.class);
 
+	/**
+	 * Maximal number of unsupported axioms that are kept as a sample.
+	 */
+	static final int UNSUPPORTED_AXIOMS_SAMPLE_SIZE = 10;
+	/**
+	 * Number of batches of axioms per thread in parallel conversions, so that
+	 * threads that finish early can take over remaining work.
+	 */
+	static final int BATCHES_PER_THREAD = 4;
+
 	final OwlAxiomToRulesConverter owlAxiomToRulesConverter = new OwlAxiomToRulesConverter();
 
 	private final boolean failOnUnsupported;
+	private final int threads;
 	private int unsupportedAxiomsCount = 0;
 	private final List<OWLAxiom> unsupportedAxioms = new ArrayList<>();
 
+	/**
+	 * Converts a sequence of axioms using one {@link OwlAxiomToRulesConverter},
+	 * and records the axioms that are not supported.
+	 */
+	private class AxiomConversion {
+		final OwlAxiomToRulesConverter converter;
+		int unsupportedAxiomsCount = 0;
+		final List<OWLAxiom> unsupportedAxioms = new ArrayList<>();
+		/**
+		 * The exception that stopped the conversion, if the converter fails on
+		 * unsupported axioms.
+		 */
+		OwlFeatureNotSupportedException failure;
+
+		AxiomConversion(final OwlAxiomToRulesConverter converter) {
+			this.converter = converter;
+		}
+
+		/**
+		 * Converts the given axioms in order, stopping at the first unsupported
+		 * axiom if the converter fails on unsupported axioms. Fresh variables are
+		 * numbered anew for each axiom, so that the result of each axiom does not
+		 * depend on the axioms converted before.
+		 *
+		 * @param owlAxioms the axioms to convert
+		 * @return this conversion
+		 */
+		AxiomConversion convert(final Iterator<OWLAxiom> owlAxioms) {
+			while (this.failure == null && owlAxioms.hasNext()) {
+				final OWLAxiom owlAxiom = owlAxioms.next();
+				this.converter.startAxiomConversion();
+				try {
+					owlAxiom.accept(this.converter);
+				} catch (OwlFeatureNotSupportedException e) {
+					if (OwlToRulesConverter.this.failOnUnsupported) {
+						this.failure = e;
+					} else {
+						LOGGER.warn(e.getMessage());
+						this.unsupportedAxiomsCount++;
+						if (this.unsupportedAxioms.size() < UNSUPPORTED_AXIOMS_SAMPLE_SIZE) {
+							this.unsupportedAxioms.add(owlAxiom);
+						}
+					}
+				}
+			}
+			return this;
+		}
+	}
+
 	/**
 	 * Constructor.
 	 * 
@@ -57,7 +128,26 @@ public class OwlToRulesConverter {
 	 *                          rules or facts.
 	 */
 	public OwlToRulesConverter(boolean failOnUnsupported) {
+		this(failOnUnsupported, 1);
+	}
+
+	/**
+	 * Constructs an object that converts the axioms of each ontology with the
+	 * given number of threads. Each thread uses its own
+	 * {@link OwlAxiomToRulesConverter}, and the results are merged in the order
+	 * of the axioms, so that the rules, facts and unsupported axioms are the same
+	 * as for a conversion with one thread.
+	 *
+	 * @param failOnUnsupported whether the converter should fail with an
+	 *                          {@link OwlFeatureNotSupportedException} when
+	 *                          encountering axioms that cannot be converted to
+	 *                          rules or facts.
+	 * @param threads           number of threads used for converting axioms
+	 */
+	public OwlToRulesConverter(boolean failOnUnsupported, int threads) {
+		Validate.isTrue(threads > 0, "Only strictly positive number of threads allowed!", threads);
 		this.failOnUnsupported = failOnUnsupported;
+		this.threads = threads;
 	}
 
 	/**
@@ -77,22 +167,81 @@ public class OwlToRulesConverter {
 	 */
 	public void addOntology(final OWLOntology owlOntology) {
 		this.owlAxiomToRulesConverter.startNewBlankNodeContext();
-		owlOntology.axioms().forEach(owlAxiom -> {
-			try {
-				owlAxiom.accept(this.owlAxiomToRulesConverter);
-			} catch (OwlFeatureNotSupportedException e) {
-				if (this.failOnUnsupported) {
-					LOGGER.error(e.getMessage());
-					throw e;
-				} else {
-					LOGGER.warn(e.getMessage());
-					this.unsupportedAxiomsCount++;
-					if (this.unsupportedAxioms.size() < 10) {
-						this.unsupportedAxioms.add(owlAxiom);
-					}
-				}
+		if (this.threads == 1) {
+			this.addConversion(new AxiomConversion(this.owlAxiomToRulesConverter).convert(owlOntology.axioms().iterator()));
+		} else {
+			this.addOntologyInParallel(owlOntology);
+		}
+	}
+
+	/**
+	 * Converts the axioms of the given ontology in batches, which are processed
+	 * by {@link #threads} threads. All converters share the renaming of blank
+	 * nodes, and fresh variables are numbered per axiom, so that the results of
+	 * the batches can simply be merged.
+	 *
+	 * @param owlOntology the ontology
+	 */
+	private void addOntologyInParallel(final OWLOntology owlOntology) {
+		final List<OWLAxiom> owlAxioms = owlOntology.axioms().collect(Collectors.toList());
+		final Skolemization skolemization = this.owlAxiomToRulesConverter.termFactory.getSkolemization();
+		final int batches = this.threads * BATCHES_PER_THREAD;
+		final int batchSize = Math.max(1, (owlAxioms.size() + batches - 1) / batches);
+
+		final ExecutorService executor = Executors.newFixedThreadPool(this.threads);
+		try {
+			final List<Future<AxiomConversion>> conversions = new ArrayList<>();
+			for (int start = 0; start < owlAxioms.size(); start += batchSize) {
+				final List<OWLAxiom> batch = owlAxioms.subList(start, Math.min(start + batchSize, owlAxioms.size()));
+				conversions.add(executor.submit(
+						() -> new AxiomConversion(new OwlAxiomToRulesConverter(skolemization)).convert(batch.iterator())));
+			}
+			for (final Future<AxiomConversion> conversion : conversions) {
+				this.addConversion(this.waitForConversion(conversion));
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Adds the results of the given conversion, and rethrows the exception that
+	 * stopped it, if any.
+	 *
+	 * @param conversion a finished conversion
+	 */
+	private void addConversion(final AxiomConversion conversion) {
+		if (conversion.converter != this.owlAxiomToRulesConverter) {
+			this.owlAxiomToRulesConverter.rules.addAll(conversion.converter.rules);
+			this.owlAxiomToRulesConverter.facts.addAll(conversion.converter.facts);
+		}
+		this.unsupportedAxiomsCount += conversion.unsupportedAxiomsCount;
+		for (final OWLAxiom owlAxiom : conversion.unsupportedAxioms) {
+			if (this.unsupportedAxioms.size() < UNSUPPORTED_AXIOMS_SAMPLE_SIZE) {
+				this.unsupportedAxioms.add(owlAxiom);
+			}
+		}
+		if (conversion.failure != null) {
+			LOGGER.error(conversion.failure.getMessage());
+			throw conversion.failure;
+		}
+	}
+
+	private AxiomConversion waitForConversion(final Future<AxiomConversion> conversion) {
+		try {
+			return conversion.get();
+		} catch (final ExecutionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
 			}
-		});
+			throw new RulewerkRuntimeException("Error while converting OWL axioms.", cause);
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RulewerkRuntimeException("Interrupted while converting OWL axioms.", e);
+		}
 	}
 
 	/**
@@ -129,7 +278,8 @@ public class OwlToRulesConverter {
 	}
 
 	/**
-	 * Returns up to 10 unsupported axioms encountered during the conversion. The
+	 * Returns up to 10 unsupported axioms encountered during the conversion, in
+	 * the order in which the axioms of each ontology are processed. The
 	 * complete number of unsupported axioms can be queried using
 	 * {@link #getUnsupportedAxiomsCount()}.
 	 * 
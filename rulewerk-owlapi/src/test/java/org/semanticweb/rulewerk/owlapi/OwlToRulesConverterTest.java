@@ -22,7 +22,11 @@ package org.semanticweb.rulewerk.owlapi;
 
 import static org.junit.Assert.*;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.junit.Test;
 import org.semanticweb.owlapi.apibinding.OWLManager;
@@ -32,8 +36,10 @@ import org.semanticweb.owlapi.model.OWLAxiom;
 import org.semanticweb.owlapi.model.OWLClass;
 import org.semanticweb.owlapi.model.OWLDataFactory;
 import org.semanticweb.owlapi.model.OWLIndividual;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
 import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.rulewerk.core.model.api.Term;
 
 public class OwlToRulesConverterTest {
 	
@@ -65,4 +71,72 @@ public class OwlToRulesConverterTest {
 		assertEquals(3, converter.getFacts().size());
 	}
 
+	/**
+	 * Creates an ontology with the given number of groups of axioms, where every
+	 * tenth group contains an axiom that is not supported.
+	 */
+	static OWLOntology makeOntology(final int size) throws OWLOntologyCreationException {
+		final List<OWLAxiom> axioms = new ArrayList<>();
+		for (int i = 0; i < size; i++) {
+			final OWLObjectProperty p = df.getOWLObjectProperty(getIri("p" + (i % 7)));
+			axioms.add(df.getOWLSubClassOfAxiom(getOwlClass("C" + i), df.getOWLObjectSomeValuesFrom(p,
+					df.getOWLObjectIntersectionOf(getOwlClass("C" + (i + 1)), getOwlClass("C" + (i + 2))))));
+			axioms.add(df.getOWLSubClassOfAxiom(
+					df.getOWLObjectIntersectionOf(getOwlClass("C" + i),
+							df.getOWLObjectSomeValuesFrom(p, getOwlClass("C" + (i + 3)))),
+					getOwlClass("C" + (i + 4))));
+			axioms.add(df.getOWLClassAssertionAxiom(getOwlClass("C" + i), df.getOWLNamedIndividual(getIri("a" + i))));
+			axioms.add(df.getOWLObjectPropertyAssertionAxiom(p, df.getOWLNamedIndividual(getIri("a" + i)),
+					df.getOWLNamedIndividual(getIri("a" + (i + 1)))));
+			if (i % 10 == 0) {
+				axioms.add(df.getOWLFunctionalObjectPropertyAxiom(df.getOWLObjectProperty(getIri("q" + i))));
+			}
+		}
+		return OWLManager.createOWLOntologyManager().createOntology(axioms);
+	}
+
+	@Test
+	public void addOntology_parallel_sameResultAsSequential() throws OWLOntologyCreationException {
+		final OWLOntology ontology = makeOntology(200);
+
+		final OwlToRulesConverter sequentialConverter = new OwlToRulesConverter(false);
+		sequentialConverter.addOntology(ontology);
+		final OwlToRulesConverter parallelConverter = new OwlToRulesConverter(false, 4);
+		parallelConverter.addOntology(ontology);
+
+		assertEquals(sequentialConverter.getRules(), parallelConverter.getRules());
+		assertEquals(sequentialConverter.getFacts(), parallelConverter.getFacts());
+		assertEquals(20, parallelConverter.getUnsupportedAxiomsCount());
+		assertEquals(sequentialConverter.getUnsupportedAxiomsSample(), parallelConverter.getUnsupportedAxiomsSample());
+		assertEquals(10, parallelConverter.getUnsupportedAxiomsSample().size());
+	}
+
+	@Test
+	public void addOntology_parallel_blankNodesConsistentAcrossThreads() throws OWLOntologyCreationException {
+		final OWLAnonymousIndividual bnode = df.getOWLAnonymousIndividual("abc");
+		final List<OWLAxiom> axioms = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			axioms.add(df.getOWLClassAssertionAxiom(getOwlClass("C" + i), bnode));
+		}
+		final OWLOntology ontology = OWLManager.createOWLOntologyManager().createOntology(axioms);
+
+		final OwlToRulesConverter converter = new OwlToRulesConverter(true, 4);
+		converter.addOntology(ontology);
+
+		final Set<Term> terms = converter.getFacts().stream().map(fact -> fact.getArguments().get(0))
+				.collect(Collectors.toSet());
+		assertEquals(100, converter.getFacts().size());
+		assertEquals(1, terms.size());
+	}
+
+	@Test(expected = OwlFeatureNotSupportedException.class)
+	public void addOntology_parallelFailOnUnsupported_throws() throws OWLOntologyCreationException {
+		new OwlToRulesConverter(true, 4).addOntology(makeOntology(50));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void constructor_zeroThreads_throws() {
+		new OwlToRulesConverter(true, 0);
+	}
+
 }
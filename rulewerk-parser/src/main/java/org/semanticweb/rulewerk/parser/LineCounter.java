@@ -0,0 +1,98 @@
+package org.semanticweb.rulewerk.parser;
+
+/*-
+ * #%L
+ * Rulewerk Parser
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * Tracks the line and column reached in an input that is read piece by piece,
+ * counting them like the {@link org.semanticweb.rulewerk.parser.javacc.JavaCCParser}
+ * does. Parts of the input that are parsed separately can thus be given their
+ * position in the whole input, which is then used in error messages.
+ */
+final class LineCounter {
+
+	/**
+	 * Number of columns between tab stops, as used by the parser.
+	 */
+	private static final int TAB_SIZE = 8;
+
+	private int line = 1;
+	private int column = 1;
+	private boolean afterCarriageReturn = false;
+
+	/**
+	 * Construct a counter at the start of an input.
+	 */
+	LineCounter() {
+	}
+
+	/**
+	 * Construct a counter at the position reached by the given one.
+	 *
+	 * @param other the counter to copy
+	 */
+	LineCounter(final LineCounter other) {
+		this.line = other.line;
+		this.column = other.column;
+		this.afterCarriageReturn = other.afterCarriageReturn;
+	}
+
+	/**
+	 * Advance over the given part of the input.
+	 *
+	 * @param input the input
+	 * @param start the position at which the previous call stopped, or 0 for a
+	 *              new piece of the input
+	 * @param end   the position to advance to
+	 */
+	void advance(final CharSequence input, final int start, final int end) {
+		for (int position = start; position < end; position++) {
+			final char c = input.charAt(position);
+			if (c == '\n' || c == '\r') {
+				if (c == '\r' || !this.afterCarriageReturn) {
+					this.line++;
+				}
+				this.column = 1;
+				this.afterCarriageReturn = c == '\r';
+				continue;
+			}
+			this.afterCarriageReturn = false;
+			if (c == '\t') {
+				this.column += TAB_SIZE - (this.column - 1) % TAB_SIZE;
+			} else {
+				this.column++;
+			}
+		}
+	}
+
+	/**
+	 * @return the line of the position reached
+	 */
+	int getLine() {
+		return this.line;
+	}
+
+	/**
+	 * @return the column of the position reached
+	 */
+	int getColumn() {
+		return this.column;
+	}
+}
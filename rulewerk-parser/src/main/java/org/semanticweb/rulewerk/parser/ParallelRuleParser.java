@@ -0,0 +1,788 @@
+package org.semanticweb.rulewerk.parser;
+
+/*-
+ * #%L
+ * Rulewerk Parser
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayDeque;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.commons.lang3.Validate;
+import org.semanticweb.rulewerk.core.exceptions.PrefixDeclarationException;
+import org.semanticweb.rulewerk.core.exceptions.RulewerkException;
+import org.semanticweb.rulewerk.core.model.api.Statement;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase.AdditionalInputParser;
+import org.semanticweb.rulewerk.parser.directives.ImportFileDirectiveHandler;
+import org.semanticweb.rulewerk.parser.directives.ImportFileRelativeDirectiveHandler;
+import org.semanticweb.rulewerk.parser.javacc.FactScanner;
+import org.semanticweb.rulewerk.parser.javacc.JavaCCParser;
+import org.semanticweb.rulewerk.parser.javacc.JavaCCParserConstants;
+import org.semanticweb.rulewerk.parser.javacc.ParseException;
+import org.semanticweb.rulewerk.parser.javacc.SubParserFactory;
+import org.semanticweb.rulewerk.parser.javacc.Token;
+import org.semanticweb.rulewerk.parser.javacc.TokenMgrError;
+
+/**
+ * Parser that reads rules files chunk by chunk and parses the chunks
+ * concurrently, using {@link ParserConfiguration#getParallelism()} threads.
+ * Chunks end at statement boundaries, and at most a few chunks per thread are
+ * kept in memory at any time, so that memory use does not grow with the size of
+ * the input. Facts are read with a {@link FactScanner}, and only other
+ * statements are parsed with a {@link JavaCCParser}. Parsed statements are added
+ * to the knowledge base in the order in which a sequential parser would add
+ * them.
+ *
+ * Directives (including {@code @base}, {@code @prefix}, and {@code @source}
+ * declarations) are parsed in order by a single parser, once all preceding
+ * chunks have been added to the knowledge base. The exception are
+ * {@code @import} and {@code @import-relative} directives of the default
+ * handlers: the imported files are parsed sequentially on the executor, like
+ * chunks, and concurrently with each other and with the rest of the input.
+ * Whether a file has been imported before is only decided when its statements
+ * are added to the knowledge base, in order, so that the result is the same as
+ * for a sequential parser. A file that is imported by several imported files
+ * may therefore be parsed more than once. Inputs that contain unicode escapes,
+ * and statements whose end cannot be found within {@link #MAX_BUFFERED_LENGTH}
+ * characters, are read by the sequential parser directly from that point on.
+ */
+final class ParallelRuleParser {
+
+	/**
+	 * Default for the minimal number of characters in a chunk of statements.
+	 */
+	static final int DEFAULT_CHUNK_LENGTH = 1 << 18;
+
+	/**
+	 * Number of characters that are read from the input at a time.
+	 */
+	private static final int BLOCK_LENGTH = 1 << 16;
+
+	/**
+	 * Maximal number of characters that are buffered while searching for the end
+	 * of a statement.
+	 */
+	static final int MAX_BUFFERED_LENGTH = 1 << 20;
+
+	/**
+	 * Number of chunks that may be read ahead for each thread, to balance the
+	 * load if the parsing time differs between chunks.
+	 */
+	private static final int CHUNKS_PER_THREAD = 2;
+
+	/*
+	 * The parts of an input, which must occur in this order.
+	 */
+	private static final int BASE = 0;
+	private static final int PREFIXES = 1;
+	private static final int SOURCES = 2;
+	private static final int BODY = 3;
+
+	private final int parallelism;
+	private final int chunkLength;
+
+	/**
+	 * Parser for directives, whose state is shared by the parsers of all chunks.
+	 */
+	private final JavaCCParser parser;
+	private SubParserFactory subParserFactory;
+	/**
+	 * Position of the start of the buffered input, or of the statement that is
+	 * parsed directly.
+	 */
+	private final LineCounter lineCounter = new LineCounter();
+	/**
+	 * Chunks and imported files that are being parsed, in the order of the input.
+	 */
+	private final Deque<Future<Chunk>> pendingChunks = new ArrayDeque<>();
+	/**
+	 * Canonical paths of the files imported by directives in the input.
+	 */
+	private final Set<String> importedFilePaths = new HashSet<>();
+	private ExecutorService executor;
+	/**
+	 * The part of the input that the last statement belonged to.
+	 */
+	private int part = -1;
+
+	/**
+	 * The statements of a sequence of statements without directives, or of an
+	 * imported file.
+	 */
+	private static final class Chunk {
+		final StatementCollector collector;
+		Throwable error;
+
+		Chunk(final StatementCollector collector) {
+			this.collector = collector;
+		}
+
+		/**
+		 * Parse a sequence of statements without directives.
+		 *
+		 * @param input            the statements
+		 * @param subParserFactory the factory for the parser of the statements
+		 * @param lineCounter      the position of the start of the input, which is
+		 *                         advanced while parsing
+		 */
+		static Chunk parse(final String input, final SubParserFactory subParserFactory,
+				final LineCounter lineCounter) {
+			final Chunk chunk = new Chunk(new StatementCollector());
+			final JavaCCParser parser = subParserFactory.makeSubParser(new StringReader(""));
+			parser.setKnowledgeBase(chunk.collector);
+			final FactScanner factScanner = new FactScanner(parser);
+
+			final int end = input.length();
+			int counted = 0;
+			int position = 0;
+			try {
+				while ((position = factScanner.scanFacts(input, position, end)) < end) {
+					final int statementEnd = getEndOfStatement(input, position);
+					final int parseEnd = statementEnd < 0 ? end : statementEnd;
+					lineCounter.advance(input, counted, position);
+					counted = position;
+					parser.ReInit(new StringReader(input.substring(position, parseEnd)), lineCounter.getLine(),
+							lineCounter.getColumn());
+					parser.parse();
+					position = parseEnd;
+				}
+			} catch (ParseException | PrefixDeclarationException | TokenMgrError e) {
+				chunk.error = e;
+			}
+			return chunk;
+		}
+
+		/**
+		 * Parse an imported file.
+		 *
+		 * @param file          the file
+		 * @param parseFunction the function that parses the file, as given by the
+		 *                      directive handler
+		 * @param collector     the knowledge base to parse the file into
+		 */
+		static Chunk parseImport(final File file, final String path, final AdditionalInputParser parseFunction) {
+			final ImportCollector collector = new ImportCollector(file, Collections.singleton(path));
+			final Chunk chunk = new Chunk(collector);
+			try (InputStream stream = new FileInputStream(file)) {
+				parseFunction.parseInto(stream, collector);
+			} catch (RulewerkException | IOException e) {
+				chunk.error = new ParsingException(
+						"Could not import rules file \"" + file.getName() + "\": " + e.getMessage(), e);
+			}
+			return chunk;
+		}
+	}
+
+	/**
+	 * Knowledge base for parsers, which only records the statements added to it,
+	 * so that they can be added to the actual knowledge base (or passed to a
+	 * {@link StatementConsumer}) later.
+	 */
+	static class StatementCollector extends KnowledgeBase {
+		final List<Statement> statements = new ArrayList<>();
+
+		@Override
+		public void addStatement(final Statement statement) {
+			this.statements.add(statement);
+		}
+
+		@Override
+		public void addStatements(final Collection<? extends Statement> statements) {
+			this.statements.addAll(statements);
+		}
+
+		@Override
+		public void addStatements(final Statement... statements) {
+			this.statements.addAll(Arrays.asList(statements));
+		}
+	}
+
+	/**
+	 * Knowledge base for the handlers of import directives in the input, which
+	 * passes imported files to the executor instead of parsing them.
+	 */
+	private final class ImportScheduler extends KnowledgeBase {
+
+		@Override
+		public void importRulesFile(final File file, final AdditionalInputParser parseFunction)
+				throws RulewerkException, IOException {
+			Validate.notNull(file, "file must not be null");
+			final String path = file.getCanonicalPath();
+			// a file that is imported again is never imported at this position
+			if (ParallelRuleParser.this.importedFilePaths.add(path)) {
+				ParallelRuleParser.this.addPendingChunks(ParallelRuleParser.this.parallelism * CHUNKS_PER_THREAD - 1);
+				ParallelRuleParser.this.pendingChunks
+						.add(ParallelRuleParser.this.executor.submit(() -> Chunk.parseImport(file, path, parseFunction)));
+			}
+		}
+	}
+
+	/**
+	 * Knowledge base for parsing an imported file, which records the statements
+	 * of the file and parses the files imported by it into separate collectors,
+	 * so that the knowledge base can decide later whether they are imported.
+	 */
+	static final class ImportCollector extends StatementCollector {
+		final File file;
+		/**
+		 * Canonical paths of this file and the files importing it, which are
+		 * imported before this file in any case.
+		 */
+		final Set<String> importingFilePaths;
+		/**
+		 * Files imported by this file, each with the number of statements preceding
+		 * its import.
+		 */
+		final List<Entry<Integer, ImportCollector>> imports = new ArrayList<>();
+
+		ImportCollector(final File file, final Set<String> importingFilePaths) {
+			this.file = file;
+			this.importingFilePaths = importingFilePaths;
+		}
+
+		@Override
+		public void importRulesFile(final File file, final AdditionalInputParser parseFunction)
+				throws RulewerkException, IOException {
+			Validate.notNull(file, "file must not be null");
+			final String path = file.getCanonicalPath();
+			if (this.importingFilePaths.contains(path)) {
+				return;
+			}
+
+			final Set<String> importingFilePaths = new HashSet<>(this.importingFilePaths);
+			importingFilePaths.add(path);
+			final ImportCollector collector = new ImportCollector(file, importingFilePaths);
+			try (InputStream stream = new FileInputStream(file)) {
+				parseFunction.parseInto(stream, collector);
+			}
+			this.imports.add(new SimpleImmutableEntry<>(this.statements.size(), collector));
+		}
+
+		/**
+		 * Import the file into the given knowledge base, if it has not been imported
+		 * into it before.
+		 */
+		void addTo(final KnowledgeBase knowledgeBase) throws RulewerkException, IOException {
+			final boolean[] isNewFile = { false };
+			knowledgeBase.importRulesFile(this.file, (stream, kb) -> isNewFile[0] = true);
+			if (!isNewFile[0]) {
+				return;
+			}
+
+			int added = 0;
+			for (final Entry<Integer, ImportCollector> nested : this.imports) {
+				knowledgeBase.addStatements(this.statements.subList(added, nested.getKey()));
+				added = nested.getKey();
+				nested.getValue().addTo(knowledgeBase);
+			}
+			knowledgeBase.addStatements(this.statements.subList(added, this.statements.size()));
+			knowledgeBase.mergePrefixDeclarations(this.getPrefixDeclarationRegistry());
+		}
+	}
+
+	ParallelRuleParser(final KnowledgeBase knowledgeBase, final ParserConfiguration parserConfiguration,
+			final String baseIri, final int chunkLength) {
+		this.parallelism = parserConfiguration.getParallelism();
+		this.chunkLength = chunkLength;
+		this.parser = new JavaCCParser(new StringReader(""));
+		if (baseIri != null) {
+			this.parser.setPrefixDeclarationRegistry(new LocalPrefixDeclarationRegistry(baseIri));
+		}
+		this.parser.setKnowledgeBase(knowledgeBase);
+		this.parser.setParserConfiguration(parserConfiguration);
+	}
+
+	/**
+	 * Parse the given input into the knowledge base.
+	 *
+	 * @param knowledgeBase       the knowledge base to add statements to
+	 * @param stream              the input
+	 * @param encoding            the encoding of the input
+	 * @param parserConfiguration the configuration of the parser
+	 * @param baseIri             the base IRI, or null if there is none
+	 * @return the knowledge base that statements were added to last, which
+	 *         differs from the given one only if a directive replaced it
+	 * @throws ParsingException if the input cannot be parsed or read
+	 */
+	static KnowledgeBase parseInto(final KnowledgeBase knowledgeBase, final InputStream stream, final String encoding,
+			final ParserConfiguration parserConfiguration, final String baseIri) throws ParsingException {
+		final Reader reader;
+		try {
+			reader = new InputStreamReader(stream, encoding);
+		} catch (final UnsupportedEncodingException e) {
+			throw new ParsingException("Unsupported encoding: " + encoding, e);
+		}
+		return new ParallelRuleParser(knowledgeBase, parserConfiguration, baseIri, DEFAULT_CHUNK_LENGTH)
+				.parse(reader);
+	}
+
+	/**
+	 * Parse the given input into the knowledge base of this parser.
+	 *
+	 * @param reader the input
+	 * @return the knowledge base that statements were added to last
+	 * @throws ParsingException if the input cannot be parsed or read
+	 */
+	KnowledgeBase parse(final Reader reader) throws ParsingException {
+		this.executor = Executors.newFixedThreadPool(this.parallelism);
+		try {
+			this.parseChunks(reader);
+			this.addPendingChunks(0);
+		} catch (final IOException e) {
+			throw new ParsingException("Could not read input: " + e.getMessage(), e);
+		} finally {
+			this.executor.shutdownNow();
+		}
+
+		final KnowledgeBase knowledgeBase = this.parser.getKnowledgeBase();
+		knowledgeBase.mergePrefixDeclarations(this.parser.getPrefixDeclarationRegistry());
+		return knowledgeBase;
+	}
+
+	private void parseChunks(final Reader reader) throws ParsingException, IOException {
+		final char[] block = new char[BLOCK_LENGTH];
+		final StringBuilder buffer = new StringBuilder();
+		int requiredLength = this.chunkLength;
+		boolean endOfInput = false;
+
+		while (!endOfInput) {
+			while (buffer.length() < requiredLength) {
+				final int read = reader.read(block);
+				if (read < 0) {
+					endOfInput = true;
+					break;
+				}
+				buffer.append(block, 0, read);
+			}
+
+			final String input = buffer.toString();
+			if (input.contains("\\u") || input.length() > MAX_BUFFERED_LENGTH) {
+				// unicode escapes are replaced before tokenisation and could hide delimiters
+				this.parseDirectly(input, reader);
+				return;
+			}
+
+			final int parsed = this.parseStatements(input, endOfInput);
+			if (endOfInput && parsed < input.length()) {
+				this.parseDirectly(input.substring(parsed), reader);
+			}
+			buffer.delete(0, parsed);
+			// read more input if no complete statement has been found
+			requiredLength = Math.max(this.chunkLength, parsed == 0 ? input.length() + 1 : 0);
+		}
+	}
+
+	/**
+	 * Parse all complete statements at the start of the given input, passing
+	 * chunks of statements to the executor and parsing directives directly.
+	 *
+	 * @param input      the buffered input
+	 * @param endOfInput true if there is no more input after the given one
+	 * @return the position after the last statement that was parsed
+	 */
+	private int parseStatements(final String input, final boolean endOfInput) throws ParsingException {
+		int chunkStart = 0;
+		int counted = 0;
+		int position = 0;
+		while (position < input.length()) {
+			final char c = input.charAt(position);
+			if (isWhitespace(c)) {
+				position++;
+				continue;
+			}
+			if (c == '%') {
+				final int end = getEndOfComment(input, position);
+				if (end == input.length() && !endOfInput && input.charAt(end - 1) != '\n') {
+					break;
+				}
+				position = end;
+				continue;
+			}
+
+			final int end = getEndOfStatement(input, position);
+			if (end < 0 || end == input.length() && !endOfInput) {
+				break;
+			}
+			if (c == '@') {
+				counted = this.advanceLineCounter(input, counted, chunkStart);
+				this.addChunk(input.substring(chunkStart, position));
+				counted = this.advanceLineCounter(input, counted, position);
+				this.parseDirective(input.substring(position, end));
+				chunkStart = end;
+			} else {
+				this.enterPart(BODY, null);
+			}
+			position = end;
+		}
+		counted = this.advanceLineCounter(input, counted, chunkStart);
+		this.addChunk(input.substring(chunkStart, position));
+		this.advanceLineCounter(input, counted, position);
+		return position;
+	}
+
+	/**
+	 * Advance the line counter from the given position to the given end.
+	 *
+	 * @return the end
+	 */
+	private int advanceLineCounter(final String input, final int counted, final int end) {
+		this.lineCounter.advance(input, counted, end);
+		return end;
+	}
+
+	/**
+	 * Pass a chunk starting at the position of the line counter to the executor.
+	 */
+	private void addChunk(final String input) throws ParsingException {
+		if (input.trim().isEmpty()) {
+			return;
+		}
+		if (this.subParserFactory == null) {
+			this.subParserFactory = new SubParserFactory(this.getSharedParser());
+		}
+		this.addPendingChunks(this.parallelism * CHUNKS_PER_THREAD - 1);
+		final SubParserFactory factory = this.subParserFactory;
+		final LineCounter start = new LineCounter(this.lineCounter);
+		this.pendingChunks.add(this.executor.submit(() -> Chunk.parse(input, factory, start)));
+	}
+
+	/**
+	 * Get the parser for directives, once its state is shared with concurrent
+	 * parsers.
+	 */
+	private JavaCCParser getSharedParser() {
+		// fix the base IRI, since the registry is read concurrently from now on
+		this.parser.getPrefixDeclarationRegistry().getBaseIri();
+		return this.parser;
+	}
+
+
+	/**
+	 * Add the statements of the oldest pending chunks to the knowledge base, until
+	 * at most the given number of chunks is pending.
+	 */
+	private void addPendingChunks(final int maxPendingChunks) throws ParsingException {
+		while (this.pendingChunks.size() > maxPendingChunks) {
+			final Chunk chunk;
+			try {
+				chunk = this.pendingChunks.poll().get();
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new ParsingException("Interrupted while parsing", e);
+			} catch (final ExecutionException e) {
+				if (e.getCause() instanceof RuntimeException) {
+					throw (RuntimeException) e.getCause();
+				}
+				throw new ParsingException(e.getCause().getMessage(), e.getCause());
+			}
+			if (chunk.error instanceof ParsingException) {
+				throw (ParsingException) chunk.error;
+			} else if (chunk.error != null) {
+				throw new ParsingException(chunk.error.getMessage(), chunk.error);
+			}
+			if (chunk.collector instanceof ImportCollector) {
+				this.addImport((ImportCollector) chunk.collector);
+			} else {
+				this.parser.getKnowledgeBase().addStatements(chunk.collector.statements);
+			}
+		}
+	}
+
+	private void addImport(final ImportCollector collector) throws ParsingException {
+		try {
+			collector.addTo(this.parser.getKnowledgeBase());
+		} catch (RulewerkException | IOException e) {
+			throw new ParsingException(
+					"Could not import rules file \"" + collector.file.getName() + "\": " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Parse a directive starting at the position of the line counter, after adding
+	 * all pending chunks to the knowledge base, unless it imports a file.
+	 */
+	private void parseDirective(final String directive) throws ParsingException {
+		if (isDirective(directive, "@base")) {
+			this.enterPart(BASE, "@base");
+		} else if (isDirective(directive, "@prefix")) {
+			this.enterPart(PREFIXES, "@prefix");
+		} else if (isDirective(directive, "@source")) {
+			this.enterPart(SOURCES, "@source");
+		} else {
+			this.enterPart(BODY, null);
+			if (this.isImport(directive)) {
+				this.parseImport(directive);
+				return;
+			}
+		}
+
+		this.addPendingChunks(0);
+		this.parser.ReInit(new StringReader(directive), this.lineCounter.getLine(), this.lineCounter.getColumn());
+		this.parseWithParser(this.parser);
+		// directives may change the state that is shared with sub parsers
+		this.subParserFactory = null;
+	}
+
+	private boolean isImport(final String directive) {
+		int end = 1;
+		while (end < directive.length() && isDirectiveNameChar(directive.charAt(end))) {
+			end++;
+		}
+		final DirectiveHandler<KnowledgeBase> handler = this.parser.getParserConfiguration()
+				.getDirectiveHandler(directive.substring(1, end));
+		return handler instanceof ImportFileDirectiveHandler || handler instanceof ImportFileRelativeDirectiveHandler;
+	}
+
+	/**
+	 * Parse an import directive with a parser whose knowledge base passes the
+	 * imported file to the executor. The file itself is parsed sequentially,
+	 * since the executor must not wait for its own tasks.
+	 */
+	private void parseImport(final String directive) throws ParsingException {
+		final JavaCCParser importParser = new SubParserFactory(this.getSharedParser())
+				.makeSubParser(new StringReader(""));
+		importParser.setKnowledgeBase(new ImportScheduler());
+		importParser.setParserConfiguration(
+				new ParserConfiguration(this.parser.getParserConfiguration()).setParallelism(1));
+		importParser.ReInit(new StringReader(directive), this.lineCounter.getLine(), this.lineCounter.getColumn());
+		this.parseWithParser(importParser);
+	}
+
+	/**
+	 * Parse the given buffered input, starting at the position of the line
+	 * counter, and the rest of the input with the sequential parser, after adding
+	 * all pending chunks to the knowledge base.
+	 */
+	private void parseDirectly(final String bufferedInput, final Reader reader) throws ParsingException, IOException {
+		this.addPendingChunks(0);
+		final PushbackReader input = new PushbackReader(reader, Math.max(bufferedInput.length(), 1));
+		input.unread(bufferedInput.toCharArray());
+		this.parser.ReInit(input, this.lineCounter.getLine(), this.lineCounter.getColumn());
+
+		try {
+			Token token;
+			while ((token = this.parser.getToken(1)).kind != JavaCCParserConstants.EOF) {
+				switch (token.kind) {
+				case JavaCCParserConstants.BASE:
+					this.enterPart(BASE, "@base");
+					this.parser.base();
+					break;
+				case JavaCCParserConstants.PREFIX:
+					this.enterPart(PREFIXES, "@prefix");
+					this.parser.prefix();
+					break;
+				case JavaCCParserConstants.SOURCE:
+					this.enterPart(SOURCES, "@source");
+					this.parser.source();
+					break;
+				default:
+					this.enterPart(BODY, null);
+					this.parser.statement();
+				}
+			}
+		} catch (ParseException | PrefixDeclarationException | TokenMgrError e) {
+			throw new ParsingException(e.getMessage(), e);
+		}
+	}
+
+	private void parseWithParser(final JavaCCParser parser) throws ParsingException {
+		try {
+			parser.parse();
+		} catch (ParseException | PrefixDeclarationException | TokenMgrError e) {
+			throw new ParsingException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Record that the next statement belongs to the given part of the input.
+	 *
+	 * @throws ParsingException if the part must not occur after the previous
+	 *                          statement
+	 */
+	private void enterPart(final int nextPart, final String declaration) throws ParsingException {
+		if (nextPart < this.part || nextPart == BASE && this.part == BASE) {
+			throw new ParsingException("Unexpected " + declaration
+					+ " declaration: @base, @prefix, and @source declarations must precede all other statements, in this order.");
+		}
+		this.part = nextPart;
+	}
+
+	static boolean isDirective(final String statement, final String directive) {
+		return statement.startsWith(directive)
+				&& (statement.length() == directive.length() || !isDirectiveNameChar(statement.charAt(directive.length())));
+	}
+
+	/**
+	 * Find the end of the statement starting at the given position, keeping track
+	 * of the lexical states of the parser that affect where a statement can end,
+	 * i.e., nesting of parentheses, delimited literals, strings, IRIs, and
+	 * comments.
+	 *
+	 * @param input the input
+	 * @param start the position of the first character of the statement
+	 * @return the position after the final dot of the statement, or -1 if the end
+	 *         cannot be determined safely
+	 */
+	static int getEndOfStatement(final String input, final int start) {
+		final int length = input.length();
+		final boolean directive = input.charAt(start) == '@';
+		int depth = 0;
+		int position = directive ? start + 1 : start;
+
+		while (position < length) {
+			final char c = input.charAt(position);
+			// in directives, parentheses do not change the lexical state
+			final boolean inTerm = depth > 0 && !directive;
+			switch (c) {
+			case '%':
+				if (inTerm) {
+					return -1;
+				}
+				position = getEndOfComment(input, position);
+				break;
+			case '<':
+				position = getEndOfDelimited(input, position, '>');
+				break;
+			case '(':
+				if (inTerm) {
+					position = getEndOfNested(input, position, '(', ')');
+				} else {
+					depth++;
+					position++;
+				}
+				break;
+			case ')':
+				if (depth == 0) {
+					return -1;
+				}
+				depth--;
+				position++;
+				break;
+			case '{':
+				position = inTerm ? getEndOfNested(input, position, '{', '}') : position + 1;
+				break;
+			case '[':
+				position = inTerm ? getEndOfNested(input, position, '[', ']') : position + 1;
+				break;
+			case '|':
+			case '#':
+				position = depth > 0 || directive ? getEndOfDelimited(input, position, c) : position + 1;
+				break;
+			case '"':
+			case '\'':
+				if (depth == 0 && !directive) {
+					return -1;
+				}
+				position = getEndOfString(input, position, c);
+				break;
+			case '@':
+				if (depth == 0 && !directive) {
+					return -1;
+				}
+				position++;
+				break;
+			case '.':
+				position++;
+				if (depth == 0 && (position == length || isWhitespace(input.charAt(position)))) {
+					return position;
+				}
+				break;
+			default:
+				position++;
+			}
+
+			if (position < 0) {
+				return -1;
+			}
+		}
+		return -1;
+	}
+
+	static boolean isDirectiveNameChar(final char c) {
+		return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '-' || c == '_';
+	}
+
+	static boolean isWhitespace(final char c) {
+		return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f';
+	}
+
+	static int getEndOfComment(final String input, final int start) {
+		final int end = input.indexOf('\n', start);
+		return end < 0 ? input.length() : end + 1;
+	}
+
+	private static int getEndOfDelimited(final String input, final int start, final char delimiter) {
+		final int end = input.indexOf(delimiter, start + 1);
+		return end < 0 ? -1 : end + 1;
+	}
+
+	private static int getEndOfNested(final String input, final int start, final char open, final char close) {
+		int level = 0;
+		for (int position = start; position < input.length(); position++) {
+			final char c = input.charAt(position);
+			if (c == open) {
+				level++;
+			} else if (c == close && --level == 0) {
+				return position + 1;
+			}
+		}
+		return -1;
+	}
+
+	private static int getEndOfString(final String input, final int start, final char quote) {
+		final String tripleQuote = new String(new char[] { quote, quote, quote });
+		final boolean triple = input.startsWith(tripleQuote, start);
+		int position = start + (triple ? 3 : 1);
+		while (position < input.length()) {
+			final char c = input.charAt(position);
+			if (c == '\\') {
+				position += 2;
+			} else if (c == quote && (!triple || input.startsWith(tripleQuote, position))) {
+				return position + (triple ? 3 : 1);
+			} else if (!triple && (c == '\n' || c == '\r')) {
+				return -1;
+			} else {
+				position++;
+			}
+		}
+		return -1;
+	}
+}
@@ -80,6 +80,12 @@ public class ParserConfiguration {
 	 */
 	private String importBasePath = System.getProperty("user.dir");
 
+	/**
+	 * The number of threads used for parsing. Values greater than one enable
+	 * parallel parsing of statements and imported files.
+	 */
+	private int parallelism = 1;
+
 	public ParserConfiguration() {
 	}
 
@@ -94,6 +100,7 @@ public class ParserConfiguration {
 		this.literals = new HashMap<>(other.literals);
 		this.directives = new HashMap<>(other.directives);
 		this.importBasePath = new String(other.importBasePath);
+		this.parallelism = other.parallelism;
 	}
 
 	/**
@@ -289,6 +296,17 @@ public class ParserConfiguration {
 		return handler.handleDirective(arguments, subParserFactory);
 	}
 
+	/**
+	 * Get the handler registered for a directive.
+	 *
+	 * @param name the name of the directive.
+	 *
+	 * @return the registered handler, or null if the directive is not known.
+	 */
+	DirectiveHandler<KnowledgeBase> getDirectiveHandler(String name) {
+		return this.directives.get(name);
+	}
+
 	/**
 	 * Set whether to allow parsing of
 	 * {@link org.semanticweb.rulewerk.core.model.api.NamedNull}.
@@ -357,4 +375,34 @@ public class ParserConfiguration {
 		return this;
 	}
 
+	/**
+	 * Get the number of threads used for parsing.
+	 *
+	 * @return the parallelism, which is 1 if parsing is sequential.
+	 */
+	public int getParallelism() {
+		return this.parallelism;
+	}
+
+	/**
+	 * Set the number of threads used for parsing. If greater than one, the
+	 * statements of large inputs are split into chunks after the {@code @base},
+	 * {@code @prefix}, and {@code @source} declarations, and the chunks and all
+	 * files imported with {@code @import} or {@code @import-relative} are parsed
+	 * concurrently. Statements are still added to the knowledge base in their
+	 * original order. Other directives are parsed in order, after all preceding
+	 * statements. Registered handlers for configurable literals and datatypes must
+	 * be thread-safe when parsing in parallel.
+	 *
+	 * @param parallelism the number of threads to use, at least 1.
+	 *
+	 * @throws IllegalArgumentException if parallelism is less than 1.
+	 * @return this
+	 */
+	public ParserConfiguration setParallelism(int parallelism) {
+		Validate.isTrue(parallelism >= 1, "Parallelism must be at least 1, but was %d.", parallelism);
+		this.parallelism = parallelism;
+		return this;
+	}
+
 }
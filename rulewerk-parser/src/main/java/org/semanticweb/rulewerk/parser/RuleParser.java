@@ -21,10 +21,15 @@ package org.semanticweb.rulewerk.parser;
  */
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.io.UnsupportedEncodingException;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 
+import org.apache.commons.lang3.Validate;
 import org.semanticweb.rulewerk.core.exceptions.PrefixDeclarationException;
 import org.semanticweb.rulewerk.core.model.api.DataSourceDeclaration;
 import org.semanticweb.rulewerk.core.model.api.Entity;
@@ -35,6 +40,7 @@ import org.semanticweb.rulewerk.core.model.api.PrefixDeclarationRegistry;
 import org.semanticweb.rulewerk.core.model.api.Rule;
 import org.semanticweb.rulewerk.core.model.api.Term;
 import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.parser.javacc.FactScanner;
 import org.semanticweb.rulewerk.parser.javacc.JavaCCParser;
 import org.semanticweb.rulewerk.parser.javacc.JavaCCParserBase.FormulaContext;
 import org.semanticweb.rulewerk.parser.javacc.ParseException;
@@ -52,6 +58,12 @@ public class RuleParser {
 
 	public static final String DEFAULT_STRING_ENCODING = "UTF-8";
 
+	/**
+	 * Number of statements passed to a {@link StatementConsumer} at a time, unless
+	 * specified otherwise.
+	 */
+	public static final int DEFAULT_STATEMENT_BATCH_SIZE = 1024;
+
 	private static Logger LOGGER = LoggerFactory.getLogger(RuleParser.class);
 
 	private RuleParser() {
@@ -59,7 +71,25 @@ public class RuleParser {
 
 	public static void parseInto(final KnowledgeBase knowledgeBase, final InputStream stream, final String encoding,
 			final ParserConfiguration parserConfiguration, final String baseIri) throws ParsingException {
-		final JavaCCParser parser = new JavaCCParser(stream, encoding);
+		if (parserConfiguration.getParallelism() > 1) {
+			ParallelRuleParser.parseInto(knowledgeBase, stream, encoding, parserConfiguration, baseIri);
+		} else {
+			parseSequentiallyInto(knowledgeBase, stream, encoding, parserConfiguration, baseIri);
+		}
+	}
+
+	/**
+	 * Parse the given input into the knowledge base on the calling thread. Facts
+	 * are read with a {@link FactScanner}, and only other statements are parsed
+	 * with a {@link JavaCCParser}.
+	 *
+	 * @return the knowledge base that statements were added to last, which
+	 *         differs from the given one only if a directive replaced it
+	 */
+	static KnowledgeBase parseSequentiallyInto(final KnowledgeBase knowledgeBase, final InputStream stream,
+			final String encoding, final ParserConfiguration parserConfiguration, final String baseIri)
+			throws ParsingException {
+		final JavaCCParser parser = new JavaCCParser(new StringReader(""));
 
 		if (baseIri != null) {
 			PrefixDeclarationRegistry prefixDeclarationRegistry = new LocalPrefixDeclarationRegistry(baseIri);
@@ -68,7 +98,20 @@ public class RuleParser {
 
 		parser.setKnowledgeBase(knowledgeBase);
 		parser.setParserConfiguration(parserConfiguration);
-		doParse(parser);
+		try {
+			new StreamingRuleParser(parser).parse(new InputStreamReader(stream, encoding));
+		} catch (final UnsupportedEncodingException e) {
+			throw new ParsingException("Unsupported encoding: " + encoding, e);
+		} catch (final IOException e) {
+			throw new ParsingException("Could not read input: " + e.getMessage(), e);
+		} catch (final ParsingException e) {
+			LOGGER.error("Error parsing Knowledge Base: " + e.getMessage(), e);
+			throw e;
+		}
+
+		final KnowledgeBase result = parser.getKnowledgeBase();
+		result.mergePrefixDeclarations(parser.getPrefixDeclarationRegistry());
+		return result;
 	}
 
 	public static void parseInto(final KnowledgeBase knowledgeBase, final InputStream stream, final String encoding,
@@ -100,9 +143,7 @@ public class RuleParser {
 
 	public static void parseInto(final KnowledgeBase knowledgeBase, final InputStream stream, final String encoding)
 			throws ParsingException {
-		final JavaCCParser javaCcParser = new JavaCCParser(stream, encoding);
-		javaCcParser.setKnowledgeBase(knowledgeBase);
-		doParse(javaCcParser);
+		parseSequentiallyInto(knowledgeBase, stream, encoding, new DefaultParserConfiguration(), null);
 	}
 
 	public static void parseInto(final KnowledgeBase knowledgeBase, final InputStream stream) throws ParsingException {
@@ -116,9 +157,10 @@ public class RuleParser {
 
 	public static KnowledgeBase parse(final InputStream stream, final String encoding,
 			final ParserConfiguration parserConfiguration) throws ParsingException {
-		JavaCCParser parser = new JavaCCParser(stream, encoding);
-		parser.setParserConfiguration(parserConfiguration);
-		return doParse(parser);
+		if (parserConfiguration.getParallelism() > 1) {
+			return ParallelRuleParser.parseInto(new KnowledgeBase(), stream, encoding, parserConfiguration, null);
+		}
+		return parseSequentiallyInto(new KnowledgeBase(), stream, encoding, parserConfiguration, null);
 	}
 
 	public static KnowledgeBase parse(final InputStream stream, final ParserConfiguration parserConfiguration)
@@ -133,7 +175,7 @@ public class RuleParser {
 	}
 
 	public static KnowledgeBase parse(final InputStream stream, final String encoding) throws ParsingException {
-		return doParse(new JavaCCParser(stream, encoding));
+		return parseSequentiallyInto(new KnowledgeBase(), stream, encoding, new DefaultParserConfiguration(), null);
 	}
 
 	public static KnowledgeBase parse(final InputStream stream) throws ParsingException {
@@ -145,6 +187,42 @@ public class RuleParser {
 		return parse(inputStream);
 	}
 
+	/**
+	 * Parse the given input and pass its statements to the given consumer instead
+	 * of adding them to a knowledge base. The input is read incrementally, and
+	 * statements are passed on as soon as a batch is complete, so that large
+	 * inputs can be processed without keeping all statements in memory. Unlike
+	 * for a knowledge base, duplicate statements are not removed.
+	 *
+	 * @param stream              the input
+	 * @param encoding            the encoding of the input
+	 * @param parserConfiguration the configuration of the parser
+	 * @param batchSize           the number of statements passed to the consumer
+	 *                            at a time; only the last batch may be smaller
+	 * @param consumer            the consumer receiving the statements
+	 * @throws ParsingException if the input cannot be parsed; statements before
+	 *                          the error may already have been passed on
+	 * @throws IOException      if the input cannot be read, or if the consumer
+	 *                          fails to process statements
+	 */
+	public static void parse(final InputStream stream, final String encoding,
+			final ParserConfiguration parserConfiguration, final int batchSize, final StatementConsumer consumer)
+			throws ParsingException, IOException {
+		Validate.isTrue(batchSize > 0, "The batch size must be positive.");
+		final StreamingRuleParser parser = new StreamingRuleParser(parserConfiguration, batchSize, consumer);
+		parser.parse(new InputStreamReader(stream, encoding));
+	}
+
+	public static void parse(final InputStream stream, final ParserConfiguration parserConfiguration,
+			final StatementConsumer consumer) throws ParsingException, IOException {
+		parse(stream, DEFAULT_STRING_ENCODING, parserConfiguration, DEFAULT_STATEMENT_BATCH_SIZE, consumer);
+	}
+
+	public static void parse(final InputStream stream, final StatementConsumer consumer)
+			throws ParsingException, IOException {
+		parse(stream, new DefaultParserConfiguration(), consumer);
+	}
+
 	/**
 	 * Interface for a method parsing a fragment of the supported syntax.
 	 *
@@ -253,20 +331,6 @@ public class RuleParser {
 		return parseDataSourceDeclaration(input, null);
 	}
 
-	static KnowledgeBase doParse(final JavaCCParser parser) throws ParsingException {
-		try {
-			parser.parse();
-		} catch (ParseException | PrefixDeclarationException | TokenMgrError e) {
-			LOGGER.error("Error parsing Knowledge Base: " + e.getMessage(), e);
-			throw new ParsingException(e.getMessage(), e);
-		}
-
-		KnowledgeBase knowledgeBase = parser.getKnowledgeBase();
-		knowledgeBase.mergePrefixDeclarations(parser.getPrefixDeclarationRegistry());
-
-		return knowledgeBase;
-	}
-
 	protected static DataSourceDeclaration parseAndExtractDatasourceDeclaration(final JavaCCParser parser)
 			throws ParsingException, ParseException, PrefixDeclarationException {
 		parser.source();
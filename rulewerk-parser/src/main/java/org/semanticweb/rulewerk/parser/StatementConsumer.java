@@ -0,0 +1,47 @@
+package org.semanticweb.rulewerk.parser;
+
+/*-
+ * #%L
+ * Rulewerk Parser
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.util.List;
+
+import org.semanticweb.rulewerk.core.model.api.Statement;
+
+/**
+ * Receiver for the statements of an input that is parsed with
+ * {@link RuleParser#parse(java.io.InputStream, String, ParserConfiguration, int, StatementConsumer)}.
+ * Statements are passed in batches, in the order in which they occur in the
+ * input. The parser only continues reading the input once a batch has been
+ * accepted, so a consumer that is slower than the parser limits the speed of
+ * parsing rather than the parser buffering statements.
+ */
+@FunctionalInterface
+public interface StatementConsumer {
+
+	/**
+	 * Accept the next batch of parsed statements.
+	 *
+	 * @param statements the statements, which the consumer may retain or modify
+	 * @throws IOException if the statements cannot be processed, which aborts
+	 *                     parsing
+	 */
+	void accept(List<Statement> statements) throws IOException;
+}
@@ -0,0 +1,308 @@
+package org.semanticweb.rulewerk.parser;
+
+/*-
+ * #%L
+ * Rulewerk Parser
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.semanticweb.rulewerk.core.exceptions.PrefixDeclarationException;
+import org.semanticweb.rulewerk.core.model.api.Statement;
+import org.semanticweb.rulewerk.parser.ParallelRuleParser.StatementCollector;
+import org.semanticweb.rulewerk.parser.javacc.FactScanner;
+import org.semanticweb.rulewerk.parser.javacc.JavaCCParser;
+import org.semanticweb.rulewerk.parser.javacc.JavaCCParserConstants;
+import org.semanticweb.rulewerk.parser.javacc.ParseException;
+import org.semanticweb.rulewerk.parser.javacc.Token;
+import org.semanticweb.rulewerk.parser.javacc.TokenMgrError;
+
+/**
+ * Parser that reads rules files block by block, and either adds the parsed
+ * statements to the knowledge base of a {@link JavaCCParser}, or passes them to
+ * a {@link StatementConsumer}, so that only the statements of the current block
+ * are kept in memory. Like in {@link ParallelRuleParser}, facts are read with a
+ * {@link FactScanner}, and only other statements are parsed with the
+ * {@link JavaCCParser}. Statements passed to a consumer are not deduplicated.
+ *
+ * When passing statements to a consumer, directives are handled by a knowledge
+ * base that records the statements added to it, so statements of files
+ * imported with {@code @import} and {@code @import-relative} are passed to the
+ * consumer as well. Inputs that contain unicode escapes, and statements whose
+ * end cannot be found within {@link #MAX_BUFFERED_LENGTH} characters, are read
+ * by the {@link JavaCCParser} directly, one statement at a time.
+ */
+final class StreamingRuleParser {
+
+	/**
+	 * Number of characters that are read from the input at a time.
+	 */
+	static final int BLOCK_LENGTH = 1 << 16;
+
+	/**
+	 * Maximal number of characters that are buffered while searching for the end
+	 * of a statement.
+	 */
+	static final int MAX_BUFFERED_LENGTH = 1 << 20;
+
+	/*
+	 * The parts of an input, which must occur in this order.
+	 */
+	private static final int BASE = 0;
+	private static final int PREFIXES = 1;
+	private static final int SOURCES = 2;
+	private static final int BODY = 3;
+
+	/**
+	 * The consumer of the parsed statements, or null if they are added to the
+	 * knowledge base of the {@link #parser}.
+	 */
+	private final StatementConsumer consumer;
+	private final int batchSize;
+	private final StatementCollector collector;
+	private final JavaCCParser parser;
+	private final FactScanner factScanner;
+	/**
+	 * The line and column of the start of the buffered input.
+	 */
+	private final LineCounter lineCounter = new LineCounter();
+
+	private List<Statement> batch = new ArrayList<>();
+	/**
+	 * The part of the input that the last statement belonged to.
+	 */
+	private int part = -1;
+
+	/**
+	 * Construct a parser that passes statements to a consumer.
+	 *
+	 * @param parserConfiguration the configuration of the parser
+	 * @param batchSize           the number of statements passed to the consumer
+	 *                            at a time
+	 * @param consumer            the consumer receiving the statements
+	 */
+	StreamingRuleParser(final ParserConfiguration parserConfiguration, final int batchSize,
+			final StatementConsumer consumer) {
+		this.consumer = consumer;
+		this.batchSize = batchSize;
+		this.collector = new StatementCollector();
+		this.parser = new JavaCCParser(new StringReader(""));
+		this.parser.setKnowledgeBase(this.collector);
+		this.parser.setParserConfiguration(parserConfiguration);
+		this.factScanner = new FactScanner(this.parser);
+	}
+
+	/**
+	 * Construct a parser that adds statements to the knowledge base of the given
+	 * parser, which also provides the configuration and prefix declarations.
+	 *
+	 * @param parser the parser for statements that are not simple facts
+	 */
+	StreamingRuleParser(final JavaCCParser parser) {
+		this.consumer = null;
+		this.batchSize = 0;
+		this.collector = null;
+		this.parser = parser;
+		this.factScanner = new FactScanner(parser);
+	}
+
+	/**
+	 * Parse the given input, and add its statements to the knowledge base or pass
+	 * them to the consumer.
+	 *
+	 * @param reader the input
+	 * @throws ParsingException if the input cannot be parsed
+	 * @throws IOException      if the input cannot be read, or if the consumer
+	 *                          fails to process statements
+	 */
+	void parse(final Reader reader) throws ParsingException, IOException {
+		final char[] block = new char[BLOCK_LENGTH];
+		final StringBuilder buffer = new StringBuilder();
+		boolean endOfInput = false;
+
+		while (!endOfInput) {
+			final int read = reader.read(block);
+			if (read < 0) {
+				endOfInput = true;
+			} else {
+				buffer.append(block, 0, read);
+			}
+
+			final String input = buffer.toString();
+			if (input.contains("\\u") || input.length() > MAX_BUFFERED_LENGTH) {
+				this.parseDirectly(input, reader);
+				break;
+			}
+
+			final int parsed = this.parseStatements(input, endOfInput);
+			if (endOfInput && parsed < input.length()) {
+				this.parseDirectly(input.substring(parsed), reader);
+			}
+			buffer.delete(0, parsed);
+		}
+
+		if (this.consumer != null && !this.batch.isEmpty()) {
+			this.consumer.accept(this.batch);
+		}
+	}
+
+	/**
+	 * Parse all complete statements at the start of the given input.
+	 *
+	 * @param input      the buffered input
+	 * @param endOfInput true if there is no more input after the given one
+	 * @return the position after the last statement that was parsed
+	 */
+	private int parseStatements(final String input, final boolean endOfInput) throws ParsingException, IOException {
+		// Do not scan a last line that may end in an incomplete comment
+		final int lastLineStart = input.lastIndexOf('\n') + 1;
+		final int scanEnd = endOfInput || input.indexOf('%', lastLineStart) < 0 ? input.length() : lastLineStart;
+		int position = 0;
+		int counted = 0;
+
+		while (true) {
+			final int factCount = this.factScanner.getFactCount();
+			position = this.factScanner.scanFacts(input, position, scanEnd);
+			if (this.factScanner.getFactCount() > factCount) {
+				this.part = BODY;
+				this.flush();
+			}
+			if (position >= scanEnd) {
+				break;
+			}
+
+			final int end = ParallelRuleParser.getEndOfStatement(input, position);
+			if (end < 0 || end == input.length() && !endOfInput) {
+				break;
+			}
+			this.lineCounter.advance(input, counted, position);
+			counted = position;
+			this.parseStatement(input.substring(position, end));
+			position = end;
+		}
+		this.lineCounter.advance(input, counted, position);
+		return position;
+	}
+
+	/**
+	 * Parse a single statement that starts at the position reached by the
+	 * {@link #lineCounter}.
+	 */
+	private void parseStatement(final String statement) throws ParsingException, IOException {
+		if (isDirective(statement, "@base")) {
+			this.enterPart(BASE, "@base");
+		} else if (isDirective(statement, "@prefix")) {
+			this.enterPart(PREFIXES, "@prefix");
+		} else if (isDirective(statement, "@source")) {
+			this.enterPart(SOURCES, "@source");
+		} else {
+			this.enterPart(BODY, null);
+		}
+
+		this.parser.ReInit(new StringReader(statement), this.lineCounter.getLine(), this.lineCounter.getColumn());
+		try {
+			this.parser.parse();
+		} catch (ParseException | PrefixDeclarationException | TokenMgrError e) {
+			throw new ParsingException(e.getMessage(), e);
+		}
+		this.flush();
+	}
+
+	private static boolean isDirective(final String statement, final String directive) {
+		return statement.startsWith(directive) && (statement.length() == directive.length()
+				|| !ParallelRuleParser.isDirectiveNameChar(statement.charAt(directive.length())));
+	}
+
+	/**
+	 * Parse the given buffered input and the rest of the input with the
+	 * {@link JavaCCParser}.
+	 */
+	private void parseDirectly(final String bufferedInput, final Reader reader) throws ParsingException, IOException {
+		final PushbackReader input = new PushbackReader(reader, Math.max(bufferedInput.length(), 1));
+		input.unread(bufferedInput.toCharArray());
+		this.parser.ReInit(input, this.lineCounter.getLine(), this.lineCounter.getColumn());
+
+		try {
+			Token token;
+			while ((token = this.parser.getToken(1)).kind != JavaCCParserConstants.EOF) {
+				switch (token.kind) {
+				case JavaCCParserConstants.BASE:
+					this.enterPart(BASE, "@base");
+					this.parser.base();
+					break;
+				case JavaCCParserConstants.PREFIX:
+					this.enterPart(PREFIXES, "@prefix");
+					this.parser.prefix();
+					break;
+				case JavaCCParserConstants.SOURCE:
+					this.enterPart(SOURCES, "@source");
+					this.parser.source();
+					break;
+				default:
+					this.enterPart(BODY, null);
+					this.parser.statement();
+				}
+				this.flush();
+			}
+		} catch (ParseException | PrefixDeclarationException | TokenMgrError e) {
+			throw new ParsingException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Record that the next statement belongs to the given part of the input.
+	 *
+	 * @throws ParsingException if the part must not occur after the previous
+	 *                          statement
+	 */
+	private void enterPart(final int nextPart, final String declaration) throws ParsingException {
+		if (nextPart < this.part || nextPart == BASE && this.part == BASE) {
+			throw new ParsingException("Unexpected " + declaration
+					+ " declaration: @base, @prefix, and @source declarations must precede all other statements, in this order.");
+		}
+		this.part = nextPart;
+	}
+
+	/**
+	 * Pass the statements that have been parsed so far to the consumer, if any, in
+	 * batches of the requested size.
+	 */
+	private void flush() throws ParsingException, IOException {
+		if (this.consumer == null) {
+			return;
+		}
+		if (this.parser.getKnowledgeBase() != this.collector) {
+			throw new ParsingException(
+					"Directives that replace the knowledge base are not supported when parsing into a statement consumer.");
+		}
+
+		for (final Statement statement : this.collector.statements) {
+			this.batch.add(statement);
+			if (this.batch.size() == this.batchSize) {
+				this.consumer.accept(this.batch);
+				this.batch = new ArrayList<>();
+			}
+		}
+		this.collector.statements.clear();
+	}
+}
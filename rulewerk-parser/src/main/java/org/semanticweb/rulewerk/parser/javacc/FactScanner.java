@@ -0,0 +1,431 @@
+package org.semanticweb.rulewerk.parser.javacc;
+
+/*-
+ * #%L
+ * Rulewerk Parser
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.semanticweb.rulewerk.core.exceptions.PrefixDeclarationException;
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.api.PrefixDeclarationRegistry;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+
+/**
+ * Hand-written scanner for statements that are facts with simple terms, i.e.,
+ * IRIs, prefixed names, plain names, named nulls, numbers, and single-line
+ * quoted strings, possibly with language tag or datatype. Such facts are
+ * scanned directly from a string, without the lexical machinery of
+ * {@link JavaCCParser}, but using the same semantic actions as the given
+ * parser, so that the results are the same as if the parser had read them.
+ * Scanning stops at the first statement that is not such a fact, which can then
+ * be parsed by the full parser.
+ */
+public class FactScanner {
+
+	private final JavaCCParserBase parser;
+	/**
+	 * Buffer for the terms of the current fact.
+	 */
+	private final List<Term> terms = new ArrayList<>();
+
+	private String input;
+	private int end;
+	private int position;
+	private int factCount = 0;
+
+	/**
+	 * Construct a FactScanner.
+	 *
+	 * @param parser the parser providing prefix declarations, configuration and
+	 *               the knowledge base that facts are added to.
+	 */
+	public FactScanner(final JavaCCParserBase parser) {
+		this.parser = parser;
+	}
+
+	/**
+	 * Scan facts from the given part of the input, and add them to the knowledge
+	 * base of the parser.
+	 *
+	 * @param input the input, which must not contain unicode escapes.
+	 * @param start the position at which a statement (or whitespace or comments
+	 *              preceding it) starts.
+	 * @param end   the end of the part to scan.
+	 *
+	 * @return the start of the first statement that could not be scanned, or
+	 *         {@code end} if all statements were scanned.
+	 */
+	public int scanFacts(final String input, final int start, final int end) {
+		this.input = input;
+		this.end = end;
+		this.position = start;
+
+		int statementStart = this.skipWhitespaceAndComments();
+		while (statementStart < end) {
+			Fact fact;
+			try {
+				fact = this.scanFact();
+			} catch (ParseException | PrefixDeclarationException | RuntimeException e) {
+				fact = null;
+			}
+			if (fact == null) {
+				return statementStart;
+			}
+			this.parser.addStatement(fact);
+			this.factCount++;
+			statementStart = this.skipWhitespaceAndComments();
+		}
+		return statementStart;
+	}
+
+	/**
+	 * @return the number of facts that have been scanned so far
+	 */
+	public int getFactCount() {
+		return this.factCount;
+	}
+
+	private Fact scanFact() throws ParseException, PrefixDeclarationException {
+		final String predicateName = this.scanPredicateName();
+		if (predicateName == null || !this.skipWhitespaceAndExpect('(')) {
+			return null;
+		}
+
+		this.terms.clear();
+		do {
+			this.skipWhitespace();
+			final Term term = this.scanTerm();
+			if (term == null) {
+				return null;
+			}
+			this.terms.add(term);
+			this.skipWhitespace();
+			if (this.position == this.end) {
+				return null;
+			}
+		} while (this.input.charAt(this.position++) == ',');
+
+		if (this.input.charAt(this.position - 1) != ')' || !this.skipWhitespaceAndExpect('.')) {
+			return null;
+		}
+		return Expressions.makeFact(this.parser.createPredicate(predicateName, this.terms.size()), this.terms);
+	}
+
+	private String scanPredicateName() throws PrefixDeclarationException {
+		if (this.input.charAt(this.position) == '<') {
+			final String iri = this.scanIri();
+			return iri == null ? null : this.parser.absolutizeIri(iri);
+		}
+		final String name = this.scanName();
+		if (isPlainName(name)) {
+			return this.parser.absolutizeIri(name);
+		} else if (isPrefixedName(name)) {
+			return this.parser.resolvePrefixedName(name);
+		}
+		return null;
+	}
+
+	private Term scanTerm() throws ParseException, PrefixDeclarationException {
+		if (this.position == this.end) {
+			return null;
+		}
+		final char c = this.input.charAt(this.position);
+		if (c == '<') {
+			final String iri = this.scanIri();
+			return iri == null ? null : this.parser.createConstant(this.parser.absolutizeIri(iri));
+		} else if (c == '"' || c == '\'') {
+			return this.scanRdfLiteral(c);
+		} else if (c == '_') {
+			return this.scanNamedNull();
+		} else if (isDigit(c) || c == '+' || c == '-' || c == '.') {
+			return this.scanNumericLiteral();
+		}
+
+		final String name = this.scanName();
+		if (isPlainName(name)) {
+			return this.parser.createConstant(name);
+		} else if (isPrefixedName(name)) {
+			return this.parser.createConstant(this.parser.resolvePrefixedName(name));
+		}
+		return null;
+	}
+
+	private Term scanRdfLiteral(final char quote) throws ParseException, PrefixDeclarationException {
+		final String lexicalForm = this.scanString(quote);
+		if (lexicalForm == null) {
+			return null;
+		}
+
+		this.skipWhitespace();
+		if (this.position < this.end && this.input.charAt(this.position) == '@') {
+			final String languageTag = this.scanLanguageTag();
+			return languageTag == null ? null : this.parser.createLanguageStringConstant(lexicalForm, languageTag);
+		} else if (this.input.startsWith("^^", this.position)) {
+			this.position += 2;
+			this.skipWhitespace();
+			final String datatype = this.scanDatatype();
+			return datatype == null ? null : this.parser.createConstant(lexicalForm, datatype);
+		}
+		return this.parser.createConstant(lexicalForm, null);
+	}
+
+	private String scanDatatype() throws PrefixDeclarationException {
+		if (this.position == this.end) {
+			return null;
+		} else if (this.input.charAt(this.position) == '<') {
+			final String iri = this.scanIri();
+			return iri == null ? null : this.parser.absolutizeIri(iri);
+		}
+		final String name = this.scanName();
+		return isPrefixedName(name) ? this.parser.resolvePrefixedName(name) : null;
+	}
+
+	private Term scanNamedNull() {
+		if (!this.parser.isParsingOfNamedNullsAllowed() || !this.input.startsWith("_:", this.position)) {
+			return null;
+		}
+		this.position += 2;
+		final String name = this.scanName();
+		if (name.isEmpty() || name.indexOf(':') >= 0 || name.charAt(0) == '-' || name.charAt(0) == '.'
+				|| name.charAt(name.length() - 1) == '.') {
+			return null;
+		}
+		return this.parser.createNamedNull(name);
+	}
+
+	private Term scanNumericLiteral() throws ParseException {
+		final int start = this.position;
+		if (this.input.charAt(this.position) == '+' || this.input.charAt(this.position) == '-') {
+			this.position++;
+		}
+		final int integerDigits = this.skipDigits();
+		boolean decimal = false;
+		int fractionDigits = 0;
+		if (this.position < this.end && this.input.charAt(this.position) == '.') {
+			this.position++;
+			decimal = true;
+			fractionDigits = this.skipDigits();
+		}
+		if (integerDigits == 0 && fractionDigits == 0) {
+			return null;
+		}
+
+		boolean exponent = false;
+		if (this.position < this.end && (this.input.charAt(this.position) == 'e' || this.input.charAt(this.position) == 'E')) {
+			final int exponentStart = this.position++;
+			if (this.position < this.end && (this.input.charAt(this.position) == '+' || this.input.charAt(this.position) == '-')) {
+				this.position++;
+			}
+			if (this.skipDigits() == 0) {
+				this.position = exponentStart;
+			} else {
+				exponent = true;
+			}
+		}
+
+		final String lexicalForm = this.input.substring(start, this.position);
+		if (exponent) {
+			return this.parser.createConstant(lexicalForm, PrefixDeclarationRegistry.XSD_DOUBLE);
+		} else if (decimal) {
+			return this.parser.createConstant(lexicalForm, PrefixDeclarationRegistry.XSD_DECIMAL);
+		}
+		return this.parser.createConstant(lexicalForm, PrefixDeclarationRegistry.XSD_INTEGER);
+	}
+
+	/**
+	 * Scan a single-line quoted string, returning the unescaped string, or null
+	 * if the string is not terminated on the same line or is triple-quoted.
+	 */
+	private String scanString(final char quote) throws ParseException {
+		final int start = ++this.position;
+		while (this.position < this.end) {
+			final char c = this.input.charAt(this.position);
+			if (c == quote) {
+				if (this.position == start && this.position + 1 < this.end
+						&& this.input.charAt(this.position + 1) == quote) {
+					return null; // triple-quoted
+				}
+				return JavaCCParserBase.unescapeStr(this.input.substring(start, this.position++), 0, 0);
+			} else if (c == '\\') {
+				this.position += 2;
+			} else if (c == '\n' || c == '\r') {
+				return null;
+			} else {
+				this.position++;
+			}
+		}
+		return null;
+	}
+
+	private String scanLanguageTag() {
+		final int start = ++this.position;
+		if (this.skipLetters(false) == 0) {
+			return null;
+		}
+		if (this.position < this.end && this.input.charAt(this.position) == '-') {
+			this.position++;
+			if (this.skipLetters(true) == 0) {
+				return null;
+			}
+		}
+		return this.input.substring(start, this.position);
+	}
+
+	/**
+	 * Scan an IRI enclosed in angle brackets, returning the IRI without brackets,
+	 * or null if the IRI is not terminated or contains invalid characters.
+	 */
+	private String scanIri() {
+		final int start = ++this.position;
+		while (this.position < this.end) {
+			final char c = this.input.charAt(this.position);
+			if (c == '>') {
+				return this.input.substring(start, this.position++);
+			} else if (c <= ' ' || c == '<' || c == '"' || c == '{' || c == '}' || c == '^' || c == '\\' || c == '|'
+					|| c == '`') {
+				return null;
+			}
+			this.position++;
+		}
+		return null;
+	}
+
+	/**
+	 * Scan a maximal sequence of ASCII characters that may occur in names and
+	 * prefixed names. The result is empty if the sequence is followed by a
+	 * non-ASCII character, which is not supported.
+	 */
+	private String scanName() {
+		final int start = this.position;
+		while (this.position < this.end && isNameChar(this.input.charAt(this.position))) {
+			this.position++;
+		}
+		if (this.position < this.end && this.input.charAt(this.position) > 0x7f) {
+			return "";
+		}
+		return this.input.substring(start, this.position);
+	}
+
+	/**
+	 * Check if the name is a {@code VARORPREDNAME} token.
+	 */
+	private static boolean isPlainName(final String name) {
+		if (name.isEmpty() || !isLetter(name.charAt(0))) {
+			return false;
+		}
+		for (int i = 1; i < name.length(); i++) {
+			final char c = name.charAt(i);
+			if (c == '.' || c == ':') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Check if the name is a {@code PNAME_LN} token.
+	 */
+	private static boolean isPrefixedName(final String name) {
+		final int colon = name.indexOf(':');
+		if (colon < 0 || colon == name.length() - 1) {
+			return false;
+		}
+		if (colon > 0 && (!isLetter(name.charAt(0)) || name.charAt(colon - 1) == '.')) {
+			return false;
+		}
+		final char first = name.charAt(colon + 1);
+		final char last = name.charAt(name.length() - 1);
+		return first != '-' && first != '.' && (colon + 2 == name.length() || last != '.' && last != ':');
+	}
+
+	private static boolean isNameChar(final char c) {
+		return isLetter(c) || isDigit(c) || c == '_' || c == '-' || c == '.' || c == ':';
+	}
+
+	private static boolean isLetter(final char c) {
+		return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z';
+	}
+
+	private static boolean isDigit(final char c) {
+		return c >= '0' && c <= '9';
+	}
+
+	private static boolean isWhitespace(final char c) {
+		return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f';
+	}
+
+	private int skipDigits() {
+		final int start = this.position;
+		while (this.position < this.end && isDigit(this.input.charAt(this.position))) {
+			this.position++;
+		}
+		return this.position - start;
+	}
+
+	private int skipLetters(final boolean allowDigits) {
+		final int start = this.position;
+		while (this.position < this.end && (isLetter(this.input.charAt(this.position))
+				|| allowDigits && isDigit(this.input.charAt(this.position)))) {
+			this.position++;
+		}
+		return this.position - start;
+	}
+
+	private void skipWhitespace() {
+		while (this.position < this.end && isWhitespace(this.input.charAt(this.position))) {
+			this.position++;
+		}
+	}
+
+	private boolean skipWhitespaceAndExpect(final char c) {
+		this.skipWhitespace();
+		if (this.position < this.end && this.input.charAt(this.position) == c) {
+			this.position++;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Skip whitespace and comments between statements. Comments must end with a
+	 * line break.
+	 *
+	 * @return the new position
+	 */
+	private int skipWhitespaceAndComments() {
+		while (this.position < this.end) {
+			final char c = this.input.charAt(this.position);
+			if (isWhitespace(c)) {
+				this.position++;
+			} else if (c == '%') {
+				final int lineEnd = this.input.indexOf('\n', this.position);
+				if (lineEnd < 0 || lineEnd >= this.end) {
+					break;
+				}
+				this.position = lineEnd + 1;
+			} else {
+				break;
+			}
+		}
+		return this.position;
+	}
+}
@@ -23,6 +23,7 @@ import java.io.ByteArrayInputStream;
  */
 
 import java.io.InputStream;
+import java.io.Reader;
 
 import org.semanticweb.rulewerk.core.model.api.PrefixDeclarationRegistry;
 import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
@@ -49,7 +50,7 @@ public class SubParserFactory {
 	 *
 	 * @param parser the parser instance to get the (semantic) state from.
 	 */
-	SubParserFactory(final JavaCCParser parser) {
+	public SubParserFactory(final JavaCCParser parser) {
 		this.knowledgeBase = parser.getKnowledgeBase();
 		this.prefixDeclarationRegistry = parser.getPrefixDeclarationRegistry();
 		this.parserConfiguration = parser.getParserConfiguration();
@@ -66,7 +67,22 @@ public class SubParserFactory {
 	 *         specified parser state.
 	 */
 	public JavaCCParser makeSubParser(final InputStream inputStream, final String encoding) {
-		final JavaCCParser subParser = new JavaCCParser(inputStream, encoding);
+		return this.initialiseSubParser(new JavaCCParser(inputStream, encoding));
+	}
+
+	/**
+	 * Create a new parser with the specified (semantic) state and given input.
+	 *
+	 * @param reader the reader providing the input to parse.
+	 *
+	 * @return A new {@link JavaCCParser} bound to reader and with the specified
+	 *         parser state.
+	 */
+	public JavaCCParser makeSubParser(final Reader reader) {
+		return this.initialiseSubParser(new JavaCCParser(reader));
+	}
+
+	private JavaCCParser initialiseSubParser(final JavaCCParser subParser) {
 		subParser.setKnowledgeBase(this.knowledgeBase);
 		subParser.setPrefixDeclarationRegistry(this.prefixDeclarationRegistry);
 		subParser.setParserConfiguration(this.parserConfiguration);
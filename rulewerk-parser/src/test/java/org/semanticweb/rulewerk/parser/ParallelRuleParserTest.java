@@ -0,0 +1,241 @@
+package org.semanticweb.rulewerk.parser;
+
+/*-
+ * #%L
+ * Rulewerk Parser
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.junit.Test;
+import org.semanticweb.rulewerk.core.exceptions.PrefixDeclarationException;
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.api.Statement;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.parser.javacc.JavaCCParser;
+import org.semanticweb.rulewerk.parser.javacc.ParseException;
+
+public class ParallelRuleParserTest {
+
+	private static final String HEADER = "@prefix ex: <http://example.org/ex#> .\n"
+			+ "@source ex:src[1]: load-csv(\"src/test/resources/facts.csv\") .\n";
+
+	private static String makeInput(final int statements) {
+		final StringBuilder builder = new StringBuilder(HEADER);
+		for (int i = 0; i < statements; i++) {
+			builder.append("% comment with a dot. in it\n");
+			builder.append("ex:p(ex:a").append(i).append(", \"string. with (dots) and 'quotes'\") .\n");
+			builder.append("q(<iri").append(i).append(">, 1.5, \"x\"@en).ex:r(\"\"\"long \" string.\"\"\"^^<http://ex.org/t>) .\n");
+			builder.append("ex:s(?X, !Y) :- ex:p(?X, ?Z), ~q(?Z, 1.5, \"x\"@en) .\n");
+		}
+		return builder.toString();
+	}
+
+	private static ParserConfiguration makeParserConfiguration(final int parallelism) {
+		return new DefaultParserConfiguration().setParallelism(parallelism);
+	}
+
+	private static Map<String, String> getPrefixes(final KnowledgeBase knowledgeBase) {
+		final Map<String, String> prefixes = new HashMap<>();
+		for (final Entry<String, String> prefix : knowledgeBase.getPrefixDeclarationRegistry()) {
+			prefixes.put(prefix.getKey(), prefix.getValue());
+		}
+		return prefixes;
+	}
+
+	/**
+	 * Parse the input with a {@link JavaCCParser} alone, as a reference for the
+	 * parsers that scan facts.
+	 */
+	private static KnowledgeBase parseSequentially(final String input, final ParserConfiguration parserConfiguration)
+			throws ParsingException {
+		final KnowledgeBase knowledgeBase = new KnowledgeBase();
+		final JavaCCParser parser = new JavaCCParser(new ByteArrayInputStream(input.getBytes()),
+				RuleParser.DEFAULT_STRING_ENCODING);
+		parser.setKnowledgeBase(knowledgeBase);
+		parser.setParserConfiguration(parserConfiguration);
+		try {
+			parser.parse();
+		} catch (ParseException | PrefixDeclarationException e) {
+			throw new ParsingException(e.getMessage(), e);
+		}
+		knowledgeBase.mergePrefixDeclarations(parser.getPrefixDeclarationRegistry());
+		return knowledgeBase;
+	}
+
+	private static KnowledgeBase parseInParallel(final String input, final ParserConfiguration parserConfiguration,
+			final int chunkLength) throws ParsingException {
+		return new ParallelRuleParser(new KnowledgeBase(), parserConfiguration, null, chunkLength)
+				.parse(new StringReader(input));
+	}
+
+	private static void assertSameResult(final String input, final int chunkLength) throws ParsingException {
+		final KnowledgeBase expected = parseSequentially(input, makeParserConfiguration(1));
+		final KnowledgeBase knowledgeBase = parseInParallel(input, makeParserConfiguration(4), chunkLength);
+
+		assertEquals(new ArrayList<>(expected.getStatements()), new ArrayList<>(knowledgeBase.getStatements()));
+		assertEquals(expected.getPrefixDeclarationRegistry().getBaseIri(),
+				knowledgeBase.getPrefixDeclarationRegistry().getBaseIri());
+		assertEquals(getPrefixes(expected), getPrefixes(knowledgeBase));
+	}
+
+	@Test
+	public void parse_manySmallChunks_sameAsSequential() throws ParsingException {
+		assertSameResult(makeInput(200), 1);
+	}
+
+	@Test
+	public void parse_singleChunk_sameAsSequential() throws ParsingException {
+		assertSameResult(makeInput(20), ParallelRuleParser.DEFAULT_CHUNK_LENGTH);
+	}
+
+	@Test
+	public void parse_largeInput_sameAsSequential() throws ParsingException {
+		assertSameResult(makeInput(5000), 1 << 10);
+	}
+
+	@Test
+	public void parse_emptyInput_succeeds() throws ParsingException {
+		assertSameResult("", 1);
+		assertSameResult("% only a comment\n", 1);
+		assertSameResult(HEADER, 1);
+	}
+
+	@Test
+	public void parse_unicodeEscapes_sameAsSequential() throws ParsingException {
+		assertSameResult("p(a) . q(\"\\u0041\") . r(c) .", 1);
+	}
+
+	@Test
+	public void parse_imports_sameAsSequential() throws ParsingException {
+		assertSameResult("p(a) . @import \"src/test/resources/subdir/parent.rls\" . q(b) . "
+				+ "@import \"src/test/resources/facts.rls\" . r(c) .", 1);
+		assertSameResult("@base <http://example.org/> . p(a) . "
+				+ "@import-relative \"src/test/resources/subdir/sibling.rls\" . q(b) .", 1);
+	}
+
+	@Test
+	public void parse_repeatedImports_sameAsSequential() throws ParsingException {
+		assertSameResult("@import \"src/test/resources/facts.rls\" . p(a) . "
+				+ "@import \"src/test/resources/subdir/parent.rls\" . q(b) . "
+				+ "@import \"src/test/resources/facts.rls\" . r(c) .", 1);
+		assertSameResult("@import \"src/test/resources/subdir/parent.rls\" . p(a) . "
+				+ "@import \"src/test/resources/subdir/parent.rls\" . q(b) .", 1);
+	}
+
+	@Test
+	public void parse_cyclicImports_sameAsSequential() throws ParsingException {
+		assertSameResult("p(a) . @import \"src/test/resources/subdir/cycle.rls\" . q(b) .", 1);
+	}
+
+	@Test
+	public void parse_namedNulls_sharedBetweenChunks() throws ParsingException {
+		final String input = "p(_:blank) . q(_:blank) . p(_:other) .";
+		final KnowledgeBase knowledgeBase = parseInParallel(input, makeParserConfiguration(4), 1);
+
+		final List<Fact> facts = knowledgeBase.getFacts();
+		assertEquals(3, facts.size());
+		assertEquals(facts.get(0).getArguments().get(0), facts.get(1).getArguments().get(0));
+		assertNotEquals(facts.get(0).getArguments().get(0), facts.get(2).getArguments().get(0));
+	}
+
+	@Test
+	public void parse_customDirective_parsedInOrder() throws ParsingException {
+		final KnowledgeBase replacement = new KnowledgeBase();
+		final ParserConfiguration parserConfiguration = makeParserConfiguration(4).registerDirective("custom",
+				(arguments, subParserFactory) -> replacement);
+		final KnowledgeBase knowledgeBase = new KnowledgeBase();
+
+		final KnowledgeBase result = new ParallelRuleParser(knowledgeBase, parserConfiguration, null, 1)
+				.parse(new StringReader("p(a) . @custom \"a\" . q(b) . r(c) ."));
+		assertSame(replacement, result);
+		assertEquals(1, knowledgeBase.getFacts().size());
+		assertEquals(2, replacement.getFacts().size());
+	}
+
+	@Test
+	public void parse_lateDeclaration_throws() throws ParsingException {
+		try {
+			parseInParallel("p(a) . @prefix ex: <http://example.org/> .", makeParserConfiguration(4), 1);
+			fail("Expected ParsingException");
+		} catch (final ParsingException e) {
+			assertTrue(e.getMessage().startsWith("Unexpected @prefix declaration"));
+		}
+	}
+
+	@Test(expected = ParsingException.class)
+	public void parse_syntaxErrorInChunk_throws() throws ParsingException {
+		parseInParallel(makeInput(100) + "p(a) . q(b c) . r(c) .", makeParserConfiguration(4), 1 << 10);
+	}
+
+	@Test
+	public void parse_syntaxErrorInChunk_reportsPositionInInput() throws ParsingException {
+		try {
+			parseInParallel(makeInput(100) + "p(a) .\n  q(b c) . r(c) .", makeParserConfiguration(4), 1 << 10);
+			fail("Expected ParsingException");
+		} catch (final ParsingException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains("line 404, column 7"));
+		}
+	}
+
+	@Test
+	public void parse_parallel_sameAsSequential() throws ParsingException {
+		final String input = makeInput(50);
+		final KnowledgeBase expected = RuleParser.parse(input, makeParserConfiguration(1));
+		final KnowledgeBase knowledgeBase = RuleParser.parse(input, makeParserConfiguration(4));
+
+		assertEquals(new ArrayList<Statement>(expected.getStatements()),
+				new ArrayList<Statement>(knowledgeBase.getStatements()));
+	}
+
+	@Test
+	public void parse_parallelCustomDirective_succeeds() throws ParsingException {
+		final ParserConfiguration parserConfiguration = makeParserConfiguration(4).registerDirective("custom",
+				(arguments, subParserFactory) -> subParserFactory.makeSubParser("").getKnowledgeBase());
+		final KnowledgeBase knowledgeBase = RuleParser.parse("p(a) . @custom \"a\" . q(b) .", parserConfiguration);
+
+		assertEquals(2, knowledgeBase.getFacts().size());
+	}
+
+	@Test(expected = ParsingException.class)
+	public void parse_parallelSyntaxError_throws() throws ParsingException {
+		RuleParser.parse("p(a) . q(b c) . r(c) .", makeParserConfiguration(4));
+	}
+
+	@Test(expected = ParsingException.class)
+	public void parse_parallelMissingImport_throws() throws ParsingException {
+		RuleParser.parse("p(a) . @import \"src/test/resources/missing.rls\" .", makeParserConfiguration(4));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void setParallelism_zero_throws() {
+		new ParserConfiguration().setParallelism(0);
+	}
+}
@@ -0,0 +1,165 @@
+package org.semanticweb.rulewerk.parser;
+
+/*-
+ * #%L
+ * Rulewerk Parser
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.semanticweb.rulewerk.core.model.api.Statement;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+
+public class RuleParserStatementConsumerTest {
+
+	private static final String HEADER = "@prefix ex: <http://example.org/ex#> .\n"
+			+ "@source ex:src[1]: load-csv(\"src/test/resources/facts.csv\") .\n";
+
+	private static String makeInput(final int statements) {
+		final StringBuilder builder = new StringBuilder(HEADER);
+		for (int i = 0; i < statements; i++) {
+			builder.append("% comment with a dot. in it\n");
+			builder.append("ex:p(ex:a").append(i).append(", \"string. with (dots) and 'quotes'\") .\n");
+			builder.append("q(<iri").append(i).append(">, 1.5, \"x\"@en).ex:r(\"\"\"long \" string.\"\"\"^^<http://ex.org/t>, ")
+					.append(i).append(") .\n");
+			builder.append("ex:s(?X, !Y) :- ex:p(?X, ?Z), ~q(?Z, ").append(i).append(", \"x\"@en) .\n");
+		}
+		return builder.toString();
+	}
+
+	private static InputStream toStream(final String input) {
+		return new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static List<Statement> parseStatements(final String input) throws ParsingException, IOException {
+		final List<Statement> statements = new ArrayList<>();
+		RuleParser.parse(toStream(input), statements::addAll);
+		return statements;
+	}
+
+	private static void assertSameStatements(final String input) throws ParsingException, IOException {
+		final List<Statement> expected = new ArrayList<>(RuleParser.parse(input).getStatements());
+		assertEquals(expected, parseStatements(input));
+	}
+
+	@Test
+	public void parse_smallInput_sameAsKnowledgeBase() throws ParsingException, IOException {
+		assertSameStatements(makeInput(10));
+	}
+
+	@Test
+	public void parse_inputLongerThanBlock_sameAsKnowledgeBase() throws ParsingException, IOException {
+		final String input = makeInput(2000);
+		assertTrue(input.length() > 2 * StreamingRuleParser.BLOCK_LENGTH);
+		assertSameStatements(input);
+	}
+
+	@Test
+	public void parse_singleLineLongerThanBlock_sameAsKnowledgeBase() throws ParsingException, IOException {
+		final StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < 20000; i++) {
+			builder.append("p(a").append(i).append(", \"b c\"). ");
+		}
+		assertSameStatements(builder.toString());
+	}
+
+	@Test
+	public void parse_emptyInput_noBatches() throws ParsingException, IOException {
+		final List<List<Statement>> batches = new ArrayList<>();
+		RuleParser.parse(toStream("% only a comment\n"), batches::add);
+		assertTrue(batches.isEmpty());
+	}
+
+	@Test
+	public void parse_batchSize_respected() throws ParsingException, IOException {
+		final List<Integer> batchSizes = new ArrayList<>();
+		RuleParser.parse(toStream("p(a) . p(b) . q(?X) :- p(?X) . p(c) . p(d) ."), RuleParser.DEFAULT_STRING_ENCODING,
+				new DefaultParserConfiguration(), 2, statements -> batchSizes.add(statements.size()));
+		assertEquals(3, batchSizes.size());
+		assertEquals(2, (int) batchSizes.get(0));
+		assertEquals(2, (int) batchSizes.get(1));
+		assertEquals(1, (int) batchSizes.get(2));
+	}
+
+	@Test
+	public void parse_duplicates_notRemoved() throws ParsingException, IOException {
+		final Statement fact = Expressions.makeFact("p", Expressions.makeAbstractConstant("a"));
+		final List<Statement> statements = parseStatements("p(a) . p(a) .");
+		assertEquals(2, statements.size());
+		assertEquals(fact, statements.get(0));
+		assertEquals(fact, statements.get(1));
+	}
+
+	@Test
+	public void parse_imports_statementsPassedOn() throws ParsingException, IOException {
+		assertSameStatements("p(a) . @import \"src/test/resources/subdir/parent.rls\" . q(b) . "
+				+ "@import \"src/test/resources/facts.rls\" . r(c) .");
+	}
+
+	@Test
+	public void parse_namedNulls_consistentAcrossInput() throws ParsingException, IOException {
+		final List<Statement> statements = parseStatements(makeInput(1000) + "p(_:blank) . q(_:blank) . p(_:other) .");
+		final int size = statements.size();
+		assertEquals(statements.get(size - 3).toString().substring(2), statements.get(size - 2).toString().substring(2));
+		assertNotEquals(statements.get(size - 3), statements.get(size - 1));
+	}
+
+	@Test
+	public void parse_unicodeEscapes_sameAsKnowledgeBase() throws ParsingException, IOException {
+		assertSameStatements(makeInput(10) + "p(\"\\u0061\") . q(?X) :- p(?X) .");
+	}
+
+	@Test(expected = ParsingException.class)
+	public void parse_syntaxError_throws() throws ParsingException, IOException {
+		parseStatements(makeInput(1000) + "p(a) :- .");
+	}
+
+	@Test(expected = ParsingException.class)
+	public void parse_prefixAfterFact_throws() throws ParsingException, IOException {
+		parseStatements("p(a) . @prefix ex: <http://example.org/> .");
+	}
+
+	@Test(expected = ParsingException.class)
+	public void parse_incompleteStatement_throws() throws ParsingException, IOException {
+		parseStatements("p(a) . q(b");
+	}
+
+	@Test(expected = IOException.class)
+	public void parse_consumerFails_throws() throws ParsingException, IOException {
+		RuleParser.parse(toStream("p(a) ."), statements -> {
+			throw new IOException();
+		});
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void parse_nonPositiveBatchSize_throws() throws ParsingException, IOException {
+		RuleParser.parse(toStream("p(a) ."), RuleParser.DEFAULT_STRING_ENCODING, new DefaultParserConfiguration(), 0,
+				statements -> {
+				});
+	}
+}
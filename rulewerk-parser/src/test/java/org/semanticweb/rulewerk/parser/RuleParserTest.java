@@ -21,6 +21,8 @@ package org.semanticweb.rulewerk.parser;
  */
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 
@@ -44,6 +46,7 @@ import org.semanticweb.rulewerk.core.model.api.Variable;
 import org.semanticweb.rulewerk.core.model.implementation.AbstractConstantImpl;
 import org.semanticweb.rulewerk.core.model.implementation.Expressions;
 import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.parser.javacc.FactScanner;
 import org.semanticweb.rulewerk.parser.javacc.JavaCCParserBase.FormulaContext;
 
 public class RuleParserTest implements ParserTestUtils {
@@ -607,4 +610,31 @@ public class RuleParserTest implements ParserTestUtils {
 		final List<Fact> result = knowledgeBase.getFacts();
 		assertEquals(expected, result);
 	}
+	@Test
+	public void parseInto_default_scansFacts() throws ParsingException {
+		final List<Boolean> scanned = new ArrayList<>();
+		final KnowledgeBase knowledgeBase = new KnowledgeBase() {
+			@Override
+			public void addStatement(final Statement statement) {
+				scanned.add(Arrays.stream(Thread.currentThread().getStackTrace())
+						.anyMatch(element -> element.getClassName().equals(FactScanner.class.getName())));
+				super.addStatement(statement);
+			}
+		};
+		RuleParser.parseInto(knowledgeBase, "p(a) . q(?X) :- p(?X) . r(\"b\"@en, 1) .");
+
+		assertEquals(Arrays.asList(true, false, true), scanned);
+		assertEquals(3, knowledgeBase.getStatements().size());
+	}
+
+	@Test
+	public void parseInto_errorAfterFacts_reportsPositionInInput() {
+		try {
+			RuleParser.parseInto(new KnowledgeBase(), "p(a) .\np(b) .\n  q(?X :- p(?X) .\n");
+			fail("Expected a ParsingException");
+		} catch (final ParsingException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains("line 3, column 8"));
+		}
+	}
+
 }
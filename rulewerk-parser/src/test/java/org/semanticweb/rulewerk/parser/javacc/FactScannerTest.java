@@ -0,0 +1,115 @@
+package org.semanticweb.rulewerk.parser.javacc;
+
+/*-
+ * #%L
+ * Rulewerk Parser
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+
+import org.junit.Test;
+import org.semanticweb.rulewerk.core.exceptions.PrefixDeclarationException;
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.api.NamedNull;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.parser.LocalPrefixDeclarationRegistry;
+
+public class FactScannerTest {
+
+	private static JavaCCParser makeParser(final String input, final KnowledgeBase knowledgeBase)
+			throws PrefixDeclarationException {
+		final LocalPrefixDeclarationRegistry prefixDeclarationRegistry = new LocalPrefixDeclarationRegistry(
+				"http://example.org/base/");
+		prefixDeclarationRegistry.setPrefixIri("ex:", "http://example.org/ex#");
+		prefixDeclarationRegistry.setPrefixIri(":", "http://example.org/empty#");
+		final JavaCCParser parser = new JavaCCParser(new StringReader(input));
+		parser.setPrefixDeclarationRegistry(prefixDeclarationRegistry);
+		parser.setKnowledgeBase(knowledgeBase);
+		return parser;
+	}
+
+	private static KnowledgeBase scan(final String input) throws PrefixDeclarationException {
+		final KnowledgeBase knowledgeBase = new KnowledgeBase();
+		final FactScanner factScanner = new FactScanner(makeParser("", knowledgeBase));
+		assertEquals(input.length(), factScanner.scanFacts(input, 0, input.length()));
+		return knowledgeBase;
+	}
+
+	private static void assertSameAsParser(final String input) throws Exception {
+		final KnowledgeBase expected = new KnowledgeBase();
+		makeParser(input, expected).parse();
+		assertEquals(new ArrayList<>(expected.getStatements()), new ArrayList<>(scan(input).getStatements()));
+	}
+
+	@Test
+	public void scanFacts_iris_sameAsParser() throws Exception {
+		assertSameAsParser("<http://example.org/p>(<http://example.org/a>, <relative>) .\n"
+				+ "p(a, b-c_d) . ex:p(ex:a, :b, ex:a.b, ex:1, ex::) .");
+	}
+
+	@Test
+	public void scanFacts_literals_sameAsParser() throws Exception {
+		assertSameAsParser("p(\"abc\", 'single \"quoted\"', \"escaped \\\" \\\\ \\n\", \"\") .\n"
+				+ "p(\"en\"@en, \"us\"@en-US, \"typed\"^^<http://example.org/t>, \"prefixed\" ^^ ex:t) .\n"
+				+ "p(1, -2, +3, 1.5, .5, 2., 1e10, -1.5E-3, .5e1) .");
+	}
+
+	@Test
+	public void scanFacts_whitespaceAndComments_sameAsParser() throws Exception {
+		assertSameAsParser("% comment\n  p ( a ,\n\tb\r\n) \f.p(c).\n% comment\n\n q(d) .\n% final comment\n");
+	}
+
+	@Test
+	public void scanFacts_namedNulls_reused() throws Exception {
+		final KnowledgeBase knowledgeBase = scan("p(_:a, _:b1) . q(_:a) .");
+		final Fact fact1 = knowledgeBase.getFacts().get(0);
+		final Fact fact2 = knowledgeBase.getFacts().get(1);
+
+		assertTrue(fact1.getArguments().get(0) instanceof NamedNull);
+		assertEquals(fact1.getArguments().get(0), fact2.getArguments().get(0));
+	}
+
+	@Test
+	public void scanFacts_unsupportedStatements_stops() throws PrefixDeclarationException {
+		final String[] statements = { "q(?X) :- p(?X) .", "p(a) :- q(a) .", "p(?X) .", "p(|abc|) .",
+				"p('''abc''') .", "p(\"unknown\\escape\") .", "p(undeclared:a) .", "p(ex:a.) .", "@import \"a\" .",
+				"p(a, ) .", "p() .", "p(\"a\"@en-US-x) .", "p(1a) .", "p(a) % missing dot" };
+		for (final String statement : statements) {
+			final KnowledgeBase knowledgeBase = new KnowledgeBase();
+			final FactScanner factScanner = new FactScanner(makeParser("", knowledgeBase));
+			final String input = "r(a) . " + statement;
+
+			assertEquals(statement, 7, factScanner.scanFacts(input, 0, input.length()));
+			assertEquals(1, knowledgeBase.getFacts().size());
+		}
+	}
+
+	@Test
+	public void scanFacts_range_onlyScansRange() throws PrefixDeclarationException {
+		final KnowledgeBase knowledgeBase = new KnowledgeBase();
+		final FactScanner factScanner = new FactScanner(makeParser("", knowledgeBase));
+		final String input = "p(a) . p(b) . p(c) .";
+
+		assertEquals(13, factScanner.scanFacts(input, 6, 13));
+		assertEquals(1, knowledgeBase.getFacts().size());
+	}
+}
@@ -0,0 +1,109 @@
+package org.semanticweb.rulewerk.rdf;
+
+/*-
+ * #%L
+ * Rulewerk RDF Support
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.lang3.Validate;
+import org.openrdf.model.Model;
+import org.openrdf.model.Statement;
+import org.openrdf.rio.RDFHandler;
+import org.openrdf.rio.RDFHandlerException;
+import org.openrdf.rio.helpers.RDFHandlerBase;
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+
+/**
+ * {@link RDFHandler} that converts RDF triples to {@link Fact}s while they are
+ * parsed, using a given {@link RdfModelConverter}, and adds the facts to a
+ * {@link KnowledgeBase} in batches. Namespaces declared in the RDF document are
+ * added as prefix declarations. Unlike parsing into a {@link Model} first, this
+ * does not keep the triples of the document in memory.
+ */
+public class RdfFactHandler extends RDFHandlerBase {
+
+	/**
+	 * Number of facts that are added to the knowledge base at a time, unless
+	 * specified otherwise.
+	 */
+	public static final int DEFAULT_BATCH_SIZE = 1024;
+
+	private final RdfModelConverter rdfModelConverter;
+	private final KnowledgeBase knowledgeBase;
+	private final int batchSize;
+	private final List<Fact> batch;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param rdfModelConverter the converter for triples
+	 * @param knowledgeBase     the {@link KnowledgeBase} to add {@link Fact}s and
+	 *                          prefix declarations to
+	 */
+	public RdfFactHandler(final RdfModelConverter rdfModelConverter, final KnowledgeBase knowledgeBase) {
+		this(rdfModelConverter, knowledgeBase, DEFAULT_BATCH_SIZE);
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param rdfModelConverter the converter for triples
+	 * @param knowledgeBase     the {@link KnowledgeBase} to add {@link Fact}s and
+	 *                          prefix declarations to
+	 * @param batchSize         the number of facts added to the knowledge base at
+	 *                          a time
+	 */
+	public RdfFactHandler(final RdfModelConverter rdfModelConverter, final KnowledgeBase knowledgeBase,
+			final int batchSize) {
+		Validate.isTrue(batchSize > 0, "The batch size must be positive.");
+		this.rdfModelConverter = rdfModelConverter;
+		this.knowledgeBase = knowledgeBase;
+		this.batchSize = batchSize;
+		this.batch = new ArrayList<>(batchSize);
+	}
+
+	@Override
+	public void handleNamespace(final String prefix, final String uri) throws RDFHandlerException {
+		this.rdfModelConverter.addPrefix(this.knowledgeBase, prefix, uri);
+	}
+
+	@Override
+	public void handleStatement(final Statement statement) throws RDFHandlerException {
+		this.batch.add(this.rdfModelConverter.rdfStatementToFact(statement));
+		if (this.batch.size() == this.batchSize) {
+			this.addBatch();
+		}
+	}
+
+	@Override
+	public void endRDF() throws RDFHandlerException {
+		this.addBatch();
+	}
+
+	private void addBatch() {
+		if (!this.batch.isEmpty()) {
+			this.knowledgeBase.addStatements(this.batch);
+			this.batch.clear();
+		}
+	}
+
+}
@@ -0,0 +1,136 @@
+package org.semanticweb.rulewerk.rdf;
+
+/*-
+ * #%L
+ * Rulewerk RDF Support
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import org.openrdf.rio.RDFFormat;
+import org.openrdf.rio.Rio;
+
+/**
+ * Utility class for determining the format of an RDF document without parsing
+ * it, so that the document only needs to be parsed once. The format is
+ * determined from the extension of the file name if possible, and otherwise
+ * from the first characters of the document.
+ */
+public final class RdfFormatDetector {
+
+	/**
+	 * The formats that can be parsed.
+	 */
+	public static final List<RDFFormat> SUPPORTED_FORMATS = Arrays.asList(RDFFormat.NTRIPLES, RDFFormat.TURTLE,
+			RDFFormat.RDFXML);
+
+	/**
+	 * Number of bytes that are inspected when detecting the format from the
+	 * content of a document.
+	 */
+	static final int SNIFF_LENGTH = 1 << 12;
+
+	private RdfFormatDetector() {
+	}
+
+	/**
+	 * Determine the format of an RDF document. The given stream is not consumed.
+	 *
+	 * @param fileName name of the file that contains the document
+	 * @param stream   the content of the document, which must support
+	 *                 {@link InputStream#mark(int)}
+	 * @return the format of the document
+	 * @throws IOException if the stream cannot be read
+	 */
+	public static RDFFormat detectFormat(final String fileName, final InputStream stream) throws IOException {
+		final RDFFormat format = Rio.getParserFormatForFileName(fileName);
+		if (format != null && SUPPORTED_FORMATS.contains(format)) {
+			return format;
+		}
+		return detectFormat(stream);
+	}
+
+	/**
+	 * Determine the format of an RDF document from its first characters. Documents
+	 * that start with an XML declaration or element are taken to be RDF/XML, and
+	 * all other documents are taken to be Turtle, which includes N-Triples. The
+	 * given stream is not consumed.
+	 *
+	 * @param stream the content of the document, which must support
+	 *               {@link InputStream#mark(int)}
+	 * @return the format of the document
+	 * @throws IOException if the stream cannot be read
+	 */
+	public static RDFFormat detectFormat(final InputStream stream) throws IOException {
+		final byte[] bytes = new byte[SNIFF_LENGTH];
+		int length = 0;
+		stream.mark(SNIFF_LENGTH);
+		try {
+			int read;
+			while (length < SNIFF_LENGTH && (read = stream.read(bytes, length, SNIFF_LENGTH - length)) != -1) {
+				length += read;
+			}
+		} finally {
+			stream.reset();
+		}
+
+		final String start = new String(bytes, 0, length, StandardCharsets.UTF_8);
+		final int position = skipWhitespaceAndComments(start);
+		return isXml(start, position) ? RDFFormat.RDFXML : RDFFormat.TURTLE;
+	}
+
+	private static int skipWhitespaceAndComments(final String input) {
+		int position = 0;
+		while (position < input.length()) {
+			final char c = input.charAt(position);
+			if (c == '#') {
+				final int end = input.indexOf('\n', position);
+				position = end < 0 ? input.length() : end + 1;
+			} else if (Character.isWhitespace(c) || c == '\uFEFF') {
+				position++;
+			} else {
+				break;
+			}
+		}
+		return position;
+	}
+
+	/**
+	 * Check if the input starts with an XML declaration, comment, or element at
+	 * the given position. An element is distinguished from an IRI in Turtle since
+	 * its name is followed by whitespace or the end of the tag, whereas IRIs cannot
+	 * contain whitespace.
+	 */
+	private static boolean isXml(final String input, final int position) {
+		if (!input.startsWith("<", position)) {
+			return false;
+		} else if (input.startsWith("<?", position) || input.startsWith("<!", position)) {
+			return true;
+		}
+		int end = position + 1;
+		while (end < input.length() && !Character.isWhitespace(input.charAt(end)) && input.charAt(end) != '>') {
+			end++;
+		}
+		return end < input.length() && (Character.isWhitespace(input.charAt(end)) || input.charAt(end - 1) == '/');
+	}
+
+}
@@ -20,6 +20,8 @@ package org.semanticweb.rulewerk.rdf;
  * #L%
  */
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Arrays;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -31,6 +33,11 @@ import org.openrdf.model.Namespace;
 import org.openrdf.model.Statement;
 import org.openrdf.model.URI;
 import org.openrdf.model.Value;
+import org.openrdf.rio.RDFFormat;
+import org.openrdf.rio.RDFHandlerException;
+import org.openrdf.rio.RDFParseException;
+import org.openrdf.rio.RDFParser;
+import org.openrdf.rio.Rio;
 import org.semanticweb.rulewerk.core.exceptions.PrefixDeclarationException;
 import org.semanticweb.rulewerk.core.model.api.Constant;
 import org.semanticweb.rulewerk.core.model.api.Fact;
@@ -140,6 +147,30 @@ public final class RdfModelConverter {
 		this.addFacts(knowledgeBase, model);
 	}
 
+	/**
+	 * Parses an RDF document and adds its data and prefix declarations to a given
+	 * {@link KnowledgeBase}. Triples are converted to {@link Fact}s while the
+	 * document is parsed, without building a {@link Model} of the whole document.
+	 * If parsing fails, the facts of the triples before the error may already have
+	 * been added.
+	 *
+	 * @param knowledgeBase the {@link KnowledgeBase} to add to
+	 * @param stream        the RDF document
+	 * @param rdfFormat     the format of the document, e.g., as determined by
+	 *                      {@link RdfFormatDetector}
+	 * @param baseIri       the IRI against which relative IRIs in the document are
+	 *                      resolved
+	 * @throws RDFParseException   if the document is not valid in the given format
+	 * @throws RDFHandlerException if the triples cannot be processed
+	 * @throws IOException         if the document cannot be read
+	 */
+	public void addAll(final KnowledgeBase knowledgeBase, final InputStream stream, final RDFFormat rdfFormat,
+			final String baseIri) throws RDFParseException, RDFHandlerException, IOException {
+		final RDFParser rdfParser = Rio.createParser(rdfFormat);
+		rdfParser.setRDFHandler(new RdfFactHandler(this, knowledgeBase));
+		rdfParser.parse(stream, baseIri);
+	}
+
 	/**
 	 * Adds the data from a given RDF {@link Model} as {@link Fact}s to the given
 	 * {@link KnowledgeBase}.
@@ -163,12 +194,15 @@ public final class RdfModelConverter {
 	 */
 	public void addPrefixes(final KnowledgeBase knowledgeBase, final Model model) {
 		for (final Namespace namespace : model.getNamespaces()) {
-			try {
-				knowledgeBase.getPrefixDeclarationRegistry().setPrefixIri(namespace.getPrefix() + ":",
-						namespace.getName());
-			} catch (final PrefixDeclarationException e) {
-				LOGGER.warn("Failed to set prefix \"" + namespace.getPrefix() + "\" from RDF model: " + e.getMessage());
-			}
+			this.addPrefix(knowledgeBase, namespace.getPrefix(), namespace.getName());
+		}
+	}
+
+	void addPrefix(final KnowledgeBase knowledgeBase, final String prefix, final String iri) {
+		try {
+			knowledgeBase.getPrefixDeclarationRegistry().setPrefixIri(prefix + ":", iri);
+		} catch (final PrefixDeclarationException e) {
+			LOGGER.warn("Failed to set prefix \"" + prefix + "\" from RDF model: " + e.getMessage());
 		}
 	}
 
@@ -0,0 +1,70 @@
+package org.semanticweb.rulewerk.rdf;
+
+/*-
+ * #%L
+ * Rulewerk RDF Support
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+import org.openrdf.rio.RDFFormat;
+
+public class RdfFormatDetectorTest {
+
+	private static InputStream toStream(final String content) {
+		return new BufferedInputStream(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	@Test
+	public void detectFormat_knownExtension_formatOfExtension() throws IOException {
+		assertEquals(RDFFormat.NTRIPLES, RdfFormatDetector.detectFormat("data.nt", toStream("<?xml")));
+		assertEquals(RDFFormat.TURTLE, RdfFormatDetector.detectFormat("data.ttl", toStream("<?xml")));
+		assertEquals(RDFFormat.RDFXML, RdfFormatDetector.detectFormat("data.rdf", toStream("@prefix")));
+	}
+
+	@Test
+	public void detectFormat_xmlContent_rdfXml() throws IOException {
+		assertEquals(RDFFormat.RDFXML, RdfFormatDetector.detectFormat("data", toStream("<?xml version=\"1.0\"?>")));
+		assertEquals(RDFFormat.RDFXML,
+				RdfFormatDetector.detectFormat("data", toStream("\n<rdf:RDF xmlns:rdf=\"http://ex.org/\">")));
+		assertEquals(RDFFormat.RDFXML, RdfFormatDetector.detectFormat("data.txt", toStream("<!-- comment -->")));
+	}
+
+	@Test
+	public void detectFormat_otherContent_turtle() throws IOException {
+		assertEquals(RDFFormat.TURTLE, RdfFormatDetector.detectFormat("data", toStream("@prefix : <http://ex.org/> .")));
+		assertEquals(RDFFormat.TURTLE, RdfFormatDetector
+				.detectFormat("data", toStream("# comment <?xml\n<http://ex.org/a> <http://ex.org/b> <http://ex.org/c> .")));
+		assertEquals(RDFFormat.TURTLE, RdfFormatDetector.detectFormat("data", toStream("")));
+	}
+
+	@Test
+	public void detectFormat_streamNotConsumed() throws IOException {
+		final InputStream stream = toStream("@prefix : <http://ex.org/> .");
+		RdfFormatDetector.detectFormat("data", stream);
+		assertEquals('@', stream.read());
+	}
+
+}
@@ -23,9 +23,13 @@ package org.semanticweb.rulewerk.rdf;
 import static org.junit.Assert.*;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.junit.Test;
@@ -33,13 +37,17 @@ import org.openrdf.model.Model;
 import org.openrdf.rio.RDFFormat;
 import org.openrdf.rio.RDFHandlerException;
 import org.openrdf.rio.RDFParseException;
+import org.openrdf.rio.RDFParser;
+import org.openrdf.rio.Rio;
 import org.semanticweb.rulewerk.core.exceptions.PrefixDeclarationException;
 import org.semanticweb.rulewerk.core.model.api.Fact;
 import org.semanticweb.rulewerk.core.model.api.Predicate;
 import org.semanticweb.rulewerk.core.model.api.PrefixDeclarationRegistry;
+import org.semanticweb.rulewerk.core.model.api.Statement;
 import org.semanticweb.rulewerk.core.model.api.Term;
 import org.semanticweb.rulewerk.core.model.implementation.Expressions;
 import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBaseListener;
 
 public class RdfModelConverterTest {
 
@@ -62,6 +70,61 @@ public class RdfModelConverterTest {
 		assertEquals("http://example.org/", knowledgeBase.getPrefixIri(":"));
 	}
 
+	@Test
+	public void addToKnowledgeBaseFromStream_sameAsFromModel()
+			throws RDFParseException, RDFHandlerException, IOException, PrefixDeclarationException {
+		final File file = new File(RdfTestUtils.INPUT_FOLDER + "exampleFacts.ttl");
+		RdfModelConverter rdfModelConverter = new RdfModelConverter(false, null);
+		KnowledgeBase expected = new KnowledgeBase();
+		rdfModelConverter.addAll(expected, RdfTestUtils.parseFile(file, RDFFormat.TURTLE));
+
+		KnowledgeBase knowledgeBase = new KnowledgeBase();
+		try (InputStream inputStream = new FileInputStream(file)) {
+			rdfModelConverter.addAll(knowledgeBase, inputStream, RDFFormat.TURTLE, file.toURI().toString());
+		}
+
+		assertEquals(expected.getFacts(), knowledgeBase.getFacts());
+		assertEquals(expected.getPrefixIri("rdfs:"), knowledgeBase.getPrefixIri("rdfs:"));
+	}
+
+	@Test
+	public void rdfFactHandler_addsFactsInBatches()
+			throws RDFParseException, RDFHandlerException, IOException, PrefixDeclarationException {
+		final File file = new File(RdfTestUtils.INPUT_FOLDER + "exampleFacts.ttl");
+		RdfModelConverter rdfModelConverter = new RdfModelConverter(false, null);
+		KnowledgeBase knowledgeBase = new KnowledgeBase();
+		final List<Integer> batchSizes = new ArrayList<>();
+		knowledgeBase.addListener(new KnowledgeBaseListener() {
+			@Override
+			public void onStatementsAdded(List<Statement> statementsAdded) {
+				batchSizes.add(statementsAdded.size());
+			}
+
+			@Override
+			public void onStatementAdded(Statement statementAdded) {
+				batchSizes.add(1);
+			}
+
+			@Override
+			public void onStatementsRemoved(List<Statement> statementsRemoved) {
+			}
+
+			@Override
+			public void onStatementRemoved(Statement statementRemoved) {
+			}
+		});
+
+		RDFParser rdfParser = Rio.createParser(RDFFormat.TURTLE);
+		rdfParser.setRDFHandler(new RdfFactHandler(rdfModelConverter, knowledgeBase, 2));
+		try (InputStream inputStream = new FileInputStream(file)) {
+			rdfParser.parse(inputStream, file.toURI().toString());
+		}
+
+		int factCount = knowledgeBase.getFacts().size();
+		assertEquals((factCount + 1) / 2, batchSizes.size());
+		assertEquals(factCount, batchSizes.stream().mapToInt(Integer::intValue).sum());
+	}
+
 	@Test
 	public void getFactSet_succeeds()
 			throws RDFParseException, RDFHandlerException, IOException, PrefixDeclarationException {
@@ -0,0 +1,439 @@
+package org.semanticweb.rulewerk.reasoner.vlog;
+
+/*
+ * #%L
+ * Rulewerk VLog Reasoner Support
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.Validate;
+import org.semanticweb.rulewerk.core.exceptions.RulewerkRuntimeException;
+import org.semanticweb.rulewerk.core.model.api.Constant;
+import org.semanticweb.rulewerk.core.model.api.PrefixDeclarationRegistry;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.reasoner.implementation.CsvFileDataSource;
+import org.semanticweb.rulewerk.core.reasoner.implementation.SparqlQueryResultDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An on-disk cache for the results of {@link SparqlQueryResultDataSource}s.
+ * Results are fetched from the endpoint by Rulewerk rather than by VLog, and
+ * stored as compressed CSV files that VLog loads like a
+ * {@link CsvFileDataSource}. Entries are identified by the endpoint, query
+ * variables and query body of the data source, and are fetched again once they
+ * are older than the time to live of the cache.
+ */
+public class SparqlQueryResultCache {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(SparqlQueryResultCache.class);
+
+	/**
+	 * The time to live of cache entries, unless specified otherwise.
+	 */
+	public static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofDays(1);
+
+	/**
+	 * The time to wait for establishing a connection to a SPARQL endpoint.
+	 */
+	public static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(30);
+
+	/**
+	 * The time to wait for further results while reading the results of a SPARQL
+	 * endpoint.
+	 */
+	public static final Duration READ_TIMEOUT = Duration.ofMinutes(5);
+
+	static final String TSV_MEDIA_TYPE = "text/tab-separated-values";
+	static final String CACHE_FILE_EXTENSION = ".csv.gz";
+
+	private static final Pattern INTEGER_PATTERN = Pattern.compile("[+-]?[0-9]+");
+	private static final Pattern DECIMAL_PATTERN = Pattern.compile("[+-]?[0-9]*\\.[0-9]+");
+	private static final Pattern DOUBLE_PATTERN = Pattern
+			.compile("[+-]?([0-9]+\\.[0-9]*|\\.[0-9]+|[0-9]+)[eE][+-]?[0-9]+");
+
+	private final File directory;
+	private final Duration timeToLive;
+
+	/**
+	 * Create a new cache in the given directory, whose entries live for
+	 * {@link #DEFAULT_TIME_TO_LIVE}.
+	 *
+	 * @param directory the directory of the cache files, which is created if it
+	 *                  does not exist
+	 * @throws IOException if the directory cannot be created
+	 */
+	public SparqlQueryResultCache(final File directory) throws IOException {
+		this(directory, DEFAULT_TIME_TO_LIVE);
+	}
+
+	/**
+	 * Create a new cache in the given directory.
+	 *
+	 * @param directory  the directory of the cache files, which is created if it
+	 *                   does not exist
+	 * @param timeToLive the time after which cached results are fetched again
+	 * @throws IOException if the directory cannot be created
+	 */
+	public SparqlQueryResultCache(final File directory, final Duration timeToLive) throws IOException {
+		Validate.notNull(directory, "Cache directory cannot be null.");
+		Validate.notNull(timeToLive, "Time to live cannot be null.");
+		Validate.isTrue(!timeToLive.isNegative(), "Time to live cannot be negative.");
+		Files.createDirectories(directory.toPath());
+		this.directory = directory;
+		this.timeToLive = timeToLive;
+	}
+
+	public File getDirectory() {
+		return this.directory;
+	}
+
+	public Duration getTimeToLive() {
+		return this.timeToLive;
+	}
+
+	/**
+	 * Returns a data source for the cached results of the given SPARQL data
+	 * source. The results are fetched from the endpoint if they have not been
+	 * cached yet, or if the cached results have expired.
+	 *
+	 * @param dataSource the SPARQL data source
+	 * @return data source for the file of the cached results
+	 * @throws IOException if fetching or storing the results fails
+	 */
+	public CsvFileDataSource getResults(final SparqlQueryResultDataSource dataSource) throws IOException {
+		if (!this.isCached(dataSource)) {
+			return this.refresh(dataSource);
+		}
+		LOGGER.debug("Using cached results of {}.", dataSource);
+		return new CsvFileDataSource(this.getCacheFile(dataSource).getPath());
+	}
+
+	/**
+	 * Fetches the results of the given SPARQL data source from the endpoint and
+	 * replaces any cached results.
+	 *
+	 * @param dataSource the SPARQL data source
+	 * @return data source for the file of the cached results
+	 * @throws IOException if fetching or storing the results fails
+	 */
+	public CsvFileDataSource refresh(final SparqlQueryResultDataSource dataSource) throws IOException {
+		final File cacheFile = this.getCacheFile(dataSource);
+		final File temporaryFile = File.createTempFile("sparql", CACHE_FILE_EXTENSION, this.directory);
+		try {
+			final long count = this.fetchResults(dataSource, temporaryFile);
+			// readers never see partially written results
+			Files.move(temporaryFile.toPath(), cacheFile.toPath(), StandardCopyOption.ATOMIC_MOVE,
+					StandardCopyOption.REPLACE_EXISTING);
+			LOGGER.debug("Cached {} results of {} in {}.", count, dataSource, cacheFile);
+		} finally {
+			Files.deleteIfExists(temporaryFile.toPath());
+		}
+		return new CsvFileDataSource(cacheFile.getPath());
+	}
+
+	/**
+	 * Removes the cached results of the given SPARQL data source, if any.
+	 *
+	 * @param dataSource the SPARQL data source
+	 * @throws IOException if the cache file cannot be deleted
+	 */
+	public void invalidate(final SparqlQueryResultDataSource dataSource) throws IOException {
+		Files.deleteIfExists(this.getCacheFile(dataSource).toPath());
+	}
+
+	/**
+	 * Checks if the results of the given SPARQL data source are cached and have
+	 * not expired.
+	 *
+	 * @param dataSource the SPARQL data source
+	 * @return true if the cached results can be used
+	 */
+	public boolean isCached(final SparqlQueryResultDataSource dataSource) {
+		final File cacheFile = this.getCacheFile(dataSource);
+		return cacheFile.isFile()
+				&& System.currentTimeMillis() - cacheFile.lastModified() < this.timeToLive.toMillis();
+	}
+
+	/**
+	 * Returns the file for the cached results of the given SPARQL data source,
+	 * which may not exist.
+	 *
+	 * @param dataSource the SPARQL data source
+	 * @return the cache file
+	 */
+	public File getCacheFile(final SparqlQueryResultDataSource dataSource) {
+		return new File(this.directory, getKey(dataSource) + CACHE_FILE_EXTENSION);
+	}
+
+	/**
+	 * Computes the key of cache entries, which is a hash of the fields that
+	 * determine the results of a data source.
+	 *
+	 * @param dataSource the SPARQL data source
+	 * @return hexadecimal hash string
+	 */
+	static String getKey(final SparqlQueryResultDataSource dataSource) {
+		final String fields = dataSource.getEndpoint() + "\n" + dataSource.getQueryVariables() + "\n"
+				+ dataSource.getQueryBody();
+		try {
+			final byte[] hash = MessageDigest.getInstance("SHA-256").digest(fields.getBytes(StandardCharsets.UTF_8));
+			final StringBuilder key = new StringBuilder(2 * hash.length);
+			for (final byte b : hash) {
+				key.append(String.format("%02x", b));
+			}
+			return key.toString();
+		} catch (final NoSuchAlgorithmException e) { // every Java platform supports SHA-256
+			throw new RulewerkRuntimeException(e);
+		}
+	}
+
+	/**
+	 * Builds the SPARQL query of the given data source. Like the query that VLog
+	 * sends when it loads the data source itself, it only asks for distinct
+	 * results.
+	 *
+	 * @param dataSource the SPARQL data source
+	 * @return the query string
+	 */
+	static String getQuery(final SparqlQueryResultDataSource dataSource) {
+		final StringBuilder query = new StringBuilder("SELECT DISTINCT");
+		for (final String variable : dataSource.getQueryVariables().split(",")) {
+			query.append(" ?").append(variable);
+		}
+		return query.append(" WHERE {").append(dataSource.getQueryBody()).append("}").toString();
+	}
+
+	/**
+	 * Fetches the results of the given SPARQL data source in the SPARQL TSV
+	 * results format, and writes them to the given file. Results with unbound
+	 * variables are skipped, since they cannot be represented as facts. Fetching
+	 * fails if the endpoint cannot be reached within {@link #CONNECT_TIMEOUT}, or
+	 * stops sending results for {@link #READ_TIMEOUT}.
+	 *
+	 * @param dataSource the SPARQL data source
+	 * @param file       the file to write
+	 * @return the number of results that have been written
+	 * @throws IOException if fetching or writing the results fails
+	 */
+	long fetchResults(final SparqlQueryResultDataSource dataSource, final File file) throws IOException {
+		final URL url = new URL(dataSource.getEndpoint() + (dataSource.getEndpoint().getQuery() == null ? "?" : "&")
+				+ "query=" + URLEncoder.encode(getQuery(dataSource), StandardCharsets.UTF_8.name()));
+		final HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+		connection.setConnectTimeout((int) CONNECT_TIMEOUT.toMillis());
+		connection.setReadTimeout((int) READ_TIMEOUT.toMillis());
+		connection.setRequestProperty("Accept", TSV_MEDIA_TYPE);
+		try {
+			if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
+				throw new IOException("SPARQL endpoint " + dataSource.getEndpoint() + " returned HTTP status "
+						+ connection.getResponseCode() + " " + connection.getResponseMessage() + ".");
+			}
+			try (final BufferedReader reader = new BufferedReader(
+					new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8));
+					final VLogCsvWriter writer = new VLogCsvWriter(file)) {
+				return writeResults(reader, dataSource.getQueryVariables().split(","), writer);
+			}
+		} finally {
+			connection.disconnect();
+		}
+	}
+
+	/**
+	 * Converts results in the SPARQL TSV results format to tuples of VLog
+	 * constant names, ordered as the given query variables.
+	 *
+	 * @param reader    reader for the results
+	 * @param variables the query variables
+	 * @param writer    writer for the tuples
+	 * @return the number of tuples that have been written
+	 * @throws IOException if reading or writing fails, or the results do not
+	 *                     match the query variables
+	 */
+	static long writeResults(final BufferedReader reader, final String[] variables, final VLogCsvWriter writer)
+			throws IOException {
+		final String header = reader.readLine();
+		if (header == null) {
+			throw new IOException("SPARQL results are empty, expected a header line.");
+		}
+		final String[] columns = header.split("\t", -1);
+		final int[] positions = new int[variables.length];
+		for (int i = 0; i < variables.length; i++) {
+			positions[i] = -1;
+			for (int j = 0; j < columns.length; j++) {
+				final String column = columns[j].trim();
+				if (column.length() > 1 && column.substring(1).equals(variables[i])) {
+					positions[i] = j;
+				}
+			}
+			if (positions[i] == -1) {
+				throw new IOException("SPARQL results do not contain query variable " + variables[i] + ".");
+			}
+		}
+
+		final String[] vLogNames = new String[variables.length];
+		long count = 0;
+		long skipped = 0;
+		String line;
+		while ((line = reader.readLine()) != null) {
+			if (line.isEmpty()) {
+				continue;
+			}
+			final String[] values = line.split("\t", -1);
+			boolean bound = true;
+			for (int i = 0; i < variables.length && bound; i++) {
+				final String value = positions[i] < values.length ? values[positions[i]].trim() : "";
+				bound = !value.isEmpty();
+				if (bound) {
+					vLogNames[i] = TermToVLogConverter.getVLogNameForConstant(toConstant(value));
+				}
+			}
+			if (bound) {
+				writer.writeTuple(vLogNames);
+				count++;
+			} else {
+				skipped++;
+			}
+		}
+		if (skipped > 0) {
+			LOGGER.warn("Skipped {} SPARQL results with unbound variables.", skipped);
+		}
+		return count;
+	}
+
+	/**
+	 * Converts an RDF term in the syntax of the SPARQL TSV results format to a
+	 * {@link Constant}. Blank nodes are represented by abstract constants whose
+	 * name is the label of the blank node, as when VLog loads the data source
+	 * itself.
+	 *
+	 * @param value the RDF term
+	 * @return the corresponding constant
+	 * @throws IOException if the term is malformed
+	 */
+	static Constant toConstant(final String value) throws IOException {
+		if (value.startsWith("<") && value.endsWith(">")) {
+			return Expressions.makeAbstractConstant(value.substring(1, value.length() - 1));
+		} else if (value.startsWith("\"")) {
+			final int end = value.lastIndexOf('"');
+			if (end == 0) {
+				throw new IOException("Malformed literal in SPARQL results: " + value);
+			}
+			final String lexicalValue = unescape(value.substring(1, end));
+			final String suffix = value.substring(end + 1);
+			if (suffix.isEmpty()) {
+				return Expressions.makeDatatypeConstant(lexicalValue, PrefixDeclarationRegistry.XSD_STRING);
+			} else if (suffix.startsWith("@")) {
+				return Expressions.makeLanguageStringConstant(lexicalValue, suffix.substring(1));
+			} else if (suffix.startsWith("^^<") && suffix.endsWith(">")) {
+				return Expressions.makeDatatypeConstant(lexicalValue, suffix.substring(3, suffix.length() - 1));
+			} else {
+				throw new IOException("Malformed literal in SPARQL results: " + value);
+			}
+		} else if (INTEGER_PATTERN.matcher(value).matches()) {
+			return Expressions.makeDatatypeConstant(value, PrefixDeclarationRegistry.XSD_INTEGER);
+		} else if (DECIMAL_PATTERN.matcher(value).matches()) {
+			return Expressions.makeDatatypeConstant(value, PrefixDeclarationRegistry.XSD_DECIMAL);
+		} else if (DOUBLE_PATTERN.matcher(value).matches()) {
+			return Expressions.makeDatatypeConstant(value, PrefixDeclarationRegistry.XSD_DOUBLE);
+		} else if ("true".equals(value) || "false".equals(value)) {
+			return Expressions.makeDatatypeConstant(value, PrefixDeclarationRegistry.XSD_BOOLEAN);
+		} else if (value.startsWith("_:")) {
+			return Expressions.makeAbstractConstant(value.substring(2));
+		} else {
+			throw new IOException("Unexpected RDF term in SPARQL results: " + value);
+		}
+	}
+
+	/**
+	 * Resolves the escape sequences of Turtle string literals.
+	 *
+	 * @param string the escaped string
+	 * @return the unescaped string
+	 * @throws IOException if the string contains an invalid escape sequence
+	 */
+	static String unescape(final String string) throws IOException {
+		if (string.indexOf('\\') == -1) {
+			return string;
+		}
+		final StringBuilder result = new StringBuilder(string.length());
+		for (int i = 0; i < string.length(); i++) {
+			final char c = string.charAt(i);
+			if (c != '\\') {
+				result.append(c);
+				continue;
+			}
+			if (++i == string.length()) {
+				throw new IOException("Invalid escape sequence at end of string: " + string);
+			}
+			final char escaped = string.charAt(i);
+			switch (escaped) {
+			case 't':
+				result.append('\t');
+				break;
+			case 'b':
+				result.append('\b');
+				break;
+			case 'n':
+				result.append('\n');
+				break;
+			case 'r':
+				result.append('\r');
+				break;
+			case 'f':
+				result.append('\f');
+				break;
+			case '"':
+			case '\'':
+			case '\\':
+				result.append(escaped);
+				break;
+			case 'u':
+			case 'U':
+				final int length = escaped == 'u' ? 4 : 8;
+				if (i + length >= string.length()) {
+					throw new IOException("Invalid escape sequence in string: " + string);
+				}
+				try {
+					result.appendCodePoint(Integer.parseInt(string.substring(i + 1, i + 1 + length), 16));
+				} catch (final IllegalArgumentException e) {
+					throw new IOException("Invalid escape sequence in string: " + string, e);
+				}
+				i += length;
+				break;
+			default:
+				throw new IOException("Invalid escape sequence \\" + escaped + " in string: " + string);
+			}
+		}
+		return result.toString();
+	}
+
+}
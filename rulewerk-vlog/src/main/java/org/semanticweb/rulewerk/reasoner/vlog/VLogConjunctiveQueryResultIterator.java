@@ -0,0 +1,347 @@
+package org.semanticweb.rulewerk.reasoner.vlog;
+
+/*
+ * #%L
+ * Rulewerk VLog Reasoner Support
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.ToLongFunction;
+
+import org.semanticweb.rulewerk.core.exceptions.RulewerkRuntimeException;
+import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.api.QueryResult;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.api.TermType;
+import org.semanticweb.rulewerk.core.model.api.Variable;
+import org.semanticweb.rulewerk.core.reasoner.Correctness;
+import org.semanticweb.rulewerk.core.reasoner.QueryResultIterator;
+import org.semanticweb.rulewerk.core.reasoner.implementation.QueryResultImpl;
+
+import karmaresearch.vlog.NonExistingPredicateException;
+import karmaresearch.vlog.NotStartedException;
+import karmaresearch.vlog.VLog;
+
+/**
+ * Iterates lazily through the answers to a conjunctive query, computed by an
+ * index nested-loop join over the materialisation of VLog. The literals of the
+ * query are evaluated in a fixed order (see
+ * {@link #orderLiterals(List, ToLongFunction)}), where each lookup in VLog is
+ * restricted by the ids of the variables bound by previous literals. Terms are
+ * only resolved for the answer variables.
+ */
+class VLogConjunctiveQueryResultIterator implements QueryResultIterator {
+
+	/**
+	 * A literal of the query, prepared for evaluation at its position in the join
+	 * order.
+	 */
+	static class JoinStep {
+		final int predicateId;
+		/**
+		 * Terms of the VLog lookup. Positions of variables bound by previous steps
+		 * are filled in before each lookup.
+		 */
+		final long[] pattern;
+		/**
+		 * For each position, the index of the variable that has been bound by a
+		 * previous step, or -1.
+		 */
+		final int[] boundVariables;
+		/**
+		 * For each position, the index of the variable that is bound by this step,
+		 * or -1. Repeated occurrences of a variable are only marked once.
+		 */
+		final int[] newVariables;
+
+		JoinStep(final int predicateId, final long[] pattern, final int[] boundVariables,
+				final int[] newVariables) {
+			this.predicateId = predicateId;
+			this.pattern = pattern;
+			this.boundVariables = boundVariables;
+			this.newVariables = newVariables;
+		}
+	}
+
+	/**
+	 * Answer tuple of VLog ids, used to eliminate duplicate answers.
+	 */
+	private static final class IdTuple {
+		final long[] ids;
+		final int hashCode;
+
+		IdTuple(final long[] ids) {
+			this.ids = ids;
+			this.hashCode = Arrays.hashCode(ids);
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			return obj instanceof IdTuple && Arrays.equals(this.ids, ((IdTuple) obj).ids);
+		}
+	}
+
+	private final VLog vLog;
+	private final VLogTermCache termCache;
+	private final List<JoinStep> steps;
+	private final int[] answerVariables;
+	private final boolean includeNulls;
+	private final Correctness correctness;
+
+	/**
+	 * Current ids of all variables, indexed as in {@link JoinStep}.
+	 */
+	private final long[] bindings;
+	/**
+	 * Open VLog lookups, one for each step up to the current one.
+	 */
+	private final karmaresearch.vlog.QueryResultIterator[] lookups;
+	/**
+	 * Answers returned so far, or {@code null} if answers cannot repeat.
+	 */
+	private final Set<IdTuple> returnedAnswers;
+
+	private int depth = 0;
+	private QueryResult nextAnswer;
+	private boolean finished;
+
+	/**
+	 * Create a new {@link VLogConjunctiveQueryResultIterator}.
+	 *
+	 * @param vLog            the VLog instance to query
+	 * @param termCache       cache for terms of VLog ids
+	 * @param steps           the literals of the query, in join order
+	 * @param variableCount   the number of distinct variables in the query
+	 * @param answerVariables the indices of the answer variables
+	 * @param includeNulls    whether answers with nulls should be returned
+	 * @param correctness     the correctness of the answers
+	 */
+	VLogConjunctiveQueryResultIterator(final VLog vLog, final VLogTermCache termCache, final List<JoinStep> steps,
+			final int variableCount, final int[] answerVariables, final boolean includeNulls,
+			final Correctness correctness) {
+		this.vLog = vLog;
+		this.termCache = termCache;
+		this.steps = steps;
+		this.answerVariables = answerVariables;
+		this.includeNulls = includeNulls;
+		this.correctness = correctness;
+		this.bindings = new long[variableCount];
+		this.lookups = new karmaresearch.vlog.QueryResultIterator[steps.size()];
+		// VLog lookups have distinct results, so only projections can repeat answers
+		final long distinctAnswerVariables = Arrays.stream(answerVariables).distinct().count();
+		this.returnedAnswers = distinctAnswerVariables < variableCount ? new HashSet<>() : null;
+		this.finished = steps.isEmpty();
+	}
+
+	/**
+	 * Orders the given literals for an index nested-loop join. Starting with the
+	 * literal with the smallest cardinality, the next literal is always one that
+	 * shares variables with the previous ones, if possible. Among those, literals
+	 * that bind no new variables (and thus only filter answers) come first, and
+	 * otherwise the one with the smallest cardinality is chosen.
+	 *
+	 * @param literals    the literals of the query
+	 * @param cardinality the number of facts matching each literal on its own
+	 * @return the literals in join order
+	 */
+	static List<PositiveLiteral> orderLiterals(final List<PositiveLiteral> literals,
+			final ToLongFunction<PositiveLiteral> cardinality) {
+		final List<PositiveLiteral> remaining = new ArrayList<>(literals);
+		final List<PositiveLiteral> ordered = new ArrayList<>(literals.size());
+		final Set<Variable> boundVariables = new HashSet<>();
+		while (!remaining.isEmpty()) {
+			PositiveLiteral best = null;
+			long bestScore = Long.MAX_VALUE;
+			boolean bestIsConnected = false;
+			for (final PositiveLiteral literal : remaining) {
+				final boolean connected = literal.getVariables().anyMatch(boundVariables::contains);
+				final boolean filtering = connected && literal.getVariables().allMatch(boundVariables::contains);
+				final long score = filtering ? -1 : cardinality.applyAsLong(literal);
+				if (best == null || (connected && !bestIsConnected)
+						|| (connected == bestIsConnected && score < bestScore)) {
+					best = literal;
+					bestScore = score;
+					bestIsConnected = connected;
+				}
+			}
+			remaining.remove(best);
+			ordered.add(best);
+			best.getVariables().forEach(boundVariables::add);
+		}
+		return ordered;
+	}
+
+	/**
+	 * Assigns indices to the variables of the given literals, in order of first
+	 * occurrence.
+	 *
+	 * @param literals the literals of the query, in join order
+	 * @return the variables of the query
+	 */
+	static List<Variable> collectVariables(final Collection<PositiveLiteral> literals) {
+		final List<Variable> variables = new ArrayList<>();
+		for (final PositiveLiteral literal : literals) {
+			for (final Term term : literal.getArguments()) {
+				if (term.isVariable() && !variables.contains(term)) {
+					variables.add((Variable) term);
+				}
+			}
+		}
+		return Collections.unmodifiableList(variables);
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (this.nextAnswer == null && !this.finished) {
+			this.nextAnswer = this.computeNextAnswer();
+			if (this.nextAnswer == null) {
+				this.finished = true;
+			}
+		}
+		return this.nextAnswer != null;
+	}
+
+	@Override
+	public QueryResult next() {
+		if (!this.hasNext()) {
+			throw new NoSuchElementException();
+		}
+		final QueryResult answer = this.nextAnswer;
+		this.nextAnswer = null;
+		return answer;
+	}
+
+	private QueryResult computeNextAnswer() {
+		final int lastStep = this.steps.size() - 1;
+		while (this.depth >= 0) {
+			if (this.lookups[this.depth] == null) {
+				this.lookups[this.depth] = this.lookup(this.steps.get(this.depth));
+			}
+			final karmaresearch.vlog.QueryResultIterator lookup = this.lookups[this.depth];
+			if (!lookup.hasNext()) {
+				lookup.close();
+				this.lookups[this.depth] = null;
+				this.depth--;
+				continue;
+			}
+			this.bind(this.steps.get(this.depth), lookup.next());
+			if (this.depth < lastStep) {
+				this.depth++;
+				continue;
+			}
+			final QueryResult answer = this.project();
+			if (answer != null) {
+				return answer;
+			}
+		}
+		return null;
+	}
+
+	private karmaresearch.vlog.QueryResultIterator lookup(final JoinStep step) {
+		final long[] pattern = step.pattern.clone();
+		for (int i = 0; i < pattern.length; i++) {
+			if (step.boundVariables[i] >= 0) {
+				pattern[i] = this.bindings[step.boundVariables[i]];
+			}
+		}
+		try {
+			return this.vLog.query(step.predicateId, pattern, true, false);
+		} catch (final NotStartedException e) {
+			throw new RulewerkRuntimeException("Inconsistent reasoner state.", e);
+		} catch (final NonExistingPredicateException e) {
+			throw new RulewerkRuntimeException("Inconsistent knowledge base state.", e);
+		}
+	}
+
+	private void bind(final JoinStep step, final long[] tuple) {
+		for (int i = 0; i < tuple.length; i++) {
+			if (step.newVariables[i] >= 0) {
+				this.bindings[step.newVariables[i]] = tuple[i];
+			}
+		}
+	}
+
+	/**
+	 * Projects the current bindings to the answer variables.
+	 *
+	 * @return the answer, or {@code null} if it must not be returned
+	 */
+	private QueryResult project() {
+		final long[] ids = new long[this.answerVariables.length];
+		for (int i = 0; i < ids.length; i++) {
+			ids[i] = this.bindings[this.answerVariables[i]];
+		}
+		if (this.returnedAnswers != null && this.returnedAnswers.contains(new IdTuple(ids))) {
+			return null;
+		}
+		final Term[] terms = new Term[ids.length];
+		for (int i = 0; i < ids.length; i++) {
+			terms[i] = this.getTerm(ids[i]);
+			if (!this.includeNulls && terms[i].getType() == TermType.NAMED_NULL) {
+				return null;
+			}
+		}
+		if (this.returnedAnswers != null) {
+			this.returnedAnswers.add(new IdTuple(ids));
+		}
+		return new QueryResultImpl(Arrays.asList(terms));
+	}
+
+	private Term getTerm(final long id) {
+		Term term = this.termCache.get(id);
+		if (term == null) {
+			try {
+				term = VLogToModelConverter.toTerm(id, this.vLog);
+			} catch (final NotStartedException e) {
+				throw new RulewerkRuntimeException("Inconsistent reasoner state.", e);
+			}
+			this.termCache.put(id, term);
+		}
+		return term;
+	}
+
+	@Override
+	public void close() {
+		for (int i = 0; i < this.lookups.length; i++) {
+			if (this.lookups[i] != null) {
+				this.lookups[i].close();
+				this.lookups[i] = null;
+			}
+		}
+		this.finished = true;
+		this.nextAnswer = null;
+	}
+
+	@Override
+	public Correctness getCorrectness() {
+		return this.correctness;
+	}
+
+}
@@ -0,0 +1,95 @@
+package org.semanticweb.rulewerk.reasoner.vlog;
+
+/*
+ * #%L
+ * Rulewerk VLog Reasoner Support
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes tuples of VLog constant names to a CSV file that VLog can load as a
+ * data source. Tuples are written one at a time, so that memory use does not
+ * depend on the number of tuples. Files with the extension {@code .gz} are
+ * compressed.
+ */
+class VLogCsvWriter implements Closeable {
+
+	private final Writer writer;
+
+	/**
+	 * Create a new {@link VLogCsvWriter}, overwriting the given file.
+	 *
+	 * @param file a file with extension {@code .csv} or {@code .csv.gz}
+	 * @throws IOException if the file cannot be opened for writing
+	 */
+	VLogCsvWriter(final File file) throws IOException {
+		OutputStream outputStream = new FileOutputStream(file);
+		if (file.getName().endsWith(".gz")) {
+			outputStream = new GZIPOutputStream(outputStream);
+		}
+		this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Writes a tuple as one line of the file.
+	 *
+	 * @param vLogNames the VLog constant names of the tuple
+	 * @throws IOException if writing fails
+	 */
+	void writeTuple(final String[] vLogNames) throws IOException {
+		for (int i = 0; i < vLogNames.length; i++) {
+			if (i > 0) {
+				this.writer.write(',');
+			}
+			this.writer.write(toCsvField(vLogNames[i]));
+		}
+		this.writer.write('\n');
+	}
+
+	/**
+	 * Quotes the given string as a CSV field, if needed.
+	 *
+	 * @param value a VLog constant name
+	 * @return the CSV field
+	 */
+	static String toCsvField(final String value) {
+		for (int i = 0; i < value.length(); i++) {
+			final char c = value.charAt(i);
+			if (c == '"' || c == ',' || c == '\n' || c == '\r') {
+				return "\"" + value.replace("\"", "\"\"") + "\"";
+			}
+		}
+		return value;
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.writer.close();
+	}
+
+}
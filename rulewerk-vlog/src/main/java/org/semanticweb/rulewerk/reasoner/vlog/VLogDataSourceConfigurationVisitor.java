@@ -31,6 +31,7 @@ import org.semanticweb.rulewerk.core.reasoner.implementation.RdfFileDataSource;
 import org.semanticweb.rulewerk.core.reasoner.implementation.SparqlQueryResultDataSource;
 import org.semanticweb.rulewerk.core.reasoner.implementation.TridentDataSource;
 import org.semanticweb.rulewerk.core.reasoner.implementation.InMemoryDataSource;
+import org.semanticweb.rulewerk.core.reasoner.implementation.TupleCursorDataSource;
 
 public class VLogDataSourceConfigurationVisitor implements DataSourceConfigurationVisitor {
 	private String configString = null;
@@ -89,4 +90,9 @@ public class VLogDataSourceConfigurationVisitor implements DataSourceConfigurati
 	public void visit(InMemoryDataSource dataSource) {
 		this.configString = null;
 	}
+
+	@Override
+	public void visit(TupleCursorDataSource dataSource) {
+		this.configString = null;
+	}
 }
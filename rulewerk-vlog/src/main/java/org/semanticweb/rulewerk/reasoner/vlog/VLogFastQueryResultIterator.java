@@ -2,7 +2,6 @@ package org.semanticweb.rulewerk.reasoner.vlog;
 
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 
 import org.semanticweb.rulewerk.core.exceptions.RulewerkRuntimeException;
 
@@ -28,7 +27,6 @@ import org.semanticweb.rulewerk.core.exceptions.RulewerkRuntimeException;
 
 import org.semanticweb.rulewerk.core.model.api.QueryResult;
 import org.semanticweb.rulewerk.core.model.api.Term;
-import org.semanticweb.rulewerk.core.model.implementation.NamedNullImpl;
 import org.semanticweb.rulewerk.core.reasoner.Correctness;
 import org.semanticweb.rulewerk.core.reasoner.QueryResultIterator;
 import org.semanticweb.rulewerk.core.reasoner.implementation.QueryResultImpl;
@@ -45,69 +43,6 @@ import karmaresearch.vlog.VLog;
  */
 public class VLogFastQueryResultIterator implements QueryResultIterator {
 
-//	/**
-//	 * Use of Java's LinkedHashMap for implementing a simple LRU cache that is used
-//	 * here for mapping VLog ids to terms.
-//	 * 
-//	 * @author Markus Kroetzsch
-//	 *
-//	 * @param <K>
-//	 * @param <V>
-//	 */
-//	static class SimpleLruMap extends LinkedHashMap<Long, Term> {
-//		private static final long serialVersionUID = 7151535464938775359L;
-//		private int maxCapacity;
-//
-//		public SimpleLruMap(int initialCapacity, int maxCapacity) {
-//			super(initialCapacity, 0.75f, true);
-//			this.maxCapacity = maxCapacity;
-//		}
-//
-//		@Override
-//		protected boolean removeEldestEntry(Map.Entry<Long, Term> eldest) {
-//			return size() >= this.maxCapacity;
-//		}
-//	}
-
-	/**
-	 * Simple cache for finding terms for VLog ids that is optimised for the case
-	 * where ids are inserted in a mostly ordered fashion. An LRU strategy is highly
-	 * ineffective for this as soon as the cache capacity is smaller than the number
-	 * of repeatedly used terms, since the cache entries there are always pushed out
-	 * before being needed again. This implementation will at least cache a maximal
-	 * initial fragment in such cases. It is also faster to write and requires less
-	 * memory.
-	 * 
-	 * @author Markus Kroetzsch
-	 *
-	 */
-	static class OrderedTermCache {
-		final private HashMap<Long, Term> terms = new HashMap<>();
-		final int maxCapacity;
-		private long maxId = -1;
-
-		public OrderedTermCache(int capacity) {
-			this.maxCapacity = capacity;
-		}
-
-		public Term get(long id) {
-			if (id > maxId) {
-				return null;
-			} else {
-				return terms.get(id);
-			}
-		}
-
-		public void put(long id, Term term) {
-			if (terms.size() < maxCapacity) {
-				terms.put(id, term);
-				if (id > maxId) {
-					maxId = id;
-				}
-			}
-		}
-	}
-
 	/**
 	 * The internal result iterator of VLog, returning numeric ids only.
 	 */
@@ -134,15 +69,15 @@ public class VLogFastQueryResultIterator implements QueryResultIterator {
 	 */
 	Term[] prevTuple;
 	/**
-	 * Cache mapping ids to terms.
+	 * Cache mapping ids to terms, possibly shared with other queries.
 	 */
-	// final SimpleLruMap termCache;
-	final OrderedTermCache termCache;
+	final VLogTermCache termCache;
 
 	private final Correctness correctness;
 
 	/**
-	 * Create a new {@link VLogFastQueryResultIterator}.
+	 * Create a new {@link VLogFastQueryResultIterator} that uses its own term
+	 * cache.
 	 * 
 	 * @param queryResultIterator
 	 * @param materialisationState
@@ -150,11 +85,25 @@ public class VLogFastQueryResultIterator implements QueryResultIterator {
 	 */
 	public VLogFastQueryResultIterator(final karmaresearch.vlog.QueryResultIterator queryResultIterator,
 			final Correctness materialisationState, final VLog vLog) {
+		this(queryResultIterator, materialisationState, vLog, new VLogTermCache(VLogTermCache.DEFAULT_CAPACITY));
+	}
+
+	/**
+	 * Create a new {@link VLogFastQueryResultIterator} that uses the given term
+	 * cache.
+	 * 
+	 * @param queryResultIterator
+	 * @param materialisationState
+	 * @param vLog
+	 * @param termCache            cache for terms of VLog ids, which must only
+	 *                             contain ids of the given VLog instance
+	 */
+	public VLogFastQueryResultIterator(final karmaresearch.vlog.QueryResultIterator queryResultIterator,
+			final Correctness materialisationState, final VLog vLog, final VLogTermCache termCache) {
 		this.vLogQueryResultIterator = queryResultIterator;
 		this.correctness = materialisationState;
 		this.vLog = vLog;
-		// this.termCache = new SimpleLruMap(256, 64000);
-		this.termCache = new OrderedTermCache(130000);
+		this.termCache = termCache;
 	}
 
 	@Override
@@ -174,8 +123,8 @@ public class VLogFastQueryResultIterator implements QueryResultIterator {
 			firstResult = false;
 		}
 
-		if (resultSize == 1) { // Caching is pointless for unary queries
-			return new QueryResultImpl(Collections.singletonList(computeTerm(idTuple[0])));
+		if (resultSize == 1) { // Remembering the previous tuple is pointless for unary queries
+			return new QueryResultImpl(Collections.singletonList(getTerm(idTuple[0])));
 		}
 
 		// (Array.copyOf was slightly faster than System.arraycopy in tests)
@@ -183,12 +132,7 @@ public class VLogFastQueryResultIterator implements QueryResultIterator {
 		int i = 0;
 		for (long id : idTuple) {
 			if (prevIds[i] != id) {
-				Term term = this.termCache.get(id);
-				if (term == null) {
-					term = computeTerm(id);
-					this.termCache.put(id, term);
-				}
-				terms[i] = term;
+				terms[i] = getTerm(id);
 				if (i < resultSize - 1) {
 					prevIds[i] = id;
 				}
@@ -200,6 +144,21 @@ public class VLogFastQueryResultIterator implements QueryResultIterator {
 		return new QueryResultImpl(Arrays.asList(terms));
 	}
 
+	/**
+	 * Find the {@link Term} for a given VLog id, using the cache if possible.
+	 * 
+	 * @param id
+	 * @return
+	 */
+	Term getTerm(long id) {
+		Term term = this.termCache.get(id);
+		if (term == null) {
+			term = computeTerm(id);
+			this.termCache.put(id, term);
+		}
+		return term;
+	}
+
 	/**
 	 * Compute the {@link Term} for a given VLog id.
 	 * 
@@ -208,15 +167,7 @@ public class VLogFastQueryResultIterator implements QueryResultIterator {
 	 */
 	Term computeTerm(long id) {
 		try {
-			String s = vLog.getConstant(id);
-			if (s == null) {
-				// This string operation extracts the internal rule number (val >> 40),
-				// the internal variable number ((val >> 32) & 0377), and
-				// a counter (val & 0xffffffffL)
-				return new NamedNullImpl("null" + (id >> 40) + "_" + ((id >> 32) & 0377) + "_" + (id & 0xffffffffL));
-			} else {
-				return VLogToModelConverter.toConstant(s);
-			}
+			return VLogToModelConverter.toTerm(id, this.vLog);
 		} catch (NotStartedException e) { // Should never happen, we just did a query ...
 			throw new RulewerkRuntimeException(e);
 		}
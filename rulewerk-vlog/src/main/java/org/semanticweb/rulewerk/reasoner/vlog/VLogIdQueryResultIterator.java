@@ -0,0 +1,80 @@
+package org.semanticweb.rulewerk.reasoner.vlog;
+
+/*
+ * #%L
+ * Rulewerk VLog Reasoner Support
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.semanticweb.rulewerk.core.reasoner.Correctness;
+import org.semanticweb.rulewerk.core.reasoner.IdQueryResultIterator;
+
+/**
+ * Iterates trough all answers to a query, returning the VLog ids of the terms
+ * in each answer without converting them to terms.
+ */
+public class VLogIdQueryResultIterator implements IdQueryResultIterator {
+
+	/**
+	 * The internal result iterator of VLog, returning numeric ids only.
+	 */
+	private final karmaresearch.vlog.QueryResultIterator vLogQueryResultIterator;
+
+	private final int arity;
+
+	private final Correctness correctness;
+
+	/**
+	 * Create a new {@link VLogIdQueryResultIterator}.
+	 *
+	 * @param queryResultIterator  the internal result iterator of VLog
+	 * @param arity                the arity of the query
+	 * @param materialisationState the correctness of the answers
+	 */
+	public VLogIdQueryResultIterator(final karmaresearch.vlog.QueryResultIterator queryResultIterator,
+			final int arity, final Correctness materialisationState) {
+		this.vLogQueryResultIterator = queryResultIterator;
+		this.arity = arity;
+		this.correctness = materialisationState;
+	}
+
+	@Override
+	public boolean hasNext() {
+		return this.vLogQueryResultIterator.hasNext();
+	}
+
+	@Override
+	public long[] next() {
+		return this.vLogQueryResultIterator.next();
+	}
+
+	@Override
+	public int getArity() {
+		return this.arity;
+	}
+
+	@Override
+	public void close() {
+		this.vLogQueryResultIterator.close();
+	}
+
+	@Override
+	public Correctness getCorrectness() {
+		return this.correctness;
+	}
+
+}
@@ -48,7 +48,7 @@ public class VLogInMemoryDataSource extends InMemoryDataSource {
 		validateArity(constantNames);
 
 		if (this.nextEmptyTuple == this.capacity) {
-			this.capacity = this.capacity * 2;
+			this.capacity = Math.max(1, this.capacity * 2);
 			this.data = Arrays.copyOf(this.data, this.capacity);
 		}
 		this.data[this.nextEmptyTuple] = new String[this.arity];
@@ -60,23 +60,25 @@ public class VLogInMemoryDataSource extends InMemoryDataSource {
 
 	/**
 	 * Returns the data stored in this data source, in the format expected by the
-	 * VLog reasoner backend.
+	 * VLog reasoner backend. Unused capacity is released, so that the returned
+	 * array is the internal storage of this data source rather than a copy, also
+	 * when called again.
 	 *
 	 * @return the data
 	 */
 	public String[][] getData() {
-		if (this.nextEmptyTuple == this.capacity) {
-			return this.data;
-		} else {
-			return Arrays.copyOf(this.data, this.nextEmptyTuple);
+		if (this.nextEmptyTuple != this.capacity) {
+			this.data = Arrays.copyOf(this.data, this.nextEmptyTuple);
+			this.capacity = this.nextEmptyTuple;
 		}
+		return this.data;
 	}
 
 	@Override
 	public String toString() {
 		final StringBuilder sb = new StringBuilder(
 				"This InMemoryDataSource holds the following tuples of constant names, one tuple per line:");
-		for (int i = 0; i < getData().length; i++) {
+		for (int i = 0; i < this.nextEmptyTuple; i++) {
 			for (int j = 0; j < this.data[i].length; j++) {
 				sb.append(this.data[i][j] + " ");
 			}
@@ -0,0 +1,127 @@
+package org.semanticweb.rulewerk.reasoner.vlog;
+
+/*
+ * #%L
+ * Rulewerk VLog Reasoner Support
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.semanticweb.rulewerk.core.exceptions.RulewerkRuntimeException;
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.model.implementation.FactImpl;
+
+import karmaresearch.vlog.NonExistingPredicateException;
+import karmaresearch.vlog.NotStartedException;
+import karmaresearch.vlog.TermQueryResultIterator;
+import karmaresearch.vlog.VLog;
+
+/**
+ * Iterates lazily through all inferences for a given collection of predicates.
+ * VLog is only queried for the next predicate once all inferences for the
+ * previous one have been returned, and at most one VLog result iterator is open
+ * at any time. Memory use is therefore independent of the size of the
+ * materialisation.
+ */
+class VLogInferenceIterator implements Iterator<Fact>, AutoCloseable {
+
+	private final VLog vLog;
+	private final Iterator<Predicate> predicates;
+
+	/**
+	 * Predicate of the inferences currently returned.
+	 */
+	private Predicate currentPredicate;
+	/**
+	 * The internal result iterator of VLog for {@link #currentPredicate}, or
+	 * {@code null} if no predicate is being processed.
+	 */
+	private TermQueryResultIterator currentAnswers;
+
+	/**
+	 * Create a new {@link VLogInferenceIterator}.
+	 *
+	 * @param vLog       the VLog instance to query, which must have been started
+	 * @param predicates the predicates for which inferences should be returned
+	 */
+	VLogInferenceIterator(final VLog vLog, final Iterable<Predicate> predicates) {
+		this.vLog = vLog;
+		this.predicates = predicates.iterator();
+	}
+
+	@Override
+	public boolean hasNext() {
+		while (this.currentAnswers == null || !this.currentAnswers.hasNext()) {
+			this.closeCurrentAnswers();
+			if (!this.predicates.hasNext()) {
+				return false;
+			}
+			this.currentPredicate = this.predicates.next();
+			this.currentAnswers = this.queryInferences(this.currentPredicate);
+		}
+		return true;
+	}
+
+	@Override
+	public Fact next() {
+		if (!this.hasNext()) {
+			throw new NoSuchElementException();
+		}
+		final List<Term> termList = VLogToModelConverter.toTermList(this.currentAnswers.next());
+		return new FactImpl(this.currentPredicate, termList);
+	}
+
+	@Override
+	public void close() {
+		this.closeCurrentAnswers();
+	}
+
+	private void closeCurrentAnswers() {
+		if (this.currentAnswers != null) {
+			this.currentAnswers.close();
+			this.currentAnswers = null;
+		}
+	}
+
+	private TermQueryResultIterator queryInferences(final Predicate predicate) {
+		final karmaresearch.vlog.Atom vLogAtom = ModelToVLogConverter.toVLogAtom(getQueryAtom(predicate));
+		try {
+			return this.vLog.query(vLogAtom, true, false);
+		} catch (final NotStartedException e) {
+			throw new RulewerkRuntimeException("Inconsistent reasoner state.", e);
+		} catch (final NonExistingPredicateException e1) {
+			throw new RulewerkRuntimeException("Inconsistent knowledge base state.", e1);
+		}
+	}
+
+	static PositiveLiteral getQueryAtom(final Predicate predicate) {
+		final List<Term> toBeGroundedVariables = new ArrayList<>(predicate.getArity());
+		for (int i = 0; i < predicate.getArity(); i++) {
+			toBeGroundedVariables.add(Expressions.makeUniversalVariable("X" + i));
+		}
+		return Expressions.makePositiveLiteral(predicate, toBeGroundedVariables);
+	}
+
+}
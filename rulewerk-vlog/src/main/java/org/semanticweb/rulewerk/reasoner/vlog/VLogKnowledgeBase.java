@@ -23,9 +23,12 @@ package org.semanticweb.rulewerk.reasoner.vlog;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Formatter;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -52,22 +55,51 @@ import org.semanticweb.rulewerk.core.reasoner.implementation.ReasonerDataSource;
 
 /**
  * Class for organizing a Knowledge Base using vLog-specific data structures.
+ * The structures can be kept up to date with changes of the knowledge base by
+ * {@link #addStatement(Statement)} and {@link #removeStatement(Statement)},
+ * which only process the changed statements. In particular, each rule is
+ * converted to its VLog representation only once. Facts are not copied, but
+ * read from the knowledge base when they are loaded.
  *
  * @author Irina Dragoste
  *
  */
 public class VLogKnowledgeBase {
 
+	/**
+	 * Data source declarations of the knowledge base, by predicate.
+	 */
+	private final Map<Predicate, Set<DataSourceDeclaration>> dataSourceDeclarations = new HashMap<>();
+	/**
+	 * The knowledge base, which stores the facts that are added to VLog directly.
+	 */
+	private final KnowledgeBase knowledgeBase;
+	/**
+	 * Number of rule head literals for each IDB predicate.
+	 */
+	private final Map<Predicate, Integer> idbPredicates = new HashMap<>();
+	/**
+	 * Rules of the knowledge base, with their VLog representation.
+	 */
+	private final Map<Rule, karmaresearch.vlog.Rule> rules = new LinkedHashMap<>();
+
+	/*
+	 * The following structures are derived from the ones above. They are updated
+	 * lazily, for the predicates in outdatedPredicates only.
+	 */
 	private final Map<Predicate, DataSourceDeclaration> edbPredicates = new HashMap<>();
 	private final Map<DataSourceDeclaration, Predicate> aliasesForEdbPredicates = new HashMap<>();
+	private final Map<Predicate, List<DataSourceDeclaration>> aliasedEdbPredicates = new HashMap<>();
+	private final Map<DataSourceDeclaration, Rule> aliasRules = new HashMap<>();
+	private final Map<Rule, karmaresearch.vlog.Rule> vLogAliasRules = new LinkedHashMap<>();
+	/**
+	 * Predicates with facts in the knowledge base.
+	 */
+	private final Set<Predicate> directEdbPredicates = new LinkedHashSet<>();
+	private final Set<Predicate> outdatedPredicates = new HashSet<>();
 
-	private final Set<Predicate> aliasedEdbPredicates = new HashSet<>();
-
-	private final Set<Predicate> idbPredicates = new HashSet<>();
-
-	private final Map<Predicate, List<Fact>> directEdbFacts = new HashMap<>();
-
-	private final Set<Rule> rules = new HashSet<>();
+	private final StatementVisitor<Void> addStatementVisitor = new AddStatementVisitor();
+	private final StatementVisitor<Void> removeStatementVisitor = new RemoveStatementVisitor();
 
 	/**
 	 * Package-protected constructor, that organizes given {@code knowledgeBase} in
@@ -76,22 +108,44 @@ public class VLogKnowledgeBase {
 	 * @param knowledgeBase
 	 */
 	VLogKnowledgeBase(final KnowledgeBase knowledgeBase) {
-		final LoadKbVisitor visitor = this.new LoadKbVisitor();
-		visitor.clearIndexes();
+		this.knowledgeBase = knowledgeBase;
 		for (final Statement statement : knowledgeBase) {
-			statement.accept(visitor);
+			this.addStatement(statement);
 		}
 	}
 
+	/**
+	 * Updates the data structures for a statement that has been added to the
+	 * knowledge base.
+	 *
+	 * @param statement a statement that was not in the knowledge base before
+	 */
+	void addStatement(final Statement statement) {
+		statement.accept(this.addStatementVisitor);
+	}
+
+	/**
+	 * Updates the data structures for a statement that has been removed from the
+	 * knowledge base.
+	 *
+	 * @param statement a statement that was in the knowledge base before
+	 */
+	void removeStatement(final Statement statement) {
+		statement.accept(this.removeStatementVisitor);
+	}
+
 	boolean hasData() {
+		this.updateAliases();
 		return !this.edbPredicates.isEmpty() || !this.aliasedEdbPredicates.isEmpty();
 	}
 
 	public boolean hasRules() {
-		return !this.rules.isEmpty();
+		this.updateAliases();
+		return !this.rules.isEmpty() || !this.aliasRules.isEmpty();
 	}
 
 	Predicate getAlias(final Predicate predicate) {
+		this.updateAliases();
 		if (this.edbPredicates.containsKey(predicate)) {
 			return predicate;
 		} else {
@@ -100,24 +154,52 @@ public class VLogKnowledgeBase {
 	}
 
 	String getVLogDataSourcesConfigurationString() {
+		return this.getVLogDataSourcesConfigurationString(Collections.emptyMap(), Collections.emptyMap());
+	}
+
+	/**
+	 * Builds the VLog data source configuration, where the local facts of some
+	 * predicates are loaded from the given data sources instead of being added
+	 * to VLog directly, and some declared data sources are replaced by others.
+	 *
+	 * @param localFactsDataSources data sources that contain the local facts of
+	 *                              their predicates
+	 * @param replacedDataSources   map from declared data sources to the data
+	 *                              sources that are loaded in their place
+	 * @return the configuration string
+	 */
+	String getVLogDataSourcesConfigurationString(final Map<Predicate, DataSource> localFactsDataSources,
+			final Map<DataSource, DataSource> replacedDataSources) {
+		this.updateAliases();
 		final StringBuilder configStringBuilder = new StringBuilder();
 		final Formatter formatter = new Formatter(configStringBuilder);
 		int dataSourceIndex = 0;
 
 		for (final Entry<Predicate, DataSourceDeclaration> e : this.edbPredicates.entrySet()) {
-			dataSourceIndex = addDataSourceConfigurationString(e.getValue().getDataSource(), e.getKey(),
-					dataSourceIndex, formatter);
+			final DataSource dataSource = getDataSource(e.getValue(), localFactsDataSources, replacedDataSources);
+			dataSourceIndex = addDataSourceConfigurationString(dataSource, e.getKey(), dataSourceIndex, formatter);
 		}
 
 		for (final Entry<DataSourceDeclaration, Predicate> e : this.aliasesForEdbPredicates.entrySet()) {
-			dataSourceIndex = addDataSourceConfigurationString(e.getKey().getDataSource(), e.getValue(),
-					dataSourceIndex, formatter);
+			final DataSource dataSource = getDataSource(e.getKey(), localFactsDataSources, replacedDataSources);
+			dataSourceIndex = addDataSourceConfigurationString(dataSource, e.getValue(), dataSourceIndex, formatter);
 		}
 
 		formatter.close();
 		return configStringBuilder.toString();
 	}
 
+	private static DataSource getDataSource(final DataSourceDeclaration dataSourceDeclaration,
+			final Map<Predicate, DataSource> localFactsDataSources,
+			final Map<DataSource, DataSource> replacedDataSources) {
+		if (dataSourceDeclaration instanceof LocalFactsDataSourceDeclaration) {
+			return localFactsDataSources.get(dataSourceDeclaration.getPredicate());
+		} else {
+			final DataSource dataSource = dataSourceDeclaration.getDataSource();
+			return replacedDataSources.getOrDefault(dataSource, dataSource);
+		}
+	}
+
 	int addDataSourceConfigurationString(final DataSource dataSource, final Predicate predicate,
 			final int dataSourceIndex, final Formatter formatter) {
 		int newDataSourceIndex = dataSourceIndex;
@@ -143,116 +225,214 @@ public class VLogKnowledgeBase {
 	}
 
 	Map<Predicate, DataSourceDeclaration> getEdbPredicates() {
+		this.updateAliases();
 		return this.edbPredicates;
 	}
 
 	Map<DataSourceDeclaration, Predicate> getAliasesForEdbPredicates() {
+		this.updateAliases();
 		return this.aliasesForEdbPredicates;
 	}
 
-	Map<Predicate, List<Fact>> getDirectEdbFacts() {
-		return this.directEdbFacts;
+	/**
+	 * Returns the facts of the knowledge base by predicate. The sets of facts are
+	 * views of the knowledge base, and are not copied.
+	 *
+	 * @return map from predicates to their facts
+	 */
+	Map<Predicate, Set<Fact>> getDirectEdbFacts() {
+		this.updateAliases();
+		final Map<Predicate, Set<Fact>> directEdbFacts = new LinkedHashMap<>();
+		for (final Predicate predicate : this.directEdbPredicates) {
+			directEdbFacts.put(predicate, this.knowledgeBase.getFacts(predicate));
+		}
+		return directEdbFacts;
 	}
 
+	/**
+	 * Returns the rules of the knowledge base and the auxiliary rules that import
+	 * facts of aliased EDB predicates.
+	 *
+	 * @return set of rules
+	 */
 	Set<Rule> getRules() {
-		return this.rules;
+		this.updateAliases();
+		final Set<Rule> allRules = new LinkedHashSet<>(this.rules.keySet());
+		allRules.addAll(this.vLogAliasRules.keySet());
+		return allRules;
 	}
 
 	/**
-	 * Local visitor implementation for processing statements upon loading. Internal
-	 * index structures are updated based on the statements that are detected.
+	 * Returns the VLog representation of {@link #getRules()}. Rules of the
+	 * knowledge base are only converted once, when they are added.
 	 *
-	 * @author Markus Kroetzsch
+	 * @return array of VLog rules
 	 */
+	karmaresearch.vlog.Rule[] getVLogRules() {
+		this.updateAliases();
+		final karmaresearch.vlog.Rule[] vLogRules = new karmaresearch.vlog.Rule[this.rules.size()
+				+ this.vLogAliasRules.size()];
+		int i = 0;
+		for (final karmaresearch.vlog.Rule vLogRule : this.rules.values()) {
+			vLogRules[i++] = vLogRule;
+		}
+		for (final karmaresearch.vlog.Rule vLogRule : this.vLogAliasRules.values()) {
+			vLogRules[i++] = vLogRule;
+		}
+		return vLogRules;
+	}
 
-	class LoadKbVisitor implements StatementVisitor<Void> {
+	/**
+	 * Returns the VLog representation of the given rule, reusing the conversion
+	 * of rules from {@link #getRules()}.
+	 *
+	 * @param rule the rule to convert
+	 * @return VLog rule
+	 */
+	karmaresearch.vlog.Rule getVLogRule(final Rule rule) {
+		karmaresearch.vlog.Rule vLogRule = this.rules.get(rule);
+		if (vLogRule == null) {
+			vLogRule = this.vLogAliasRules.get(rule);
+		}
+		return vLogRule != null ? vLogRule : ModelToVLogConverter.toVLogRule(rule);
+	}
+
+	/**
+	 * Recomputes how the data of outdated predicates is loaded. A predicate that
+	 * occurs in rule heads or has several data sources (counting its local facts
+	 * as one) gets an alias predicate for each of its data sources, together with
+	 * a rule that imports the facts of the alias. Otherwise, its only data source
+	 * is loaded for the predicate itself.
+	 */
+	private void updateAliases() {
+		for (final Predicate predicate : this.outdatedPredicates) {
+			this.edbPredicates.remove(predicate);
+			final List<DataSourceDeclaration> previouslyAliased = this.aliasedEdbPredicates.remove(predicate);
+			if (previouslyAliased != null) {
+				for (final DataSourceDeclaration dataSourceDeclaration : previouslyAliased) {
+					this.aliasesForEdbPredicates.remove(dataSourceDeclaration);
+					this.vLogAliasRules.remove(this.aliasRules.remove(dataSourceDeclaration));
+				}
+			}
+
+			final List<DataSourceDeclaration> declarations = new ArrayList<>(
+					this.dataSourceDeclarations.getOrDefault(predicate, Collections.emptySet()));
+			if (this.knowledgeBase.getFacts(predicate).isEmpty()) {
+				this.directEdbPredicates.remove(predicate);
+			} else {
+				this.directEdbPredicates.add(predicate);
+				declarations.add(new LocalFactsDataSourceDeclaration(predicate));
+			}
+			if (this.idbPredicates.containsKey(predicate) || declarations.size() > 1) {
+				declarations.forEach(this::addEdbAlias);
+				this.aliasedEdbPredicates.put(predicate, declarations);
+			} else if (declarations.size() == 1) {
+				this.edbPredicates.put(predicate, declarations.get(0));
+			}
+		}
+		this.outdatedPredicates.clear();
+	}
 
-		public void clearIndexes() {
-			VLogKnowledgeBase.this.edbPredicates.clear();
-			VLogKnowledgeBase.this.idbPredicates.clear();
-			VLogKnowledgeBase.this.aliasedEdbPredicates.clear();
-			VLogKnowledgeBase.this.aliasesForEdbPredicates.clear();
-			VLogKnowledgeBase.this.directEdbFacts.clear();
-			VLogKnowledgeBase.this.rules.clear();
+	private void addEdbAlias(final DataSourceDeclaration dataSourceDeclaration) {
+		final Predicate predicate = dataSourceDeclaration.getPredicate();
+		Predicate aliasPredicate;
+		if (dataSourceDeclaration instanceof LocalFactsDataSourceDeclaration) {
+			aliasPredicate = new PredicateImpl(predicate.getName() + "##FACT", predicate.getArity());
+		} else {
+			aliasPredicate = new PredicateImpl(predicate.getName() + "##" + dataSourceDeclaration.hashCode(),
+					predicate.getArity());
+		}
+		this.aliasesForEdbPredicates.put(dataSourceDeclaration, aliasPredicate);
+
+		final List<Term> terms = new ArrayList<>();
+		for (int i = 1; i <= predicate.getArity(); i++) {
+			terms.add(new UniversalVariableImpl("X" + i));
 		}
+		final Literal body = new PositiveLiteralImpl(aliasPredicate, terms);
+		final PositiveLiteral head = new PositiveLiteralImpl(predicate, terms);
+		final Rule rule = new RuleImpl(new ConjunctionImpl<>(Arrays.asList(head)),
+				new ConjunctionImpl<>(Arrays.asList(body)));
+		this.aliasRules.put(dataSourceDeclaration, rule);
+		this.vLogAliasRules.put(rule, ModelToVLogConverter.toVLogRule(rule));
+	}
+
+	/**
+	 * Local visitor implementation for processing added statements. Internal index
+	 * structures are updated based on the statements that are detected.
+	 *
+	 * @author Markus Kroetzsch
+	 */
+	class AddStatementVisitor implements StatementVisitor<Void> {
 
 		@Override
 		public Void visit(final Fact fact) {
-			final Predicate predicate = fact.getPredicate();
-			registerEdbDeclaration(new LocalFactsDataSourceDeclaration(predicate));
-			if (!VLogKnowledgeBase.this.directEdbFacts.containsKey(predicate)) {
-				final List<Fact> facts = new ArrayList<>();
-				facts.add(fact);
-				VLogKnowledgeBase.this.directEdbFacts.put(predicate, facts);
-			} else {
-				VLogKnowledgeBase.this.directEdbFacts.get(predicate).add(fact);
-			}
+			VLogKnowledgeBase.this.outdatedPredicates.add(fact.getPredicate());
 			return null;
 		}
 
 		@Override
 		public Void visit(final Rule statement) {
-			VLogKnowledgeBase.this.rules.add(statement);
+			if (VLogKnowledgeBase.this.rules.containsKey(statement)) {
+				return null;
+			}
+			VLogKnowledgeBase.this.rules.put(statement, ModelToVLogConverter.toVLogRule(statement));
 			for (final PositiveLiteral positiveLiteral : statement.getHead()) {
 				final Predicate predicate = positiveLiteral.getPredicate();
-				if (!VLogKnowledgeBase.this.idbPredicates.contains(predicate)) {
-					if (VLogKnowledgeBase.this.edbPredicates.containsKey(predicate)) {
-						addEdbAlias(VLogKnowledgeBase.this.edbPredicates.get(predicate));
-						VLogKnowledgeBase.this.edbPredicates.remove(predicate);
-					}
-					VLogKnowledgeBase.this.idbPredicates.add(predicate);
-				}
+				VLogKnowledgeBase.this.idbPredicates.merge(predicate, 1, Integer::sum);
+				VLogKnowledgeBase.this.outdatedPredicates.add(predicate);
 			}
 			return null;
 		}
 
 		@Override
 		public Void visit(final DataSourceDeclaration statement) {
-			registerEdbDeclaration(statement);
+			final Predicate predicate = statement.getPredicate();
+			VLogKnowledgeBase.this.dataSourceDeclarations.computeIfAbsent(predicate, k -> new LinkedHashSet<>())
+					.add(statement);
+			VLogKnowledgeBase.this.outdatedPredicates.add(predicate);
 			return null;
 		}
 
-		void registerEdbDeclaration(final DataSourceDeclaration dataSourceDeclaration) {
-			final Predicate predicate = dataSourceDeclaration.getPredicate();
-			if (VLogKnowledgeBase.this.idbPredicates.contains(predicate)
-					|| VLogKnowledgeBase.this.aliasedEdbPredicates.contains(predicate)) {
-				if (!VLogKnowledgeBase.this.aliasesForEdbPredicates.containsKey(dataSourceDeclaration)) {
-					addEdbAlias(dataSourceDeclaration);
-				}
-			} else {
-				final DataSourceDeclaration currentMainDeclaration = VLogKnowledgeBase.this.edbPredicates
-						.get(predicate);
-				if (currentMainDeclaration == null) {
-					VLogKnowledgeBase.this.edbPredicates.put(predicate, dataSourceDeclaration);
-				} else if (!currentMainDeclaration.equals(dataSourceDeclaration)) {
-					addEdbAlias(currentMainDeclaration);
-					addEdbAlias(dataSourceDeclaration);
-					VLogKnowledgeBase.this.edbPredicates.remove(predicate);
-				} // else: predicate already known to have local facts (only)
-			}
+	}
+
+	/**
+	 * Local visitor implementation for processing removed statements, reverting
+	 * the updates of {@link AddStatementVisitor}.
+	 */
+	class RemoveStatementVisitor implements StatementVisitor<Void> {
+
+		@Override
+		public Void visit(final Fact fact) {
+			VLogKnowledgeBase.this.outdatedPredicates.add(fact.getPredicate());
+			return null;
 		}
 
-		void addEdbAlias(final DataSourceDeclaration dataSourceDeclaration) {
-			final Predicate predicate = dataSourceDeclaration.getPredicate();
-			Predicate aliasPredicate;
-			if (dataSourceDeclaration instanceof LocalFactsDataSourceDeclaration) {
-				aliasPredicate = new PredicateImpl(predicate.getName() + "##FACT", predicate.getArity());
-			} else {
-				aliasPredicate = new PredicateImpl(predicate.getName() + "##" + dataSourceDeclaration.hashCode(),
-						predicate.getArity());
+		@Override
+		public Void visit(final Rule statement) {
+			if (VLogKnowledgeBase.this.rules.remove(statement) == null) {
+				return null;
+			}
+			for (final PositiveLiteral positiveLiteral : statement.getHead()) {
+				final Predicate predicate = positiveLiteral.getPredicate();
+				VLogKnowledgeBase.this.idbPredicates.computeIfPresent(predicate,
+						(k, count) -> count > 1 ? count - 1 : null);
+				VLogKnowledgeBase.this.outdatedPredicates.add(predicate);
 			}
-			VLogKnowledgeBase.this.aliasesForEdbPredicates.put(dataSourceDeclaration, aliasPredicate);
-			VLogKnowledgeBase.this.aliasedEdbPredicates.add(predicate);
+			return null;
+		}
 
-			final List<Term> terms = new ArrayList<>();
-			for (int i = 1; i <= predicate.getArity(); i++) {
-				terms.add(new UniversalVariableImpl("X" + i));
+		@Override
+		public Void visit(final DataSourceDeclaration statement) {
+			final Predicate predicate = statement.getPredicate();
+			final Set<DataSourceDeclaration> declarations = VLogKnowledgeBase.this.dataSourceDeclarations
+					.get(predicate);
+			if (declarations != null && declarations.remove(statement)) {
+				if (declarations.isEmpty()) {
+					VLogKnowledgeBase.this.dataSourceDeclarations.remove(predicate);
+				}
+				VLogKnowledgeBase.this.outdatedPredicates.add(predicate);
 			}
-			final Literal body = new PositiveLiteralImpl(aliasPredicate, terms);
-			final PositiveLiteral head = new PositiveLiteralImpl(predicate, terms);
-			final Rule rule = new RuleImpl(new ConjunctionImpl<>(Arrays.asList(head)),
-					new ConjunctionImpl<>(Arrays.asList(body)));
-			VLogKnowledgeBase.this.rules.add(rule);
+			return null;
 		}
 
 	}
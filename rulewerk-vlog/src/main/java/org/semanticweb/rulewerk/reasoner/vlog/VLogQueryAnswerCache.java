@@ -0,0 +1,388 @@
+package org.semanticweb.rulewerk.reasoner.vlog;
+
+/*
+ * #%L
+ * Rulewerk VLog Reasoner Support
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.lang3.Validate;
+import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.api.QueryResult;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.reasoner.Correctness;
+import org.semanticweb.rulewerk.core.reasoner.QueryAnswerCount;
+import org.semanticweb.rulewerk.core.reasoner.QueryResultIterator;
+import org.semanticweb.rulewerk.core.reasoner.implementation.ListQueryResultIterator;
+import org.semanticweb.rulewerk.core.reasoner.implementation.QueryAnswerCountImpl;
+
+/**
+ * Bounded cache for the answers and answer counts of single-literal queries,
+ * to be used by one reasoner. Queries are identified up to the names of their
+ * variables, and whether nulls are included in the answers. The cache holds
+ * at most {@link #getCapacity()} answers in total, where a cached answer count
+ * or empty set of answers counts as one answer, and evicts the least recently
+ * used queries to stay within this bound. Query answers are only
+ * cached once they have been iterated completely, and only if they fit into
+ * the cache. Answer counts are cached as well, and are also taken from cached
+ * answers.
+ *
+ * Since cached answers are only valid for one materialisation, the cache must
+ * be cleared whenever the materialisation changes.
+ */
+public class VLogQueryAnswerCache {
+
+	/**
+	 * Cached answers or answer count of one query.
+	 */
+	static class Entry {
+		final List<QueryResult> answers;
+		final long count;
+		final Correctness correctness;
+
+		Entry(final List<QueryResult> answers, final long count, final Correctness correctness) {
+			this.answers = answers;
+			this.count = count;
+			this.correctness = correctness;
+		}
+
+		/**
+		 * @return the size of this entry with respect to the capacity of the cache;
+		 *         answer counts and empty answers have size 1
+		 */
+		int getWeight() {
+			return this.answers == null ? 1 : Math.max(1, this.answers.size());
+		}
+	}
+
+	/**
+	 * Identifies a query up to variable renaming.
+	 */
+	static class Key {
+		final PositiveLiteral query;
+		final boolean includeNulls;
+		final boolean count;
+
+		Key(final PositiveLiteral query, final boolean includeNulls, final boolean count) {
+			this.query = normalize(query);
+			this.includeNulls = includeNulls;
+			this.count = count;
+		}
+
+		Key forAnswers() {
+			return new Key(this.query, this.includeNulls, false);
+		}
+
+		@Override
+		public int hashCode() {
+			return (this.query.hashCode() * 31 + Boolean.hashCode(this.includeNulls)) * 31
+					+ Boolean.hashCode(this.count);
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			final Key other = (Key) obj;
+			return this.includeNulls == other.includeNulls && this.count == other.count
+					&& this.query.equals(other.query);
+		}
+	}
+
+	/**
+	 * Passes on the answers of a query, and caches them once they have all been
+	 * returned.
+	 */
+	class RecordingQueryResultIterator implements QueryResultIterator {
+		final QueryResultIterator answers;
+		final Key key;
+		final long generation;
+		List<QueryResult> recordedAnswers = new ArrayList<>();
+
+		RecordingQueryResultIterator(final QueryResultIterator answers, final Key key, final long generation) {
+			this.answers = answers;
+			this.key = key;
+			this.generation = generation;
+		}
+
+		@Override
+		public boolean hasNext() {
+			final boolean hasNext = this.answers.hasNext();
+			if (!hasNext && this.recordedAnswers != null) {
+				VLogQueryAnswerCache.this.put(this.key, new Entry(this.recordedAnswers, this.recordedAnswers.size(),
+						this.answers.getCorrectness()), this.generation);
+				this.recordedAnswers = null;
+			}
+			return hasNext;
+		}
+
+		@Override
+		public QueryResult next() {
+			final QueryResult answer = this.answers.next();
+			if (this.recordedAnswers != null) {
+				if (this.recordedAnswers.size() < VLogQueryAnswerCache.this.capacity) {
+					this.recordedAnswers.add(answer);
+				} else {
+					this.recordedAnswers = null;
+				}
+			}
+			return answer;
+		}
+
+		@Override
+		public Correctness getCorrectness() {
+			return this.answers.getCorrectness();
+		}
+
+		@Override
+		public void close() {
+			this.recordedAnswers = null;
+			this.answers.close();
+		}
+	}
+
+	/**
+	 * Default number of answers that are cached.
+	 */
+	public static final int DEFAULT_CAPACITY = 100000;
+
+	private final int capacity;
+	private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private long answerCount = 0;
+	private long termCount = 0;
+	/**
+	 * Incremented on each {@link #clear()}, so that answers recorded before
+	 * clearing are not cached.
+	 */
+	private long generation = 0;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+
+	/**
+	 * Creates a new cache that holds at most {@link #DEFAULT_CAPACITY} answers.
+	 */
+	public VLogQueryAnswerCache() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates a new cache that holds at most the given number of answers.
+	 *
+	 * @param capacity maximal number of cached answers, summed over all queries
+	 */
+	public VLogQueryAnswerCache(final int capacity) {
+		Validate.isTrue(capacity >= 0, "Cache capacity cannot be negative!", capacity);
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Returns the cached answers of the given query.
+	 *
+	 * @param query        the query
+	 * @param includeNulls whether nulls are included in the answers
+	 * @return an iterator over the cached answers, or {@code null} if they are not
+	 *         cached
+	 */
+	QueryResultIterator getAnswers(final PositiveLiteral query, final boolean includeNulls) {
+		final Entry entry = this.get(new Key(query, includeNulls, false));
+		return entry == null ? null : new ListQueryResultIterator(entry.answers, entry.correctness);
+	}
+
+	/**
+	 * Returns an iterator over the given answers of the query that caches them
+	 * once they have all been returned.
+	 *
+	 * @param query        the query
+	 * @param includeNulls whether nulls are included in the answers
+	 * @param answers      the answers of the query
+	 * @return iterator returning the same answers
+	 */
+	QueryResultIterator recordAnswers(final PositiveLiteral query, final boolean includeNulls,
+			final QueryResultIterator answers) {
+		final long currentGeneration;
+		synchronized (this) {
+			currentGeneration = this.generation;
+		}
+		return new RecordingQueryResultIterator(answers, new Key(query, includeNulls, false), currentGeneration);
+	}
+
+	/**
+	 * Returns the cached answer count of the given query, which is also known if
+	 * its answers are cached.
+	 *
+	 * @param query        the query
+	 * @param includeNulls whether nulls are included in the answers
+	 * @return the cached count, or {@code null} if it is not cached
+	 */
+	QueryAnswerCount getCount(final PositiveLiteral query, final boolean includeNulls) {
+		final Key key = new Key(query, includeNulls, true);
+		Entry entry;
+		synchronized (this) {
+			entry = this.entries.get(key);
+			if (entry == null) {
+				entry = this.entries.get(key.forAnswers());
+			}
+		}
+		this.countLookup(entry);
+		return entry == null ? null : new QueryAnswerCountImpl(entry.correctness, entry.count);
+	}
+
+	/**
+	 * Caches the answer count of the given query.
+	 *
+	 * @param query        the query
+	 * @param includeNulls whether nulls are included in the answers
+	 * @param count        the answer count
+	 */
+	void putCount(final PositiveLiteral query, final boolean includeNulls, final QueryAnswerCount count) {
+		final long currentGeneration;
+		synchronized (this) {
+			currentGeneration = this.generation;
+		}
+		this.put(new Key(query, includeNulls, true), new Entry(null, count.getCount(), count.getCorrectness()),
+				currentGeneration);
+	}
+
+	/**
+	 * Removes all entries from the cache. Hit and miss counts are not reset.
+	 */
+	public synchronized void clear() {
+		this.entries.clear();
+		this.answerCount = 0;
+		this.termCount = 0;
+		this.generation++;
+	}
+
+	/**
+	 * @return the maximal number of cached answers
+	 */
+	public int getCapacity() {
+		return this.capacity;
+	}
+
+	/**
+	 * @return the current number of queries whose answers or answer counts are
+	 *         cached
+	 */
+	public synchronized int size() {
+		return this.entries.size();
+	}
+
+	/**
+	 * @return the current number of cached answers, summed over all queries, and
+	 *         counting a cached answer count or empty set of answers as one
+	 */
+	public synchronized long getCachedAnswerCount() {
+		return this.answerCount;
+	}
+
+	/**
+	 * @return the current number of terms in cached answers, which is a measure
+	 *         for the memory used by the cache
+	 */
+	public synchronized long getCachedTermCount() {
+		return this.termCount;
+	}
+
+	/**
+	 * @return the number of lookups that found cached answers or counts
+	 */
+	public long getHitCount() {
+		return this.hits.sum();
+	}
+
+	/**
+	 * @return the number of lookups that did not find cached answers or counts
+	 */
+	public long getMissCount() {
+		return this.misses.sum();
+	}
+
+	private Entry get(final Key key) {
+		final Entry entry;
+		synchronized (this) {
+			entry = this.entries.get(key);
+		}
+		this.countLookup(entry);
+		return entry;
+	}
+
+	private void countLookup(final Entry entry) {
+		if (entry == null) {
+			this.misses.increment();
+		} else {
+			this.hits.increment();
+		}
+	}
+
+	private synchronized void put(final Key key, final Entry entry, final long entryGeneration) {
+		if (entryGeneration != this.generation || entry.getWeight() > this.capacity) {
+			return;
+		}
+		final Entry previous = this.entries.put(key, entry);
+		if (previous != null) {
+			this.updateCounts(previous, -1);
+		}
+		this.updateCounts(entry, 1);
+
+		final Iterator<Entry> iterator = this.entries.values().iterator();
+		while (this.answerCount > this.capacity) {
+			this.updateCounts(iterator.next(), -1);
+			iterator.remove();
+		}
+	}
+
+	private void updateCounts(final Entry entry, final int sign) {
+		this.answerCount += sign * entry.getWeight();
+		if (entry.answers != null && !entry.answers.isEmpty()) {
+			this.termCount += sign * entry.answers.size() * entry.answers.get(0).getTerms().size();
+		}
+	}
+
+	/**
+	 * Renames the variables of the given query to a canonical form that only
+	 * depends on their positions.
+	 */
+	static PositiveLiteral normalize(final PositiveLiteral query) {
+		final Map<Term, Term> variables = new HashMap<>();
+		final List<Term> terms = new ArrayList<>(query.getArguments().size());
+		for (final Term term : query.getArguments()) {
+			if (term.isVariable()) {
+				terms.add(variables.computeIfAbsent(term,
+						variable -> Expressions.makeUniversalVariable(Integer.toString(variables.size()))));
+			} else {
+				terms.add(term);
+			}
+		}
+		return Expressions.makePositiveLiteral(query.getPredicate(), terms);
+	}
+
+}
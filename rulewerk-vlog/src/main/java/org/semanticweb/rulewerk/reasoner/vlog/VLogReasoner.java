@@ -20,32 +20,70 @@ package org.semanticweb.rulewerk.reasoner.vlog;
  * #L%
  */
 
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.UnsupportedEncodingException;
+import java.io.Writer;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.apache.commons.lang3.Validate;
 import org.semanticweb.rulewerk.core.exceptions.IncompatiblePredicateArityException;
 import org.semanticweb.rulewerk.core.exceptions.ReasonerStateException;
 import org.semanticweb.rulewerk.core.exceptions.RulewerkRuntimeException;
+import org.semanticweb.rulewerk.core.model.api.Conjunction;
 import org.semanticweb.rulewerk.core.model.api.DataSource;
 import org.semanticweb.rulewerk.core.model.api.DataSourceDeclaration;
 import org.semanticweb.rulewerk.core.model.api.Fact;
 import org.semanticweb.rulewerk.core.model.api.Literal;
 import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
 import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.PrefixDeclarationRegistry;
+import org.semanticweb.rulewerk.core.model.api.QueryResult;
 import org.semanticweb.rulewerk.core.model.api.Rule;
 import org.semanticweb.rulewerk.core.model.api.Statement;
 import org.semanticweb.rulewerk.core.model.api.Term;
-import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.model.api.Variable;
+import org.semanticweb.rulewerk.core.model.implementation.DataSourceDeclarationImpl;
+import org.semanticweb.rulewerk.core.model.implementation.Serializer;
 import org.semanticweb.rulewerk.core.reasoner.AcyclicityNotion;
 import org.semanticweb.rulewerk.core.reasoner.Algorithm;
 import org.semanticweb.rulewerk.core.reasoner.Correctness;
 import org.semanticweb.rulewerk.core.reasoner.CyclicityResult;
+import org.semanticweb.rulewerk.core.reasoner.IdQueryResultIterator;
 import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
 import org.semanticweb.rulewerk.core.reasoner.LogLevel;
 import org.semanticweb.rulewerk.core.reasoner.QueryAnswerCount;
@@ -53,8 +91,16 @@ import org.semanticweb.rulewerk.core.reasoner.QueryResultIterator;
 import org.semanticweb.rulewerk.core.reasoner.Reasoner;
 import org.semanticweb.rulewerk.core.reasoner.ReasonerState;
 import org.semanticweb.rulewerk.core.reasoner.RuleRewriteStrategy;
+import org.semanticweb.rulewerk.core.reasoner.RuleSetOptimizationReport;
+import org.semanticweb.rulewerk.core.reasoner.RuleSetOptimizer;
+import org.semanticweb.rulewerk.core.reasoner.implementation.CsvFileDataSource;
+import org.semanticweb.rulewerk.core.reasoner.implementation.EmptyIdQueryResultIterator;
 import org.semanticweb.rulewerk.core.reasoner.implementation.EmptyQueryResultIterator;
+import org.semanticweb.rulewerk.core.reasoner.implementation.ListQueryResultIterator;
 import org.semanticweb.rulewerk.core.reasoner.implementation.QueryAnswerCountImpl;
+import org.semanticweb.rulewerk.core.reasoner.implementation.QueryResultImpl;
+import org.semanticweb.rulewerk.core.reasoner.implementation.SparqlQueryResultDataSource;
+import org.semanticweb.rulewerk.core.reasoner.implementation.TupleCursorDataSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -63,7 +109,6 @@ import karmaresearch.vlog.EDBConfigurationException;
 import karmaresearch.vlog.MaterializationException;
 import karmaresearch.vlog.NonExistingPredicateException;
 import karmaresearch.vlog.NotStartedException;
-import karmaresearch.vlog.TermQueryResultIterator;
 import karmaresearch.vlog.VLog;
 import karmaresearch.vlog.VLog.CyclicCheckResult;
 
@@ -78,16 +123,79 @@ import karmaresearch.vlog.VLog.CyclicCheckResult;
 public class VLogReasoner implements Reasoner {
 	private static Logger LOGGER = LoggerFactory.getLogger(VLogReasoner.class);
 
+	/**
+	 * Number of inferences that {@link #writeInferences(InferenceWriterFactory, int)}
+	 * and {@link #writeInferences(Writer, int)} pass to a writing thread at a time.
+	 */
+	static final int EXPORT_BATCH_SIZE = 1024;
+
+	/**
+	 * Maximal number of batches of inferences that wait to be written for one
+	 * predicate, or for one thread when writing to a single writer.
+	 */
+	private static final int EXPORT_QUEUE_CAPACITY = 4;
+
+	/**
+	 * Maximal number of answers per query for which queries that only differ in
+	 * their constants are answered by a single query in
+	 * {@link #answerQueries(Collection, boolean)} and
+	 * {@link #countQueryAnswersBatch(Collection, boolean)}.
+	 */
+	static final int SHARED_QUERY_ANSWERS_PER_QUERY = 64;
+
+	/**
+	 * Maximal length of the encoded predicate names in the file names used by
+	 * {@link #writeInferences(File, int)}.
+	 */
+	static final int MAX_ENCODED_NAME_LENGTH = 200;
+
+	/**
+	 * Interface for opening the {@link Writer} to which the inferences for a given
+	 * predicate are written, e.g., one file per predicate.
+	 */
+	@FunctionalInterface
+	public interface InferenceWriterFactory {
+		Writer openWriter(Predicate predicate) throws IOException;
+	}
+
 	final KnowledgeBase knowledgeBase;
 	final VLog vLog = new VLog();
 
 	private ReasonerState reasonerState = ReasonerState.KB_NOT_LOADED;
 	private Correctness correctness = Correctness.SOUND_BUT_INCOMPLETE;
+	/**
+	 * Correctness of the snapshot that the knowledge base has been read from (see
+	 * {@link #loadSnapshot(File)}), which bounds the correctness of all answers.
+	 */
+	private Correctness snapshotCorrectness = Correctness.SOUND_AND_COMPLETE;
 
 	private LogLevel internalLogLevel = LogLevel.WARNING;
 	private Algorithm algorithm = Algorithm.RESTRICTED_CHASE;
 	private Integer timeoutAfterSeconds;
 	private RuleRewriteStrategy ruleRewriteStrategy = RuleRewriteStrategy.NONE;
+	private Integer factStreamingThreshold;
+	private SparqlQueryResultCache sparqlQueryResultCache;
+	private RuleSetOptimizer ruleSetOptimizer;
+	private RuleSetOptimizationReport ruleSetOptimizationReport;
+	/**
+	 * Predicates whose facts may be incomplete, since rules deriving them have
+	 * been removed by the {@link #ruleSetOptimizer}.
+	 */
+	private Set<Predicate> incompletePredicates = Collections.emptySet();
+	private VLogQueryAnswerCache queryAnswerCache;
+
+	/**
+	 * Cache for the terms of VLog ids, shared by all queries. Ids are only valid
+	 * until VLog is stopped, so the cache is cleared whenever this happens.
+	 */
+	private VLogTermCache termCache = new VLogTermCache(VLogTermCache.DEFAULT_CAPACITY);
+
+	/**
+	 * VLog-specific view of the knowledge base, built on first load and then kept
+	 * up to date with changes of the knowledge base, so that reloading only needs
+	 * to process the changed statements.
+	 */
+	private VLogKnowledgeBase vLogKnowledgeBase;
 
 	/**
 	 * Holds the state of the reasoning result. Has value {@code true} if reasoning
@@ -95,6 +203,28 @@ public class VLogReasoner implements Reasoner {
 	 */
 	private boolean reasoningCompleted;
 
+	/**
+	 * Statements that have been added to the knowledge base since it was last
+	 * loaded, and that have not been removed again since.
+	 */
+	private final Set<Statement> pendingAdditions = new HashSet<>();
+	/**
+	 * Statements that have been removed from the knowledge base since it was last
+	 * loaded, and that have not been added again since.
+	 */
+	private final Set<Statement> pendingRemovals = new HashSet<>();
+	/**
+	 * State of the reasoner before the knowledge base was first changed after
+	 * loading. Used to restore the state if all changes cancel out, and to decide
+	 * whether a materialisation can be extended with added statements.
+	 */
+	private ReasonerState reasonerStateBeforeChanges;
+	/**
+	 * Correctness of the reasoner before the knowledge base was first changed after
+	 * loading. Used to restore the correctness if all changes cancel out.
+	 */
+	private Correctness correctnessBeforeChanges;
+
 	public VLogReasoner(final KnowledgeBase knowledgeBase) {
 		super();
 		this.knowledgeBase = knowledgeBase;
@@ -146,6 +276,135 @@ public class VLogReasoner implements Reasoner {
 		return this.ruleRewriteStrategy;
 	}
 
+	/**
+	 * Sets the number of local facts from which the facts of a predicate are
+	 * streamed to a temporary CSV file when the knowledge base is loaded, instead
+	 * of being passed to VLog as one array. VLog then reads the file natively, so
+	 * that the memory needed for loading does not grow with the number of facts of
+	 * such predicates. The file is deleted after loading. By default, all facts
+	 * are passed to VLog directly.
+	 *
+	 * @param facts minimal number of facts of a predicate that are streamed to a
+	 *              file, or {@code null} if facts should never be streamed
+	 */
+	public void setFactStreamingThreshold(final Integer facts) {
+		this.validateNotClosed();
+		if (facts != null) {
+			Validate.isTrue(facts > 0, "Only strictly positive number of facts allowed!", facts);
+		}
+		this.factStreamingThreshold = facts;
+	}
+
+	public Integer getFactStreamingThreshold() {
+		return this.factStreamingThreshold;
+	}
+
+	/**
+	 * Sets the cache for the results of SPARQL data sources. If a cache is set,
+	 * the results of SPARQL queries are loaded from the cache when the knowledge
+	 * base is loaded, and are only fetched from the endpoint if they are not
+	 * cached or have expired. By default, VLog queries the endpoints on every
+	 * load.
+	 *
+	 * @param sparqlQueryResultCache the cache to use, or {@code null} if SPARQL
+	 *                               results should not be cached
+	 */
+	public void setSparqlQueryResultCache(final SparqlQueryResultCache sparqlQueryResultCache) {
+		this.validateNotClosed();
+		this.sparqlQueryResultCache = sparqlQueryResultCache;
+	}
+
+	public SparqlQueryResultCache getSparqlQueryResultCache() {
+		return this.sparqlQueryResultCache;
+	}
+
+	/**
+	 * Sets the optimiser that simplifies the rules of the knowledge base before
+	 * they are loaded into VLog. The optimiser takes effect the next time the
+	 * knowledge base is loaded. If the optimiser has output predicates, only
+	 * query answers for these predicates are guaranteed to be complete, and
+	 * answers for predicates whose rules have been removed are reported as
+	 * {@link Correctness#SOUND_BUT_INCOMPLETE}. By default, rules are loaded as
+	 * they are.
+	 *
+	 * @param ruleSetOptimizer the optimiser to use, or {@code null} if rules
+	 *                         should not be optimised
+	 */
+	public void setRuleSetOptimizer(final RuleSetOptimizer ruleSetOptimizer) {
+		this.validateNotClosed();
+		this.ruleSetOptimizer = ruleSetOptimizer;
+	}
+
+	public RuleSetOptimizer getRuleSetOptimizer() {
+		return this.ruleSetOptimizer;
+	}
+
+	/**
+	 * Returns the report of the {@link #getRuleSetOptimizer()} for the rules that
+	 * were loaded last.
+	 *
+	 * @return the report, or {@code null} if the rules were loaded without
+	 *         optimisation
+	 */
+	public RuleSetOptimizationReport getRuleSetOptimizationReport() {
+		return this.ruleSetOptimizationReport;
+	}
+
+	/**
+	 * Sets the cache for the answers of single-literal queries. If a cache is
+	 * set, the answers of {@link #answerQuery(PositiveLiteral, boolean)} and
+	 * {@link #countQueryAnswers(PositiveLiteral, boolean)} are cached while the
+	 * reasoner is in state {@link ReasonerState#MATERIALISED}, so that repeated
+	 * queries are answered without querying VLog. The cache is cleared whenever
+	 * the reasoner leaves this state or materialises again, and must not be shared
+	 * with other reasoners. By default, no answers are cached.
+	 *
+	 * @param queryAnswerCache the cache to use, or {@code null} if query answers
+	 *                         should not be cached
+	 */
+	public void setQueryAnswerCache(final VLogQueryAnswerCache queryAnswerCache) {
+		this.validateNotClosed();
+		if (queryAnswerCache != null) {
+			queryAnswerCache.clear();
+		}
+		this.queryAnswerCache = queryAnswerCache;
+	}
+
+	/**
+	 * Returns the cache for query answers, e.g., to inspect its hit and miss
+	 * counts.
+	 *
+	 * @return the query answer cache, or {@code null} if query answers are not
+	 *         cached
+	 */
+	public VLogQueryAnswerCache getQueryAnswerCache() {
+		return this.queryAnswerCache;
+	}
+
+	/**
+	 * Sets the maximal number of terms that are cached for answering queries. The
+	 * cache is shared by all queries, so that terms that occur in the answers of
+	 * many queries need to be retrieved from VLog only once. The default value is
+	 * {@link VLogTermCache#DEFAULT_CAPACITY}. Setting the capacity discards all
+	 * currently cached terms.
+	 *
+	 * @param capacity maximal number of cached terms; if 0, no terms are cached
+	 */
+	public void setTermCacheCapacity(final int capacity) {
+		this.validateNotClosed();
+		this.termCache = new VLogTermCache(capacity);
+	}
+
+	/**
+	 * Returns the cache for the terms of VLog ids that is used for answering
+	 * queries, e.g., to inspect its hit and miss counts.
+	 *
+	 * @return the term cache
+	 */
+	public VLogTermCache getTermCache() {
+		return this.termCache;
+	}
+
 	@Override
 	public Correctness getCorrectness() {
 		return this.correctness;
@@ -170,8 +429,10 @@ public class VLogReasoner implements Reasoner {
 			// do nothing, all KB is already loaded
 			break;
 		case KB_CHANGED:
-			this.resetReasoner();
-			this.loadKnowledgeBase();
+			if (!this.restoreStateIfNoPendingChanges()) {
+				this.resetReasoner();
+				this.loadKnowledgeBase();
+			}
 		default:
 			break;
 		}
@@ -180,35 +441,197 @@ public class VLogReasoner implements Reasoner {
 	void loadKnowledgeBase() throws IOException {
 		LOGGER.info("Started loading knowledge base ...");
 
-		final VLogKnowledgeBase vLogKB = new VLogKnowledgeBase(this.knowledgeBase);
+		if (this.vLogKnowledgeBase == null) {
+			this.vLogKnowledgeBase = new VLogKnowledgeBase(this.knowledgeBase);
+		}
+		final VLogKnowledgeBase vLogKB = this.vLogKnowledgeBase;
 
 		if (!vLogKB.hasData()) {
 			LOGGER.warn("No data statements (facts or datasource declarations) have been provided.");
 		}
 
-		// 1. vLog is initialized by loading VLog data sources
-		this.loadVLogDataSources(vLogKB);
+		// 1. vLog is initialized by loading VLog data sources, including large sets
+		// of facts and tuples pulled from cursors, which are streamed to files, and
+		// cached SPARQL results
+		final Map<Predicate, DataSource> streamedFacts = this.streamLargeFactSets(vLogKB);
+		try {
+			final Map<DataSource, DataSource> pulledTuples = this.pullTupleCursorDataSources(vLogKB);
+			try {
+				final Map<DataSource, DataSource> replacedDataSources = new HashMap<>(pulledTuples);
+				replacedDataSources.putAll(this.getCachedSparqlQueryResults(vLogKB));
+				this.loadVLogDataSources(vLogKB, streamedFacts, replacedDataSources);
+			} finally {
+				deleteStreamedFacts(pulledTuples.values());
+			}
+		} finally {
+			deleteStreamedFacts(streamedFacts.values());
+		}
 
 		// 2. in-memory data is loaded
 		this.loadInMemoryDataSources(vLogKB);
 		this.validateDataSourcePredicateArities(vLogKB);
 
-		this.loadFacts(vLogKB);
+		this.loadFacts(vLogKB, streamedFacts.keySet());
 
 		// 3. rules are loaded
 		this.loadRules(vLogKB);
 
 		this.reasonerState = ReasonerState.KB_LOADED;
+		this.clearPendingChanges();
 
 		// if there are no rules, then materialisation state is complete
-		this.correctness = !vLogKB.hasRules() ? Correctness.SOUND_AND_COMPLETE : Correctness.SOUND_BUT_INCOMPLETE;
+		this.correctness = !vLogKB.hasRules() ? this.snapshotCorrectness : Correctness.SOUND_BUT_INCOMPLETE;
 
 		LOGGER.info("Finished loading knowledge base.");
 	}
 
-	void loadVLogDataSources(final VLogKnowledgeBase vLogKB) throws IOException {
+	/**
+	 * Writes the facts of predicates that have at least
+	 * {@link #getFactStreamingThreshold()} facts to temporary CSV files, one fact
+	 * at a time.
+	 *
+	 * @param vLogKB the knowledge base to load
+	 * @return map from predicates to the data sources for their streamed facts
+	 * @throws IOException if writing the files fails
+	 */
+	Map<Predicate, DataSource> streamLargeFactSets(final VLogKnowledgeBase vLogKB) throws IOException {
+		if (this.factStreamingThreshold == null) {
+			return Collections.emptyMap();
+		}
+		final Map<Predicate, DataSource> streamedFacts = new HashMap<>();
+		File directory = null;
+		try {
+			for (final Entry<Predicate, Set<Fact>> entry : vLogKB.getDirectEdbFacts().entrySet()) {
+				if (entry.getValue().size() < this.factStreamingThreshold) {
+					continue;
+				}
+				if (directory == null) {
+					directory = Files.createTempDirectory("rulewerk-facts").toFile();
+				}
+				final File file = new File(directory, "facts" + streamedFacts.size() + ".csv");
+				try (final VLogCsvWriter writer = new VLogCsvWriter(file)) {
+					for (final Fact fact : entry.getValue()) {
+						writer.writeTuple(ModelToVLogConverter.toVLogFactTuple(fact));
+					}
+				}
+				streamedFacts.put(entry.getKey(), new CsvFileDataSource(file.getPath()));
+				LOGGER.debug("Streamed {} facts of predicate {} to {}.", entry.getValue().size(), entry.getKey(), file);
+			}
+		} catch (final IOException | RuntimeException e) {
+			deleteStreamedFacts(streamedFacts.values());
+			throw e;
+		}
+		return streamedFacts;
+	}
+
+	/**
+	 * Pulls the tuples of all {@link TupleCursorDataSource}s of the knowledge base
+	 * in batches and writes them to temporary CSV files, so that VLog can load
+	 * them like any other file. Only one batch per data source is held in memory
+	 * at any time.
+	 *
+	 * @param vLogKB the knowledge base to load
+	 * @return map from the cursor data sources to the data sources for their files
+	 * @throws IOException if reading the tuples or writing the files fails
+	 */
+	Map<DataSource, DataSource> pullTupleCursorDataSources(final VLogKnowledgeBase vLogKB) throws IOException {
+		final Set<TupleCursorDataSource> cursorDataSources = getDataSources(vLogKB, TupleCursorDataSource.class);
+		if (cursorDataSources.isEmpty()) {
+			return Collections.emptyMap();
+		}
+
+		final Map<DataSource, DataSource> pulledTuples = new HashMap<>();
+		final File directory = Files.createTempDirectory("rulewerk-tuples").toFile();
+		try {
+			for (final TupleCursorDataSource dataSource : cursorDataSources) {
+				final File file = new File(directory, "tuples" + pulledTuples.size() + ".csv");
+				final long count;
+				try (final VLogCsvWriter writer = new VLogCsvWriter(file)) {
+					final String[] vLogNames = new String[dataSource.getArity()];
+					count = dataSource.forEachBatch((batch, size) -> {
+						for (int i = 0; i < size; i++) {
+							for (int j = 0; j < vLogNames.length; j++) {
+								vLogNames[j] = TermToVLogConverter.getVLogNameForConstantName(batch[i][j]);
+							}
+							writer.writeTuple(vLogNames);
+						}
+					});
+				}
+				pulledTuples.put(dataSource, new CsvFileDataSource(file.getPath()));
+				LOGGER.debug("Pulled {} tuples from {} to {}.", count, dataSource, file);
+			}
+		} catch (final IOException | RuntimeException e) {
+			deleteTemporaryDirectory(directory);
+			throw e;
+		}
+		return pulledTuples;
+	}
+
+	/**
+	 * Looks up the results of all {@link SparqlQueryResultDataSource}s of the
+	 * knowledge base in the {@link #getSparqlQueryResultCache()}, fetching those
+	 * that are not cached.
+	 *
+	 * @param vLogKB the knowledge base to load
+	 * @return map from the SPARQL data sources to the data sources for their
+	 *         cached results, which is empty if no cache is set
+	 * @throws IOException if fetching or storing results fails
+	 */
+	Map<DataSource, DataSource> getCachedSparqlQueryResults(final VLogKnowledgeBase vLogKB) throws IOException {
+		if (this.sparqlQueryResultCache == null) {
+			return Collections.emptyMap();
+		}
+		final Map<DataSource, DataSource> cachedResults = new HashMap<>();
+		for (final SparqlQueryResultDataSource dataSource : getDataSources(vLogKB, SparqlQueryResultDataSource.class)) {
+			cachedResults.put(dataSource, this.sparqlQueryResultCache.getResults(dataSource));
+		}
+		return cachedResults;
+	}
+
+	private static <T extends DataSource> Set<T> getDataSources(final VLogKnowledgeBase vLogKB, final Class<T> type) {
+		final Set<T> dataSources = new LinkedHashSet<>();
+		final Consumer<DataSource> addIfInstance = dataSource -> {
+			if (type.isInstance(dataSource)) {
+				dataSources.add(type.cast(dataSource));
+			}
+		};
+		vLogKB.getEdbPredicates().values().forEach(v -> addIfInstance.accept(v.getDataSource()));
+		vLogKB.getAliasesForEdbPredicates().keySet().forEach(k -> addIfInstance.accept(k.getDataSource()));
+		return dataSources;
+	}
+
+	private static void deleteStreamedFacts(final Collection<DataSource> streamedFacts) {
+		File directory = null;
+		for (final DataSource dataSource : streamedFacts) {
+			final File file = ((CsvFileDataSource) dataSource).getFile();
+			directory = file.getParentFile();
+			if (!file.delete()) {
+				LOGGER.warn("Could not delete temporary file {}.", file);
+			}
+		}
+		if (directory != null && !directory.delete()) {
+			LOGGER.warn("Could not delete temporary directory {}.", directory);
+		}
+	}
+
+	private static void deleteTemporaryDirectory(final File directory) {
+		final File[] files = directory.listFiles();
+		if (files != null) {
+			for (final File file : files) {
+				if (!file.delete()) {
+					LOGGER.warn("Could not delete temporary file {}.", file);
+				}
+			}
+		}
+		if (!directory.delete()) {
+			LOGGER.warn("Could not delete temporary directory {}.", directory);
+		}
+	}
+
+	void loadVLogDataSources(final VLogKnowledgeBase vLogKB, final Map<Predicate, DataSource> streamedFacts,
+			final Map<DataSource, DataSource> pulledTuples) throws IOException {
 		try {
-			this.vLog.start(vLogKB.getVLogDataSourcesConfigurationString(), false);
+			this.vLog.start(vLogKB.getVLogDataSourcesConfigurationString(streamedFacts, pulledTuples), false);
 		} catch (final AlreadyStartedException e) {
 			throw new RulewerkRuntimeException("Inconsistent reasoner state.", e);
 		} catch (final EDBConfigurationException e) {
@@ -290,10 +713,13 @@ public class VLogReasoner implements Reasoner {
 		}
 	}
 
-	void loadFacts(final VLogKnowledgeBase vLogKB) {
-		final Map<Predicate, List<Fact>> directEdbFacts = vLogKB.getDirectEdbFacts();
+	void loadFacts(final VLogKnowledgeBase vLogKB, final Set<Predicate> streamedPredicates) {
+		final Map<Predicate, Set<Fact>> directEdbFacts = vLogKB.getDirectEdbFacts();
 
 		directEdbFacts.forEach((k, v) -> {
+			if (streamedPredicates.contains(k)) {
+				return;
+			}
 			try {
 				final String vLogPredicateName = ModelToVLogConverter.toVLogPredicate(vLogKB.getAlias(k));
 				final String[][] vLogPredicateTuples = ModelToVLogConverter.toVLogFactTuples(v);
@@ -313,7 +739,7 @@ public class VLogReasoner implements Reasoner {
 	}
 
 	void loadRules(final VLogKnowledgeBase vLogKB) {
-		final karmaresearch.vlog.Rule[] vLogRuleArray = ModelToVLogConverter.toVLogRuleArray(vLogKB.getRules());
+		final karmaresearch.vlog.Rule[] vLogRuleArray = this.getVLogRules(vLogKB);
 		final karmaresearch.vlog.VLog.RuleRewriteStrategy vLogRuleRewriteStrategy = ModelToVLogConverter
 				.toVLogRuleRewriteStrategy(this.ruleRewriteStrategy);
 		try {
@@ -328,6 +754,26 @@ public class VLogReasoner implements Reasoner {
 		}
 	}
 
+	private karmaresearch.vlog.Rule[] getVLogRules(final VLogKnowledgeBase vLogKB) {
+		if (this.ruleSetOptimizer == null) {
+			this.ruleSetOptimizationReport = null;
+			this.incompletePredicates = Collections.emptySet();
+			return vLogKB.getVLogRules();
+		}
+		this.ruleSetOptimizationReport = this.ruleSetOptimizer.optimize(vLogKB.getRules());
+		LOGGER.info("{}", this.ruleSetOptimizationReport);
+		this.incompletePredicates = new HashSet<>(this.ruleSetOptimizationReport.getInlinedPredicates());
+		for (final Rule rule : this.ruleSetOptimizationReport.getUnreachableRules()) {
+			rule.getHead().getLiterals().forEach(literal -> this.incompletePredicates.add(literal.getPredicate()));
+		}
+		final List<Rule> rules = this.ruleSetOptimizationReport.getRules();
+		final karmaresearch.vlog.Rule[] vLogRules = new karmaresearch.vlog.Rule[rules.size()];
+		for (int i = 0; i < vLogRules.length; i++) {
+			vLogRules[i] = vLogKB.getVLogRule(rules.get(i));
+		}
+		return vLogRules;
+	}
+
 	@Override
 	public boolean reason() throws IOException {
 		this.validateNotClosed();
@@ -341,9 +787,17 @@ public class VLogReasoner implements Reasoner {
 			this.runChase();
 			break;
 		case KB_CHANGED:
-			this.resetReasoner();
-			this.load();
-			this.runChase();
+			if (this.restoreStateIfNoPendingChanges()) {
+				if (this.reasonerState == ReasonerState.KB_LOADED) {
+					this.runChase();
+				}
+			} else if (this.canExtendMaterialisation()) {
+				this.extendMaterialisation();
+			} else {
+				this.resetReasoner();
+				this.load();
+				this.runChase();
+			}
 			break;
 		case MATERIALISED:
 			this.runChase();
@@ -355,8 +809,80 @@ public class VLogReasoner implements Reasoner {
 		return this.reasoningCompleted;
 	}
 
+	/**
+	 * Checks whether the materialisation before the pending changes can be
+	 * extended with {@link #extendMaterialisation()}. This requires that
+	 * statements have only been added, and that the materialisation was complete
+	 * and contains no nulls, which VLog cannot load.
+	 */
+	private boolean canExtendMaterialisation() {
+		if (this.reasonerStateBeforeChanges != ReasonerState.MATERIALISED || !this.reasoningCompleted
+				|| !this.pendingRemovals.isEmpty() || this.ruleSetOptimizer != null) {
+			return false;
+		}
+		try {
+			for (final Predicate predicate : this.getKnowledgeBasePredicates()) {
+				final long[] terms = new long[predicate.getArity()];
+				for (int i = 0; i < terms.length; i++) {
+					terms[i] = -i - 1;
+				}
+				try {
+					final int predicateId = this.vLog.getPredicateId(ModelToVLogConverter.toVLogPredicate(predicate));
+					if (this.vLog.nativeQuerySize(predicateId, terms, true, false) != this.vLog
+							.nativeQuerySize(predicateId, terms, true, true)) {
+						return false;
+					}
+				} catch (final NonExistingPredicateException e) {
+					// predicates of added statements are not known to VLog yet
+				}
+			}
+		} catch (final NotStartedException e) {
+			throw new RulewerkRuntimeException("Inconsistent reasoner state.", e);
+		}
+		return true;
+	}
+
+	/**
+	 * Extends the materialisation before the pending changes, which only added
+	 * statements, by running the chase again from the materialised facts and the
+	 * added facts and data sources. The original facts and data sources of the
+	 * knowledge base are not read again, and rules only derive facts from the added
+	 * ones, apart from a single pass over the materialised facts.
+	 */
+	private void extendMaterialisation() throws IOException {
+		LOGGER.info("Extending materialisation with {} added statements ...", this.pendingAdditions.size());
+		final KnowledgeBase extendedKnowledgeBase = new KnowledgeBase();
+		extendedKnowledgeBase.addStatements(this.knowledgeBase.getRules());
+		for (final Statement statement : this.pendingAdditions) {
+			if (!(statement instanceof Rule)) {
+				extendedKnowledgeBase.addStatement(statement);
+			}
+		}
+
+		final File directory = Files.createTempDirectory("rulewerk-model").toFile();
+		try {
+			VLogSnapshot.write(this.vLog, this.getKnowledgeBasePredicates(), this.correctnessBeforeChanges, directory)
+					.forEach((predicate, dataSource) -> extendedKnowledgeBase
+							.addStatement(new DataSourceDeclarationImpl(predicate, dataSource)));
+
+			this.resetReasoner();
+			// the view of the actual knowledge base is kept up to date for later reloads
+			final VLogKnowledgeBase vLogKB = this.vLogKnowledgeBase;
+			this.vLogKnowledgeBase = new VLogKnowledgeBase(extendedKnowledgeBase);
+			try {
+				this.loadKnowledgeBase();
+			} finally {
+				this.vLogKnowledgeBase = vLogKB;
+			}
+		} finally {
+			deleteTemporaryDirectory(directory);
+		}
+		this.runChase();
+	}
+
 	private void runChase() {
 		LOGGER.info("Started materialisation of inferences ...");
+		this.clearQueryAnswerCache();
 		this.reasonerState = ReasonerState.MATERIALISED;
 
 		final boolean skolemChase = this.algorithm == Algorithm.SKOLEM_CHASE;
@@ -374,7 +900,7 @@ public class VLogReasoner implements Reasoner {
 		}
 
 		if (this.reasoningCompleted) {
-			this.correctness = Correctness.SOUND_AND_COMPLETE;
+			this.correctness = this.snapshotCorrectness;
 			LOGGER.info("Completed materialisation of inferences.");
 		} else {
 			this.correctness = Correctness.SOUND_BUT_INCOMPLETE;
@@ -386,23 +912,200 @@ public class VLogReasoner implements Reasoner {
 	public QueryResultIterator answerQuery(final PositiveLiteral query, final boolean includeNulls) {
 		this.validateBeforeQuerying(query);
 
+		final VLogQueryAnswerCache answerCache = this.getActiveQueryAnswerCache();
+		if (answerCache != null) {
+			final QueryResultIterator cachedAnswers = answerCache.getAnswers(query, includeNulls);
+			if (cachedAnswers != null) {
+				this.logWarningOnCorrectness(cachedAnswers.getCorrectness());
+				return cachedAnswers;
+			}
+		}
+
+		final karmaresearch.vlog.QueryResultIterator queryResultIterator = this.queryVLog(query, includeNulls);
+		if (queryResultIterator == null) {
+			return this.createEmptyResultIterator(query);
+		}
+
+		final Correctness answerCorrectness = this.getCorrectness(query.getPredicate());
+		this.logWarningOnCorrectness(answerCorrectness);
+		final QueryResultIterator answers = new VLogFastQueryResultIterator(queryResultIterator, answerCorrectness,
+				this.vLog, this.termCache);
+		return answerCache == null ? answers : answerCache.recordAnswers(query, includeNulls, answers);
+	}
+
+	@Override
+	public IdQueryResultIterator answerQueryIds(final PositiveLiteral query, final boolean includeNulls) {
+		this.validateBeforeQuerying(query);
+
+		final int arity = query.getPredicate().getArity();
+		final karmaresearch.vlog.QueryResultIterator queryResultIterator = this.queryVLog(query, includeNulls);
+		if (queryResultIterator == null) {
+			final Correctness answerCorrectness = this.getCorrectnessUnknownPredicate(query);
+			this.logWarningOnCorrectness(answerCorrectness);
+			return new EmptyIdQueryResultIterator(arity, answerCorrectness);
+		}
+
+		final Correctness answerCorrectness = this.getCorrectness(query.getPredicate());
+		this.logWarningOnCorrectness(answerCorrectness);
+		return new VLogIdQueryResultIterator(queryResultIterator, arity, answerCorrectness);
+	}
+
+	/**
+	 * Queries VLog for the answers to the given query.
+	 *
+	 * @param query        the query literal
+	 * @param includeNulls whether answers with nulls should be returned
+	 * @return the internal VLog result iterator, or {@code null} if the query
+	 *         predicate is not known to VLog
+	 */
+	private karmaresearch.vlog.QueryResultIterator queryVLog(final PositiveLiteral query,
+			final boolean includeNulls) {
 		final boolean filterBlanks = !includeNulls;
 		final karmaresearch.vlog.Atom vLogAtom = ModelToVLogConverter.toVLogAtom(query);
 
-		final karmaresearch.vlog.QueryResultIterator queryResultIterator;
-
 		try {
 			final int predicateId = this.vLog.getPredicateId(vLogAtom.getPredicate());
 			final long[] terms = this.extractTerms(vLogAtom.getTerms());
-			queryResultIterator = this.vLog.query(predicateId, terms, true, filterBlanks);
+			return this.vLog.query(predicateId, terms, true, filterBlanks);
 		} catch (final NotStartedException e) {
 			throw new RulewerkRuntimeException("Inconsistent reasoner state.", e);
 		} catch (final NonExistingPredicateException e1) {
-			return this.createEmptyResultIterator(query);
+			return null;
+		}
+	}
+
+	@Override
+	public QueryResultIterator answerConjunctiveQuery(final Conjunction<PositiveLiteral> query,
+			final List<Variable> answerVariables, final boolean includeNulls) {
+		Validate.notNull(query, "Query conjunction must not be null!");
+		Validate.notNull(answerVariables, "Answer variables must not be null!");
+		final List<PositiveLiteral> literals = query.getLiterals();
+		Validate.notEmpty(literals, "Query conjunction must not be empty!");
+		for (final PositiveLiteral literal : literals) {
+			this.validateBeforeQuerying(literal);
+		}
+
+		final Map<PositiveLiteral, QueryAnswerCount> cardinalities = this.countQueryAnswersBatch(literals, true);
+		for (final QueryAnswerCount cardinality : cardinalities.values()) {
+			if (cardinality.getCount() == 0) {
+				return new EmptyQueryResultIterator(cardinality.getCorrectness());
+			}
 		}
 
-		this.logWarningOnCorrectness(this.correctness);
-		return new VLogFastQueryResultIterator(queryResultIterator, this.correctness, this.vLog);
+		final List<PositiveLiteral> joinOrder = VLogConjunctiveQueryResultIterator.orderLiterals(literals,
+				literal -> cardinalities.get(literal).getCount());
+		final List<Variable> variables = VLogConjunctiveQueryResultIterator.collectVariables(joinOrder);
+		final int[] answerVariableIndices = new int[answerVariables.size()];
+		for (int i = 0; i < answerVariableIndices.length; i++) {
+			answerVariableIndices[i] = variables.indexOf(answerVariables.get(i));
+			Validate.isTrue(answerVariableIndices[i] >= 0, "Answer variable %s does not occur in query %s.",
+					answerVariables.get(i), query);
+		}
+
+		final List<VLogConjunctiveQueryResultIterator.JoinStep> steps = new ArrayList<>(joinOrder.size());
+		final Map<String, Long> constantIds = new HashMap<>();
+		final Set<Variable> boundVariables = new HashSet<>();
+		try {
+			for (final PositiveLiteral literal : joinOrder) {
+				steps.add(this.createJoinStep(literal, variables, boundVariables, constantIds));
+			}
+		} catch (final NotStartedException e) {
+			throw new RulewerkRuntimeException("Inconsistent reasoner state.", e);
+		}
+
+		Correctness answerCorrectness = this.correctness;
+		for (final PositiveLiteral literal : literals) {
+			final Correctness literalCorrectness = this.getCorrectness(literal.getPredicate());
+			if (literalCorrectness != Correctness.SOUND_AND_COMPLETE) {
+				answerCorrectness = literalCorrectness;
+			}
+		}
+		this.logWarningOnCorrectness(answerCorrectness);
+		return new VLogConjunctiveQueryResultIterator(this.vLog, this.termCache, steps, variables.size(),
+				answerVariableIndices, includeNulls, answerCorrectness);
+	}
+
+	/**
+	 * Prepares the lookup of a literal of a conjunctive query. Variables that are
+	 * bound by previous lookups are marked for substitution, and the remaining
+	 * variables are numbered as expected by VLog.
+	 *
+	 * @param literal        the literal to look up
+	 * @param variables      all variables of the query
+	 * @param boundVariables variables bound by previous lookups, to which the
+	 *                       variables of {@code literal} are added
+	 * @param constantIds    map from constant names to VLog ids, shared by all
+	 *                       lookups of the query
+	 * @return the join step for the literal
+	 * @throws NotStartedException
+	 */
+	private VLogConjunctiveQueryResultIterator.JoinStep createJoinStep(final PositiveLiteral literal,
+			final List<Variable> variables, final Set<Variable> boundVariables, final Map<String, Long> constantIds)
+			throws NotStartedException {
+		final karmaresearch.vlog.Atom vLogAtom = ModelToVLogConverter.toVLogAtom(literal);
+		final int predicateId = this.vLog.getPredicateId(vLogAtom.getPredicate());
+		final List<Term> arguments = literal.getArguments();
+		final long[] pattern = new long[arguments.size()];
+		final int[] previouslyBound = new int[pattern.length];
+		final int[] newlyBound = new int[pattern.length];
+		Arrays.fill(previouslyBound, -1);
+		Arrays.fill(newlyBound, -1);
+
+		final List<Variable> newVariables = new ArrayList<>();
+		for (int i = 0; i < pattern.length; i++) {
+			final Term argument = arguments.get(i);
+			if (!argument.isVariable()) {
+				pattern[i] = this.extractTerms(new karmaresearch.vlog.Term[] { vLogAtom.getTerms()[i] },
+						constantIds)[0];
+			} else if (boundVariables.contains(argument)) {
+				previouslyBound[i] = variables.indexOf(argument);
+			} else {
+				int localIndex = newVariables.indexOf(argument);
+				if (localIndex < 0) {
+					newVariables.add((Variable) argument);
+					localIndex = newVariables.size() - 1;
+					newlyBound[i] = variables.indexOf(argument);
+				}
+				pattern[i] = -localIndex - 1;
+			}
+		}
+		boundVariables.addAll(newVariables);
+		return new VLogConjunctiveQueryResultIterator.JoinStep(predicateId, pattern, previouslyBound, newlyBound);
+	}
+
+	@Override
+	public Term getTermForId(final long id) {
+		this.validateBeforeDictionaryLookup();
+		Term term = this.termCache.get(id);
+		if (term == null) {
+			try {
+				term = VLogToModelConverter.toTerm(id, this.vLog);
+			} catch (final NotStartedException e) {
+				throw new RulewerkRuntimeException("Inconsistent reasoner state.", e);
+			}
+			this.termCache.put(id, term);
+		}
+		return term;
+	}
+
+	@Override
+	public long getIdForTerm(final Term term) {
+		this.validateBeforeDictionaryLookup();
+		Validate.notNull(term, "Term cannot be null!");
+		Validate.isTrue(term.isConstant(), "Only constants have ids that can be looked up: %s", term);
+		try {
+			return this.vLog.getConstantId(ModelToVLogConverter.toVLogTerm(term).getName());
+		} catch (final NotStartedException e) {
+			throw new RulewerkRuntimeException("Inconsistent reasoner state.", e);
+		}
+	}
+
+	private void validateBeforeDictionaryLookup() {
+		this.validateNotClosed();
+		if (this.reasonerState == ReasonerState.KB_NOT_LOADED) {
+			throw new ReasonerStateException(this.reasonerState,
+					"Looking up term ids is not allowed before Reasoner#reason() was first called!");
+		}
 	}
 
 	private QueryResultIterator createEmptyResultIterator(final PositiveLiteral query) {
@@ -411,9 +1114,35 @@ public class VLogReasoner implements Reasoner {
 		return new EmptyQueryResultIterator(answerCorrectness);
 	}
 
+	/**
+	 * Returns the correctness of the answers to queries for the given predicate,
+	 * which may be lower than the {@link #getCorrectness()} of the reasoner if the
+	 * {@link #ruleSetOptimizer} removed rules deriving facts for it.
+	 */
+	private Correctness getCorrectness(final Predicate predicate) {
+		if (this.correctness == Correctness.SOUND_AND_COMPLETE && this.incompletePredicates.contains(predicate)) {
+			return Correctness.SOUND_BUT_INCOMPLETE;
+		}
+		return this.correctness;
+	}
+
+	/**
+	 * Returns the correctness of all inferences, which is lower than the
+	 * {@link #getCorrectness()} of the reasoner if the {@link #ruleSetOptimizer}
+	 * removed rules deriving facts for predicates that are not output predicates.
+	 */
+	private Correctness getInferencesCorrectness() {
+		if (this.correctness == Correctness.SOUND_AND_COMPLETE && !this.incompletePredicates.isEmpty()) {
+			return Correctness.SOUND_BUT_INCOMPLETE;
+		}
+		return this.correctness;
+	}
+
 	private Correctness getCorrectnessUnknownPredicate(final PositiveLiteral query) {
 		final Correctness answerCorrectness;
-		if (this.reasonerState == ReasonerState.MATERIALISED) {
+		if (this.incompletePredicates.contains(query.getPredicate())) {
+			answerCorrectness = this.getCorrectness(query.getPredicate());
+		} else if (this.reasonerState == ReasonerState.MATERIALISED) {
 			this.warnUnknownPredicate(query);
 			answerCorrectness = Correctness.SOUND_AND_COMPLETE;
 		} else {
@@ -437,6 +1166,22 @@ public class VLogReasoner implements Reasoner {
 	 * @throws NotStartedException
 	 */
 	private long[] extractTerms(final karmaresearch.vlog.Term[] terms) throws NotStartedException {
+		return this.extractTerms(terms, null);
+	}
+
+	/**
+	 * Encodes the given terms like {@link #extractTerms(karmaresearch.vlog.Term[])},
+	 * but looks up constants in the given map first, and records newly resolved
+	 * constant ids there. Useful for encoding many queries that share constants.
+	 *
+	 * @param terms       VLog terms to encode
+	 * @param constantIds map from constant names to VLog ids, or {@code null} to
+	 *                    always ask VLog
+	 * @return encoded terms
+	 * @throws NotStartedException
+	 */
+	private long[] extractTerms(final karmaresearch.vlog.Term[] terms, final Map<String, Long> constantIds)
+			throws NotStartedException {
 		final ArrayList<String> variables = new ArrayList<>();
 		final long[] longTerms = new long[terms.length];
 		for (int i = 0; i < terms.length; i++) {
@@ -453,8 +1198,16 @@ public class VLogReasoner implements Reasoner {
 					variables.add(terms[i].getName());
 					longTerms[i] = -variables.size();
 				}
-			} else {
+			} else if (constantIds == null) {
 				longTerms[i] = this.vLog.getOrAddConstantId(terms[i].getName());
+			} else {
+				final String name = terms[i].getName();
+				Long id = constantIds.get(name);
+				if (id == null) {
+					id = this.vLog.getOrAddConstantId(name);
+					constantIds.put(name, id);
+				}
+				longTerms[i] = id;
 			}
 		}
 		return longTerms;
@@ -464,6 +1217,15 @@ public class VLogReasoner implements Reasoner {
 	public QueryAnswerCount countQueryAnswers(final PositiveLiteral query, final boolean includeNulls) {
 		this.validateBeforeQuerying(query);
 
+		final VLogQueryAnswerCache answerCache = this.getActiveQueryAnswerCache();
+		if (answerCache != null) {
+			final QueryAnswerCount cachedCount = answerCache.getCount(query, includeNulls);
+			if (cachedCount != null) {
+				this.logWarningOnCorrectness(cachedCount.getCorrectness());
+				return cachedCount;
+			}
+		}
+
 		final boolean filterBlanks = !includeNulls;
 		final karmaresearch.vlog.Atom vLogAtom = ModelToVLogConverter.toVLogAtom(query);
 
@@ -475,8 +1237,248 @@ public class VLogReasoner implements Reasoner {
 		} catch (final NonExistingPredicateException e) {
 			return this.createEmptyResultCount(query);
 		}
-		this.logWarningOnCorrectness(this.correctness);
-		return new QueryAnswerCountImpl(this.correctness, result);
+		final Correctness answerCorrectness = this.getCorrectness(query.getPredicate());
+		this.logWarningOnCorrectness(answerCorrectness);
+		final QueryAnswerCount count = new QueryAnswerCountImpl(answerCorrectness, result);
+		if (answerCache != null) {
+			answerCache.putCount(query, includeNulls, count);
+		}
+		return count;
+	}
+
+	/**
+	 * @return the query answer cache if answers can currently be cached, or
+	 *         {@code null} otherwise
+	 */
+	private VLogQueryAnswerCache getActiveQueryAnswerCache() {
+		return this.reasonerState == ReasonerState.MATERIALISED ? this.queryAnswerCache : null;
+	}
+
+	private void clearQueryAnswerCache() {
+		if (this.queryAnswerCache != null) {
+			this.queryAnswerCache.clear();
+		}
+	}
+
+	@Override
+	public Map<PositiveLiteral, QueryResultIterator> answerQueries(final Collection<PositiveLiteral> queries,
+			final boolean includeNulls) {
+		return this.evaluateQueries(queries, includeNulls, new VLogQueryEvaluation<QueryResultIterator>() {
+			@Override
+			public QueryResultIterator evaluate(final PositiveLiteral query, final int predicateId,
+					final long[] terms) throws NotStartedException, NonExistingPredicateException {
+				final karmaresearch.vlog.QueryResultIterator answers = VLogReasoner.this.vLog.query(predicateId,
+						terms, true, !includeNulls);
+				return ListQueryResultIterator.collect(new VLogFastQueryResultIterator(answers,
+						VLogReasoner.this.getCorrectness(query.getPredicate()), VLogReasoner.this.vLog,
+						VLogReasoner.this.termCache));
+			}
+
+			@Override
+			public QueryResultIterator fromAnswers(final PositiveLiteral query, final List<long[]> answers) {
+				final List<QueryResult> results = new ArrayList<>(answers.size());
+				for (final long[] answer : answers) {
+					final Term[] terms = new Term[answer.length];
+					for (int i = 0; i < answer.length; i++) {
+						terms[i] = VLogReasoner.this.getTermForId(answer[i]);
+					}
+					results.add(new QueryResultImpl(Arrays.asList(terms)));
+				}
+				return new ListQueryResultIterator(results, VLogReasoner.this.getCorrectness(query.getPredicate()));
+			}
+		}, correctness -> new ListQueryResultIterator(Collections.emptyList(), correctness));
+	}
+
+	@Override
+	public Map<PositiveLiteral, QueryAnswerCount> countQueryAnswersBatch(final Collection<PositiveLiteral> queries,
+			final boolean includeNulls) {
+		return this.evaluateQueries(queries, includeNulls, new VLogQueryEvaluation<QueryAnswerCount>() {
+			@Override
+			public QueryAnswerCount evaluate(final PositiveLiteral query, final int predicateId, final long[] terms)
+					throws NotStartedException, NonExistingPredicateException {
+				final long count = VLogReasoner.this.vLog.nativeQuerySize(predicateId, terms, true, !includeNulls);
+				return new QueryAnswerCountImpl(VLogReasoner.this.getCorrectness(query.getPredicate()), count);
+			}
+
+			@Override
+			public QueryAnswerCount fromAnswers(final PositiveLiteral query, final List<long[]> answers) {
+				return new QueryAnswerCountImpl(VLogReasoner.this.getCorrectness(query.getPredicate()),
+						answers.size());
+			}
+		}, correctness -> new QueryAnswerCountImpl(correctness, 0));
+	}
+
+	/**
+	 * Evaluation of queries on VLog, given the VLog id of their predicate and
+	 * their terms as encoded by {@link #extractTerms(karmaresearch.vlog.Term[])}.
+	 */
+	private interface VLogQueryEvaluation<T> {
+		/**
+		 * Evaluates a single query.
+		 */
+		T evaluate(PositiveLiteral query, int predicateId, long[] terms)
+				throws NotStartedException, NonExistingPredicateException;
+
+		/**
+		 * Creates the result of a query from its answers, which have been found by
+		 * a query shared with other queries.
+		 */
+		T fromAnswers(PositiveLiteral query, List<long[]> answers);
+	}
+
+	/**
+	 * Evaluates a batch of queries. Queries are grouped by predicate so that each
+	 * predicate is looked up in VLog only once, and each distinct constant is
+	 * resolved only once for the whole batch. Queries of the same predicate that
+	 * differ only in their constants are evaluated together, by a single query
+	 * with variables in place of the constants, unless this query has more than
+	 * {@link #SHARED_QUERY_ANSWERS_PER_QUERY} answers for each of the queries.
+	 *
+	 * @param queries          the queries to evaluate
+	 * @param includeNulls     whether answers containing named nulls are included
+	 * @param evaluation       evaluation of queries whose predicate is known to
+	 *                         VLog
+	 * @param emptyResultMaker creates the result for queries whose predicate is
+	 *                         unknown to VLog, given the correctness of the answer
+	 * @return map from each distinct query to its result, in the order of the
+	 *         given queries
+	 */
+	private <T> Map<PositiveLiteral, T> evaluateQueries(final Collection<PositiveLiteral> queries,
+			final boolean includeNulls, final VLogQueryEvaluation<T> evaluation,
+			final Function<Correctness, T> emptyResultMaker) {
+		Validate.notNull(queries, "Query atoms must not be null!");
+		final Map<Predicate, List<PositiveLiteral>> queriesByPredicate = new LinkedHashMap<>();
+		final Map<PositiveLiteral, T> results = new LinkedHashMap<>();
+		for (final PositiveLiteral query : queries) {
+			this.validateBeforeQuerying(query);
+			if (!results.containsKey(query)) {
+				// reserve the position of the query in the result map
+				results.put(query, null);
+				queriesByPredicate.computeIfAbsent(query.getPredicate(), predicate -> new ArrayList<>()).add(query);
+			}
+		}
+
+		final Map<String, Long> constantIds = new HashMap<>();
+		Correctness answerCorrectness = null;
+		try {
+			for (final Entry<Predicate, List<PositiveLiteral>> entry : queriesByPredicate.entrySet()) {
+				final int predicateId = this.vLog
+						.getPredicateId(ModelToVLogConverter.toVLogPredicate(entry.getKey()));
+				// queries by the positions of their variables and constants
+				final Map<List<Long>, Map<PositiveLiteral, long[]>> queriesByPattern = new LinkedHashMap<>();
+				for (final PositiveLiteral query : entry.getValue()) {
+					final long[] terms = this.extractTerms(ModelToVLogConverter.toVLogAtom(query).getTerms(),
+							constantIds);
+					queriesByPattern.computeIfAbsent(getQueryPattern(terms), pattern -> new LinkedHashMap<>())
+							.put(query, terms);
+				}
+
+				try {
+					for (final Map<PositiveLiteral, long[]> group : queriesByPattern.values()) {
+						if (group.size() == 1 || !this.evaluateTogether(group, predicateId, includeNulls,
+								evaluation, results)) {
+							for (final Entry<PositiveLiteral, long[]> query : group.entrySet()) {
+								results.put(query.getKey(),
+										evaluation.evaluate(query.getKey(), predicateId, query.getValue()));
+							}
+						}
+					}
+					if (answerCorrectness != Correctness.SOUND_BUT_INCOMPLETE) {
+						answerCorrectness = this.getCorrectness(entry.getKey());
+					}
+				} catch (final NonExistingPredicateException e) {
+					final Correctness unknownPredicateCorrectness = this
+							.getCorrectnessUnknownPredicate(entry.getValue().get(0));
+					this.logWarningOnCorrectness(unknownPredicateCorrectness);
+					for (final PositiveLiteral query : entry.getValue()) {
+						results.put(query, emptyResultMaker.apply(unknownPredicateCorrectness));
+					}
+				}
+			}
+		} catch (final NotStartedException e) {
+			throw new RulewerkRuntimeException("Inconsistent reasoner state.", e);
+		}
+
+		if (answerCorrectness != null) {
+			this.logWarningOnCorrectness(answerCorrectness);
+		}
+		return results;
+	}
+
+	/**
+	 * Evaluates queries with the same pattern (see
+	 * {@link #getQueryPattern(long[])}) by a single query that has fresh variables
+	 * in place of their constants, and distributes its answers by the values at
+	 * the positions of the constants.
+	 *
+	 * @return false if nothing has been evaluated, since the shared query has too
+	 *         many answers
+	 */
+	private <T> boolean evaluateTogether(final Map<PositiveLiteral, long[]> group, final int predicateId,
+			final boolean includeNulls, final VLogQueryEvaluation<T> evaluation, final Map<PositiveLiteral, T> results)
+			throws NotStartedException, NonExistingPredicateException {
+		final long[] firstTerms = group.values().iterator().next();
+		final long[] sharedTerms = new long[firstTerms.length];
+		final List<Integer> constantPositions = new ArrayList<>();
+		long variableCount = 0;
+		for (int i = 0; i < firstTerms.length; i++) {
+			variableCount = Math.max(variableCount, -firstTerms[i]);
+		}
+		for (int i = 0; i < firstTerms.length; i++) {
+			if (firstTerms[i] < 0) {
+				sharedTerms[i] = firstTerms[i];
+			} else {
+				sharedTerms[i] = -++variableCount;
+				constantPositions.add(i);
+			}
+		}
+
+		final long answerCount = this.vLog.nativeQuerySize(predicateId, sharedTerms, true, !includeNulls);
+		if (answerCount > (long) group.size() * SHARED_QUERY_ANSWERS_PER_QUERY) {
+			return false;
+		}
+
+		final Map<List<Long>, List<long[]>> answersByConstants = new HashMap<>();
+		for (final long[] terms : group.values()) {
+			answersByConstants.put(getValues(terms, constantPositions), new ArrayList<>());
+		}
+		try (final karmaresearch.vlog.QueryResultIterator answers = this.vLog.query(predicateId, sharedTerms, true,
+				!includeNulls)) {
+			while (answers.hasNext()) {
+				final long[] answer = answers.next();
+				final List<long[]> matchingAnswers = answersByConstants.get(getValues(answer, constantPositions));
+				if (matchingAnswers != null) {
+					matchingAnswers.add(answer);
+				}
+			}
+		}
+		for (final Entry<PositiveLiteral, long[]> query : group.entrySet()) {
+			results.put(query.getKey(), evaluation.fromAnswers(query.getKey(),
+					answersByConstants.get(getValues(query.getValue(), constantPositions))));
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the pattern of the given encoded query terms, which is the same for
+	 * queries that only differ in their constants (and in the names of their
+	 * variables).
+	 */
+	private static List<Long> getQueryPattern(final long[] terms) {
+		final List<Long> pattern = new ArrayList<>(terms.length);
+		for (final long term : terms) {
+			// constant ids are never negative
+			pattern.add(term < 0 ? term : 0);
+		}
+		return pattern;
+	}
+
+	private static List<Long> getValues(final long[] terms, final List<Integer> positions) {
+		final List<Long> values = new ArrayList<>(positions.size());
+		for (final int position : positions) {
+			values.add(terms[position]);
+		}
+		return values;
 	}
 
 	private QueryAnswerCount createEmptyResultCount(final PositiveLiteral query) {
@@ -504,8 +1506,9 @@ public class VLogReasoner implements Reasoner {
 			this.logWarningOnCorrectness(correctness);
 			return correctness;
 		}
-		this.logWarningOnCorrectness(this.correctness);
-		return this.correctness;
+		final Correctness correctness = this.getCorrectness(query.getPredicate());
+		this.logWarningOnCorrectness(correctness);
+		return correctness;
 	}
 
 	private void validateBeforeQuerying(final PositiveLiteral query) {
@@ -519,36 +1522,358 @@ public class VLogReasoner implements Reasoner {
 
 	@Override
 	public Correctness forEachInference(final InferenceAction action) throws IOException {
-		this.validateNotClosed();
-		if (this.reasonerState == ReasonerState.KB_NOT_LOADED) {
-			throw new ReasonerStateException(this.reasonerState,
-					"Obtaining inferences is not alowed before reasoner is loaded!");
+		this.validateBeforeObtainingInferences();
+
+		try (final VLogInferenceIterator inferences = new VLogInferenceIterator(this.vLog,
+				this.getKnowledgeBasePredicates())) {
+			while (inferences.hasNext()) {
+				final Fact inference = inferences.next();
+				action.accept(inference.getPredicate(), inference.getArguments());
+			}
 		}
-		final Set<Predicate> toBeQueriedHeadPredicates = this.getKnowledgeBasePredicates();
 
-		for (final Predicate predicate : toBeQueriedHeadPredicates) {
-			final PositiveLiteral queryAtom = this.getQueryAtom(predicate);
-			final karmaresearch.vlog.Atom vLogAtom = ModelToVLogConverter.toVLogAtom(queryAtom);
-			try (final TermQueryResultIterator answers = this.vLog.query(vLogAtom, true, false)) {
-				while (answers.hasNext()) {
-					final karmaresearch.vlog.Term[] vlogTerms = answers.next();
-					final List<Term> termList = VLogToModelConverter.toTermList(vlogTerms);
-					action.accept(predicate, termList);
+		final Correctness correctness = this.getInferencesCorrectness();
+		this.logWarningOnCorrectness(correctness);
+		return correctness;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * The returned stream is lazy: VLog is queried for one predicate at a time, as
+	 * the stream is consumed, so that memory use does not depend on the size of
+	 * the materialisation. The stream should be closed if it is not consumed
+	 * completely, in order to release the underlying VLog resources.
+	 */
+	@Override
+	public Stream<Fact> getInferences() {
+		this.validateBeforeObtainingInferences();
+
+		this.logWarningOnCorrectness(this.getInferencesCorrectness());
+		final VLogInferenceIterator inferences = new VLogInferenceIterator(this.vLog,
+				this.getKnowledgeBasePredicates());
+		return StreamSupport
+				.stream(Spliterators.spliteratorUnknownSize(inferences, Spliterator.DISTINCT | Spliterator.NONNULL),
+						false)
+				.onClose(inferences::close);
+	}
+
+	/**
+	 * Exports all the (explicit and implicit) facts inferred during reasoning to
+	 * the given writer, in the same order as {@link #writeInferences(Writer)}.
+	 * VLog is queried for one predicate after the other on the calling thread, and
+	 * the inferences are serialised in batches by the given number of threads. The
+	 * calling thread writes the serialised batches in their original order.
+	 *
+	 * @param writer  the writer used to write inferences
+	 * @param threads number of threads used for serialising
+	 * @return the correctness of the inferences, depending on the state of the
+	 *         reasoning (materialisation) and its {@link KnowledgeBase}.
+	 * @throws IOException if an I/O error occurs while writing inferences
+	 */
+	public Correctness writeInferences(final Writer writer, final int threads) throws IOException {
+		Validate.notNull(writer, "Writer cannot be null!");
+		Validate.isTrue(threads > 0, "Only strictly positive number of threads allowed!", threads);
+		this.validateBeforeObtainingInferences();
+
+		final PrefixDeclarationRegistry prefixDeclarationRegistry = this.knowledgeBase.getPrefixDeclarationRegistry();
+		new Serializer(writer, prefixDeclarationRegistry).writePrefixDeclarationRegistry(prefixDeclarationRegistry);
+
+		final ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			final Deque<Future<String>> serialisedBatches = new ArrayDeque<>();
+			final int maxPendingBatches = threads * EXPORT_QUEUE_CAPACITY;
+			for (final Predicate predicate : this.getKnowledgeBasePredicates()) {
+				try (final VLogInferenceIterator inferences = new VLogInferenceIterator(this.vLog,
+						Collections.singleton(predicate))) {
+					while (inferences.hasNext()) {
+						final List<List<Term>> batch = new ArrayList<>(EXPORT_BATCH_SIZE);
+						while (inferences.hasNext() && batch.size() < EXPORT_BATCH_SIZE) {
+							batch.add(inferences.next().getArguments());
+						}
+						serialisedBatches.add(executor.submit(() -> {
+							final StringWriter serialisedBatch = new StringWriter();
+							this.writeInferences(predicate, batch, serialisedBatch, prefixDeclarationRegistry);
+							return serialisedBatch.toString();
+						}));
+						while (serialisedBatches.size() > maxPendingBatches) {
+							writer.write(this.waitForExport(serialisedBatches.poll()));
+						}
+					}
 				}
-			} catch (final NotStartedException e) {
-				throw new RulewerkRuntimeException("Inconsistent reasoner state.", e);
-			} catch (final NonExistingPredicateException e1) {
-				throw new RulewerkRuntimeException("Inconsistent knowledge base state.", e1);
 			}
+			while (!serialisedBatches.isEmpty()) {
+				writer.write(this.waitForExport(serialisedBatches.poll()));
+			}
+		} finally {
+			executor.shutdownNow();
 		}
 
-		this.logWarningOnCorrectness(this.correctness);
-		return this.correctness;
+		final Correctness correctness = this.getInferencesCorrectness();
+		this.logWarningOnCorrectness(correctness);
+		return correctness;
+	}
+
+	/**
+	 * Exports all the (explicit and implicit) facts inferred during reasoning,
+	 * writing the inferences of each predicate to a separate {@link Writer}. VLog
+	 * is queried for one predicate after the other on the calling thread, and the
+	 * inferences are passed on in batches to the given number of threads, which
+	 * serialise them and write them to the writers of their predicates. Unlike
+	 * {@link #writeInferences(Writer, int)}, writers of different predicates are
+	 * written concurrently. Every writer starts with the prefix declarations of
+	 * the knowledge base, so that its contents can be parsed on its own, and is
+	 * closed after all inferences for its predicate have been written.
+	 *
+	 * @param writerFactory used to open a writer for each predicate; it may be
+	 *                      called concurrently from several threads
+	 * @param threads       number of threads used for writing
+	 * @return the correctness of the inferences, depending on the state of the
+	 *         reasoning (materialisation) and its {@link KnowledgeBase}.
+	 * @throws IOException if an I/O error occurs while writing inferences
+	 */
+	public Correctness writeInferences(final InferenceWriterFactory writerFactory, final int threads)
+			throws IOException {
+		Validate.notNull(writerFactory, "Writer factory cannot be null!");
+		Validate.isTrue(threads > 0, "Only strictly positive number of threads allowed!", threads);
+		this.validateBeforeObtainingInferences();
+
+		final ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			final List<Future<Void>> exports = new ArrayList<>();
+			for (final Predicate predicate : this.getKnowledgeBasePredicates()) {
+				final BlockingQueue<List<List<Term>>> batches = new ArrayBlockingQueue<>(EXPORT_QUEUE_CAPACITY);
+				final Future<Void> export = executor.submit(() -> {
+					this.writeInferences(predicate, batches, writerFactory);
+					return null;
+				});
+				exports.add(export);
+				this.queryInferences(predicate, batches, export);
+			}
+			for (final Future<Void> export : exports) {
+				this.waitForExport(export);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		final Correctness correctness = this.getInferencesCorrectness();
+		this.logWarningOnCorrectness(correctness);
+		return correctness;
+	}
+
+	/**
+	 * Exports all the (explicit and implicit) facts inferred during reasoning to
+	 * one file per predicate in the given directory, using the given number of
+	 * threads. See {@link #writeInferences(InferenceWriterFactory, int)}.
+	 *
+	 * @param directory an existing directory to which the files are written
+	 * @param threads   number of threads used for writing
+	 * @return the correctness of the inferences, depending on the state of the
+	 *         reasoning (materialisation) and its {@link KnowledgeBase}.
+	 * @throws IOException if an I/O error occurs while writing inferences
+	 */
+	public Correctness writeInferences(final File directory, final int threads) throws IOException {
+		Validate.notNull(directory, "Directory cannot be null!");
+		Validate.isTrue(directory.isDirectory(), "Expected an existing directory [%s]!", directory);
+		return this.writeInferences(predicate -> new OutputStreamWriter(
+				new FileOutputStream(new File(directory, getInferencesFileName(predicate))), StandardCharsets.UTF_8),
+				threads);
+	}
+
+	/**
+	 * Returns the name of the file to which the inferences of the given predicate
+	 * are written by {@link #writeInferences(File, int)}. Distinct predicates
+	 * yield distinct file names. Encoded names longer than
+	 * {@link #MAX_ENCODED_NAME_LENGTH} characters are shortened and followed by a
+	 * hash of the predicate name, which keeps file names within the limits of
+	 * common file systems.
+	 *
+	 * @param predicate a predicate
+	 * @return a file name of the form {@code <encoded name>_<arity>.rls} or
+	 *         {@code <shortened encoded name>~<hash>_<arity>.rls}
+	 */
+	static String getInferencesFileName(final Predicate predicate) {
+		final String name = predicate.getName();
+		String encodedName;
+		try {
+			encodedName = URLEncoder.encode(name, StandardCharsets.UTF_8.name()).replace("*", "%2A");
+		} catch (final UnsupportedEncodingException e) {
+			throw new RulewerkRuntimeException(e); // UTF-8 is always supported
+		}
+		// encoded names never contain '~', so shortened names cannot clash with others
+		if (encodedName.length() > MAX_ENCODED_NAME_LENGTH) {
+			encodedName = encodedName.substring(0, MAX_ENCODED_NAME_LENGTH - 65) + "~" + getHash(name);
+		}
+		return encodedName + "_" + predicate.getArity() + ".rls";
+	}
+
+	/**
+	 * @return hexadecimal SHA-256 hash of the given string
+	 */
+	private static String getHash(final String string) {
+		try {
+			final byte[] hash = MessageDigest.getInstance("SHA-256").digest(string.getBytes(StandardCharsets.UTF_8));
+			final StringBuilder hexHash = new StringBuilder(2 * hash.length);
+			for (final byte b : hash) {
+				hexHash.append(String.format("%02x", b));
+			}
+			return hexHash.toString();
+		} catch (final NoSuchAlgorithmException e) { // every Java platform supports SHA-256
+			throw new RulewerkRuntimeException(e);
+		}
+	}
+
+	/**
+	 * Queries VLog for the inferences of the given predicate and passes them to
+	 * its export in batches, followed by an empty batch to mark the end.
+	 */
+	private void queryInferences(final Predicate predicate, final BlockingQueue<List<List<Term>>> batches,
+			final Future<Void> export) throws IOException {
+		try (final VLogInferenceIterator inferences = new VLogInferenceIterator(this.vLog,
+				Collections.singleton(predicate))) {
+			List<List<Term>> batch = new ArrayList<>(EXPORT_BATCH_SIZE);
+			while (inferences.hasNext()) {
+				batch.add(inferences.next().getArguments());
+				if (batch.size() == EXPORT_BATCH_SIZE) {
+					this.passToExport(batch, batches, export);
+					batch = new ArrayList<>(EXPORT_BATCH_SIZE);
+				}
+			}
+			if (!batch.isEmpty()) {
+				this.passToExport(batch, batches, export);
+			}
+			this.passToExport(Collections.emptyList(), batches, export);
+		}
+	}
+
+	/**
+	 * Waits until the given batch can be passed to the export, unless the export
+	 * fails in the meantime.
+	 */
+	private void passToExport(final List<List<Term>> batch, final BlockingQueue<List<List<Term>>> batches,
+			final Future<Void> export) throws IOException {
+		try {
+			while (!batches.offer(batch, 100, TimeUnit.MILLISECONDS)) {
+				if (export.isDone()) {
+					// exports only finish early if they fail
+					this.waitForExport(export);
+				}
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RulewerkRuntimeException("Interrupted while exporting inferences.", e);
+		}
+	}
+
+	private void writeInferences(final Predicate predicate, final BlockingQueue<List<List<Term>>> batches,
+			final InferenceWriterFactory writerFactory) throws IOException, InterruptedException {
+		final PrefixDeclarationRegistry prefixDeclarationRegistry = this.knowledgeBase.getPrefixDeclarationRegistry();
+		try (final Writer writer = writerFactory.openWriter(predicate)) {
+			new Serializer(writer, prefixDeclarationRegistry).writePrefixDeclarationRegistry(prefixDeclarationRegistry);
+			List<List<Term>> batch;
+			while (!(batch = batches.take()).isEmpty()) {
+				this.writeInferences(predicate, batch, writer, prefixDeclarationRegistry);
+			}
+		}
+	}
+
+	private void writeInferences(final Predicate predicate, final List<List<Term>> batch, final Writer writer,
+			final PrefixDeclarationRegistry prefixDeclarationRegistry) throws IOException {
+		final Serializer serializer = new Serializer(writer, prefixDeclarationRegistry);
+		for (final List<Term> terms : batch) {
+			serializer.writePositiveLiteral(predicate, terms);
+			writer.write(" .\n");
+		}
+	}
+
+	private <T> T waitForExport(final Future<T> export) throws IOException {
+		try {
+			return export.get();
+		} catch (final ExecutionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new RulewerkRuntimeException("Error while exporting inferences.", cause);
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RulewerkRuntimeException("Interrupted while exporting inferences.", e);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * The facts of each predicate are written to a gzipped CSV file, which VLog
+	 * loads natively, together with a manifest of the predicates in the snapshot
+	 * and the correctness of the model. Use {@link #loadSnapshot(File)} to start a
+	 * reasoner from the written directory. Only materialised models can be
+	 * exported.
+	 *
+	 * VLog cannot load nulls from files, so nulls introduced during reasoning are
+	 * written as skolem constants. After loading the snapshot, they are therefore
+	 * returned as constants, also by queries that exclude nulls.
+	 *
+	 * @throws ReasonerStateException if the reasoner is not in state
+	 *                                {@link ReasonerState#MATERIALISED}
+	 */
+	@Override
+	public Map<Predicate, DataSource> exportDBToDir(final File location) throws IOException {
+		Validate.notNull(location, "Directory cannot be null!");
+		this.validateNotClosed();
+		if (this.reasonerState != ReasonerState.MATERIALISED) {
+			throw new ReasonerStateException(this.reasonerState,
+					"Exporting the model is only allowed after Reasoner#reason() has materialised it!");
+		}
+
+		final Correctness modelCorrectness = this.getInferencesCorrectness();
+		final Map<Predicate, DataSource> dataSources = VLogSnapshot.write(this.vLog,
+				this.getKnowledgeBasePredicates(), modelCorrectness, location);
+		this.logWarningOnCorrectness(modelCorrectness);
+		return dataSources;
+	}
+
+	/**
+	 * Creates a reasoner for a snapshot of a materialised model written by
+	 * {@link #exportDBToDir(File)}. The knowledge base of the reasoner consists of
+	 * data source declarations for the facts of the snapshot only, and has no
+	 * rules, so that reasoning merely loads the facts into VLog. The returned
+	 * reasoner has already been loaded and is ready for querying. Its answers have
+	 * the correctness of the exported model, and nulls of the exported model are
+	 * returned as skolem constants.
+	 *
+	 * @param location the directory of the snapshot
+	 * @return a materialised reasoner for the snapshot
+	 * @throws IOException if the snapshot could not be read
+	 */
+	public static VLogReasoner loadSnapshot(final File location) throws IOException {
+		Validate.notNull(location, "Directory cannot be null!");
+		final VLogSnapshot snapshot = VLogSnapshot.read(location);
+		final VLogReasoner reasoner = new VLogReasoner(snapshot.getKnowledgeBase());
+		reasoner.snapshotCorrectness = snapshot.getCorrectness();
+		try {
+			reasoner.reason();
+		} catch (final IOException | RuntimeException e) {
+			reasoner.close();
+			throw e;
+		}
+		return reasoner;
+	}
+
+	private void validateBeforeObtainingInferences() {
+		this.validateNotClosed();
+		if (this.reasonerState == ReasonerState.KB_NOT_LOADED) {
+			throw new ReasonerStateException(this.reasonerState,
+					"Obtaining inferences is not alowed before reasoner is loaded!");
+		}
 	}
 
 	private void logWarningOnCorrectness(final Correctness correctness) {
 		if (correctness != Correctness.SOUND_AND_COMPLETE) {
-			LOGGER.warn("Query answers may be {} with respect to the current Knowledge Base!", this.correctness);
+			LOGGER.warn("Query answers may be {} with respect to the current Knowledge Base!", correctness);
 		}
 	}
 
@@ -556,7 +1881,10 @@ public class VLogReasoner implements Reasoner {
 	public void resetReasoner() {
 		this.validateNotClosed();
 		this.reasonerState = ReasonerState.KB_NOT_LOADED;
+		this.clearPendingChanges();
 		this.vLog.stop();
+		this.termCache.clear();
+		this.clearQueryAnswerCache();
 		LOGGER.info("Reasoner has been reset. All inferences computed during reasoning have been discarded.");
 	}
 
@@ -567,7 +1895,10 @@ public class VLogReasoner implements Reasoner {
 		} else {
 			this.reasonerState = ReasonerState.CLOSED;
 			this.knowledgeBase.deleteListener(this);
+			this.vLogKnowledgeBase = null;
 			this.vLog.stop();
+			this.termCache.clear();
+			this.clearQueryAnswerCache();
 			LOGGER.info("Reasoner closed.");
 		}
 	}
@@ -650,6 +1981,10 @@ public class VLogReasoner implements Reasoner {
 		// TODO more elaborate materialisation state handling
 
 		this.updateReasonerToKnowledgeBaseChanged();
+		statementsAdded.forEach(this::recordStatementAdded);
+		if (this.vLogKnowledgeBase != null) {
+			statementsAdded.forEach(this.vLogKnowledgeBase::addStatement);
+		}
 
 		// updateCorrectnessOnStatementsAdded(statementsAdded);
 		this.updateCorrectnessOnStatementsAdded();
@@ -660,6 +1995,10 @@ public class VLogReasoner implements Reasoner {
 		// TODO more elaborate materialisation state handling
 
 		this.updateReasonerToKnowledgeBaseChanged();
+		this.recordStatementAdded(statementAdded);
+		if (this.vLogKnowledgeBase != null) {
+			this.vLogKnowledgeBase.addStatement(statementAdded);
+		}
 
 		// updateCorrectnessOnStatementAdded(statementAdded);
 		this.updateCorrectnessOnStatementsAdded();
@@ -668,12 +2007,20 @@ public class VLogReasoner implements Reasoner {
 	@Override
 	public void onStatementRemoved(final Statement statementRemoved) {
 		this.updateReasonerToKnowledgeBaseChanged();
+		this.recordStatementRemoved(statementRemoved);
+		if (this.vLogKnowledgeBase != null) {
+			this.vLogKnowledgeBase.removeStatement(statementRemoved);
+		}
 		this.updateCorrectnessOnStatementsRemoved();
 	}
 
 	@Override
 	public void onStatementsRemoved(final List<Statement> statementsRemoved) {
 		this.updateReasonerToKnowledgeBaseChanged();
+		statementsRemoved.forEach(this::recordStatementRemoved);
+		if (this.vLogKnowledgeBase != null) {
+			statementsRemoved.forEach(this.vLogKnowledgeBase::removeStatement);
+		}
 		this.updateCorrectnessOnStatementsRemoved();
 	}
 
@@ -693,14 +2040,6 @@ public class VLogReasoner implements Reasoner {
 		return toBeQueriedHeadPredicates;
 	}
 
-	private PositiveLiteral getQueryAtom(final Predicate predicate) {
-		final List<Term> toBeGroundedVariables = new ArrayList<>(predicate.getArity());
-		for (int i = 0; i < predicate.getArity(); i++) {
-			toBeGroundedVariables.add(Expressions.makeUniversalVariable("X" + i));
-		}
-		return Expressions.makePositiveLiteral(predicate, toBeGroundedVariables);
-	}
-
 	private boolean checkAcyclicity(final AcyclicityNotion acyclNotion) {
 		this.validateNotClosed();
 		if (this.reasonerState == ReasonerState.KB_NOT_LOADED) {
@@ -724,10 +2063,61 @@ public class VLogReasoner implements Reasoner {
 		if (this.reasonerState.equals(ReasonerState.KB_LOADED)
 				|| this.reasonerState.equals(ReasonerState.MATERIALISED)) {
 
+			this.reasonerStateBeforeChanges = this.reasonerState;
+			this.correctnessBeforeChanges = this.correctness;
 			this.reasonerState = ReasonerState.KB_CHANGED;
+			this.clearQueryAnswerCache();
+		}
+	}
+
+	/**
+	 * Records the addition of a statement since the knowledge base was last
+	 * loaded. An addition cancels out a previous removal of the same statement.
+	 *
+	 * @param statement the added statement
+	 */
+	private void recordStatementAdded(final Statement statement) {
+		if (this.reasonerState == ReasonerState.KB_CHANGED && !this.pendingRemovals.remove(statement)) {
+			this.pendingAdditions.add(statement);
 		}
 	}
 
+	/**
+	 * Records the removal of a statement since the knowledge base was last loaded.
+	 * A removal cancels out a previous addition of the same statement.
+	 *
+	 * @param statement the removed statement
+	 */
+	private void recordStatementRemoved(final Statement statement) {
+		if (this.reasonerState == ReasonerState.KB_CHANGED && !this.pendingAdditions.remove(statement)) {
+			this.pendingRemovals.add(statement);
+		}
+	}
+
+	/**
+	 * If all changes to the knowledge base since it was last loaded have cancelled
+	 * out, the loaded knowledge base (and its materialisation) is still up to date,
+	 * and the state before the changes can be restored without reloading.
+	 *
+	 * @return true if the state has been restored
+	 */
+	private boolean restoreStateIfNoPendingChanges() {
+		if (this.reasonerState == ReasonerState.KB_CHANGED && this.pendingAdditions.isEmpty()
+				&& this.pendingRemovals.isEmpty()) {
+			this.reasonerState = this.reasonerStateBeforeChanges;
+			this.correctness = this.correctnessBeforeChanges;
+			LOGGER.info("Knowledge base changes cancelled out. Reasoner state {} has been restored.",
+					this.reasonerState);
+			return true;
+		}
+		return false;
+	}
+
+	private void clearPendingChanges() {
+		this.pendingAdditions.clear();
+		this.pendingRemovals.clear();
+	}
+
 	private void updateCorrectnessOnStatementsAdded() {
 		if (this.reasonerState == ReasonerState.KB_CHANGED) {
 			// TODO refine
@@ -759,6 +2149,9 @@ public class VLogReasoner implements Reasoner {
 	}
 
 	void setReasonerState(final ReasonerState reasonerState) {
+		if (reasonerState != this.reasonerState) {
+			this.clearQueryAnswerCache();
+		}
 		this.reasonerState = reasonerState;
 	}
 }
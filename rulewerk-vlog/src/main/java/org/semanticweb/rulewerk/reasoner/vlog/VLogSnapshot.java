@@ -0,0 +1,221 @@
+package org.semanticweb.rulewerk.reasoner.vlog;
+
+/*
+ * #%L
+ * Rulewerk VLog Reasoner Support
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.semanticweb.rulewerk.core.exceptions.RulewerkRuntimeException;
+import org.semanticweb.rulewerk.core.model.api.DataSource;
+import org.semanticweb.rulewerk.core.model.api.NamedNull;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.implementation.DataSourceDeclarationImpl;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.reasoner.Correctness;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.core.reasoner.implementation.CsvFileDataSource;
+
+import karmaresearch.vlog.NonExistingPredicateException;
+import karmaresearch.vlog.NotStartedException;
+import karmaresearch.vlog.QueryResultIterator;
+import karmaresearch.vlog.VLog;
+
+/**
+ * Writes and reads snapshots of the facts materialised by VLog. A snapshot is a
+ * directory with one gzipped CSV file per predicate, in the format that VLog
+ * loads natively, and a manifest file {@value #MANIFEST_FILE_NAME}. The first
+ * line of the manifest is {@code #correctness TAB <correctness>}, and the
+ * following lines list the predicate of each file as
+ * {@code <file name> TAB <arity> TAB <predicate name>}.<br>
+ * VLog cannot load nulls from files, so nulls are written as skolem constants,
+ * just like {@link NamedNull}s in facts of the knowledge base. They cannot be
+ * told apart from constants once the snapshot has been read.
+ */
+final class VLogSnapshot {
+
+	static final String MANIFEST_FILE_NAME = "snapshot.tsv";
+
+	private static final String CORRECTNESS_KEY = "#correctness";
+	private static final String FILE_NAME_PREFIX = "predicate";
+	private static final String FILE_EXTENSION = ".csv.gz";
+
+	private final KnowledgeBase knowledgeBase;
+	private final Correctness correctness;
+
+	private VLogSnapshot(final KnowledgeBase knowledgeBase, final Correctness correctness) {
+		this.knowledgeBase = knowledgeBase;
+		this.correctness = correctness;
+	}
+
+	/**
+	 * @return a knowledge base with one data source declaration for each predicate
+	 *         of the snapshot
+	 */
+	KnowledgeBase getKnowledgeBase() {
+		return this.knowledgeBase;
+	}
+
+	/**
+	 * @return the correctness of the model that the snapshot was written from
+	 */
+	Correctness getCorrectness() {
+		return this.correctness;
+	}
+
+	/**
+	 * Writes all facts of the given predicates to a snapshot in the given
+	 * directory. Predicates without facts are omitted.
+	 *
+	 * @param vLog        the VLog instance to query, which must have been started
+	 * @param predicates  the predicates whose facts are written
+	 * @param correctness the correctness of the facts
+	 * @param directory   the directory to write to, which is created if needed
+	 * @return the data sources of the snapshot, one for each written predicate
+	 * @throws IOException if the snapshot could not be written
+	 */
+	static Map<Predicate, DataSource> write(final VLog vLog, final Iterable<Predicate> predicates,
+			final Correctness correctness, final File directory) throws IOException {
+		if (!directory.isDirectory() && !directory.mkdirs()) {
+			throw new IOException("Could not create directory " + directory);
+		}
+
+		final Map<Predicate, DataSource> dataSources = new LinkedHashMap<>();
+		try (final Writer manifest = new BufferedWriter(new OutputStreamWriter(
+				new FileOutputStream(new File(directory, MANIFEST_FILE_NAME)), StandardCharsets.UTF_8))) {
+			manifest.write(CORRECTNESS_KEY + "\t" + correctness.name() + "\n");
+			for (final Predicate predicate : predicates) {
+				final File file = new File(directory, FILE_NAME_PREFIX + dataSources.size() + FILE_EXTENSION);
+				if (writeFacts(vLog, predicate, file)) {
+					manifest.write(file.getName() + "\t" + predicate.getArity() + "\t" + predicate.getName() + "\n");
+					dataSources.put(predicate, new CsvFileDataSource(file.getPath()));
+				}
+			}
+		}
+		return dataSources;
+	}
+
+	/**
+	 * Reads the manifest of a snapshot written by
+	 * {@link #write(VLog, Iterable, Correctness, File)}.
+	 *
+	 * @param directory the directory of the snapshot
+	 * @return the snapshot
+	 * @throws IOException if the manifest could not be read
+	 */
+	static VLogSnapshot read(final File directory) throws IOException {
+		final KnowledgeBase knowledgeBase = new KnowledgeBase();
+		Correctness correctness = null;
+		try (final BufferedReader manifest = new BufferedReader(new InputStreamReader(
+				new FileInputStream(new File(directory, MANIFEST_FILE_NAME)), StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = manifest.readLine()) != null) {
+				if (line.startsWith(CORRECTNESS_KEY + "\t")) {
+					try {
+						correctness = Correctness.valueOf(line.substring(CORRECTNESS_KEY.length() + 1));
+					} catch (final IllegalArgumentException e) {
+						throw new IOException("Malformed line in snapshot manifest: " + line, e);
+					}
+					continue;
+				}
+				final String[] fields = line.split("\t", 3);
+				if (fields.length != 3) {
+					throw new IOException("Malformed line in snapshot manifest: " + line);
+				}
+				final Predicate predicate;
+				try {
+					predicate = Expressions.makePredicate(fields[2], Integer.parseInt(fields[1]));
+				} catch (final IllegalArgumentException e) {
+					throw new IOException("Malformed line in snapshot manifest: " + line, e);
+				}
+				final File file = new File(directory, fields[0]);
+				knowledgeBase.addStatement(
+						new DataSourceDeclarationImpl(predicate, new CsvFileDataSource(file.getPath())));
+			}
+		}
+		if (correctness == null) {
+			throw new IOException("Snapshot manifest does not specify the correctness of the model.");
+		}
+		return new VLogSnapshot(knowledgeBase, correctness);
+	}
+
+	/**
+	 * Writes all facts of the given predicate to a gzipped CSV file.
+	 *
+	 * @return {@code true} if the predicate has facts, {@code false} if it has
+	 *         none, in which case no file is written
+	 */
+	private static boolean writeFacts(final VLog vLog, final Predicate predicate, final File file)
+			throws IOException {
+		final int arity = predicate.getArity();
+		final long[] pattern = new long[arity];
+		for (int i = 0; i < arity; i++) {
+			pattern[i] = -i - 1;
+		}
+
+		try (final QueryResultIterator answers = vLog.query(
+				vLog.getPredicateId(ModelToVLogConverter.toVLogPredicate(predicate)), pattern, true, false)) {
+			if (!answers.hasNext()) {
+				return false;
+			}
+			try (final VLogCsvWriter writer = new VLogCsvWriter(file)) {
+				// facts are sorted, so names of the previous fact can often be reused
+				final long[] previousIds = new long[arity];
+				final String[] names = new String[arity];
+				boolean first = true;
+				while (answers.hasNext()) {
+					final long[] ids = answers.next();
+					for (int i = 0; i < arity; i++) {
+						if (first || previousIds[i] != ids[i]) {
+							previousIds[i] = ids[i];
+							names[i] = getVLogName(vLog, ids[i]);
+						}
+					}
+					first = false;
+					writer.writeTuple(names);
+				}
+			}
+			return true;
+		} catch (final NotStartedException e) {
+			throw new RulewerkRuntimeException("Inconsistent reasoner state.", e);
+		} catch (final NonExistingPredicateException e) {
+			return false;
+		}
+	}
+
+	private static String getVLogName(final VLog vLog, final long id) throws NotStartedException {
+		final String name = vLog.getConstant(id);
+		if (name != null) {
+			return name;
+		}
+		return TermToVLogConverter.getVLogNameForNamedNull((NamedNull) VLogToModelConverter.toTerm(id, vLog));
+	}
+
+}
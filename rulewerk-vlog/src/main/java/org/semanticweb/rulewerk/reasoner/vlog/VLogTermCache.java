@@ -0,0 +1,288 @@
+package org.semanticweb.rulewerk.reasoner.vlog;
+
+/*
+ * #%L
+ * Rulewerk VLog Reasoner Support
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.lang3.Validate;
+import org.semanticweb.rulewerk.core.model.api.Term;
+
+/**
+ * Bounded cache for finding terms for VLog ids, to be shared by all queries of
+ * one reasoner. Entries are evicted with the CLOCK strategy, an approximation of
+ * LRU that does not need to reorder entries on each access. To support
+ * concurrent use, the cache is split into independently locked segments, each
+ * of which stores its keys in primitive arrays.
+ *
+ * Since VLog ids are only meaningful until VLog is stopped, the cache must be
+ * cleared whenever this happens.
+ */
+public class VLogTermCache {
+
+	/**
+	 * One independently locked part of the cache. Entries are kept in a ring of
+	 * slots that is traversed by the CLOCK hand, and are found through an
+	 * open-addressing hash table with linear probing that maps ids to slots.
+	 */
+	static class Segment {
+		final long[] keys;
+		final Term[] values;
+		final boolean[] referenced;
+		/**
+		 * Hash table of slot numbers plus one, where 0 marks empty positions.
+		 */
+		final int[] table;
+		final int tableMask;
+		int size = 0;
+		int hand = 0;
+
+		Segment(final int capacity) {
+			this.keys = new long[capacity];
+			this.values = new Term[capacity];
+			this.referenced = new boolean[capacity];
+			final int tableSize = Integer.highestOneBit(Math.max(2, capacity * 2 - 1)) << 1;
+			this.table = new int[tableSize];
+			this.tableMask = tableSize - 1;
+		}
+
+		synchronized Term get(final long id) {
+			final int slot = this.findSlot(id);
+			if (slot < 0) {
+				return null;
+			}
+			this.referenced[slot] = true;
+			return this.values[slot];
+		}
+
+		synchronized void put(final long id, final Term term) {
+			int slot = this.findSlot(id);
+			if (slot < 0) {
+				if (this.size < this.keys.length) {
+					slot = this.size++;
+				} else {
+					slot = this.evict();
+				}
+				this.keys[slot] = id;
+				this.insertIntoTable(id, slot);
+			}
+			this.values[slot] = term;
+			this.referenced[slot] = false;
+		}
+
+		synchronized void clear() {
+			Arrays.fill(this.values, null);
+			Arrays.fill(this.referenced, false);
+			Arrays.fill(this.table, 0);
+			this.size = 0;
+			this.hand = 0;
+		}
+
+		synchronized int size() {
+			return this.size;
+		}
+
+		/**
+		 * Advances the CLOCK hand to the first slot that has not been referenced
+		 * since the hand last passed it, and removes its entry.
+		 *
+		 * @return the freed slot
+		 */
+		private int evict() {
+			while (this.referenced[this.hand]) {
+				this.referenced[this.hand] = false;
+				this.hand = (this.hand + 1) % this.keys.length;
+			}
+			final int slot = this.hand;
+			this.hand = (this.hand + 1) % this.keys.length;
+			this.removeFromTable(this.keys[slot]);
+			return slot;
+		}
+
+		private int findSlot(final long id) {
+			int position = hash(id) & this.tableMask;
+			while (this.table[position] != 0) {
+				final int slot = this.table[position] - 1;
+				if (this.keys[slot] == id) {
+					return slot;
+				}
+				position = (position + 1) & this.tableMask;
+			}
+			return -1;
+		}
+
+		private void insertIntoTable(final long id, final int slot) {
+			int position = hash(id) & this.tableMask;
+			while (this.table[position] != 0) {
+				position = (position + 1) & this.tableMask;
+			}
+			this.table[position] = slot + 1;
+		}
+
+		/**
+		 * Removes an id from the hash table, shifting back later entries of the same
+		 * probe sequence so that no tombstones are needed.
+		 */
+		private void removeFromTable(final long id) {
+			int position = hash(id) & this.tableMask;
+			while (this.keys[this.table[position] - 1] != id) {
+				position = (position + 1) & this.tableMask;
+			}
+			int next = (position + 1) & this.tableMask;
+			while (this.table[next] != 0) {
+				final int home = hash(this.keys[this.table[next] - 1]) & this.tableMask;
+				// move the entry at next to position if position lies on its probe path
+				if (((next - home) & this.tableMask) >= ((next - position) & this.tableMask)) {
+					this.table[position] = this.table[next];
+					position = next;
+				}
+				next = (next + 1) & this.tableMask;
+			}
+			this.table[position] = 0;
+		}
+	}
+
+	/**
+	 * Default number of terms that are cached.
+	 */
+	public static final int DEFAULT_CAPACITY = 130000;
+
+	private static final int MAX_SEGMENTS = 16;
+
+	private final Segment[] segments;
+	/**
+	 * Segments are chosen by the highest bits of the hash of an id, since the
+	 * lowest bits determine positions in the hash table of a segment.
+	 */
+	private final int segmentShift;
+	private final int capacity;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+
+	/**
+	 * Creates a new cache that holds at most the given number of terms.
+	 *
+	 * @param capacity maximal number of cached terms; if 0, no terms are cached
+	 */
+	public VLogTermCache(final int capacity) {
+		Validate.isTrue(capacity >= 0, "Cache capacity cannot be negative!", capacity);
+		this.capacity = capacity;
+		int segmentCount = 1;
+		while (segmentCount < MAX_SEGMENTS && segmentCount * 1024 <= capacity) {
+			segmentCount <<= 1;
+		}
+		this.segmentShift = 32 - Integer.numberOfTrailingZeros(segmentCount);
+		this.segments = new Segment[capacity == 0 ? 0 : segmentCount];
+		for (int i = 0; i < this.segments.length; i++) {
+			this.segments[i] = new Segment((capacity + segmentCount - 1 - i) / segmentCount);
+		}
+	}
+
+	/**
+	 * Returns the cached term for the given id, or {@code null} if it is not
+	 * cached.
+	 *
+	 * @param id VLog term id
+	 * @return cached term or {@code null}
+	 */
+	public Term get(final long id) {
+		final Term term = this.segments.length == 0 ? null : this.segmentFor(id).get(id);
+		if (term == null) {
+			this.misses.increment();
+		} else {
+			this.hits.increment();
+		}
+		return term;
+	}
+
+	/**
+	 * Caches the term for the given id, possibly evicting another entry.
+	 *
+	 * @param id   VLog term id
+	 * @param term the term with this id
+	 */
+	public void put(final long id, final Term term) {
+		if (this.segments.length != 0) {
+			this.segmentFor(id).put(id, term);
+		}
+	}
+
+	/**
+	 * Removes all entries from the cache. Hit and miss counts are not reset.
+	 */
+	public void clear() {
+		for (final Segment segment : this.segments) {
+			segment.clear();
+		}
+	}
+
+	/**
+	 * @return the maximal number of cached terms
+	 */
+	public int getCapacity() {
+		return this.capacity;
+	}
+
+	/**
+	 * @return the current number of cached terms
+	 */
+	public int size() {
+		int size = 0;
+		for (final Segment segment : this.segments) {
+			size += segment.size();
+		}
+		return size;
+	}
+
+	/**
+	 * @return the number of lookups that found a cached term
+	 */
+	public long getHitCount() {
+		return this.hits.sum();
+	}
+
+	/**
+	 * @return the number of lookups that did not find a cached term
+	 */
+	public long getMissCount() {
+		return this.misses.sum();
+	}
+
+	private Segment segmentFor(final long id) {
+		return this.segments[this.getSegmentIndex(id)];
+	}
+
+	int getSegmentIndex(final long id) {
+		// shifting a long also works if there is only one segment
+		return (int) ((hash(id) & 0xFFFFFFFFL) >>> this.segmentShift);
+	}
+
+	Segment getSegment(final int index) {
+		return this.segments[index];
+	}
+
+	static int hash(final long id) {
+		final long h = id * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+}
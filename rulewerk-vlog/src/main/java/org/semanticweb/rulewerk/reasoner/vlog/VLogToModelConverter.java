@@ -25,6 +25,7 @@ import java.util.List;
 
 import org.semanticweb.rulewerk.core.exceptions.RulewerkRuntimeException;
 import org.semanticweb.rulewerk.core.model.api.Constant;
+import org.semanticweb.rulewerk.core.model.api.NamedNull;
 import org.semanticweb.rulewerk.core.model.api.PrefixDeclarationRegistry;
 import org.semanticweb.rulewerk.core.model.api.QueryResult;
 import org.semanticweb.rulewerk.core.model.api.Term;
@@ -34,6 +35,9 @@ import org.semanticweb.rulewerk.core.model.implementation.LanguageStringConstant
 import org.semanticweb.rulewerk.core.model.implementation.NamedNullImpl;
 import org.semanticweb.rulewerk.core.reasoner.implementation.QueryResultImpl;
 
+import karmaresearch.vlog.NotStartedException;
+import karmaresearch.vlog.VLog;
+
 /**
  * Utility class with static methods for converting from VLog internal model
  * ({@code karmaresearch.vlog} objects) to VLog API model
@@ -96,6 +100,28 @@ class VLogToModelConverter {
 		}
 	}
 
+	/**
+	 * Converts a VLog term id to the corresponding VLog API model {@link Term}.
+	 * Ids for which VLog has no constant name represent nulls introduced during
+	 * reasoning.
+	 *
+	 * @param id   VLog term id
+	 * @param vLog the VLog instance that uses the id
+	 * @return a {@link Constant} or {@link NamedNull} for the given id
+	 * @throws NotStartedException if VLog has not been started
+	 */
+	static Term toTerm(final long id, final VLog vLog) throws NotStartedException {
+		final String s = vLog.getConstant(id);
+		if (s == null) {
+			// This string operation extracts the internal rule number (val >> 40),
+			// the internal variable number ((val >> 32) & 0377), and
+			// a counter (val & 0xffffffffL)
+			return new NamedNullImpl("null" + (id >> 40) + "_" + ((id >> 32) & 0377) + "_" + (id & 0xffffffffL));
+		} else {
+			return toConstant(s);
+		}
+	}
+
 	/**
 	 * Creates a {@link Constant} from the given VLog constant name.
 	 *
@@ -0,0 +1,260 @@
+package org.semanticweb.rulewerk.reasoner.vlog;
+
+/*-
+ * #%L
+ * Rulewerk VLog Reasoner Support
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+import org.semanticweb.rulewerk.core.exceptions.ReasonerStateException;
+import org.semanticweb.rulewerk.core.model.api.Conjunction;
+import org.semanticweb.rulewerk.core.model.api.Constant;
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.api.TermType;
+import org.semanticweb.rulewerk.core.model.api.Variable;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.reasoner.Correctness;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.core.reasoner.QueryResultIterator;
+import org.semanticweb.rulewerk.core.reasoner.ReasonerState;
+
+public class AnswerConjunctiveQueryTest {
+
+	private static final Constant a = Expressions.makeAbstractConstant("a");
+	private static final Constant b = Expressions.makeAbstractConstant("b");
+	private static final Constant c = Expressions.makeAbstractConstant("c");
+	private static final Constant d = Expressions.makeAbstractConstant("d");
+	private static final Variable x = Expressions.makeUniversalVariable("X");
+	private static final Variable y = Expressions.makeUniversalVariable("Y");
+	private static final Variable z = Expressions.makeUniversalVariable("Z");
+
+	private static final PositiveLiteral pXY = Expressions.makePositiveLiteral("p", x, y);
+	private static final PositiveLiteral qYZ = Expressions.makePositiveLiteral("q", y, z);
+
+	private static final Fact pab = Expressions.makeFact("p", a, b);
+	private static final Fact pac = Expressions.makeFact("p", a, c);
+	private static final Fact pbb = Expressions.makeFact("p", b, b);
+	private static final Fact qbd = Expressions.makeFact("q", b, d);
+	private static final Fact qcd = Expressions.makeFact("q", c, d);
+	private static final Fact qdd = Expressions.makeFact("q", d, d);
+
+	private static Set<List<Term>> answer(final VLogReasoner reasoner, final List<Variable> answerVariables,
+			final boolean includeNulls, final PositiveLiteral... literals) {
+		final Conjunction<PositiveLiteral> query = Expressions.makePositiveConjunction(literals);
+		try (final QueryResultIterator answers = reasoner.answerConjunctiveQuery(query, answerVariables,
+				includeNulls)) {
+			assertEquals(Correctness.SOUND_AND_COMPLETE, answers.getCorrectness());
+			return QueryResultsUtils.collectQueryResults(answers);
+		}
+	}
+
+	@Test
+	public void answerConjunctiveQuery_join() throws IOException {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatements(pab, pac, pbb, qbd, qcd, qdd);
+
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+
+			final Set<List<Term>> expected = new HashSet<>(
+					Arrays.asList(Arrays.asList(a, b, d), Arrays.asList(a, c, d), Arrays.asList(b, b, d)));
+			assertEquals(expected, answer(reasoner, Arrays.asList(x, y, z), true, pXY, qYZ));
+			assertEquals(ReasonerState.MATERIALISED, reasoner.getReasonerState());
+		}
+	}
+
+	@Test
+	public void answerConjunctiveQuery_projection_distinctAnswers() throws IOException {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatements(pab, pac, pbb, qbd, qcd, qdd);
+
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+
+			final Conjunction<PositiveLiteral> query = Expressions.makePositiveConjunction(pXY, qYZ);
+			try (final QueryResultIterator answers = reasoner.answerConjunctiveQuery(query, Arrays.asList(z, x),
+					true)) {
+				final Map<List<Term>, Integer> counts = new HashMap<>();
+				answers.forEachRemaining(answer -> counts.merge(answer.getTerms(), 1, Integer::sum));
+				final Map<List<Term>, Integer> expected = new HashMap<>();
+				expected.put(Arrays.asList(d, a), 1);
+				expected.put(Arrays.asList(d, b), 1);
+				assertEquals(expected, counts);
+			}
+		}
+	}
+
+	@Test
+	public void answerConjunctiveQuery_repeatedAnswerVariable_distinctAnswers() throws IOException {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatements(pab, pac, pbb);
+
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+
+			final Conjunction<PositiveLiteral> query = Expressions.makePositiveConjunction(pXY);
+			try (final QueryResultIterator answers = reasoner.answerConjunctiveQuery(query, Arrays.asList(x, x),
+					true)) {
+				final Map<List<Term>, Integer> counts = new HashMap<>();
+				answers.forEachRemaining(answer -> counts.merge(answer.getTerms(), 1, Integer::sum));
+				final Map<List<Term>, Integer> expected = new HashMap<>();
+				expected.put(Arrays.asList(a, a), 1);
+				expected.put(Arrays.asList(b, b), 1);
+				assertEquals(expected, counts);
+			}
+		}
+	}
+
+	@Test
+	public void answerConjunctiveQuery_constantsAndRepeatedVariables() throws IOException {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatements(pab, pac, pbb, qbd, qcd, qdd);
+
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+
+			final PositiveLiteral pYY = Expressions.makePositiveLiteral("p", y, y);
+			final PositiveLiteral qYd = Expressions.makePositiveLiteral("q", y, d);
+			assertEquals(Collections.singleton(Arrays.asList(b)),
+					answer(reasoner, Arrays.asList(y), true, pYY, qYd));
+
+			final PositiveLiteral paY = Expressions.makePositiveLiteral("p", a, y);
+			final PositiveLiteral qZZ = Expressions.makePositiveLiteral("q", z, z);
+			final PositiveLiteral qYZ = Expressions.makePositiveLiteral("q", y, z);
+			assertEquals(new HashSet<>(Arrays.asList(Arrays.asList(b), Arrays.asList(c))),
+					answer(reasoner, Arrays.asList(y), true, paY, qYZ, qZZ));
+		}
+	}
+
+	@Test
+	public void answerConjunctiveQuery_booleanQuery() throws IOException {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatements(pab, qbd, qdd);
+
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+
+			final PositiveLiteral qZd = Expressions.makePositiveLiteral("q", z, d);
+			final PositiveLiteral qYY = Expressions.makePositiveLiteral("q", y, y);
+			assertEquals(Collections.singleton(Collections.emptyList()),
+					answer(reasoner, Collections.emptyList(), true, pXY, qYZ, qZd));
+			assertEquals(Collections.emptySet(), answer(reasoner, Collections.emptyList(), true, pXY, qYY));
+		}
+	}
+
+	@Test
+	public void answerConjunctiveQuery_joinOnNulls() throws IOException {
+		final KnowledgeBase kb = new KnowledgeBase();
+		final Variable w = Expressions.makeExistentialVariable("W");
+		final PositiveLiteral rX = Expressions.makePositiveLiteral("r", x);
+		final PositiveLiteral sY = Expressions.makePositiveLiteral("s", y);
+		/* p(?X, !W) :- r(?X) . s(?Y) :- p(?X, ?Y) . */
+		kb.addStatements(Expressions.makeRule(Expressions.makePositiveLiteral("p", x, w), rX),
+				Expressions.makeRule(sY, pXY), Expressions.makeFact("r", a));
+
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+
+			assertEquals(Collections.singleton(Arrays.asList(a)), answer(reasoner, Arrays.asList(x), false, pXY, sY));
+			assertEquals(Collections.emptySet(), answer(reasoner, Arrays.asList(x, y), false, pXY, sY));
+
+			final Set<List<Term>> withNulls = answer(reasoner, Arrays.asList(x, y), true, pXY, sY);
+			assertEquals(1, withNulls.size());
+			assertEquals(TermType.NAMED_NULL, withNulls.iterator().next().get(1).getType());
+		}
+	}
+
+	@Test
+	public void answerConjunctiveQuery_unknownPredicate_emptyComplete() throws IOException {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatements(pab);
+
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+
+			final PositiveLiteral unknownY = Expressions.makePositiveLiteral("unknown", y);
+			assertEquals(Collections.emptySet(), answer(reasoner, Arrays.asList(x), true, pXY, unknownY));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void answerConjunctiveQuery_answerVariableNotInQuery_throws() throws IOException {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatements(pab);
+
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+			reasoner.answerConjunctiveQuery(Expressions.makePositiveConjunction(pXY), Arrays.asList(z), true);
+		}
+	}
+
+	@Test(expected = ReasonerStateException.class)
+	public void answerConjunctiveQuery_beforeLoad_throws() {
+		try (final VLogReasoner reasoner = new VLogReasoner(new KnowledgeBase())) {
+			reasoner.answerConjunctiveQuery(Expressions.makePositiveConjunction(pXY), Arrays.asList(x), true);
+		}
+	}
+
+	@Test
+	public void answerConjunctiveQuery_closedEarly() throws IOException {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatements(pab, pac, pbb, qbd, qcd, qdd);
+
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+
+			final QueryResultIterator answers = reasoner
+					.answerConjunctiveQuery(Expressions.makePositiveConjunction(pXY, qYZ), Arrays.asList(x), true);
+			assertTrue(answers.hasNext());
+			answers.next();
+			answers.close();
+			assertFalse(answers.hasNext());
+		}
+	}
+
+	@Test
+	public void orderLiterals_smallestConnectedFirst() {
+		final PositiveLiteral rZ = Expressions.makePositiveLiteral("r", z);
+		final PositiveLiteral sX = Expressions.makePositiveLiteral("s", x);
+		final Map<PositiveLiteral, Long> cardinalities = new HashMap<>();
+		cardinalities.put(pXY, 10L);
+		cardinalities.put(qYZ, 100L);
+		cardinalities.put(rZ, 1L);
+		cardinalities.put(sX, 5L);
+
+		final List<PositiveLiteral> order = VLogConjunctiveQueryResultIterator
+				.orderLiterals(Arrays.asList(pXY, qYZ, rZ, sX), cardinalities::get);
+		assertEquals(Arrays.asList(rZ, qYZ, pXY, sX), order);
+	}
+
+}
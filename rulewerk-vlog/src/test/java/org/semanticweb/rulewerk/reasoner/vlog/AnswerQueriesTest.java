@@ -0,0 +1,221 @@
+package org.semanticweb.rulewerk.reasoner.vlog;
+
+/*-
+ * #%L
+ * Rulewerk VLog Reasoner Support
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+import org.semanticweb.rulewerk.core.exceptions.ReasonerStateException;
+import org.semanticweb.rulewerk.core.model.api.Constant;
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.api.Rule;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.api.Variable;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.reasoner.Correctness;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.core.reasoner.QueryAnswerCount;
+import org.semanticweb.rulewerk.core.reasoner.QueryResultIterator;
+
+public class AnswerQueriesTest {
+
+	private static final Constant c = Expressions.makeAbstractConstant("c");
+	private static final Constant d = Expressions.makeAbstractConstant("d");
+	private static final Constant e = Expressions.makeAbstractConstant("e");
+	private static final Variable x = Expressions.makeUniversalVariable("X");
+	private static final Variable y = Expressions.makeUniversalVariable("Y");
+	private static final Fact pcd = Expressions.makeFact("p", c, d);
+	private static final Fact pce = Expressions.makeFact("p", c, e);
+	private static final Fact pdd = Expressions.makeFact("p", d, d);
+	private static final PositiveLiteral pXY = Expressions.makePositiveLiteral("p", x, y);
+	private static final PositiveLiteral pcY = Expressions.makePositiveLiteral("p", c, y);
+	private static final PositiveLiteral pXd = Expressions.makePositiveLiteral("p", x, d);
+	private static final PositiveLiteral qX = Expressions.makePositiveLiteral("q", x);
+	private static final PositiveLiteral unknownX = Expressions.makePositiveLiteral("unknown", x);
+	/* q(?X) :- p(?X, d) */
+	private static final Rule rule = Expressions.makeRule(qX, pXd);
+
+	@Test
+	public void answerQueries_sameAnswersAsAnswerQuery() throws IOException {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatements(pcd, pce, pdd, rule);
+
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+
+			final List<PositiveLiteral> queries = Arrays.asList(pXY, pcY, pXd, qX);
+			final Map<PositiveLiteral, QueryResultIterator> results = reasoner.answerQueries(queries, true);
+			assertEquals(queries, new ArrayList<>(results.keySet()));
+
+			for (final PositiveLiteral query : queries) {
+				final Set<List<Term>> expected;
+				try (final QueryResultIterator answers = reasoner.answerQuery(query, true)) {
+					expected = QueryResultsUtils.collectQueryResults(answers);
+				}
+				final QueryResultIterator answers = results.get(query);
+				assertEquals(Correctness.SOUND_AND_COMPLETE, answers.getCorrectness());
+				assertEquals(expected, QueryResultsUtils.collectQueryResults(answers));
+			}
+		}
+	}
+
+	private static void assertSameAsSingleQueries(final VLogReasoner reasoner, final List<PositiveLiteral> queries) {
+		final Map<PositiveLiteral, QueryResultIterator> results = reasoner.answerQueries(queries, true);
+		final Map<PositiveLiteral, QueryAnswerCount> counts = reasoner.countQueryAnswersBatch(queries, true);
+		for (final PositiveLiteral query : queries) {
+			final Set<List<Term>> expected;
+			try (final QueryResultIterator answers = reasoner.answerQuery(query, true)) {
+				expected = QueryResultsUtils.collectQueryResults(answers);
+			}
+			assertEquals(expected, QueryResultsUtils.collectQueryResults(results.get(query)));
+			assertEquals(expected.size(), counts.get(query).getCount());
+		}
+	}
+
+	@Test
+	public void answerQueries_queriesDifferingInConstants_sameAnswersAsAnswerQuery() throws IOException {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatements(pcd, pce, pdd, rule);
+
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+
+			assertSameAsSingleQueries(reasoner,
+					Arrays.asList(pcY, Expressions.makePositiveLiteral("p", d, y),
+							Expressions.makePositiveLiteral("p", e, y), Expressions.makePositiveLiteral("p", c, x),
+							pXd, Expressions.makePositiveLiteral("p", x, e), pcd, pdd,
+							Expressions.makePositiveLiteral("p", e, d), Expressions.makePositiveLiteral("p", x, x),
+							Expressions.makePositiveLiteral("q", c), Expressions.makePositiveLiteral("q", d)));
+		}
+	}
+
+	@Test
+	public void answerQueries_manyAnswersForSharedQuery_sameAnswersAsAnswerQuery() throws IOException {
+		final KnowledgeBase kb = new KnowledgeBase();
+		for (int i = 0; i < 4 * VLogReasoner.SHARED_QUERY_ANSWERS_PER_QUERY; i++) {
+			kb.addStatement(Expressions.makeFact("p", Expressions.makeAbstractConstant("c" + i), d));
+		}
+
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+
+			assertSameAsSingleQueries(reasoner, Arrays.asList(
+					Expressions.makePositiveLiteral("p", Expressions.makeAbstractConstant("c1"), y),
+					Expressions.makePositiveLiteral("p", Expressions.makeAbstractConstant("c2"), y)));
+		}
+	}
+
+	@Test
+	public void answerQueries_duplicateQueries_answeredOnce() throws IOException {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatements(pcd, pce);
+
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+
+			final Map<PositiveLiteral, QueryResultIterator> results = reasoner
+					.answerQueries(Arrays.asList(pcY, pXY, pcY), true);
+			assertEquals(Arrays.asList(pcY, pXY), new ArrayList<>(results.keySet()));
+			assertEquals(2, QueryResultsUtils.collectQueryResults(results.get(pcY)).size());
+		}
+	}
+
+	@Test
+	public void answerQueries_unknownPredicate_emptyComplete() throws IOException {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatements(pcd);
+
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+
+			final Map<PositiveLiteral, QueryResultIterator> results = reasoner
+					.answerQueries(Arrays.asList(unknownX, pXY), true);
+			assertFalse(results.get(unknownX).hasNext());
+			assertEquals(Correctness.SOUND_AND_COMPLETE, results.get(unknownX).getCorrectness());
+			assertEquals(Collections.singleton(Arrays.asList(c, d)),
+					QueryResultsUtils.collectQueryResults(results.get(pXY)));
+		}
+	}
+
+	@Test
+	public void answerQueries_emptyCollection_emptyResult() throws IOException {
+		try (final VLogReasoner reasoner = new VLogReasoner(new KnowledgeBase())) {
+			reasoner.reason();
+			assertEquals(Collections.emptyMap(), reasoner.answerQueries(Collections.emptyList(), true));
+		}
+	}
+
+	@Test(expected = ReasonerStateException.class)
+	public void answerQueries_beforeLoad_throws() {
+		try (final VLogReasoner reasoner = new VLogReasoner(new KnowledgeBase())) {
+			reasoner.answerQueries(Arrays.asList(pXY), true);
+		}
+	}
+
+	@Test
+	public void countQueryAnswers_sameCountsAsSingleQueries() throws IOException {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatements(pcd, pce, pdd, rule);
+
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+
+			final List<PositiveLiteral> queries = Arrays.asList(pXY, pcY, pXd, qX, unknownX);
+			final Map<PositiveLiteral, QueryAnswerCount> counts = reasoner.countQueryAnswersBatch(queries, true);
+			assertEquals(queries, new ArrayList<>(counts.keySet()));
+
+			for (final PositiveLiteral query : queries) {
+				final QueryAnswerCount expected = reasoner.countQueryAnswers(query, true);
+				assertEquals(expected.getCount(), counts.get(query).getCount());
+				assertEquals(expected.getCorrectness(), counts.get(query).getCorrectness());
+			}
+			assertEquals(3, counts.get(pXY).getCount());
+			assertEquals(0, counts.get(unknownX).getCount());
+		}
+	}
+
+	@Test
+	public void countQueryAnswers_excludeNulls() throws IOException {
+		final KnowledgeBase kb = new KnowledgeBase();
+		final Variable z = Expressions.makeExistentialVariable("Z");
+		/* p(?X, !Z) :- q(?X) */
+		kb.addStatements(Expressions.makeRule(Expressions.makePositiveLiteral("p", x, z), qX),
+				Expressions.makeFact("q", c));
+
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+
+			assertEquals(1, reasoner.countQueryAnswersBatch(Arrays.asList(pXY), true).get(pXY).getCount());
+			assertEquals(0, reasoner.countQueryAnswersBatch(Arrays.asList(pXY), false).get(pXY).getCount());
+		}
+	}
+
+}
@@ -0,0 +1,213 @@
+package org.semanticweb.rulewerk.reasoner.vlog;
+
+/*-
+ * #%L
+ * Rulewerk VLog Reasoner Support
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.semanticweb.rulewerk.core.exceptions.ReasonerStateException;
+import org.semanticweb.rulewerk.core.model.api.Constant;
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.api.Rule;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.api.TermType;
+import org.semanticweb.rulewerk.core.model.api.Variable;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.model.implementation.NamedNullImpl;
+import org.semanticweb.rulewerk.core.reasoner.Correctness;
+import org.semanticweb.rulewerk.core.reasoner.IdQueryResultIterator;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.core.reasoner.QueryResultIterator;
+
+public class AnswerQueryIdsTest {
+
+	private static final Constant c = Expressions.makeAbstractConstant("c");
+	private static final Constant d = Expressions.makeAbstractConstant("http://example.org/d");
+	private static final Constant e = Expressions.makeDatatypeConstant("1", "http://www.w3.org/2001/XMLSchema#integer");
+	private static final Variable x = Expressions.makeUniversalVariable("X");
+	private static final Variable y = Expressions.makeUniversalVariable("Y");
+	private static final Fact pcd = Expressions.makeFact("p", c, d);
+	private static final Fact pce = Expressions.makeFact("p", c, e);
+	private static final Fact pdd = Expressions.makeFact("p", d, d);
+	private static final PositiveLiteral pXY = Expressions.makePositiveLiteral("p", x, y);
+
+	@Test
+	public void answerQueryIds_sameAnswersAsAnswerQuery() throws IOException {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatements(pcd, pce, pdd);
+
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+
+			final Set<List<Term>> expected;
+			try (final QueryResultIterator answers = reasoner.answerQuery(pXY, true)) {
+				expected = QueryResultsUtils.collectQueryResults(answers);
+			}
+
+			final Set<List<Term>> actual = new HashSet<>();
+			try (final IdQueryResultIterator answers = reasoner.answerQueryIds(pXY, true)) {
+				assertEquals(2, answers.getArity());
+				assertEquals(Correctness.SOUND_AND_COMPLETE, answers.getCorrectness());
+				while (answers.hasNext()) {
+					final List<Term> terms = new ArrayList<>();
+					for (final long id : answers.next()) {
+						terms.add(reasoner.getTermForId(id));
+					}
+					actual.add(terms);
+				}
+			}
+			assertEquals(expected, actual);
+		}
+	}
+
+	@Test
+	public void answerQueryIds_constantInQuery_bindsId() throws IOException {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatements(pcd, pce, pdd);
+
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+			final long idC = reasoner.getIdForTerm(c);
+			final long idD = reasoner.getIdForTerm(d);
+
+			try (final IdQueryResultIterator answers = reasoner
+					.answerQueryIds(Expressions.makePositiveLiteral("p", x, d), true)) {
+				final Set<Long> subjects = new HashSet<>();
+				while (answers.hasNext()) {
+					final long[] answer = answers.next();
+					assertEquals(idD, answer[1]);
+					subjects.add(answer[0]);
+				}
+				assertEquals(new HashSet<>(Arrays.asList(idC, idD)), subjects);
+			}
+		}
+	}
+
+	@Test
+	public void answerQueryIds_nextBatch_fillsBuffer() throws IOException {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatements(pcd, pce, pdd);
+
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+
+			final long[] buffer = new long[5];
+			try (final IdQueryResultIterator answers = reasoner.answerQueryIds(pXY, true)) {
+				assertEquals(2, answers.nextBatch(buffer));
+				final long[] firstBatch = Arrays.copyOf(buffer, 4);
+				assertEquals(1, answers.nextBatch(buffer));
+				assertEquals(0, answers.nextBatch(buffer));
+				assertFalse(Arrays.equals(Arrays.copyOfRange(firstBatch, 0, 2), Arrays.copyOfRange(buffer, 0, 2)));
+			}
+		}
+	}
+
+	@Test
+	public void answerQueryIds_nullsFiltered() throws IOException {
+		final Rule rule = Expressions.makeRule(
+				Expressions.makePositiveLiteral("q", x, Expressions.makeExistentialVariable("Z")),
+				Expressions.makePositiveLiteral("p", x, y));
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatements(pcd, rule);
+
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+			final PositiveLiteral qXY = Expressions.makePositiveLiteral("q", x, y);
+
+			try (final IdQueryResultIterator answers = reasoner.answerQueryIds(qXY, false)) {
+				assertFalse(answers.hasNext());
+			}
+			try (final IdQueryResultIterator answers = reasoner.answerQueryIds(qXY, true)) {
+				assertTrue(answers.hasNext());
+				final long[] answer = answers.next();
+				assertEquals(c, reasoner.getTermForId(answer[0]));
+				assertEquals(TermType.NAMED_NULL, reasoner.getTermForId(answer[1]).getType());
+				assertFalse(answers.hasNext());
+			}
+		}
+	}
+
+	@Test
+	public void answerQueryIds_unknownPredicate_empty() throws IOException {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatements(pcd);
+
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+			try (final IdQueryResultIterator answers = reasoner
+					.answerQueryIds(Expressions.makePositiveLiteral("r", x), true)) {
+				assertFalse(answers.hasNext());
+				assertEquals(1, answers.getArity());
+				assertEquals(0, answers.nextBatch(new long[1]));
+				assertEquals(Correctness.SOUND_AND_COMPLETE, answers.getCorrectness());
+			}
+		}
+	}
+
+	@Test
+	public void getIdForTerm_unknownConstant_returnsMinusOne() throws IOException {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatements(pcd);
+
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+			assertEquals(-1, reasoner.getIdForTerm(Expressions.makeAbstractConstant("unknown")));
+			assertArrayEquals(new Term[] { c, d },
+					new Term[] { reasoner.getTermForId(reasoner.getIdForTerm(c)),
+							reasoner.getTermForId(reasoner.getIdForTerm(d)) });
+		}
+	}
+
+	@Test(expected = ReasonerStateException.class)
+	public void getTermForId_beforeLoad_throws() {
+		try (final VLogReasoner reasoner = new VLogReasoner(new KnowledgeBase())) {
+			reasoner.getTermForId(0);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void getIdForTerm_variable_throws() throws IOException {
+		try (final VLogReasoner reasoner = new VLogReasoner(new KnowledgeBase())) {
+			reasoner.reason();
+			reasoner.getIdForTerm(x);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void getIdForTerm_namedNull_throws() throws IOException {
+		try (final VLogReasoner reasoner = new VLogReasoner(new KnowledgeBase())) {
+			reasoner.reason();
+			reasoner.getIdForTerm(new NamedNullImpl("n"));
+		}
+	}
+
+}
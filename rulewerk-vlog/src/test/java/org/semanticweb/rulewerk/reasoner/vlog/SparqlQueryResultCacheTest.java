@@ -0,0 +1,281 @@
+package org.semanticweb.rulewerk.reasoner.vlog;
+
+/*
+ * #%L
+ * Rulewerk VLog Reasoner Support
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.PrefixDeclarationRegistry;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.implementation.DataSourceDeclarationImpl;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.core.reasoner.implementation.SparqlQueryResultDataSource;
+
+import com.sun.net.httpserver.HttpServer;
+
+public class SparqlQueryResultCacheTest {
+
+	private static final String RESULTS = "?a\t?b\n" //
+			+ "<http://example.org/a1>\t\"x y\"@en\n" //
+			+ "<http://example.org/a2>\t42\n" //
+			+ "<http://example.org/a3>\t\n";
+
+	/**
+	 * Results with the same terms as {@link #JSON_RESULTS}, for comparing the
+	 * cache with VLog's own access to SPARQL endpoints.
+	 */
+	private static final String TSV_RESULTS = "?b\t?a\n" //
+			+ "\"x y\"\t<http://example.org/a1>\n" //
+			+ "\"z\"^^<http://www.w3.org/2001/XMLSchema#string>\t<http://example.org/a2>\n" //
+			+ "\"chat\"@fr\t_:b0\n" //
+			+ "42\t_:b1\n";
+
+	private static final String JSON_RESULTS = "{\"head\":{\"vars\":[\"b\",\"a\"]},\"results\":{\"bindings\":[" //
+			+ "{\"b\":{\"type\":\"literal\",\"value\":\"x y\"}," //
+			+ "\"a\":{\"type\":\"uri\",\"value\":\"http://example.org/a1\"}}," //
+			+ "{\"b\":{\"type\":\"literal\",\"value\":\"z\",\"datatype\":\"http://www.w3.org/2001/XMLSchema#string\"}," //
+			+ "\"a\":{\"type\":\"uri\",\"value\":\"http://example.org/a2\"}}," //
+			+ "{\"b\":{\"type\":\"literal\",\"value\":\"chat\",\"xml:lang\":\"fr\"}," //
+			+ "\"a\":{\"type\":\"bnode\",\"value\":\"b0\"}}," //
+			+ "{\"b\":{\"type\":\"literal\",\"value\":\"42\",\"datatype\":\"http://www.w3.org/2001/XMLSchema#integer\"}," //
+			+ "\"a\":{\"type\":\"bnode\",\"value\":\"b1\"}}" //
+			+ "]}}";
+
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
+	private HttpServer server;
+	private final AtomicInteger requests = new AtomicInteger();
+	private String lastQuery;
+
+	private SparqlQueryResultDataSource dataSource;
+
+	@Before
+	public void startEndpoint() throws IOException {
+		this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		this.server.createContext("/sparql", exchange -> {
+			this.requests.incrementAndGet();
+			final String query = exchange.getRequestURI().getRawQuery();
+			this.lastQuery = URLDecoder.decode(query.substring(query.indexOf('=') + 1), "UTF-8");
+			final byte[] body = RESULTS.getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().set("Content-Type", SparqlQueryResultCache.TSV_MEDIA_TYPE);
+			exchange.sendResponseHeaders(200, body.length);
+			try (OutputStream outputStream = exchange.getResponseBody()) {
+				outputStream.write(body);
+			}
+		});
+		this.server.createContext("/formats", exchange -> {
+			final boolean tsv = SparqlQueryResultCache.TSV_MEDIA_TYPE
+					.equals(exchange.getRequestHeaders().getFirst("Accept"));
+			final byte[] body = (tsv ? TSV_RESULTS : JSON_RESULTS).getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().set("Content-Type",
+					tsv ? SparqlQueryResultCache.TSV_MEDIA_TYPE : "application/sparql-results+json");
+			exchange.sendResponseHeaders(200, body.length);
+			try (OutputStream outputStream = exchange.getResponseBody()) {
+				outputStream.write(body);
+			}
+		});
+		this.server.createContext("/broken", exchange -> {
+			exchange.sendResponseHeaders(500, -1);
+			exchange.close();
+		});
+		this.server.start();
+		this.dataSource = new SparqlQueryResultDataSource(this.getEndpoint("/sparql"), "b,a", "?a <p> ?b");
+	}
+
+	@After
+	public void stopEndpoint() {
+		this.server.stop(0);
+	}
+
+	private URL getEndpoint(final String path) throws IOException {
+		return new URL("http://localhost:" + this.server.getAddress().getPort() + path);
+	}
+
+	@Test
+	public void getResults_calledTwice_fetchedOnce() throws IOException {
+		final SparqlQueryResultCache cache = new SparqlQueryResultCache(this.tempFolder.newFolder());
+
+		assertFalse(cache.isCached(this.dataSource));
+		cache.getResults(this.dataSource);
+		assertTrue(cache.isCached(this.dataSource));
+		assertEquals(cache.getCacheFile(this.dataSource), cache.getResults(this.dataSource).getFile());
+
+		assertEquals(1, this.requests.get());
+		assertEquals("SELECT DISTINCT ?b ?a WHERE {?a <p> ?b}", this.lastQuery);
+	}
+
+	@Test
+	public void getResults_expired_fetchedAgain() throws IOException {
+		final SparqlQueryResultCache cache = new SparqlQueryResultCache(this.tempFolder.newFolder(),
+				Duration.ofHours(1));
+		cache.getResults(this.dataSource);
+		final File cacheFile = cache.getCacheFile(this.dataSource);
+		assertTrue(cacheFile.setLastModified(System.currentTimeMillis() - Duration.ofHours(2).toMillis()));
+
+		assertFalse(cache.isCached(this.dataSource));
+		cache.getResults(this.dataSource);
+		assertEquals(2, this.requests.get());
+	}
+
+	@Test
+	public void refresh_cached_fetchedAgain() throws IOException {
+		final SparqlQueryResultCache cache = new SparqlQueryResultCache(this.tempFolder.newFolder());
+		cache.getResults(this.dataSource);
+		cache.refresh(this.dataSource);
+
+		assertEquals(2, this.requests.get());
+		assertTrue(cache.isCached(this.dataSource));
+	}
+
+	@Test
+	public void invalidate_cached_removesResults() throws IOException {
+		final SparqlQueryResultCache cache = new SparqlQueryResultCache(this.tempFolder.newFolder());
+		cache.getResults(this.dataSource);
+		cache.invalidate(this.dataSource);
+
+		assertFalse(cache.getCacheFile(this.dataSource).exists());
+	}
+
+	@Test(expected = IOException.class)
+	public void getResults_endpointFails_throws() throws IOException {
+		final SparqlQueryResultCache cache = new SparqlQueryResultCache(this.tempFolder.newFolder());
+		cache.getResults(new SparqlQueryResultDataSource(this.getEndpoint("/broken"), "a", "?a ?p ?o"));
+	}
+
+	@Test
+	public void getKey_sameFields_sameKey() throws IOException {
+		final SparqlQueryResultDataSource equalDataSource = new SparqlQueryResultDataSource(
+				this.getEndpoint("/sparql"), "b, a", "?a <p> ?b");
+		final SparqlQueryResultDataSource otherDataSource = new SparqlQueryResultDataSource(
+				this.getEndpoint("/sparql"), "a,b", "?a <p> ?b");
+
+		assertEquals(SparqlQueryResultCache.getKey(this.dataSource), SparqlQueryResultCache.getKey(equalDataSource));
+		assertNotEquals(SparqlQueryResultCache.getKey(this.dataSource),
+				SparqlQueryResultCache.getKey(otherDataSource));
+	}
+
+	@Test
+	public void toConstant_rdfTerms_succeeds() throws IOException {
+		assertEquals(Expressions.makeAbstractConstant("http://example.org/a"),
+				SparqlQueryResultCache.toConstant("<http://example.org/a>"));
+		assertEquals(Expressions.makeDatatypeConstant("a\"b\tcé", PrefixDeclarationRegistry.XSD_STRING),
+				SparqlQueryResultCache.toConstant("\"a\\\"b\\tc\\u00E9\""));
+		assertEquals(Expressions.makeLanguageStringConstant("chat", "fr"),
+				SparqlQueryResultCache.toConstant("\"chat\"@fr"));
+		assertEquals(Expressions.makeDatatypeConstant("1", PrefixDeclarationRegistry.XSD_INTEGER),
+				SparqlQueryResultCache.toConstant("\"1\"^^<http://www.w3.org/2001/XMLSchema#integer>"));
+		assertEquals(Expressions.makeDatatypeConstant("-7", PrefixDeclarationRegistry.XSD_INTEGER),
+				SparqlQueryResultCache.toConstant("-7"));
+		assertEquals(Expressions.makeDatatypeConstant("1.5", PrefixDeclarationRegistry.XSD_DECIMAL),
+				SparqlQueryResultCache.toConstant("1.5"));
+		assertEquals(Expressions.makeDatatypeConstant("1.5E3", PrefixDeclarationRegistry.XSD_DOUBLE),
+				SparqlQueryResultCache.toConstant("1.5E3"));
+		assertEquals(Expressions.makeDatatypeConstant("true", PrefixDeclarationRegistry.XSD_BOOLEAN),
+				SparqlQueryResultCache.toConstant("true"));
+		assertEquals(Expressions.makeAbstractConstant("b0"), SparqlQueryResultCache.toConstant("_:b0"));
+	}
+
+	@Test(expected = IOException.class)
+	public void toConstant_invalidEscape_throws() throws IOException {
+		SparqlQueryResultCache.toConstant("\"a\\qb\"");
+	}
+
+	@Test
+	public void reason_withCache_sparqlResultsLoadedFromCache() throws IOException {
+		final SparqlQueryResultCache cache = new SparqlQueryResultCache(this.tempFolder.newFolder());
+		final Predicate predicate = Expressions.makePredicate("p", 2);
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatement(new DataSourceDeclarationImpl(predicate, this.dataSource));
+		final PositiveLiteral query = Expressions.makePositiveLiteral(predicate,
+				Expressions.makeUniversalVariable("X"), Expressions.makeUniversalVariable("Y"));
+
+		for (int i = 0; i < 2; i++) {
+			try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+				reasoner.setSparqlQueryResultCache(cache);
+				reasoner.reason();
+				final Set<List<Term>> answers = QueryResultsUtils
+						.collectQueryResults(reasoner.answerQuery(query, true));
+				assertEquals(2, answers.size());
+				assertTrue(answers.contains(Arrays.asList(Expressions.makeLanguageStringConstant("x y", "en"),
+						Expressions.makeAbstractConstant("http://example.org/a1"))));
+				assertTrue(answers.contains(Arrays.asList(
+						Expressions.makeDatatypeConstant("42", PrefixDeclarationRegistry.XSD_INTEGER),
+						Expressions.makeAbstractConstant("http://example.org/a2"))));
+			}
+		}
+		assertEquals(1, this.requests.get());
+	}
+
+	@Test
+	public void reason_withAndWithoutCache_sameAnswers() throws IOException {
+		final Predicate predicate = Expressions.makePredicate("p", 2);
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatement(new DataSourceDeclarationImpl(predicate,
+				new SparqlQueryResultDataSource(this.getEndpoint("/formats"), "b,a", "?a <p> ?b")));
+		final PositiveLiteral query = Expressions.makePositiveLiteral(predicate,
+				Expressions.makeUniversalVariable("X"), Expressions.makeUniversalVariable("Y"));
+
+		final Set<List<Term>> answersWithoutCache;
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+			answersWithoutCache = QueryResultsUtils.collectQueryResults(reasoner.answerQuery(query, true));
+		}
+		final Set<List<Term>> answersWithCache;
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.setSparqlQueryResultCache(new SparqlQueryResultCache(this.tempFolder.newFolder()));
+			reasoner.reason();
+			answersWithCache = QueryResultsUtils.collectQueryResults(reasoner.answerQuery(query, true));
+		}
+
+		assertEquals(4, answersWithoutCache.size());
+		assertEquals(answersWithoutCache, answersWithCache);
+		assertTrue(answersWithCache.contains(Arrays.asList(
+				Expressions.makeDatatypeConstant("x y", PrefixDeclarationRegistry.XSD_STRING),
+				Expressions.makeAbstractConstant("http://example.org/a1"))));
+		assertTrue(answersWithCache.contains(Arrays.asList(Expressions.makeLanguageStringConstant("chat", "fr"),
+				Expressions.makeAbstractConstant("b0"))));
+	}
+
+}
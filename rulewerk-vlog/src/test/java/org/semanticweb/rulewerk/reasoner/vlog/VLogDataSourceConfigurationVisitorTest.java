@@ -27,6 +27,7 @@ import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 
 import org.junit.Test;
@@ -38,6 +39,7 @@ import org.semanticweb.rulewerk.core.reasoner.implementation.InMemoryDataSource;
 import org.semanticweb.rulewerk.core.reasoner.implementation.RdfFileDataSource;
 import org.semanticweb.rulewerk.core.reasoner.implementation.ReasonerDataSource;
 import org.semanticweb.rulewerk.core.reasoner.implementation.SparqlQueryResultDataSource;
+import org.semanticweb.rulewerk.core.reasoner.implementation.TupleCursorDataSource;
 
 public class VLogDataSourceConfigurationVisitorTest {
 	private final String csvFile = FileDataSourceTestUtils.INPUT_FOLDER + "file.csv";
@@ -96,6 +98,13 @@ public class VLogDataSourceConfigurationVisitorTest {
 		assertEquals(null, toConfigString(inMemoryDataSource));
 	}
 
+	@Test
+	public void visit_TupleCursorDataSource_returnsNull() throws IOException {
+		final TupleCursorDataSource tupleCursorDataSource = TupleCursorDataSource.fromIterable(1,
+				Collections.emptyList());
+		assertEquals(null, toConfigString(tupleCursorDataSource));
+	}
+
 	@Test
 	public void getDirCanonicalPath_relativePath_succeeds() throws IOException {
 		final VLogDataSourceConfigurationVisitor visitor = new VLogDataSourceConfigurationVisitor();
@@ -20,18 +20,28 @@ package org.semanticweb.rulewerk.reasoner.vlog;
  * #L%
  */
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.stream.Collectors;
+
 import org.junit.Test;
 import org.semanticweb.rulewerk.core.model.api.AbstractConstant;
+import org.semanticweb.rulewerk.core.model.api.DataSourceDeclaration;
 import org.semanticweb.rulewerk.core.model.api.Fact;
 import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
 import org.semanticweb.rulewerk.core.model.api.Predicate;
 import org.semanticweb.rulewerk.core.model.api.Rule;
 import org.semanticweb.rulewerk.core.model.api.UniversalVariable;
+import org.semanticweb.rulewerk.core.model.implementation.DataSourceDeclarationImpl;
 import org.semanticweb.rulewerk.core.model.implementation.Expressions;
 import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.core.reasoner.implementation.CsvFileDataSource;
 
 public class VLogKnowledgeBaseTest {
 	private KnowledgeBase knowledgeBase = new KnowledgeBase();
@@ -72,4 +82,81 @@ public class VLogKnowledgeBaseTest {
 		VLogKnowledgeBase vKB = new VLogKnowledgeBase(knowledgeBase);
 		assertTrue(vKB.hasData());
 	}
+
+	private static void assertSameAsFreshlyBuilt(final VLogKnowledgeBase vKB, final KnowledgeBase knowledgeBase) {
+		final VLogKnowledgeBase freshVKB = new VLogKnowledgeBase(knowledgeBase);
+		assertEquals(freshVKB.getEdbPredicates(), vKB.getEdbPredicates());
+		assertEquals(freshVKB.getAliasesForEdbPredicates(), vKB.getAliasesForEdbPredicates());
+		assertEquals(freshVKB.getDirectEdbFacts(), vKB.getDirectEdbFacts());
+		assertEquals(freshVKB.getRules(), vKB.getRules());
+		assertEquals(Arrays.stream(freshVKB.getVLogRules()).map(Object::toString).collect(Collectors.toSet()),
+				Arrays.stream(vKB.getVLogRules()).map(Object::toString).collect(Collectors.toSet()));
+		assertEquals(freshVKB.getVLogDataSourcesConfigurationString().length(),
+				vKB.getVLogDataSourcesConfigurationString().length());
+		assertEquals(freshVKB.hasData(), vKB.hasData());
+		assertEquals(freshVKB.hasRules(), vKB.hasRules());
+	}
+
+	@Test
+	public void addAndRemoveStatements_sameAsFreshlyBuilt() throws IOException {
+		final DataSourceDeclaration declaration = new DataSourceDeclarationImpl(q,
+				new CsvFileDataSource(FileDataSourceTestUtils.INPUT_FOLDER + "unaryFacts.csv"));
+		final Rule ruleQ = Expressions.makeRule(Expressions.makePositiveLiteral(q, x), literal);
+		final VLogKnowledgeBase vKB = new VLogKnowledgeBase(knowledgeBase);
+
+		knowledgeBase.addStatement(fact);
+		vKB.addStatement(fact);
+		assertSameAsFreshlyBuilt(vKB, knowledgeBase);
+		assertEquals(Collections.singleton(p), vKB.getEdbPredicates().keySet());
+
+		knowledgeBase.addStatements(rule, declaration, ruleQ, Expressions.makeFact(q, c));
+		Arrays.asList(rule, declaration, ruleQ, Expressions.makeFact(q, c)).forEach(vKB::addStatement);
+		assertSameAsFreshlyBuilt(vKB, knowledgeBase);
+		assertTrue(vKB.getEdbPredicates().isEmpty());
+		assertEquals(3, vKB.getAliasesForEdbPredicates().size());
+
+		knowledgeBase.removeStatements(ruleQ, Expressions.makeFact(q, c));
+		Arrays.asList(ruleQ, Expressions.makeFact(q, c)).forEach(vKB::removeStatement);
+		assertSameAsFreshlyBuilt(vKB, knowledgeBase);
+		assertEquals(declaration, vKB.getEdbPredicates().get(q));
+
+		knowledgeBase.removeStatements(rule, declaration);
+		Arrays.asList(rule, declaration).forEach(vKB::removeStatement);
+		assertSameAsFreshlyBuilt(vKB, knowledgeBase);
+		assertFalse(vKB.hasRules());
+		assertEquals(Collections.singleton(p), vKB.getEdbPredicates().keySet());
+	}
+
+	@Test
+	public void getVLogRules_rulesConvertedOnce() {
+		knowledgeBase.addStatement(rule);
+		final VLogKnowledgeBase vKB = new VLogKnowledgeBase(knowledgeBase);
+		final karmaresearch.vlog.Rule[] vLogRules = vKB.getVLogRules();
+		assertEquals(1, vLogRules.length);
+
+		final Fact otherFact = Expressions.makeFact(q, c);
+		knowledgeBase.addStatement(otherFact);
+		vKB.addStatement(otherFact);
+		assertSame(vLogRules[0], vKB.getVLogRules()[0]);
+	}
+
+	@Test
+	public void reasoner_reloadAfterChanges_usesUpdatedKnowledgeBase() throws IOException {
+		knowledgeBase.addStatement(fact);
+		try (final VLogReasoner reasoner = new VLogReasoner(knowledgeBase)) {
+			reasoner.reason();
+			assertEquals(0, reasoner.countQueryAnswers(Expressions.makePositiveLiteral(q, x)).getCount());
+
+			final Rule ruleQ = Expressions.makeRule(Expressions.makePositiveLiteral(q, x), literal);
+			knowledgeBase.addStatement(ruleQ);
+			reasoner.reason();
+			assertEquals(1, reasoner.countQueryAnswers(Expressions.makePositiveLiteral(q, x)).getCount());
+
+			knowledgeBase.removeStatements(ruleQ, fact);
+			knowledgeBase.addStatement(Expressions.makeFact(q, c));
+			reasoner.reason();
+			assertEquals(0, reasoner.countQueryAnswers(literal).getCount());
+			assertEquals(1, reasoner.countQueryAnswers(Expressions.makePositiveLiteral(q, x)).getCount());
+		}
+	}
 }
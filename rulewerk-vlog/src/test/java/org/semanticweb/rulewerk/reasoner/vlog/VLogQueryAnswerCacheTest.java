@@ -0,0 +1,193 @@
+package org.semanticweb.rulewerk.reasoner.vlog;
+
+/*-
+ * #%L
+ * Rulewerk VLog Reasoner Support
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.semanticweb.rulewerk.core.model.api.Constant;
+import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.api.QueryResult;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.api.Variable;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.reasoner.Correctness;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.core.reasoner.QueryResultIterator;
+import org.semanticweb.rulewerk.core.reasoner.implementation.ListQueryResultIterator;
+import org.semanticweb.rulewerk.core.reasoner.implementation.QueryAnswerCountImpl;
+import org.semanticweb.rulewerk.core.reasoner.implementation.QueryResultImpl;
+
+public class VLogQueryAnswerCacheTest {
+
+	final Variable x = Expressions.makeUniversalVariable("X");
+	final Variable y = Expressions.makeUniversalVariable("Y");
+	final Constant a = Expressions.makeAbstractConstant("a");
+	final Constant b = Expressions.makeAbstractConstant("b");
+	final Constant c = Expressions.makeAbstractConstant("c");
+
+	final PositiveLiteral pXY = Expressions.makePositiveLiteral("p", this.x, this.y);
+	final PositiveLiteral pYX = Expressions.makePositiveLiteral("p", this.y, this.x);
+	final PositiveLiteral pXX = Expressions.makePositiveLiteral("p", this.x, this.x);
+	final PositiveLiteral qX = Expressions.makePositiveLiteral("q", this.x);
+
+	private static QueryResultIterator answers(final Term... terms) {
+		final List<QueryResult> answers = Arrays.asList(new QueryResultImpl(Arrays.asList(terms)));
+		return new ListQueryResultIterator(answers, Correctness.SOUND_AND_COMPLETE);
+	}
+
+	private static void consume(final QueryResultIterator answers) {
+		try (final QueryResultIterator iterator = answers) {
+			iterator.forEachRemaining(answer -> {
+			});
+		}
+	}
+
+	@Test
+	public void getAnswers_afterRecording_returnsAnswersForRenamedQuery() {
+		final VLogQueryAnswerCache cache = new VLogQueryAnswerCache(10);
+		assertNull(cache.getAnswers(this.pXY, true));
+
+		consume(cache.recordAnswers(this.pXY, true, answers(this.a, this.b)));
+
+		final QueryResultIterator cached = cache.getAnswers(this.pYX, true);
+		assertEquals(Correctness.SOUND_AND_COMPLETE, cached.getCorrectness());
+		assertEquals(Arrays.asList(this.a, this.b), cached.next().getTerms());
+		assertNull(cache.getAnswers(this.pXY, false));
+		assertNull(cache.getAnswers(this.pXX, true));
+		assertEquals(1, cache.getHitCount());
+		assertEquals(3, cache.getMissCount());
+		assertEquals(1, cache.getCachedAnswerCount());
+		assertEquals(2, cache.getCachedTermCount());
+	}
+
+	@Test
+	public void recordAnswers_closedEarly_cachesNothing() {
+		final VLogQueryAnswerCache cache = new VLogQueryAnswerCache(10);
+		cache.recordAnswers(this.pXY, true, answers(this.a, this.b)).close();
+
+		assertNull(cache.getAnswers(this.pXY, true));
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void recordAnswers_afterClear_cachesNothing() {
+		final VLogQueryAnswerCache cache = new VLogQueryAnswerCache(10);
+		final QueryResultIterator answers = cache.recordAnswers(this.pXY, true, answers(this.a, this.b));
+		cache.clear();
+		consume(answers);
+
+		assertNull(cache.getAnswers(this.pXY, true));
+	}
+
+	@Test
+	public void recordAnswers_beyondCapacity_evictsLeastRecentlyUsed() {
+		final VLogQueryAnswerCache cache = new VLogQueryAnswerCache(2);
+		consume(cache.recordAnswers(this.pXY, true, answers(this.a, this.b)));
+		consume(cache.recordAnswers(this.qX, true, answers(this.a)));
+		cache.getAnswers(this.pXY, true);
+		consume(cache.recordAnswers(this.pXX, true, answers(this.c, this.c)));
+
+		assertEquals(2, cache.size());
+		assertNull(cache.getAnswers(this.qX, true));
+		assertTrue(cache.getAnswers(this.pXY, true) != null);
+	}
+
+	@Test
+	public void recordAnswers_moreAnswersThanCapacity_cachesNothing() {
+		final VLogQueryAnswerCache cache = new VLogQueryAnswerCache(1);
+		final List<QueryResult> answers = Arrays.asList(new QueryResultImpl(Arrays.asList(this.a)),
+				new QueryResultImpl(Arrays.asList(this.b)));
+		consume(cache.recordAnswers(this.qX, true,
+				new ListQueryResultIterator(answers, Correctness.SOUND_AND_COMPLETE)));
+
+		assertNull(cache.getAnswers(this.qX, true));
+		assertEquals(0, cache.getCachedAnswerCount());
+	}
+
+	@Test
+	public void getCount_fromCachedAnswersOrCounts() {
+		final VLogQueryAnswerCache cache = new VLogQueryAnswerCache(10);
+		consume(cache.recordAnswers(this.pXY, true, answers(this.a, this.b)));
+		cache.putCount(this.qX, false, new QueryAnswerCountImpl(Correctness.SOUND_BUT_INCOMPLETE, 42));
+
+		assertEquals(1, cache.getCount(this.pYX, true).getCount());
+		assertEquals(42, cache.getCount(this.qX, false).getCount());
+		assertEquals(Correctness.SOUND_BUT_INCOMPLETE, cache.getCount(this.qX, false).getCorrectness());
+		assertNull(cache.getCount(this.qX, true));
+	}
+
+	@Test
+	public void reasoner_repeatedQueries_areAnsweredFromCache() throws IOException {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatements(Expressions.makeFact("p", this.a, this.b), Expressions.makeFact("p", this.b, this.c),
+				Expressions.makeRule(this.qX, this.pXY));
+
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			final VLogQueryAnswerCache cache = new VLogQueryAnswerCache();
+			reasoner.setQueryAnswerCache(cache);
+			reasoner.reason();
+
+			final Set<List<Term>> answers = QueryResultsUtils.collectQueryResults(reasoner.answerQuery(this.qX, true));
+			assertEquals(answers, QueryResultsUtils.collectQueryResults(reasoner.answerQuery(this.qX, true)));
+			assertEquals(2, reasoner.countQueryAnswers(this.qX, true).getCount());
+			assertEquals(2, reasoner.countQueryAnswers(this.pXY, true).getCount());
+			assertEquals(2, reasoner.countQueryAnswers(this.pYX, true).getCount());
+			assertEquals(3, cache.getHitCount());
+			assertEquals(2, cache.getMissCount());
+			assertEquals(2, cache.size());
+		}
+	}
+
+	@Test
+	public void reasoner_knowledgeBaseChanges_invalidateCache() throws IOException {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatements(Expressions.makeFact("q", this.a));
+
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			final VLogQueryAnswerCache cache = new VLogQueryAnswerCache();
+			reasoner.setQueryAnswerCache(cache);
+			reasoner.reason();
+			assertEquals(1, reasoner.countQueryAnswers(this.qX, true).getCount());
+			assertEquals(1, cache.size());
+
+			kb.addStatement(Expressions.makeFact("q", this.b));
+			assertEquals(0, cache.size());
+			assertEquals(Correctness.INCORRECT, reasoner.countQueryAnswers(this.qX, true).getCorrectness());
+			assertEquals(0, cache.size());
+
+			reasoner.reason();
+			assertEquals(2, reasoner.countQueryAnswers(this.qX, true).getCount());
+			assertEquals(1, cache.size());
+
+			reasoner.resetReasoner();
+			assertEquals(0, cache.size());
+		}
+	}
+
+}
@@ -0,0 +1,136 @@
+package org.semanticweb.rulewerk.reasoner.vlog;
+
+/*-
+ * #%L
+ * Rulewerk VLog Reasoner Support
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.semanticweb.rulewerk.core.model.api.Constant;
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.api.Rule;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.api.Variable;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+
+public class VLogReasonerFactStreamingTest {
+
+	final Variable x = Expressions.makeUniversalVariable("X");
+	final Variable y = Expressions.makeUniversalVariable("Y");
+	final Constant a = Expressions.makeAbstractConstant("a");
+	final Constant b = Expressions.makeAbstractConstant("http://example.org/b");
+	final Constant c = Expressions.makeDatatypeConstant("c, \"quoted\"\nline", "http://www.w3.org/2001/XMLSchema#string");
+	final Constant d = Expressions.makeLanguageStringConstant("d,e", "en");
+	final Constant n = Expressions.makeDatatypeConstant("42", "http://www.w3.org/2001/XMLSchema#integer");
+
+	final PositiveLiteral pXY = Expressions.makePositiveLiteral("p", x, y);
+	final PositiveLiteral qYX = Expressions.makePositiveLiteral("q", y, x);
+	final PositiveLiteral rX = Expressions.makePositiveLiteral("r", x);
+	final PositiveLiteral sX = Expressions.makePositiveLiteral("s", x);
+
+	final Rule ruleQyxPxy = Expressions.makeRule(qYX, pXY);
+	final Rule ruleRxSx = Expressions.makeRule(rX, sX);
+
+	final List<Fact> facts = Arrays.asList(Expressions.makeFact("p", a, b), Expressions.makeFact("p", c, d),
+			Expressions.makeFact("p", n, a), Expressions.makeFact("r", a), Expressions.makeFact("r", c),
+			Expressions.makeFact("s", d));
+
+	@Test(expected = IllegalArgumentException.class)
+	public void setFactStreamingThreshold_zero_throws() {
+		try (final VLogReasoner reasoner = new VLogReasoner(new KnowledgeBase())) {
+			reasoner.setFactStreamingThreshold(0);
+		}
+	}
+
+	@Test
+	public void setFactStreamingThreshold_null_disablesStreaming() {
+		try (final VLogReasoner reasoner = new VLogReasoner(new KnowledgeBase())) {
+			reasoner.setFactStreamingThreshold(5);
+			reasoner.setFactStreamingThreshold(null);
+			assertNull(reasoner.getFactStreamingThreshold());
+		}
+	}
+
+	@Test
+	public void load_streamedFacts_sameAnswersAsInMemoryFacts() throws IOException {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatements(this.ruleQyxPxy, this.ruleRxSx);
+		kb.addStatements(this.facts);
+
+		for (final PositiveLiteral query : Arrays.asList(this.pXY, this.qYX, this.rX, this.sX)) {
+			assertEquals(this.answers(kb, null, query), this.answers(kb, 1, query));
+		}
+	}
+
+	@Test
+	public void load_thresholdAboveFactCount_sameAnswersAsInMemoryFacts() throws IOException {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatements(this.ruleQyxPxy, this.ruleRxSx);
+		kb.addStatements(this.facts);
+
+		for (final PositiveLiteral query : Arrays.asList(this.pXY, this.qYX, this.rX, this.sX)) {
+			assertEquals(this.answers(kb, null, query), this.answers(kb, 3, query));
+		}
+	}
+
+	@Test
+	public void load_streamedFactsAndAliasedPredicate_inferencesIncludeStreamedFacts() throws IOException {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatements(this.ruleRxSx);
+		kb.addStatements(this.facts);
+
+		final Set<List<Term>> streamedAnswers = this.answers(kb, 1, this.rX);
+		assertEquals(3, streamedAnswers.size());
+		assertTrue(streamedAnswers.contains(Arrays.asList(this.a)));
+		assertTrue(streamedAnswers.contains(Arrays.asList(this.d)));
+		assertEquals(this.answers(kb, null, this.rX), streamedAnswers);
+	}
+
+	@Test
+	public void getData_calledRepeatedly_returnsSameArray() {
+		final VLogInMemoryDataSource dataSource = new VLogInMemoryDataSource(1, 4);
+		dataSource.addTuple("a");
+		dataSource.addTuple("b");
+
+		final String[][] data = dataSource.getData();
+		assertEquals(2, data.length);
+		assertSame(data, dataSource.getData());
+	}
+
+	private Set<List<Term>> answers(final KnowledgeBase kb, final Integer factStreamingThreshold,
+			final PositiveLiteral query) throws IOException {
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.setFactStreamingThreshold(factStreamingThreshold);
+			reasoner.reason();
+			return QueryResultsUtils.collectQueryResults(reasoner.answerQuery(query, true));
+		}
+	}
+
+}
@@ -0,0 +1,137 @@
+package org.semanticweb.rulewerk.reasoner.vlog;
+
+/*-
+ * #%L
+ * Rulewerk VLog Reasoner Support
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.reasoner.Correctness;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.core.reasoner.RuleSetOptimizationReport;
+import org.semanticweb.rulewerk.core.reasoner.QueryResultIterator;
+import org.semanticweb.rulewerk.core.reasoner.RuleSetOptimizer;
+import org.semanticweb.rulewerk.parser.ParsingException;
+import org.semanticweb.rulewerk.parser.RuleParser;
+
+public class VLogReasonerRuleSetOptimizerTest {
+
+	final Predicate reach = Expressions.makePredicate("reach", 1);
+	final Predicate out = Expressions.makePredicate("out", 1);
+	final Predicate tmp = Expressions.makePredicate("tmp", 1);
+
+	final PositiveLiteral queryReach = Expressions.makePositiveLiteral(this.reach,
+			Expressions.makeUniversalVariable("X"));
+	final PositiveLiteral queryOut = Expressions.makePositiveLiteral(this.out, Expressions.makeUniversalVariable("X"));
+
+	private static KnowledgeBase makeKnowledgeBase() throws ParsingException {
+		return RuleParser.parse("edge(a, b) . edge(b, c) . edge(c, d) . start(a) . data(b) . tmp(z) ."
+				+ "reach(?X) :- start(?X) ."
+				+ "reach(?Y) :- reach(?X), edge(?X, ?Y) ."
+				+ "reach(?Y) :- reach(?X), edge(?X, ?Y), data(?Y) ."
+				+ "tmp(?X) :- reach(?X), edge(?X, ?Y) ."
+				+ "out(?X) :- tmp(?X) ."
+				+ "unused(?X) :- edge(?X, ?Y) .");
+	}
+
+	private Set<List<Term>> answer(final RuleSetOptimizer optimizer, final PositiveLiteral query)
+			throws ParsingException, IOException {
+		try (final VLogReasoner reasoner = new VLogReasoner(makeKnowledgeBase())) {
+			reasoner.setRuleSetOptimizer(optimizer);
+			reasoner.reason();
+			return QueryResultsUtils.collectQueryResults(reasoner.answerQuery(query, true));
+		}
+	}
+
+	@Test
+	public void reason_withOptimizer_preservesAnswersForOutputPredicates() throws ParsingException, IOException {
+		final RuleSetOptimizer optimizer = new RuleSetOptimizer(Arrays.asList(this.reach, this.out));
+
+		assertEquals(this.answer(null, this.queryReach), this.answer(optimizer, this.queryReach));
+		assertEquals(this.answer(null, this.queryOut), this.answer(optimizer, this.queryOut));
+		assertEquals(4, this.answer(optimizer, this.queryOut).size());
+	}
+
+	@Test
+	public void reason_withOptimizer_reportsChanges() throws ParsingException, IOException {
+		try (final VLogReasoner reasoner = new VLogReasoner(makeKnowledgeBase())) {
+			assertNull(reasoner.getRuleSetOptimizationReport());
+
+			reasoner.setRuleSetOptimizer(new RuleSetOptimizer(Arrays.asList(this.reach, this.out)));
+			reasoner.reason();
+
+			final RuleSetOptimizationReport report = reasoner.getRuleSetOptimizationReport();
+			assertEquals(7, report.getInputRuleCount());
+			assertEquals(1, report.getSubsumedRules().size());
+			assertEquals(1, report.getUnreachableRules().size());
+			assertEquals(Collections.singleton(this.tmp), report.getInlinedPredicates());
+			assertEquals(4, report.getRules().size());
+		}
+	}
+
+	@Test
+	public void answerQuery_nonOutputPredicate_soundButIncomplete() throws ParsingException, IOException {
+		final PositiveLiteral queryTmp = Expressions.makePositiveLiteral(this.tmp,
+				Expressions.makeUniversalVariable("X"));
+		final PositiveLiteral queryUnused = Expressions.makePositiveLiteral("unused",
+				Expressions.makeUniversalVariable("X"));
+
+		try (final VLogReasoner reasoner = new VLogReasoner(makeKnowledgeBase())) {
+			reasoner.setRuleSetOptimizer(new RuleSetOptimizer(Arrays.asList(this.reach, this.out)));
+			reasoner.reason();
+
+			try (final QueryResultIterator answers = reasoner.answerQuery(this.queryOut, true)) {
+				assertEquals(Correctness.SOUND_AND_COMPLETE, answers.getCorrectness());
+			}
+			try (final QueryResultIterator answers = reasoner.answerQuery(queryTmp, true)) {
+				assertEquals(Correctness.SOUND_BUT_INCOMPLETE, answers.getCorrectness());
+			}
+			try (final QueryResultIterator answers = reasoner.answerQuery(queryUnused, true)) {
+				assertEquals(Correctness.SOUND_BUT_INCOMPLETE, answers.getCorrectness());
+			}
+			assertEquals(Correctness.SOUND_BUT_INCOMPLETE, reasoner.countQueryAnswers(queryTmp).getCorrectness());
+			assertEquals(Correctness.SOUND_AND_COMPLETE,
+					reasoner.countQueryAnswers(this.queryReach).getCorrectness());
+			assertEquals(Correctness.SOUND_BUT_INCOMPLETE, reasoner.answerConjunctiveQuery(
+					Expressions.makePositiveConjunction(this.queryOut, queryTmp),
+					Arrays.asList(Expressions.makeUniversalVariable("X")), true).getCorrectness());
+		}
+	}
+
+	@Test
+	public void reason_withoutOutputPredicates_preservesAllAnswers() throws ParsingException, IOException {
+		final PositiveLiteral queryTmp = Expressions.makePositiveLiteral(this.tmp,
+				Expressions.makeUniversalVariable("X"));
+
+		assertEquals(this.answer(null, queryTmp), this.answer(new RuleSetOptimizer(), queryTmp));
+	}
+
+}
@@ -0,0 +1,225 @@
+package org.semanticweb.rulewerk.reasoner.vlog;
+
+/*-
+ * #%L
+ * Rulewerk VLog Reasoner Support
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.semanticweb.rulewerk.core.exceptions.ReasonerStateException;
+import org.semanticweb.rulewerk.core.model.api.Constant;
+import org.semanticweb.rulewerk.core.model.api.DataSource;
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.api.TermType;
+import org.semanticweb.rulewerk.core.model.api.Variable;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.reasoner.Correctness;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.core.reasoner.QueryResultIterator;
+import org.semanticweb.rulewerk.core.reasoner.ReasonerState;
+import org.semanticweb.rulewerk.core.reasoner.RuleSetOptimizer;
+
+public class VLogReasonerSnapshotTest {
+
+	@org.junit.Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
+	private static final Variable x = Expressions.makeUniversalVariable("X");
+	private static final Variable y = Expressions.makeUniversalVariable("Y");
+	private static final Variable z = Expressions.makeExistentialVariable("Z");
+
+	private static final Constant iri = Expressions.makeAbstractConstant("http://example.org/a");
+	private static final Constant relative = Expressions.makeAbstractConstant("b");
+	private static final Constant integer = Expressions.makeDatatypeConstant("1",
+			"http://www.w3.org/2001/XMLSchema#integer");
+	private static final Constant stringWithComma = Expressions.makeDatatypeConstant("a, \"quoted\" b",
+			"http://www.w3.org/2001/XMLSchema#string");
+
+	private static final PositiveLiteral qX = Expressions.makePositiveLiteral("q", x);
+	private static final PositiveLiteral pXY = Expressions.makePositiveLiteral("p", x, y);
+
+	private static KnowledgeBase makeKnowledgeBase() {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatements(Expressions.makeFact("q", iri), Expressions.makeFact("q", relative),
+				Expressions.makeFact("q", integer), Expressions.makeFact("q", stringWithComma),
+				Expressions.makeFact("r", relative, relative));
+		/* p(?X, !Z) :- q(?X) . */
+		kb.addStatement(Expressions.makeRule(Expressions.makePositiveLiteral("p", x, z), qX));
+		/* s(?X) :- q(?X) . */
+		kb.addStatement(Expressions.makeRule(Expressions.makePositiveLiteral("s", x), qX));
+		return kb;
+	}
+
+	private static Set<Fact> getInferences(final VLogReasoner reasoner) {
+		try (Stream<Fact> inferences = reasoner.getInferences()) {
+			return inferences.collect(Collectors.toSet());
+		}
+	}
+
+	@Test
+	public void exportDBToDir_loadSnapshot_sameFactsWithoutNulls() throws IOException {
+		final File directory = new File(this.tempFolder.getRoot(), "model");
+		final Set<Fact> expected;
+		try (final VLogReasoner reasoner = new VLogReasoner(makeKnowledgeBase())) {
+			reasoner.reason();
+			expected = getInferences(reasoner).stream().filter(fact -> !fact.getPredicate().getName().equals("p"))
+					.collect(Collectors.toSet());
+
+			final Map<Predicate, DataSource> dataSources = reasoner.exportDBToDir(directory);
+			assertEquals(4, dataSources.size());
+			assertTrue(dataSources.containsKey(Expressions.makePredicate("p", 2)));
+		}
+
+		try (final VLogReasoner restored = VLogReasoner.loadSnapshot(directory)) {
+			assertEquals(ReasonerState.MATERIALISED, restored.getReasonerState());
+			assertEquals(Correctness.SOUND_AND_COMPLETE, restored.getCorrectness());
+			assertTrue(restored.getKnowledgeBase().getRules().isEmpty());
+
+			final Set<Fact> actual = getInferences(restored);
+			assertTrue(actual.containsAll(expected));
+			assertEquals(expected.size() + 4, actual.size());
+		}
+	}
+
+	@Test
+	public void loadSnapshot_nullsRestoredAsSkolemConstants() throws IOException {
+		final File directory = this.tempFolder.newFolder();
+		try (final VLogReasoner reasoner = new VLogReasoner(makeKnowledgeBase())) {
+			reasoner.reason();
+			assertEquals(0, reasoner.countQueryAnswers(pXY, false).getCount());
+			reasoner.exportDBToDir(directory);
+		}
+
+		// nulls cannot be restored as nulls, so they are no longer filtered out
+		try (final VLogReasoner restored = VLogReasoner.loadSnapshot(directory);
+				final QueryResultIterator answers = restored.answerQuery(pXY, true)) {
+			int count = 0;
+			while (answers.hasNext()) {
+				final List<Term> terms = answers.next().getTerms();
+				assertEquals(TermType.ABSTRACT_CONSTANT, terms.get(1).getType());
+				count++;
+			}
+			assertEquals(4, count);
+			assertEquals(4, restored.countQueryAnswers(pXY, false).getCount());
+		}
+	}
+
+	@Test
+	public void loadSnapshot_incompleteModel_correctnessRestored() throws IOException {
+		final File directory = this.tempFolder.newFolder();
+		try (final VLogReasoner reasoner = new VLogReasoner(makeKnowledgeBase())) {
+			// the rule for p is removed, so the model is incomplete for p
+			reasoner.setRuleSetOptimizer(
+					new RuleSetOptimizer(Collections.singleton(Expressions.makePredicate("s", 1))));
+			reasoner.reason();
+			reasoner.exportDBToDir(directory);
+		}
+
+		try (final VLogReasoner restored = VLogReasoner.loadSnapshot(directory);
+				final QueryResultIterator answers = restored.answerQuery(qX, true)) {
+			assertEquals(Correctness.SOUND_BUT_INCOMPLETE, restored.getCorrectness());
+			assertEquals(Correctness.SOUND_BUT_INCOMPLETE, answers.getCorrectness());
+		}
+	}
+
+	@Test
+	public void loadSnapshot_answersQueriesLikeOriginal() throws IOException {
+		final File directory = this.tempFolder.newFolder();
+		final Set<List<Term>> expected;
+		final PositiveLiteral sX = Expressions.makePositiveLiteral("s", x);
+		try (final VLogReasoner reasoner = new VLogReasoner(makeKnowledgeBase())) {
+			reasoner.reason();
+			try (final QueryResultIterator answers = reasoner.answerQuery(sX, true)) {
+				expected = QueryResultsUtils.collectQueryResults(answers);
+			}
+			reasoner.exportDBToDir(directory);
+		}
+
+		try (final VLogReasoner restored = VLogReasoner.loadSnapshot(directory);
+				final QueryResultIterator answers = restored.answerQuery(sX, true)) {
+			assertEquals(expected, QueryResultsUtils.collectQueryResults(answers));
+		}
+	}
+
+	@Test
+	public void exportDBToDir_emptyPredicatesOmitted() throws IOException {
+		final File directory = this.tempFolder.newFolder();
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatements(Expressions.makeFact("q", relative),
+				Expressions.makeRule(Expressions.makePositiveLiteral("t", x), Expressions.makePositiveLiteral("u", x)));
+
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+			final Map<Predicate, DataSource> dataSources = reasoner.exportDBToDir(directory);
+			assertEquals(Collections.singleton(Expressions.makePredicate("q", 1)), dataSources.keySet());
+		}
+
+		try (final VLogReasoner restored = VLogReasoner.loadSnapshot(directory)) {
+			assertEquals(Collections.singleton(Expressions.makeFact("q", relative)), getInferences(restored));
+			assertFalse(restored.answerQuery(Expressions.makePositiveLiteral("t", x), true).hasNext());
+		}
+	}
+
+	@Test(expected = ReasonerStateException.class)
+	public void exportDBToDir_beforeLoad_throws() throws IOException {
+		try (final VLogReasoner reasoner = new VLogReasoner(makeKnowledgeBase())) {
+			reasoner.exportDBToDir(this.tempFolder.newFolder());
+		}
+	}
+
+	@Test(expected = ReasonerStateException.class)
+	public void exportDBToDir_notMaterialised_throws() throws IOException {
+		try (final VLogReasoner reasoner = new VLogReasoner(makeKnowledgeBase())) {
+			reasoner.load();
+			assertEquals(ReasonerState.KB_LOADED, reasoner.getReasonerState());
+			reasoner.exportDBToDir(this.tempFolder.newFolder());
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void loadSnapshot_missingManifest_throws() throws IOException {
+		VLogReasoner.loadSnapshot(this.tempFolder.newFolder());
+	}
+
+	@Test
+	public void toCsvField_quotesSpecialCharacters() {
+		assertEquals("<http://example.org/a>", VLogCsvWriter.toCsvField("<http://example.org/a>"));
+		assertEquals("\"a,b\"", VLogCsvWriter.toCsvField("a,b"));
+		assertEquals("\"\"\"1\"\"^^<http://www.w3.org/2001/XMLSchema#integer>\"",
+				VLogCsvWriter.toCsvField("\"1\"^^<http://www.w3.org/2001/XMLSchema#integer>"));
+		assertEquals("b", VLogCsvWriter.toCsvField("b"));
+	}
+
+}
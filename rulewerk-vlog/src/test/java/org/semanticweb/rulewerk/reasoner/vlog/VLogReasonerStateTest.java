@@ -24,7 +24,9 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -33,6 +35,7 @@ import java.util.List;
 import java.util.Set;
 
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.semanticweb.rulewerk.core.exceptions.ReasonerStateException;
 import org.semanticweb.rulewerk.core.model.api.Constant;
 import org.semanticweb.rulewerk.core.model.api.Fact;
@@ -484,4 +487,125 @@ public class VLogReasonerStateTest {
 		}
 	}
 
+	@org.junit.Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
+	private File csvFile;
+
+	private static Set<List<Term>> getAnswers(final Reasoner reasoner, final PositiveLiteral query) {
+		try (final QueryResultIterator queryResult = reasoner.answerQuery(query, true)) {
+			return QueryResultsUtils.collectQueryResults(queryResult);
+		}
+	}
+
+	private static Set<List<Term>> makeAnswers(final Term... terms) {
+		final Set<List<Term>> answers = new HashSet<>();
+		for (final Term term : terms) {
+			answers.add(Collections.singletonList(term));
+		}
+		return answers;
+	}
+
+	/**
+	 * Knowledge base with {@link #ruleQxPx} and facts for {@link #p} from a
+	 * temporary CSV file, whose contents can be changed to tell whether it is read
+	 * again.
+	 */
+	private KnowledgeBase makeKnowledgeBaseWithCsvFile(final String... lines) throws IOException {
+		this.csvFile = tempFolder.newFile("p.csv");
+		Files.write(this.csvFile.toPath(), Arrays.asList(lines));
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatements(ruleQxPx, new DataSourceDeclarationImpl(p, new CsvFileDataSource(this.csvFile.getPath())));
+		return kb;
+	}
+
+	@Test
+	public void testStatementAddedAndRemovedAfterReason() throws IOException {
+		final KnowledgeBase kb = makeKnowledgeBaseWithCsvFile("c");
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+			kb.addStatement(factPd);
+			kb.removeStatement(factPd);
+			assertEquals(ReasonerState.KB_CHANGED, reasoner.getReasonerState());
+
+			Files.write(this.csvFile.toPath(), Arrays.asList("e"));
+			reasoner.reason();
+			assertEquals(ReasonerState.MATERIALISED, reasoner.getReasonerState());
+			assertEquals(Correctness.SOUND_AND_COMPLETE, reasoner.getCorrectness());
+			assertEquals(makeAnswers(c), getAnswers(reasoner, ruleHeadQx));
+		}
+	}
+
+	@Test
+	public void testStatementRemovedAndAddedAfterLoad() throws IOException {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatements(ruleQxPx, factPc, factPd);
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.load();
+			kb.removeStatements(factPc, ruleQxPx);
+			kb.addStatement(factPc);
+			kb.addStatements(Arrays.asList(ruleQxPx));
+			assertEquals(ReasonerState.KB_CHANGED, reasoner.getReasonerState());
+			reasoner.load();
+			assertEquals(ReasonerState.KB_LOADED, reasoner.getReasonerState());
+		}
+	}
+
+	@Test
+	public void testPendingChangesClearedOnReload() throws IOException {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatements(ruleQxPx, factPc);
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+			kb.addStatement(factPd);
+			reasoner.reason();
+			kb.removeStatement(factPd);
+			assertEquals(ReasonerState.KB_CHANGED, reasoner.getReasonerState());
+			assertEquals(makeAnswers(c, d), getAnswers(reasoner, ruleHeadQx));
+
+			reasoner.reason();
+			assertEquals(makeAnswers(c), getAnswers(reasoner, ruleHeadQx));
+		}
+	}
+
+	@Test
+	public void testStatementsAddedAfterReasonExtendMaterialisation() throws IOException {
+		final KnowledgeBase kb = makeKnowledgeBaseWithCsvFile("c");
+		final Predicate r = Expressions.makePredicate("r", 1);
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+			Files.write(this.csvFile.toPath(), Arrays.asList("e"));
+			kb.addStatements(factPd, Expressions.makeRule(Expressions.makePositiveLiteral(r, x), ruleHeadQx));
+			reasoner.reason();
+
+			assertEquals(ReasonerState.MATERIALISED, reasoner.getReasonerState());
+			assertEquals(Correctness.SOUND_AND_COMPLETE, reasoner.getCorrectness());
+			assertEquals(makeAnswers(c, d), getAnswers(reasoner, ruleBodyPx));
+			assertEquals(makeAnswers(c, d), getAnswers(reasoner, ruleHeadQx));
+			assertEquals(makeAnswers(c, d), getAnswers(reasoner, Expressions.makePositiveLiteral(r, x)));
+
+			// removals after the extension still reload the original data
+			kb.removeStatement(factPd);
+			reasoner.reason();
+			assertEquals(makeAnswers(Expressions.makeAbstractConstant("e")), getAnswers(reasoner, ruleHeadQx));
+		}
+	}
+
+	@Test
+	public void testStatementAddedToModelWithNullsReloads() throws IOException {
+		final KnowledgeBase kb = makeKnowledgeBaseWithCsvFile("c");
+		final Variable y = Expressions.makeExistentialVariable("y");
+		kb.addStatement(Expressions.makeRule(Expressions.makePositiveLiteral("s", x, y), ruleBodyPx));
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+			Files.write(this.csvFile.toPath(), Arrays.asList("e"));
+			kb.addStatement(factPd);
+			reasoner.reason();
+
+			assertEquals(makeAnswers(d, Expressions.makeAbstractConstant("e")), getAnswers(reasoner, ruleHeadQx));
+			assertEquals(2, reasoner.countQueryAnswers(
+					Expressions.makePositiveLiteral("s", x, Expressions.makeUniversalVariable("y")), true).getCount());
+		}
+	}
+
 }
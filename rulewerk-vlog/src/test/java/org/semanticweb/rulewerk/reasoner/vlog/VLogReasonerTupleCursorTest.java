@@ -0,0 +1,174 @@
+package org.semanticweb.rulewerk.reasoner.vlog;
+
+/*-
+ * #%L
+ * Rulewerk VLog Reasoner Support
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.semanticweb.rulewerk.core.model.api.Constant;
+import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.api.Variable;
+import org.semanticweb.rulewerk.core.model.implementation.DataSourceDeclarationImpl;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.core.reasoner.implementation.TupleCursorDataSource;
+import org.semanticweb.rulewerk.core.reasoner.implementation.TupleCursorDataSource.TupleCursor;
+
+public class VLogReasonerTupleCursorTest {
+
+	final Variable x = Expressions.makeUniversalVariable("X");
+	final Variable y = Expressions.makeUniversalVariable("Y");
+	final Constant a = Expressions.makeAbstractConstant("a");
+	final Constant b = Expressions.makeAbstractConstant("b");
+
+	final Predicate p = Expressions.makePredicate("p", 2);
+	final PositiveLiteral pXY = Expressions.makePositiveLiteral(this.p, this.x, this.y);
+	final PositiveLiteral qYX = Expressions.makePositiveLiteral("q", this.y, this.x);
+
+	final List<String[]> tuples = Arrays.asList(new String[] { "a", "http://example.org/b" },
+			new String[] { "\"c, \\\"quoted\\\"\"^^<http://www.w3.org/2001/XMLSchema#string>", "\"d,e\"@en" },
+			new String[] { "\"42\"^^<http://www.w3.org/2001/XMLSchema#integer>", "a" }, new String[] { "b", "c" },
+			new String[] { "c", "d" });
+
+	/**
+	 * Opens cursors over {@link #tuples} and records how they are used.
+	 */
+	class CountingCursorProvider implements TupleCursorDataSource.TupleCursorProvider {
+		final AtomicInteger opened = new AtomicInteger();
+		final AtomicInteger closed = new AtomicInteger();
+		int largestBatch = 0;
+
+		@Override
+		public TupleCursor open() {
+			this.opened.incrementAndGet();
+			final Iterator<String[]> iterator = VLogReasonerTupleCursorTest.this.tuples.iterator();
+			return new TupleCursor() {
+				@Override
+				public int fetch(final String[][] batch) {
+					CountingCursorProvider.this.largestBatch = Math.max(CountingCursorProvider.this.largestBatch,
+							batch.length);
+					int size = 0;
+					while (size < batch.length && iterator.hasNext()) {
+						batch[size++] = iterator.next();
+					}
+					return size;
+				}
+
+				@Override
+				public void close() {
+					CountingCursorProvider.this.closed.incrementAndGet();
+				}
+			};
+		}
+	}
+
+	@Test
+	public void load_tupleCursorDataSource_sameAnswersAsInMemoryDataSource() throws IOException {
+		final VLogInMemoryDataSource inMemoryDataSource = new VLogInMemoryDataSource(2, this.tuples.size());
+		this.tuples.forEach(inMemoryDataSource::addTuple);
+		final CountingCursorProvider cursorProvider = new CountingCursorProvider();
+		final TupleCursorDataSource cursorDataSource = new TupleCursorDataSource(2, 2, cursorProvider);
+
+		final KnowledgeBase inMemoryKb = new KnowledgeBase();
+		inMemoryKb.addStatements(new DataSourceDeclarationImpl(this.p, inMemoryDataSource),
+				Expressions.makeRule(this.qYX, this.pXY));
+		final KnowledgeBase cursorKb = new KnowledgeBase();
+		cursorKb.addStatements(new DataSourceDeclarationImpl(this.p, cursorDataSource),
+				Expressions.makeRule(this.qYX, this.pXY));
+
+		for (final PositiveLiteral query : Arrays.asList(this.pXY, this.qYX)) {
+			final Set<List<Term>> answers = this.answers(cursorKb, query);
+			assertEquals(this.tuples.size(), answers.size());
+			assertEquals(this.answers(inMemoryKb, query), answers);
+		}
+		assertEquals(2, cursorProvider.largestBatch);
+		assertEquals(2, cursorProvider.opened.get());
+		assertEquals(2, cursorProvider.closed.get());
+	}
+
+	@Test
+	public void load_tupleCursorDataSourceWithFacts_factsAndTuplesLoaded() throws IOException {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatement(new DataSourceDeclarationImpl(this.p, TupleCursorDataSource.fromIterable(2, this.tuples)));
+		kb.addStatement(Expressions.makeFact(this.p, this.b, this.a));
+
+		final Set<List<Term>> answers = this.answers(kb, this.pXY);
+		assertEquals(this.tuples.size() + 1, answers.size());
+		assertTrue(answers.contains(Arrays.asList(this.b, this.a)));
+		assertTrue(answers.contains(Arrays.asList(this.a, Expressions.makeAbstractConstant("http://example.org/b"))));
+	}
+
+	@Test
+	public void load_emptyTupleCursor_noAnswers() throws IOException {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatement(new DataSourceDeclarationImpl(this.p,
+				TupleCursorDataSource.fromIterable(2, Collections.<String[]>emptyList())));
+
+		assertEquals(Collections.emptySet(), this.answers(kb, this.pXY));
+	}
+
+	@Test
+	public void reason_afterReset_tuplesPulledAgain() throws IOException {
+		final CountingCursorProvider cursorProvider = new CountingCursorProvider();
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatement(new DataSourceDeclarationImpl(this.p, new TupleCursorDataSource(2, cursorProvider)));
+
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+			reasoner.resetReasoner();
+			reasoner.reason();
+			assertEquals(this.tuples.size(),
+					QueryResultsUtils.collectQueryResults(reasoner.answerQuery(this.pXY, true)).size());
+		}
+		assertEquals(2, cursorProvider.opened.get());
+		assertEquals(2, cursorProvider.closed.get());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void load_tupleOfWrongArity_throws() throws IOException {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatement(new DataSourceDeclarationImpl(this.p,
+				TupleCursorDataSource.fromIterable(2, Arrays.<String[]>asList(new String[] { "a" }))));
+
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.load();
+		}
+	}
+
+	private Set<List<Term>> answers(final KnowledgeBase kb, final PositiveLiteral query) throws IOException {
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+			return QueryResultsUtils.collectQueryResults(reasoner.answerQuery(query, true));
+		}
+	}
+
+}
@@ -23,21 +23,30 @@ package org.semanticweb.rulewerk.reasoner.vlog;
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import org.semanticweb.rulewerk.core.exceptions.PrefixDeclarationException;
+import org.semanticweb.rulewerk.core.exceptions.ReasonerStateException;
 import org.semanticweb.rulewerk.core.exceptions.RulewerkRuntimeException;
 import org.semanticweb.rulewerk.core.model.api.AbstractConstant;
 import org.semanticweb.rulewerk.core.model.api.Conjunction;
@@ -57,6 +66,9 @@ import org.semanticweb.rulewerk.core.reasoner.Reasoner.InferenceAction;
 import org.semanticweb.rulewerk.core.reasoner.implementation.InMemoryDataSource;
 
 public class VLogReasonerWriteInferencesTest {
+	@org.junit.Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
 	private final Constant c = Expressions.makeAbstractConstant("http://example.org/c");
 	private final Fact fact = Expressions.makeFact("http://example.org/s", c);
 	private final AbstractConstant dresdenConst = Expressions.makeAbstractConstant("dresden");
@@ -139,6 +151,139 @@ public class VLogReasonerWriteInferencesTest {
 		}
 	}
 
+	@Test
+	public void getInferences_partiallyConsumed_succeeds() throws IOException {
+		try (final Reasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+			try (final Stream<Fact> inferences = reasoner.getInferences()) {
+				assertEquals(3, inferences.limit(3).count());
+			}
+			try (final Stream<Fact> inferences = reasoner.getInferences()) {
+				assertEquals(10, inferences.count());
+			}
+		}
+	}
+
+	@Test(expected = ReasonerStateException.class)
+	public void getInferences_beforeLoad_throws() {
+		try (final Reasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.getInferences();
+		}
+	}
+
+	@Test
+	public void writeInferences_parallel_writesEachPredicateSeparately() throws IOException {
+		final Set<String> inferences = new HashSet<>(getInferences());
+		final Map<Predicate, StringWriter> writers = new ConcurrentHashMap<>();
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+			reasoner.writeInferences(predicate -> writers.computeIfAbsent(predicate, p -> new StringWriter()), 3);
+		}
+
+		final Set<String> fromParallel = new HashSet<>();
+		for (final StringWriter writer : writers.values()) {
+			fromParallel.addAll(Arrays.asList(writer.toString().split("\n")));
+		}
+		assertEquals(inferences, fromParallel);
+		assertEquals(fact.toString(), writers.get(fact.getPredicate()).toString().trim());
+	}
+
+	@Test
+	public void writeInferences_parallelToDirectory_writesOneFilePerPredicate() throws IOException {
+		final File directory = tempFolder.newFolder();
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+			reasoner.writeInferences(directory, 2);
+			assertEquals(reasoner.getKnowledgeBasePredicates().size(), directory.list().length);
+		}
+		final List<String> lines = Files.readAllLines(
+				new File(directory, VLogReasoner.getInferencesFileName(locatedInPred)).toPath(),
+				StandardCharsets.UTF_8);
+		assertEquals(3, lines.size());
+		assertTrue(lines.contains("LocatedIn(Egypt, Africa) ."));
+		assertTrue(lines.contains("LocatedIn(dresden, germany) ."));
+	}
+
+	@Test
+	public void getInferencesFileName_distinctPredicates_distinctNames() {
+		final Set<String> fileNames = new HashSet<>(Arrays.asList(
+				VLogReasoner.getInferencesFileName(Expressions.makePredicate("http://example.org/a", 1)),
+				VLogReasoner.getInferencesFileName(Expressions.makePredicate("http://example.org/a", 2)),
+				VLogReasoner.getInferencesFileName(Expressions.makePredicate("http:__example.org_a", 1)),
+				VLogReasoner.getInferencesFileName(Expressions.makePredicate("http%3A%2F%2Fexample.org%2Fa", 1))));
+		assertEquals(4, fileNames.size());
+	}
+
+	@Test
+	public void getInferencesFileName_longPredicateNames_boundedDistinctNames() {
+		final String longName = "http://example.org/" + String.join("", Collections.nCopies(300, "a"));
+		final Set<String> fileNames = new HashSet<>(Arrays.asList(
+				VLogReasoner.getInferencesFileName(Expressions.makePredicate(longName, 1)),
+				VLogReasoner.getInferencesFileName(Expressions.makePredicate(longName + "b", 1)),
+				VLogReasoner.getInferencesFileName(Expressions.makePredicate(longName.substring(0, 100), 1))));
+		assertEquals(3, fileNames.size());
+		for (final String fileName : fileNames) {
+			assertTrue(fileName.length() <= VLogReasoner.MAX_ENCODED_NAME_LENGTH + 10);
+		}
+	}
+
+	@Test
+	public void writeInferences_parallelManyInferences_writesAllInOrder() throws IOException {
+		final Predicate predicate = Expressions.makePredicate("p", 1);
+		final KnowledgeBase largeKb = new KnowledgeBase();
+		final int count = 2 * VLogReasoner.EXPORT_BATCH_SIZE + 1;
+		for (int i = 0; i < count; i++) {
+			largeKb.addStatement(Expressions.makeFact(predicate, Expressions.makeAbstractConstant("c" + i)));
+		}
+		final Map<Predicate, StringWriter> writers = new ConcurrentHashMap<>();
+		final List<String> expected = new ArrayList<>();
+		try (final VLogReasoner reasoner = new VLogReasoner(largeKb)) {
+			reasoner.reason();
+			reasoner.unsafeForEachInference(
+					(p, terms) -> expected.add(Expressions.makeFact(p, terms).toString()));
+			reasoner.writeInferences(p -> writers.computeIfAbsent(p, key -> new StringWriter()), 2);
+		}
+		assertEquals(expected, Arrays.asList(writers.get(predicate).toString().split("\n")));
+	}
+
+	@Test
+	public void writeInferences_orderedParallel_sameAsSequential() throws IOException {
+		final StringWriter expected = new StringWriter();
+		final StringWriter writer = new StringWriter();
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+			reasoner.writeInferences(expected);
+			reasoner.writeInferences(writer, 3);
+		}
+		assertEquals(expected.toString(), writer.toString());
+	}
+
+	@Test
+	public void writeInferences_orderedParallelManyBatches_sameAsSequential() throws IOException {
+		final KnowledgeBase largeKb = new KnowledgeBase();
+		for (int i = 0; i < 3 * VLogReasoner.EXPORT_BATCH_SIZE; i++) {
+			largeKb.addStatement(Expressions.makeFact("p" + i % 3, Expressions.makeAbstractConstant("c" + i)));
+		}
+		final StringWriter expected = new StringWriter();
+		final StringWriter writer = new StringWriter();
+		try (final VLogReasoner reasoner = new VLogReasoner(largeKb)) {
+			reasoner.reason();
+			reasoner.writeInferences(expected);
+			reasoner.writeInferences(writer, 2);
+		}
+		assertEquals(expected.toString(), writer.toString());
+	}
+
+	@Test(expected = IOException.class)
+	public void writeInferences_parallelFailingWriter_throws() throws IOException {
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+			reasoner.writeInferences(predicate -> {
+				throw new IOException("cannot open writer");
+			}, 2);
+		}
+	}
+
 	@Test
 	public void unsafeForEachInference_example_succeeds() throws IOException {
 		final List<String> inferences = getInferences();
@@ -0,0 +1,210 @@
+package org.semanticweb.rulewerk.reasoner.vlog;
+
+/*-
+ * #%L
+ * Rulewerk VLog Reasoner Support
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+import org.semanticweb.rulewerk.core.model.api.Constant;
+import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.api.Variable;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.core.reasoner.QueryResultIterator;
+
+public class VLogTermCacheTest {
+
+	private static Term term(final long id) {
+		return Expressions.makeAbstractConstant("c" + id);
+	}
+
+	@Test
+	public void get_afterPut_returnsTerm() {
+		final VLogTermCache cache = new VLogTermCache(10);
+		cache.put(42, term(42));
+		assertEquals(term(42), cache.get(42));
+		assertNull(cache.get(43));
+		assertEquals(1, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+	}
+
+	@Test
+	public void put_beyondCapacity_evictsUnreferencedEntries() {
+		final VLogTermCache cache = new VLogTermCache(3);
+		cache.put(1, term(1));
+		cache.put(2, term(2));
+		cache.put(3, term(3));
+		cache.get(1);
+		cache.put(4, term(4));
+
+		assertEquals(3, cache.size());
+		assertEquals(term(1), cache.get(1));
+		assertNull(cache.get(2));
+		assertEquals(term(4), cache.get(4));
+	}
+
+	@Test
+	public void getSegmentIndex_largeSegments_allHomePositionsUsed() {
+		final VLogTermCache cache = new VLogTermCache(1 << 20);
+		final int tableMask = cache.getSegment(0).tableMask;
+		final Set<Integer> highBits = new HashSet<>();
+		for (long id = 0; id < 100000; id++) {
+			if (cache.getSegmentIndex(id) == 0) {
+				highBits.add((VLogTermCache.hash(id) & tableMask) >>> 12);
+			}
+		}
+		assertEquals((tableMask >>> 12) + 1, highBits.size());
+	}
+
+	@Test
+	public void getSegmentIndex_singleSegment_returnsZero() {
+		final VLogTermCache cache = new VLogTermCache(10);
+		for (long id = 0; id < 1000; id++) {
+			assertEquals(0, cache.getSegmentIndex(id));
+		}
+	}
+
+	@Test
+	public void put_zeroCapacity_cachesNothing() {
+		final VLogTermCache cache = new VLogTermCache(0);
+		cache.put(1, term(1));
+		assertNull(cache.get(1));
+		assertEquals(0, cache.size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_negativeCapacity_throws() {
+		new VLogTermCache(-1);
+	}
+
+	@Test
+	public void clear_removesAllEntries() {
+		final VLogTermCache cache = new VLogTermCache(10);
+		cache.put(1, term(1));
+		cache.clear();
+		assertNull(cache.get(1));
+		assertEquals(0, cache.size());
+		cache.put(1, term(1));
+		assertEquals(term(1), cache.get(1));
+	}
+
+	@Test
+	public void putAndGet_randomOperations_consistentWithMap() {
+		final int capacity = 5000;
+		final VLogTermCache cache = new VLogTermCache(capacity);
+		final Map<Long, Term> reference = new HashMap<>();
+		final Random random = new Random(42);
+		for (int i = 0; i < 200000; i++) {
+			final long id = random.nextInt(20000) - 100;
+			final Term cached = cache.get(id);
+			if (cached == null) {
+				reference.put(id, term(id));
+				cache.put(id, term(id));
+			} else {
+				assertEquals(reference.get(id), cached);
+			}
+			assertTrue(cache.size() <= capacity);
+		}
+		assertEquals(capacity, cache.size());
+	}
+
+	@Test
+	public void putAndGet_concurrently_consistent() throws InterruptedException {
+		final VLogTermCache cache = new VLogTermCache(4096);
+		final List<Thread> threads = new ArrayList<>();
+		final List<Throwable> errors = new ArrayList<>();
+		for (int t = 0; t < 4; t++) {
+			final Random random = new Random(t);
+			threads.add(new Thread(() -> {
+				try {
+					for (int i = 0; i < 50000; i++) {
+						final long id = random.nextInt(10000);
+						final Term cached = cache.get(id);
+						if (cached == null) {
+							cache.put(id, term(id));
+						} else {
+							assertEquals(term(id), cached);
+						}
+					}
+				} catch (final Throwable e) {
+					synchronized (errors) {
+						errors.add(e);
+					}
+				}
+			}));
+		}
+		for (final Thread thread : threads) {
+			thread.start();
+		}
+		for (final Thread thread : threads) {
+			thread.join();
+		}
+		assertTrue(errors.toString(), errors.isEmpty());
+		assertEquals(200000, cache.getHitCount() + cache.getMissCount());
+	}
+
+	@Test
+	public void answerQuery_repeated_hitsSharedCache() throws IOException {
+		final Constant c = Expressions.makeAbstractConstant("c");
+		final Constant d = Expressions.makeAbstractConstant("d");
+		final Variable x = Expressions.makeUniversalVariable("X");
+		final Variable y = Expressions.makeUniversalVariable("Y");
+		final PositiveLiteral query = Expressions.makePositiveLiteral("p", x, y);
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatements(Expressions.makeFact("p", c, d));
+
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+			final VLogTermCache cache = reasoner.getTermCache();
+			for (int i = 0; i < 3; i++) {
+				try (final QueryResultIterator answers = reasoner.answerQuery(query, true)) {
+					assertEquals(Expressions.makeFact("p", c, d).getArguments(), answers.next().getTerms());
+				}
+			}
+			assertEquals(2, cache.getMissCount());
+			assertEquals(4, cache.getHitCount());
+
+			reasoner.resetReasoner();
+			assertEquals(0, cache.size());
+		}
+	}
+
+	@Test
+	public void setTermCacheCapacity_replacesCache() throws IOException {
+		try (final VLogReasoner reasoner = new VLogReasoner(new KnowledgeBase())) {
+			reasoner.setTermCacheCapacity(7);
+			assertEquals(7, reasoner.getTermCache().getCapacity());
+		}
+	}
+
+}